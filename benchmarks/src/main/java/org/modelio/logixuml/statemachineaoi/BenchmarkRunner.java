@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the same arguments as the standard
+ * JMH runner, and always adds the GC profiler so allocation rates are reported
+ * with every result.
+ */
+public final class BenchmarkRunner {
+    /**
+     * Prevents instantiation.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args JMH command line arguments.
+     * @throws CommandLineOptionException If the arguments are invalid.
+     * @throws RunnerException            If a benchmark failed.
+     * @throws IOException                If the benchmark list could not be read.
+     */
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        final CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.shouldHelp() || cmdOptions.shouldList() || cmdOptions.shouldListProfilers()) {
+            // Informational requests are handled by the standard runner.
+            Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder().parent(cmdOptions).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.statemachineaoi;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the bit set condition representation against the equivalent sets of
+ * boxed state identifiers it replaced. Each operation builds a list of
+ * conditions, each energizing the entry, do, and exit actions of a few states,
+ * then compares every condition to its neighbor as condition deduplication
+ * would.
+ * <p>
+ * The normalized allocation rate reported by the GC profiler, divided by the
+ * number of conditions, approximates the memory occupied by a condition in
+ * each representation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConditionBenchmark {
+    /**
+     * Total number of states.
+     */
+    @Param({ "100", "1000" })
+    public int states;
+
+    /**
+     * Number of conditions built by each operation.
+     */
+    @Param({ "1000" })
+    public int conditions;
+
+    /**
+     * Number of states added to each action of a condition.
+     */
+    @Param({ "4" })
+    public int statesPerAction;
+
+    /**
+     * Source state machine defining the state identifiers.
+     */
+    private ModelSnapshot model;
+
+    /**
+     * Builds the synthetic state machine.
+     */
+    @Setup
+    public void setUp() {
+        model = SyntheticStateMachine.build(states, 1, 1, TransitionScanMode.SINGLE);
+    }
+
+    /**
+     * Builds and compares conditions using the bit set representation.
+     *
+     * @return Number of conditions equal to their neighbor.
+     */
+    @Benchmark
+    public int bitSet() {
+        final List<Condition> list = new ArrayList<>(conditions);
+        for (int i = 0; i < conditions; i++) {
+            final Condition c = new Condition(model);
+            for (int j = 0; j < statesPerAction; j++) {
+                c.addEntryAction(stateId(i, j));
+                c.addDoAction(stateId(i + 1, j));
+                c.addExitAction(stateId(i + 2, j));
+            }
+            list.add(c);
+        }
+        return countEqualNeighbors(list);
+    }
+
+    /**
+     * Builds and compares conditions using three sets of boxed identifiers.
+     *
+     * @return Number of conditions equal to their neighbor.
+     */
+    @Benchmark
+    public int hashSet() {
+        final List<List<Set<Integer>>> list = new ArrayList<>(conditions);
+        for (int i = 0; i < conditions; i++) {
+            final List<Set<Integer>> c = new ArrayList<>(3);
+            for (int action = 0; action < 3; action++) {
+                final Set<Integer> set = new HashSet<>();
+                for (int j = 0; j < statesPerAction; j++) {
+                    set.add(stateId(i + action, j));
+                }
+                c.add(set);
+            }
+            list.add(c);
+        }
+        return countEqualNeighbors(list);
+    }
+
+    /**
+     * Selects a pseudo-random state identifier for a given condition.
+     *
+     * @param condition Condition index.
+     * @param n         Index of the state within the action.
+     * @return State identifier.
+     */
+    private int stateId(final int condition, final int n) {
+        return ((condition * 31) + (n * 257)) % states;
+    }
+
+    /**
+     * Compares every condition to the one before it.
+     *
+     * @param list Conditions to compare.
+     * @return Number of conditions equal to their neighbor.
+     */
+    private static int countEqualNeighbors(final List<?> list) {
+        int equal = 0;
+        for (int i = 1; i < list.size(); i++) {
+            if (list.get(i).equals(list.get(i - 1))) {
+                equal++;
+            }
+        }
+        return equal;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.statemachineaoi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap retained by the structured text of a large synthetic state
+ * machine, with and without line pooling. The unpooled variant holds a distinct
+ * copy of every line, which is how lines were held before pooling.
+ * <p>
+ * Retained heap is sampled after garbage collection and reported in the
+ * retainedKiB secondary result. JMH sums event counters across iterations, so
+ * a single iteration is measured in a single fork.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinePoolBenchmark {
+    /**
+     * Receives the measured heap footprint of each operation.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        /**
+         * Heap retained by the lines, in KiB.
+         */
+        public long retainedKiB;
+    }
+
+    /**
+     * Maximum number of garbage collections requested when sampling the heap.
+     */
+    private static final int MAX_COLLECTIONS = 10;
+
+    /**
+     * Total number of states.
+     */
+    @Param({ "1000" })
+    public int states;
+
+    /**
+     * Number of state nesting levels.
+     */
+    @Param({ "1" })
+    public int depth;
+
+    /**
+     * Number of transitions leaving each state.
+     */
+    @Param({ "8" })
+    public int eventsPerState;
+
+    /**
+     * Source state machine.
+     */
+    private ModelSnapshot model;
+
+    /**
+     * Builds the synthetic state machine.
+     */
+    @Setup
+    public void setUp() {
+        model = SyntheticStateMachine.build(states, depth, eventsPerState, TransitionScanMode.SINGLE);
+    }
+
+    /**
+     * Generates the AOI and retains its pooled lines.
+     *
+     * @param footprint Receives the retained heap.
+     * @return The lines.
+     * @throws ExportException If the synthetic state machine is invalid.
+     */
+    @Benchmark
+    public List<String> pooled(final Footprint footprint) throws ExportException {
+        final long before = usedHeap();
+        final List<String> lines = generate();
+        footprint.retainedKiB = (usedHeap() - before) / 1024;
+        return lines;
+    }
+
+    /**
+     * Generates the AOI and retains a distinct copy of every line.
+     *
+     * @param footprint Receives the retained heap.
+     * @return The copied lines.
+     * @throws ExportException If the synthetic state machine is invalid.
+     */
+    @Benchmark
+    public List<String> unpooled(final Footprint footprint) throws ExportException {
+        final long before = usedHeap();
+        final List<String> copies = copy(generate());
+        footprint.retainedKiB = (usedHeap() - before) / 1024;
+        return copies;
+    }
+
+    /**
+     * Generates the AOI and collects the lines of every routine. The AOI itself
+     * is unreachable once this method returns, leaving only the lines.
+     *
+     * @return The lines.
+     * @throws ExportException If the synthetic state machine is invalid.
+     */
+    private List<String> generate() throws ExportException {
+        final AddOnInstruction aoi = new StateMachineAoi(model).getAddOnInstruction();
+        final List<String> lines = new ArrayList<>();
+        for (final ScanModeRoutine r : ScanModeRoutine.values()) {
+            lines.addAll(aoi.getStructuredTextLines(r));
+        }
+        return lines;
+    }
+
+    /**
+     * Copies every line into a distinct instance.
+     *
+     * @param lines The lines to copy.
+     * @return The copies.
+     */
+    private static List<String> copy(final List<String> lines) {
+        final List<String> copies = new ArrayList<>(lines.size());
+        for (final String l : lines) {
+            copies.add(new String(l.toCharArray()));
+        }
+        return copies;
+    }
+
+    /**
+     * Approximates the amount of heap currently in use. Garbage collection is
+     * repeated until the used heap stops decreasing, as a single request may not
+     * reclaim every unreachable object.
+     *
+     * @return Used heap, in bytes.
+     */
+    private static long usedHeap() {
+        final Runtime rt = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < MAX_COLLECTIONS; i++) {
+            System.gc();
+            final long current = rt.totalMemory() - rt.freeMemory();
+            if (current >= used) {
+                break;
+            }
+            used = current;
+        }
+        return used;
+    }
+}
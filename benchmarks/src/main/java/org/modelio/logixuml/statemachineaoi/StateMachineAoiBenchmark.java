@@ -0,0 +1,227 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures each stage of AOI generation with synthetic state machines: building
+ * the complete AOI, collecting the transitions of every state, generating the
+ * condition variable advance logic, adding structured text lines, and writing
+ * the L5X content.
+ * <p>
+ * This class is in the generator's package so the internal stages can be
+ * measured individually.
+ * <p>
+ * The export benchmark measures the complete generation and serialization of an
+ * AOI; how it scales with the number of states can be measured with flat state
+ * machines, e.g.:
+ * <code>-p states=500,1000,2000 -p depth=1 -p eventsPerState=1 -p scanMode=SINGLE</code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StateMachineAoiBenchmark {
+    /**
+     * Total number of states.
+     */
+    @Param({ "16", "256" })
+    public int states;
+
+    /**
+     * Number of state nesting levels.
+     */
+    @Param({ "1", "4" })
+    public int depth;
+
+    /**
+     * Number of transitions leaving each state.
+     */
+    @Param({ "1", "4" })
+    public int eventsPerState;
+
+    /**
+     * Transition scan mode, by TransitionScanMode constant name.
+     */
+    @Param({ "SINGLE", "DUAL", "SEQUENTIAL" })
+    public String scanMode;
+
+    /**
+     * Source state machine.
+     */
+    private ModelSnapshot model;
+
+    /**
+     * Every state of the state machine.
+     */
+    private List<AoiState> aoiStates;
+
+    /**
+     * Transition generator for the selected scan mode.
+     */
+    private TransitionConditionsFactory transitionFactory;
+
+    /**
+     * Condition identifier sequence of the generated AOI.
+     */
+    private ConditionIdSequence conditionIds;
+
+    /**
+     * Generated AOI.
+     */
+    private AddOnInstruction aoi;
+
+    /**
+     * Structured text content of the generated AOI.
+     */
+    private Map<ScanModeRoutine, List<String>> routines;
+
+    /**
+     * Destination for L5X content that discards everything written.
+     */
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    };
+
+    /**
+     * Builds the synthetic state machine and a reference AOI.
+     *
+     * @throws ExportException If the synthetic state machine is invalid.
+     */
+    @Setup
+    public void setUp() throws ExportException {
+        final TransitionScanMode mode = TransitionScanMode.valueOf(scanMode);
+        model = SyntheticStateMachine.build(states, depth, eventsPerState, mode);
+        transitionFactory = new TransitionConditionsFactory(mode);
+
+        aoiStates = new ArrayList<>();
+        for (int id = 0; id < model.getStateCount(); id++) {
+            aoiStates.add(new AoiState(model, id));
+        }
+
+        final StateMachineAoi reference = new StateMachineAoi(model);
+        conditionIds = reference.getConditionIdSequence();
+        aoi = reference.getAddOnInstruction();
+        routines = new EnumMap<>(ScanModeRoutine.class);
+        for (final ScanModeRoutine routine : ScanModeRoutine.values()) {
+            routines.put(routine, aoi.getStructuredTextLines(routine));
+        }
+    }
+
+    /**
+     * Generates the complete AOI.
+     *
+     * @return The AOI.
+     * @throws ExportException If the synthetic state machine is invalid.
+     */
+    @Benchmark
+    public StateMachineAoi construct() throws ExportException {
+        return new StateMachineAoi(model);
+    }
+
+    /**
+     * Collects the transitions available from every state.
+     *
+     * @param bh Consumer of the transition maps.
+     * @throws ExportException If the synthetic state machine is invalid.
+     */
+    @Benchmark
+    public void getTransitions(final Blackhole bh) throws ExportException {
+        for (final AoiState state : aoiStates) {
+            bh.consume(state.getTransitions(transitionFactory));
+        }
+    }
+
+    /**
+     * Generates the condition variable advance logic.
+     *
+     * @return The structured text lines.
+     */
+    @Benchmark
+    public List<String> advance() {
+        return conditionIds.advance("cv");
+    }
+
+    /**
+     * Adds the structured text of every routine to a new AOI, one line at a time.
+     *
+     * @return The AOI.
+     * @throws ExportException If the AOI name is invalid.
+     */
+    @Benchmark
+    public AddOnInstruction addStructuredTextLine() throws ExportException {
+        final AddOnInstruction target = new AddOnInstruction(aoi.getName());
+        for (final Map.Entry<ScanModeRoutine, List<String>> e : routines.entrySet()) {
+            for (final String line : e.getValue()) {
+                target.addStructuredTextLine(e.getKey(), line);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Generates the complete AOI and writes its L5X content.
+     *
+     * @throws ExportException If the AOI could not be generated or written.
+     */
+    @Benchmark
+    public void export() throws ExportException {
+        new StateMachineAoi(model).getAddOnInstruction().write(DISCARD);
+    }
+
+    /**
+     * Writes the L5X content of the generated AOI.
+     *
+     * @throws ExportException If the content could not be written.
+     */
+    @Benchmark
+    public void write() throws ExportException {
+        aoi.write(DISCARD);
+    }
+}
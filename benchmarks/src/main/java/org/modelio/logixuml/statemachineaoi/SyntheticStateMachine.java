@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds synthetic state machine snapshots for benchmarks, sized by the number
+ * of states, the depth of state nesting, and the number of events each state
+ * responds to.
+ * <p>
+ * States are divided evenly into levels of nesting. The top level is in the
+ * state machine's region, and the first state of every level is a composite
+ * state containing the next level. Each state has one outgoing transition per
+ * event, targeting the states following it in definition order, so transitions
+ * routinely cross hierarchy levels as they would in a real model.
+ */
+final class SyntheticStateMachine {
+    /**
+     * Metaclass of every transition target.
+     */
+    private static final String STATE_TYPE = "Standard.State";
+
+    /**
+     * Prevents instantiation.
+     */
+    private SyntheticStateMachine() {
+    }
+
+    /**
+     * Builds a state machine snapshot.
+     *
+     * @param states         Total number of states.
+     * @param depth          Number of nesting levels; limited to the number of
+     *                       states.
+     * @param eventsPerState Number of transitions leaving each state, each
+     *                       triggered by a different event; limited to one less
+     *                       than the number of states.
+     * @param scanMode       Transition scan mode.
+     * @return The state machine snapshot.
+     */
+    static ModelSnapshot build(final int states, final int depth, final int eventsPerState,
+            final TransitionScanMode scanMode) {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("eventQueueSize", "16");
+        properties.put("transitionScanMode", scanMode.name());
+        final ModelSnapshot.Builder builder = new ModelSnapshot.Builder("sm", "synthetic", properties);
+
+        final int levels = Math.max(1, Math.min(depth, states));
+        final int perLevel = (states + levels - 1) / levels;
+
+        // Create all states, nesting each level in the first state of the level
+        // above.
+        final Object[] elements = new Object[states];
+        int parent = ModelSnapshot.STATE_MACHINE;
+        for (int i = 0; i < states; i++) {
+            if ((i > 0) && ((i % perLevel) == 0)) {
+                parent = i - perLevel;
+            }
+            elements[i] = "s" + i;
+            builder.addState(elements[i], "s" + i, parent);
+        }
+
+        // Every container has one region with an initial transition to the first
+        // state of its level.
+        for (int first = 0; first < states; first += perLevel) {
+            final int container = (first == 0) ? ModelSnapshot.STATE_MACHINE : first - perLevel;
+            builder.setRegions(container, 1, "r" + first);
+            final int initial = builder.addInitial(container, "i" + first);
+            builder.addInitialTransition(container, initial, "it" + first, elements[first], STATE_TYPE, "");
+        }
+
+        final int events = Math.min(eventsPerState, states - 1);
+        for (int i = 0; i < states; i++) {
+            for (int e = 0; e < events; e++) {
+                builder.addTransition("t" + i + "_" + e, i, elements[(i + e + 1) % states], STATE_TYPE, "e" + e);
+            }
+        }
+
+        return builder.build();
+    }
+}
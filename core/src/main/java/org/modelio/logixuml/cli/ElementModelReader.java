@@ -0,0 +1,181 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.modelio.logixuml.statemachineaoi.ExportException;
+import org.modelio.logixuml.statemachineaoi.ModelSnapshot;
+
+/**
+ * Reads a state machine from {@link ModelElement} objects into a
+ * {@link ModelSnapshot}, visiting the model in the same order as a Modelio
+ * session so identical models yield identical AOIs regardless of their source.
+ */
+final class ElementModelReader {
+    /**
+     * Qualified metaclass name of states.
+     */
+    static final String STATE = "Standard.State";
+
+    /**
+     * Qualified metaclass name of initial pseudo states.
+     */
+    static final String INITIAL = "Standard.InitialPseudoState";
+
+    /**
+     * Dependencies forming the composition graph, in the order children are
+     * visited.
+     */
+    private static final String[] COMPOSITION = { "Top", "OwnedRegion", "Sub", "EntryPoint", "ExitPoint",
+            "ConnectionPoint", "Internal", "OutGoing", "Product", "Descriptor" };
+
+    /**
+     * Metaclasses that may be present within a state machine; mirrors the element
+     * types accepted in a Modelio session.
+     */
+    private static final Set<String> SUPPORTED = new HashSet<>(Arrays.asList(STATE, INITIAL, "Standard.Note",
+            "Standard.StateMachineDiagram", "Standard.Region", "Standard.Transition",
+            "Infrastructure.TypedPropertyTable"));
+
+    /**
+     * Snapshot being assembled.
+     */
+    private final ModelSnapshot.Builder builder;
+
+    /**
+     * State elements in identifier order.
+     */
+    private final List<ModelElement> states = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param builder Snapshot being assembled.
+     */
+    private ElementModelReader(final ModelSnapshot.Builder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Reads a state machine into a new snapshot.
+     *
+     * @param sm         State machine element.
+     * @param name       Name to assign to the state machine.
+     * @param properties Stereotype property values keyed by property name.
+     * @return The snapshot.
+     * @throws ExportException If the state machine contains an unsupported UML
+     *                         element type or an incomplete transition.
+     */
+    static ModelSnapshot read(final ModelElement sm, final String name, final Map<String, String> properties)
+            throws ExportException {
+        final ElementModelReader reader = new ElementModelReader(new ModelSnapshot.Builder(sm, name, properties));
+
+        // States are numbered first so transitions can refer to their targets by
+        // identifier.
+        reader.collectStates(sm, ModelSnapshot.STATE_MACHINE);
+
+        reader.readRegions(ModelSnapshot.STATE_MACHINE, sm.getDependency("Top"));
+        for (int id = 0; id < reader.states.size(); id++) {
+            final ModelElement state = reader.states.get(id);
+            reader.readRegions(id, state.getDependency("OwnedRegion"));
+            for (final ModelElement t : state.getDependency("OutGoing")) {
+                final ModelElement target = getTarget(t);
+                reader.builder.addTransition(t, id, target, target.getMetaclass(), t.getAttribute("ReceivedEvents"));
+            }
+        }
+
+        return reader.builder.build();
+    }
+
+    /**
+     * Recursively visits the composition graph, numbering states in depth-first
+     * order and verifying every element type is supported.
+     *
+     * @param owner  Element whose children will be visited.
+     * @param parent Identifier of the state enclosing the owner's children.
+     * @throws ExportException If an unsupported UML element type was found.
+     */
+    private void collectStates(final ModelElement owner, final int parent) throws ExportException {
+        for (final String dependency : COMPOSITION) {
+            for (final ModelElement e : owner.getDependency(dependency)) {
+                if (!SUPPORTED.contains(e.getMetaclass())) {
+                    throw new ExportException(
+                            String.format("Unsupported UML element type: %s", e.getMetaclassName()), e);
+                }
+
+                int childParent = parent;
+                if (e.getMetaclass().equals(STATE)) {
+                    childParent = builder.addState(e, e.getAttribute("Name"), parent);
+                    states.add(e);
+                }
+
+                collectStates(e, childParent);
+            }
+        }
+    }
+
+    /**
+     * Reads the regions owned by a state or the state machine, and the initial
+     * pseudo states within the first region.
+     *
+     * @param container State identifier, or STATE_MACHINE.
+     * @param regions   Regions owned by the container.
+     * @throws ExportException If an initial transition has no target.
+     */
+    private void readRegions(final int container, final List<ModelElement> regions) throws ExportException {
+        if (regions.isEmpty()) {
+            return;
+        }
+
+        builder.setRegions(container, regions.size(), regions.get(0));
+        for (final ModelElement i : regions.get(0).getDependency("Sub")) {
+            if (i.getMetaclass().equals(INITIAL)) {
+                final int initial = builder.addInitial(container, i);
+                for (final ModelElement t : i.getDependency("OutGoing")) {
+                    final ModelElement target = getTarget(t);
+                    builder.addInitialTransition(container, initial, t, target, target.getMetaclass(),
+                            t.getAttribute("ReceivedEvents"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Acquires the target of a transition.
+     *
+     * @param transition The transition.
+     * @return The target vertex.
+     * @throws ExportException If the transition does not have exactly one target.
+     */
+    private static ModelElement getTarget(final ModelElement transition) throws ExportException {
+        final List<ModelElement> target = transition.getDependency("Target");
+        if (target.size() != 1) {
+            throw new ExportException("Transition must have a single target.", transition);
+        }
+        return target.get(0);
+    }
+}
@@ -0,0 +1,487 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.modelio.logixuml.l5x.WriterBackend;
+import org.modelio.logixuml.statemachineaoi.BatchExport;
+import org.modelio.logixuml.statemachineaoi.ExportCache;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+import org.modelio.logixuml.statemachineaoi.ModelSnapshot;
+import org.modelio.logixuml.statemachineaoi.StateMachineAoi;
+
+/**
+ * Command line entry point exporting state machines from model files to AOIs
+ * without Modelio. Modelio pattern archives(.umlt) and UML2 XMI files(.xmi or
+ * .uml) are accepted, and directories are searched for files of these types.
+ * <p>
+ * Pattern parameters in state machine names, i.e. $(name), are replaced with
+ * the pattern name. With the --variants option these state machines are
+ * instead exported once for each transition scan mode, named as in the PLC
+ * unit test setup.
+ */
+public final class HeadlessExport {
+    /**
+     * Exit status if every state machine was exported.
+     */
+    static final int EXIT_SUCCESS = 0;
+
+    /**
+     * Exit status if one or more state machines could not be exported.
+     */
+    static final int EXIT_EXPORT_ERROR = 1;
+
+    /**
+     * Exit status for invalid command line arguments.
+     */
+    static final int EXIT_USAGE = 2;
+
+    /**
+     * Pattern parameter replaced with the name of each state machine instance.
+     */
+    private static final String NAME_PARAMETER = "$(name)";
+
+    /**
+     * Transition scan modes and the suffix appended to the name of each variant,
+     * matching the PLC unit test setup script.
+     */
+    private static final String[][] SCAN_MODE_VARIANTS = { { "single", "1" }, { "dual", "2" },
+            { "sequential", "s" } };
+
+    /**
+     * Command line usage summary.
+     */
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "usage: logixuml [options] file|directory...",
+            "  -o, --output DIR      Directory receiving the L5X files; default is the current directory.",
+            "  -P KEY=VALUE          Stereotype property applied to every state machine, e.g.",
+            "                        -P eventQueueSize=4. Overrides values defined in XMI files.",
+            "  -j, --threads N       Number of AOIs exported simultaneously; default is 1.",
+            "      --writer dom|stax L5X writer backend; default is dom. Both write identical files.",
+            "      --variants        Export parameterized patterns once per transition scan mode.",
+            "      --no-cache        Always generate AOIs, ignoring previous exports.");
+
+    /**
+     * Target directory for the exported files.
+     */
+    private String output = ".";
+
+    /**
+     * Stereotype property values given on the command line.
+     */
+    private final Map<String, String> properties = new HashMap<>();
+
+    /**
+     * Maximum number of AOIs to generate and write simultaneously.
+     */
+    private int threads = 1;
+
+    /**
+     * Backend used to generate the L5X files.
+     */
+    private WriterBackend writer = WriterBackend.DOM;
+
+    /**
+     * Enables exporting parameterized patterns for each scan mode.
+     */
+    private boolean variants;
+
+    /**
+     * Enables reuse of previous exports.
+     */
+    private boolean cache = true;
+
+    /**
+     * Model files to export.
+     */
+    private final List<Path> inputs = new ArrayList<>();
+
+    /**
+     * Receives progress messages.
+     */
+    private final PrintStream out;
+
+    /**
+     * Receives error messages.
+     */
+    private final PrintStream err;
+
+    /**
+     * Constructor.
+     *
+     * @param out Target for progress messages.
+     * @param err Target for error messages.
+     */
+    private HeadlessExport(final PrintStream out, final PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(final String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Executes an export.
+     *
+     * @param args Command line arguments.
+     * @param out  Target for progress messages.
+     * @param err  Target for error messages.
+     * @return Process exit status.
+     */
+    static int run(final String[] args, final PrintStream out, final PrintStream err) {
+        final HeadlessExport export = new HeadlessExport(out, err);
+        try {
+            export.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        return export.export();
+    }
+
+    /**
+     * Interprets the command line arguments.
+     *
+     * @param args Command line arguments.
+     * @throws IllegalArgumentException If an argument is invalid.
+     */
+    private void parseArguments(final String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "-o":
+            case "--output":
+                output = getValue(args, ++i);
+                break;
+
+            case "-P":
+                final String property = getValue(args, ++i);
+                final int equals = property.indexOf('=');
+                if ((equals < 1) || !ModelSnapshot.getPropertyNames().contains(property.substring(0, equals))) {
+                    throw new IllegalArgumentException("Undefined property: " + property);
+                }
+                properties.put(property.substring(0, equals), property.substring(equals + 1));
+                break;
+
+            case "-j":
+            case "--threads":
+                try {
+                    threads = Integer.parseInt(getValue(args, ++i));
+                } catch (NumberFormatException e) {
+                    threads = 0;
+                }
+                if (threads < 1) {
+                    throw new IllegalArgumentException("Invalid thread count.");
+                }
+                break;
+
+            case "--writer":
+                final String backend = getValue(args, ++i);
+                try {
+                    writer = WriterBackend.valueOf(backend.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown writer: " + backend);
+                }
+                break;
+
+            case "--variants":
+                variants = true;
+                break;
+
+            case "--no-cache":
+                cache = false;
+                break;
+
+            default:
+                if (args[i].startsWith("-")) {
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("No input files.");
+        }
+    }
+
+    /**
+     * Acquires the value following an option.
+     *
+     * @param args  Command line arguments.
+     * @param index Index of the value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is missing.
+     */
+    private static String getValue(final String[] args, final int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    /**
+     * Reads every input file and exports the state machines.
+     *
+     * @return Process exit status.
+     */
+    private int export() {
+        try {
+            Files.createDirectories(Paths.get(output));
+        } catch (IOException e) {
+            err.println("Error creating output directory: " + e.getMessage());
+            return EXIT_EXPORT_ERROR;
+        }
+
+        final Map<String, ExportException> errors = new LinkedHashMap<>();
+        final Map<String, ModelSnapshot> snapshots = new LinkedHashMap<>();
+        for (final Path file : findModelFiles(errors)) {
+            read(file, snapshots, errors);
+        }
+
+        final ExportCache exportCache = getCache();
+        final Map<String, ModelSnapshot> changed = new LinkedHashMap<>();
+        int unchanged = 0;
+        for (final Map.Entry<String, ModelSnapshot> e : snapshots.entrySet()) {
+            try {
+                if ((exportCache != null) && exportCache.restore(e.getValue())) {
+                    unchanged++;
+                } else {
+                    changed.put(e.getKey(), e.getValue());
+                }
+            } catch (ExportException ex) {
+                errors.put(e.getKey(), ex);
+            }
+        }
+
+        final Map<String, StateMachineAoi> aois = new ConcurrentHashMap<>();
+        errors.putAll(new BatchExport(threads, writer).export(changed, output, new BatchExport.Monitor() {
+            @Override
+            public boolean isCanceled() {
+                return false;
+            }
+
+            @Override
+            public void exported(final String name, final StateMachineAoi aoi) {
+                if (aoi != null) {
+                    aois.put(name, aoi);
+                }
+            }
+        }));
+
+        int written = 0;
+        for (final String name : changed.keySet()) {
+            if (!errors.containsKey(name)) {
+                final StateMachineAoi aoi = aois.get(name);
+                written++;
+                out.println(aoi.getScanCostReport());
+                if (exportCache != null) {
+                    try {
+                        exportCache.store(aoi);
+                    } catch (ExportException e) {
+                        err.println(aoi.getName() + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        for (final Map.Entry<String, ExportException> e : errors.entrySet()) {
+            err.println(e.getKey() + ": " + describe(e.getValue()));
+        }
+        out.println(String.format("%d exported, %d unchanged, %d failed.", written, unchanged, errors.size()));
+        return errors.isEmpty() ? EXIT_SUCCESS : EXIT_EXPORT_ERROR;
+    }
+
+    /**
+     * Expands the input paths into the list of model files, searching
+     * directories for supported file types.
+     *
+     * @param errors Target for exceptions, keyed by path, raised by paths that
+     *               could not be searched.
+     * @return Model files in command line order; files within a directory are
+     *         sorted by name.
+     */
+    private List<Path> findModelFiles(final Map<String, ExportException> errors) {
+        final List<Path> files = new ArrayList<>();
+        for (final Path input : inputs) {
+            if (!Files.isDirectory(input)) {
+                files.add(input);
+                continue;
+            }
+
+            final List<Path> found = new ArrayList<>();
+            try (DirectoryStream<Path> dir = Files.newDirectoryStream(input)) {
+                for (final Path file : dir) {
+                    if (Files.isRegularFile(file) && (getFileType(file) != null)) {
+                        found.add(file);
+                    }
+                }
+            } catch (IOException e) {
+                errors.put(input.toString(), new ExportException("Error reading directory.", e));
+            }
+            found.sort(null);
+            files.addAll(found);
+        }
+        return files;
+    }
+
+    /**
+     * Reads the state machines defined in a model file.
+     *
+     * @param file      The model file.
+     * @param snapshots Target for the state machines, keyed by name.
+     * @param errors    Target for exceptions, keyed by state machine name or
+     *                  file path if the file could not be read.
+     */
+    private void read(final Path file, final Map<String, ModelSnapshot> snapshots,
+            final Map<String, ExportException> errors) {
+        final String type = getFileType(file);
+        final List<ModelElement> stateMachines;
+        try {
+            if (type == null) {
+                throw new ExportException("Unsupported file type.");
+            }
+            stateMachines = type.equals("umlt") ? PatternReader.read(file) : XmiReader.read(file);
+        } catch (ExportException e) {
+            errors.put(file.toString(), e);
+            return;
+        }
+
+        final String fileName = file.getFileName().toString();
+        final String patternName = fileName.substring(0, fileName.lastIndexOf('.'));
+        for (final ModelElement sm : stateMachines) {
+            final String name = Objects.toString(sm.getAttribute("Name"), "");
+            if (variants && name.contains(NAME_PARAMETER)) {
+                for (final String[] variant : SCAN_MODE_VARIANTS) {
+                    final Map<String, String> values = getProperties(sm);
+                    values.put("transitionScanMode", variant[0]);
+                    read(sm, name.replace(NAME_PARAMETER, patternName + variant[1]), values, snapshots, errors);
+                }
+            } else {
+                read(sm, name.replace(NAME_PARAMETER, patternName), getProperties(sm), snapshots, errors);
+            }
+        }
+    }
+
+    /**
+     * Reads a single state machine into a snapshot. A name already given to
+     * another state machine, whether or not it was read successfully, fails both,
+     * so nothing is exported under an ambiguous name.
+     *
+     * @param sm        The state machine.
+     * @param name      Name to assign to the state machine.
+     * @param values    Stereotype property values.
+     * @param snapshots Target for the snapshot, keyed by name.
+     * @param errors    Target for exceptions, keyed by state machine name.
+     */
+    private static void read(final ModelElement sm, final String name, final Map<String, String> values,
+            final Map<String, ModelSnapshot> snapshots, final Map<String, ExportException> errors) {
+        try {
+            if (snapshots.containsKey(name) || errors.containsKey(name)) {
+                snapshots.remove(name);
+                throw new ExportException("Duplicate state machine name.");
+            }
+            snapshots.put(name, ElementModelReader.read(sm, name, values));
+        } catch (ExportException e) {
+            errors.put(name, e);
+        }
+    }
+
+    /**
+     * Combines the stereotype property values defined in the model with those
+     * given on the command line.
+     *
+     * @param sm The state machine.
+     * @return Property values keyed by property name.
+     */
+    private Map<String, String> getProperties(final ModelElement sm) {
+        final Map<String, String> values = new HashMap<>(sm.getProperties());
+        values.putAll(properties);
+        return values;
+    }
+
+    /**
+     * Creates the export cache, if enabled. The version is absent when not
+     * running from the packaged jar, e.g., from an IDE; the cache is still used
+     * in that case, as its entries are also keyed by the generator code.
+     *
+     * @return The export cache, or null if disabled.
+     */
+    private ExportCache getCache() {
+        final String version = HeadlessExport.class.getPackage().getImplementationVersion();
+        return cache ? new ExportCache(output, (version != null) ? version : "") : null;
+    }
+
+    /**
+     * Identifies the type of a model file from its extension.
+     *
+     * @param file The model file.
+     * @return umlt for pattern archives, xmi for XMI files, or null if the type is
+     *         not supported.
+     */
+    private static String getFileType(final Path file) {
+        final String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".umlt")) {
+            return "umlt";
+        } else if (name.endsWith(".xmi") || name.endsWith(".uml")) {
+            return "xmi";
+        }
+        return null;
+    }
+
+    /**
+     * Formats an exception for an error message.
+     *
+     * @param e The exception.
+     * @return The message, followed by the source model element and underlying
+     *         cause if available.
+     */
+    private static String describe(final ExportException e) {
+        final StringBuilder msg = new StringBuilder(e.getMessage());
+        if (e.getModelObject() != null) {
+            msg.append(" (").append(e.getModelObject()).append(')');
+        }
+        if (e.getCause() != null) {
+            msg.append(": ").append(e.getCause().getMessage());
+        }
+        return msg.toString();
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.cli;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool-independent representation of a UML model element read from a model
+ * file. Elements are described with Modelio metaclass, attribute, and
+ * dependency names, so every file format is interpreted the same way as a
+ * Modelio session.
+ */
+final class ModelElement {
+    /**
+     * Qualified metaclass name, e.g. Standard.State.
+     */
+    private final String metaclass;
+
+    /**
+     * Attribute values keyed by attribute name.
+     */
+    private final Map<String, String> attributes = new HashMap<>();
+
+    /**
+     * Referenced elements keyed by dependency name, each in model order.
+     */
+    private final Map<String, List<ModelElement>> dependencies = new HashMap<>();
+
+    /**
+     * Stereotype property values keyed by property name.
+     */
+    private final Map<String, String> properties = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param metaclass Qualified metaclass name.
+     */
+    ModelElement(final String metaclass) {
+        this.metaclass = metaclass;
+    }
+
+    /**
+     * Getter method for the metaclass.
+     *
+     * @return Qualified metaclass name.
+     */
+    String getMetaclass() {
+        return metaclass;
+    }
+
+    /**
+     * Getter method for the short metaclass name.
+     *
+     * @return Metaclass name without the metamodel prefix.
+     */
+    String getMetaclassName() {
+        return metaclass.substring(metaclass.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Acquires an attribute value.
+     *
+     * @param attribute Attribute name.
+     * @return The value, or null if the attribute was not defined.
+     */
+    String getAttribute(final String attribute) {
+        return attributes.get(attribute);
+    }
+
+    /**
+     * Defines an attribute value.
+     *
+     * @param attribute Attribute name.
+     * @param value     New value.
+     */
+    void setAttribute(final String attribute, final String value) {
+        attributes.put(attribute, value);
+    }
+
+    /**
+     * Acquires the elements referenced through a dependency.
+     *
+     * @param dependency Dependency name.
+     * @return Read-only list of referenced elements, which is empty if none have
+     *         been added.
+     */
+    List<ModelElement> getDependency(final String dependency) {
+        final List<ModelElement> targets = dependencies.get(dependency);
+        return (targets == null) ? Collections.emptyList() : Collections.unmodifiableList(targets);
+    }
+
+    /**
+     * Appends an element to a dependency.
+     *
+     * @param dependency Dependency name.
+     * @param target     Referenced element.
+     */
+    void addDependency(final String dependency, final ModelElement target) {
+        dependencies.computeIfAbsent(dependency, k -> new ArrayList<>()).add(target);
+    }
+
+    /**
+     * Getter method for the stereotype property values.
+     *
+     * @return Read-only map of property values keyed by property name.
+     */
+    Map<String, String> getProperties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * Defines a stereotype property value.
+     *
+     * @param property Property name.
+     * @param value    New value.
+     */
+    void setProperty(final String property, final String value) {
+        properties.put(property, value);
+    }
+
+    /**
+     * Describes the element for error messages.
+     *
+     * @return Metaclass and name of the element.
+     */
+    @Override
+    public String toString() {
+        final String name = getAttribute("Name");
+        return ((name == null) || name.isEmpty()) ? getMetaclassName() : getMetaclassName() + " " + name;
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.modelio.logixuml.statemachineaoi.ExportException;
+
+/**
+ * Reads state machines from Modelio pattern archives(.umlt files) without
+ * Modelio.
+ * <p>
+ * A pattern archive holds the generated Java source that Modelio executes to
+ * instantiate the pattern, consisting of one statement per line creating an
+ * element, setting an attribute, or adding a dependency. Only these statements
+ * are interpreted; the source is never compiled or executed. References to
+ * pattern parameters in attribute values are retained as the parameter name,
+ * e.g. $(name).
+ */
+final class PatternReader {
+    /**
+     * Archive entry holding the pattern source.
+     */
+    private static final String SOURCE_ENTRY = "Pattern.java";
+
+    /**
+     * Statement creating a new element, capturing the metamodel interface name.
+     */
+    private static final Pattern CREATE = Pattern
+            .compile("^this\\.elements\\.add\\(this\\.model\\.create\\(([\\w.]+)\\.class,");
+
+    /**
+     * Statement setting an attribute, capturing the element index, attribute
+     * name, and value expression.
+     */
+    private static final Pattern ATTRIBUTE = Pattern.compile("^this\\.elements\\.get\\((\\d+)\\)\\.mSet\\("
+            + "this\\.elements\\.get\\(\\d+\\)\\.getMClass\\(\\)\\.getAttribute\\(\"(\\w+)\"\\),(.*)\\);$");
+
+    /**
+     * Statement adding a dependency between two pattern elements, capturing the
+     * source index, dependency name, and target index.
+     */
+    private static final Pattern DEPENDENCY = Pattern.compile("^this\\.elements\\.get\\((\\d+)\\)\\.mGet\\("
+            + "this\\.elements\\.get\\(\\d+\\)\\.getMClass\\(\\)\\.getDependency\\(\"(\\w+)\"\\)\\)"
+            + "\\.add\\(elements\\.get\\((\\d+)\\)\\);$");
+
+    /**
+     * Pattern parameter reference within an attribute value expression.
+     */
+    private static final String PARAMETER_PREFIX = "(String) this.parameters.get(";
+
+    /**
+     * Prevents instantiation.
+     */
+    private PatternReader() {
+    }
+
+    /**
+     * Reads all state machines defined in a pattern archive.
+     *
+     * @param file The pattern archive.
+     * @return State machine elements in the order they are defined.
+     * @throws ExportException If the archive could not be read or does not
+     *                         contain a pattern.
+     */
+    static List<ModelElement> read(final Path file) throws ExportException {
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            final ZipEntry entry = zip.getEntry(SOURCE_ENTRY);
+            if (entry == null) {
+                throw new ExportException("Pattern source not found.");
+            }
+            try (BufferedReader source = new BufferedReader(
+                    new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8))) {
+                return parse(source);
+            }
+        } catch (IOException e) {
+            throw new ExportException("Error reading pattern file.", e);
+        }
+    }
+
+    /**
+     * Interprets the pattern source.
+     *
+     * @param source The pattern source.
+     * @return State machine elements in the order they are defined.
+     * @throws IOException     If the source could not be read.
+     * @throws ExportException If the source refers to an undefined element.
+     */
+    static List<ModelElement> parse(final BufferedReader source) throws IOException, ExportException {
+        final List<ModelElement> elements = new ArrayList<>();
+        final List<ModelElement> stateMachines = new ArrayList<>();
+
+        String line;
+        while ((line = source.readLine()) != null) {
+            line = line.trim();
+
+            final Matcher create = CREATE.matcher(line);
+            if (create.find()) {
+                final ModelElement e = new ModelElement(getMetaclass(create.group(1)));
+                elements.add(e);
+                if (e.getMetaclass().equals("Standard.StateMachine")) {
+                    stateMachines.add(e);
+                }
+                continue;
+            }
+
+            final Matcher attribute = ATTRIBUTE.matcher(line);
+            if (attribute.matches()) {
+                final String value = parseString(attribute.group(3));
+                if (value != null) {
+                    getElement(elements, attribute.group(1)).setAttribute(attribute.group(2), value);
+                }
+                continue;
+            }
+
+            final Matcher dependency = DEPENDENCY.matcher(line);
+            if (dependency.matches()) {
+                getElement(elements, dependency.group(1)).addDependency(dependency.group(2),
+                        getElement(elements, dependency.group(3)));
+            }
+        }
+
+        return stateMachines;
+    }
+
+    /**
+     * Converts a metamodel interface name to a qualified metaclass name.
+     *
+     * @param javaName Fully-qualified interface name.
+     * @return The qualified metaclass name.
+     */
+    private static String getMetaclass(final String javaName) {
+        final String simpleName = javaName.substring(javaName.lastIndexOf('.') + 1);
+        final String metamodel = javaName.contains(".infrastructure.properties.") ? "Infrastructure" : "Standard";
+        return metamodel + "." + simpleName;
+    }
+
+    /**
+     * Locates a previously created element.
+     *
+     * @param elements Elements in creation order.
+     * @param index    Element index from the pattern source.
+     * @return The element.
+     * @throws ExportException If the index does not refer to a created element.
+     */
+    private static ModelElement getElement(final List<ModelElement> elements, final String index)
+            throws ExportException {
+        final int i = Integer.parseInt(index);
+        if (i >= elements.size()) {
+            throw new ExportException("Pattern refers to an undefined element.");
+        }
+        return elements.get(i);
+    }
+
+    /**
+     * Evaluates an attribute value expression consisting of string literals and
+     * parameter references joined by the concatenation operator.
+     *
+     * @param expression The value expression.
+     * @return The string value, or null if the expression is not a string, e.g. a
+     *         boolean attribute.
+     */
+    static String parseString(final String expression) {
+        final StringBuilder value = new StringBuilder();
+        int i = 0;
+
+        while (true) {
+            i = skipSpaces(expression, i);
+            if (expression.startsWith("\"", i)) {
+                i = parseLiteral(expression, i, value);
+            } else if (expression.startsWith(PARAMETER_PREFIX, i)) {
+                i = parseLiteral(expression, i + PARAMETER_PREFIX.length(), value);
+                if (!expression.startsWith(")", i)) {
+                    return null;
+                }
+                i++;
+            } else {
+                return null;
+            }
+            if (i < 0) {
+                return null;
+            }
+
+            i = skipSpaces(expression, i);
+            if (i == expression.length()) {
+                return value.toString();
+            } else if (expression.charAt(i) != '+') {
+                return null;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Decodes a Java string literal.
+     *
+     * @param expression Expression containing the literal.
+     * @param start      Index of the opening quote.
+     * @param value      Target for the decoded characters.
+     * @return Index following the closing quote, or -1 if the literal is not
+     *         terminated or contains an unsupported escape sequence.
+     */
+    private static int parseLiteral(final String expression, final int start, final StringBuilder value) {
+        if (!expression.startsWith("\"", start)) {
+            return -1;
+        }
+
+        int i = start + 1;
+        while (i < expression.length()) {
+            final char c = expression.charAt(i++);
+            if (c == '"') {
+                return i;
+            } else if (c != '\\') {
+                value.append(c);
+            } else if (i < expression.length()) {
+                final char escape = expression.charAt(i++);
+                switch (escape) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case '"':
+                case '\'':
+                case '\\':
+                    value.append(escape);
+                    break;
+                case 'u':
+                    if (i + 4 > expression.length()) {
+                        return -1;
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(expression.substring(i, i + 4), 16));
+                    } catch (NumberFormatException e) {
+                        return -1;
+                    }
+                    i += 4;
+                    break;
+                default:
+                    return -1;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Advances past whitespace.
+     *
+     * @param s     Source string.
+     * @param start Index to begin searching.
+     * @return Index of the first non-whitespace character, or the string length.
+     */
+    private static int skipSpaces(final String s, final int start) {
+        int i = start;
+        while ((i < s.length()) && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.cli;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.modelio.logixuml.statemachineaoi.ExportException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads state machines from UML2 XMI files, such as those exported by Modelio.
+ * <p>
+ * Stereotype property values are read from any stereotype application
+ * referring to a state machine with a base_StateMachine attribute, e.g.
+ * &lt;LogixUML:StateMachineAoi base_StateMachine="..." eventQueueSize="4"/&gt;.
+ */
+final class XmiReader {
+    /**
+     * XMI element identifier attribute.
+     */
+    private static final String ID = "xmi:id";
+
+    /**
+     * XMI element reference attribute.
+     */
+    private static final String IDREF = "xmi:idref";
+
+    /**
+     * XMI element type attribute.
+     */
+    private static final String TYPE = "xmi:type";
+
+    /**
+     * Attribute of stereotype applications referring to the extended state
+     * machine.
+     */
+    private static final String STEREOTYPE_BASE = "base_StateMachine";
+
+    /**
+     * Vertices keyed by XMI identifier.
+     */
+    private final Map<String, ModelElement> vertices = new HashMap<>();
+
+    /**
+     * Named elements keyed by XMI identifier, for resolving trigger events.
+     */
+    private final Map<String, Element> identified = new HashMap<>();
+
+    /**
+     * Transition XMI elements awaiting resolution of their source and target,
+     * which may be defined after the transition.
+     */
+    private final Map<ModelElement, Element> transitions = new HashMap<>();
+
+    /**
+     * Order in which transitions were found.
+     */
+    private final List<ModelElement> transitionOrder = new ArrayList<>();
+
+    /**
+     * Prevents instantiation outside of read().
+     */
+    private XmiReader() {
+    }
+
+    /**
+     * Reads all state machines defined in an XMI file.
+     *
+     * @param file The XMI file.
+     * @return State machine elements in document order.
+     * @throws ExportException If the file could not be read or contains an
+     *                         invalid state machine.
+     */
+    static List<ModelElement> read(final Path file) throws ExportException {
+        final Document doc;
+        try {
+            final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            final DocumentBuilder builder = factory.newDocumentBuilder();
+
+            // Report errors only through the resulting exception.
+            builder.setErrorHandler(new DefaultHandler());
+
+            doc = builder.parse(file.toFile());
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new ExportException("Error reading XMI file.", e);
+        }
+
+        final XmiReader reader = new XmiReader();
+        final List<Element> smElements = new ArrayList<>();
+        reader.index(doc.getDocumentElement(), smElements);
+
+        final List<ModelElement> stateMachines = new ArrayList<>();
+        final Map<String, ModelElement> smIds = new HashMap<>();
+        for (final Element e : smElements) {
+            final ModelElement sm = new ModelElement("Standard.StateMachine");
+            sm.setAttribute("Name", e.getAttribute("name"));
+            for (final Element region : getChildren(e, "region")) {
+                sm.addDependency("Top", reader.readRegion(region));
+            }
+            stateMachines.add(sm);
+            smIds.put(e.getAttribute(ID), sm);
+        }
+
+        reader.resolveTransitions();
+        readStereotypes(doc.getDocumentElement(), smIds);
+        return stateMachines;
+    }
+
+    /**
+     * Recursively records identified elements and locates state machines.
+     *
+     * @param e             Element to visit.
+     * @param stateMachines Target for state machine elements.
+     */
+    private void index(final Element e, final List<Element> stateMachines) {
+        if (e.hasAttribute(ID)) {
+            identified.put(e.getAttribute(ID), e);
+        }
+        if (getType(e).equals("StateMachine")) {
+            stateMachines.add(e);
+        }
+        for (final Element child : getChildren(e, null)) {
+            index(child, stateMachines);
+        }
+    }
+
+    /**
+     * Reads a region and its content.
+     *
+     * @param region The region XMI element.
+     * @return The region.
+     */
+    private ModelElement readRegion(final Element region) {
+        final ModelElement r = new ModelElement("Standard.Region");
+        r.setAttribute("Name", region.getAttribute("name"));
+
+        for (final Element v : getChildren(region, "subvertex")) {
+            r.addDependency("Sub", readVertex(v));
+        }
+        for (final Element t : getChildren(region, "transition")) {
+            final ModelElement transition = new ModelElement("Standard.Transition");
+            transition.setAttribute("Name", t.getAttribute("name"));
+            transitions.put(transition, t);
+            transitionOrder.add(transition);
+        }
+
+        return r;
+    }
+
+    /**
+     * Reads a state or pseudo state.
+     *
+     * @param vertex The vertex XMI element.
+     * @return The vertex.
+     */
+    private ModelElement readVertex(final Element vertex) {
+        final String type = getType(vertex);
+        final ModelElement v = new ModelElement("Standard." + (type.equals("Pseudostate") ? getPseudostateType(vertex)
+                : type));
+        v.setAttribute("Name", vertex.getAttribute("name"));
+        vertices.put(vertex.getAttribute(ID), v);
+
+        for (final Element region : getChildren(vertex, "region")) {
+            v.addDependency("OwnedRegion", readRegion(region));
+        }
+        for (final Element point : getChildren(vertex, "connectionPoint")) {
+            v.addDependency("ConnectionPoint", readVertex(point));
+        }
+        return v;
+    }
+
+    /**
+     * Links every transition to its source and target, and assigns its triggering
+     * event.
+     *
+     * @throws ExportException If a transition refers to an undefined vertex or has
+     *                         more than one trigger.
+     */
+    private void resolveTransitions() throws ExportException {
+        for (final ModelElement t : transitionOrder) {
+            final Element xmi = transitions.get(t);
+            final ModelElement source = vertices.get(getReference(xmi, "source"));
+            final ModelElement target = vertices.get(getReference(xmi, "target"));
+            if ((source == null) || (target == null)) {
+                throw new ExportException("Transition source or target not found.", t);
+            }
+            source.addDependency("OutGoing", t);
+            t.addDependency("Target", target);
+
+            final List<Element> triggers = getChildren(xmi, "trigger");
+            if (triggers.size() > 1) {
+                throw new ExportException("Transitions may not have more than one trigger.", t);
+            } else if (!triggers.isEmpty()) {
+                t.setAttribute("ReceivedEvents", getEventName(triggers.get(0)));
+            }
+        }
+    }
+
+    /**
+     * Determines the event name of a trigger, which is the trigger name if given,
+     * otherwise the name of the referenced event.
+     *
+     * @param trigger The trigger XMI element.
+     * @return The event name.
+     */
+    private String getEventName(final Element trigger) {
+        final String name = trigger.getAttribute("name");
+        if (!name.isEmpty()) {
+            return name;
+        }
+
+        final Element event = identified.get(getReference(trigger, "event"));
+        return (event == null) ? "" : event.getAttribute("name");
+    }
+
+    /**
+     * Copies stereotype property values from stereotype applications to the
+     * state machines they extend.
+     *
+     * @param root  Root XMI element.
+     * @param smIds State machines keyed by XMI identifier.
+     */
+    private static void readStereotypes(final Element root, final Map<String, ModelElement> smIds) {
+        for (final Element e : getChildren(root, null)) {
+            final ModelElement sm = smIds.get(e.getAttribute(STEREOTYPE_BASE));
+            if (sm != null) {
+                final NamedNodeMap attributes = e.getAttributes();
+                for (int i = 0; i < attributes.getLength(); i++) {
+                    final Node a = attributes.item(i);
+                    if (!a.getNodeName().equals(STEREOTYPE_BASE) && !a.getNodeName().startsWith("xmi:")) {
+                        sm.setProperty(a.getNodeName(), a.getNodeValue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Maps the kind of a UML pseudo state to the equivalent metaclass.
+     *
+     * @param vertex The pseudo state XMI element.
+     * @return The metaclass name, without the metamodel prefix.
+     */
+    private static String getPseudostateType(final Element vertex) {
+        final String kind = vertex.getAttribute("kind");
+        if (kind.isEmpty()) {
+            return "InitialPseudoState"; // Default kind defined by UML.
+        }
+        return Character.toUpperCase(kind.charAt(0)) + kind.substring(1) + "PseudoState";
+    }
+
+    /**
+     * Acquires the UML metaclass of an element, without the namespace prefix.
+     *
+     * @param e The element.
+     * @return The metaclass name, or an empty string if no type is given.
+     */
+    private static String getType(final Element e) {
+        final String type = e.getAttribute(TYPE);
+        return type.substring(type.indexOf(':') + 1);
+    }
+
+    /**
+     * Acquires an element reference, which may be expressed as an attribute or a
+     * child element with an idref attribute.
+     *
+     * @param e    Element holding the reference.
+     * @param name Name of the reference.
+     * @return Identifier of the referenced element; empty if not defined.
+     */
+    private static String getReference(final Element e, final String name) {
+        if (e.hasAttribute(name)) {
+            return e.getAttribute(name);
+        }
+        final List<Element> references = getChildren(e, name);
+        return references.isEmpty() ? "" : references.get(0).getAttribute(IDREF);
+    }
+
+    /**
+     * Selects the child elements of an element.
+     *
+     * @param parent Parent element.
+     * @param name   Name of the children to select, or null to select all.
+     * @return The selected children in document order.
+     */
+    private static List<Element> getChildren(final Element parent, final String name) {
+        final List<Element> children = new ArrayList<>();
+        for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if ((n instanceof Element) && ((name == null) || n.getNodeName().equals(name))) {
+                children.add((Element) n);
+            }
+        }
+        return children;
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+
+/**
+ * Translates the parsed routines of an add-on instruction into the source of a
+ * {@link CompiledAoi} subclass, then compiles and loads it entirely in memory
+ * with the platform's Java compiler.
+ */
+final class AoiCompiler {
+    /**
+     * Package of the generated classes. It must differ from this package, as
+     * classes defined by another class loader cannot access package-private
+     * members even if the package names match.
+     */
+    private static final String PACKAGE = "org.modelio.logixuml.interpreter.generated";
+
+    /**
+     * Maximum number of tags handled by a single accessor method. Accessors for
+     * larger tag tables are divided into several methods, as a method with a case
+     * for every tag of a large state machine would exceed the JVM's size limit.
+     */
+    static final int MAX_ACCESSOR_TAGS = 256;
+
+    /**
+     * Private constructor as this class only contains static methods.
+     */
+    private AoiCompiler() {
+    }
+
+    /**
+     * Compiles the routines of an add-on instruction.
+     *
+     * @param aoi  The add-on instruction to compile.
+     * @param tags Tags accessible to the routines.
+     * @return A new instance of the compiled class.
+     * @throws ParseException   If a routine contains unsupported structured text.
+     * @throws CompileException If the Java compiler is unavailable or failed.
+     */
+    static CompiledAoi compile(final AddOnInstruction aoi, final TagTable tags)
+            throws ParseException, CompileException {
+        final String className = "Aoi_" + aoi.getName();
+        final String source = generate(aoi, tags, className);
+        final Map<String, byte[]> classes = javac(PACKAGE + "." + className, source);
+
+        final ClassLoader loader = new ClassLoader(CompiledAoi.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(final String name) throws ClassNotFoundException {
+                final byte[] b = classes.get(name);
+                if (b == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                return defineClass(name, b, 0, b.length);
+            }
+        };
+
+        try {
+            return loader.loadClass(PACKAGE + "." + className).asSubclass(CompiledAoi.class).getConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Generates the Java source of the compiled class.
+     *
+     * @param aoi       The add-on instruction to compile.
+     * @param tags      Tags accessible to the routines.
+     * @param className Simple name of the generated class.
+     * @return Java source.
+     * @throws ParseException If a routine contains unsupported structured text.
+     */
+    static String generate(final AddOnInstruction aoi, final TagTable tags, final String className)
+            throws ParseException {
+        final List<TagTable.Tag> all = tags.getTags();
+        final String enableIn = tags.get("EnableIn").getFieldName();
+        final String enableOut = tags.get("EnableOut").getFieldName();
+        final JavaSource src = new JavaSource();
+
+        final Statement[] prescan = Parser.parse(ScanModeRoutine.Prescan,
+                aoi.getStructuredTextLines(ScanModeRoutine.Prescan), tags);
+        src.method("public void prescan() throws MajorFaultException", new ArrayList<>(), prescan);
+
+        final Statement[] logic = Parser.parse(ScanModeRoutine.Logic,
+                aoi.getStructuredTextLines(ScanModeRoutine.Logic), tags);
+        src.method("public void scan() throws MajorFaultException",
+                Arrays.asList(enableIn + " = 1;", enableOut + " = 1;"), logic);
+
+        final Statement[] enableInFalse = Parser.parse(ScanModeRoutine.EnableInFalse,
+                aoi.getStructuredTextLines(ScanModeRoutine.EnableInFalse), tags);
+        src.method("public void enableInFalse() throws MajorFaultException",
+                Arrays.asList(enableIn + " = 0;", enableOut + " = 0;"), enableInFalse);
+
+        // Tag accessors dispatch on the storage offset.
+        final List<String> reset = new ArrayList<>();
+        final List<String> read = new ArrayList<>();
+        final List<Integer> readOffsets = new ArrayList<>();
+        final List<String> write = new ArrayList<>();
+        final List<String> readElement = new ArrayList<>();
+        final List<Integer> elementOffsets = new ArrayList<>();
+        for (final TagTable.Tag t : all) {
+            final String field = t.getFieldName();
+            if (t.dimension > 0) {
+                reset.add("java.util.Arrays.fill(" + field + ", 0);");
+                readElement.add(String.format("case %d: return %s[index];", t.offset, field));
+                elementOffsets.add(t.offset);
+            } else {
+                reset.add(field + " = 0;");
+                read.add(String.format("case %d: return %s;", t.offset, field));
+                readOffsets.add(t.offset);
+                write.add(String.format("case %d: %s = %s; return;", t.offset, field,
+                        t.bool ? "(value != 0) ? 1 : 0" : "value"));
+            }
+        }
+
+        final StringBuilder s = new StringBuilder();
+        s.append("package ").append(PACKAGE).append(";\n\n");
+        s.append("import org.modelio.logixuml.interpreter.CompiledAoi;\n");
+        s.append("import org.modelio.logixuml.interpreter.MajorFaultException;\n\n");
+        s.append("public final class ").append(className).append(" extends CompiledAoi {\n");
+        for (final TagTable.Tag t : all) {
+            if (t.dimension > 0) {
+                s.append(String.format("    private final int[] %s = new int[%d];%n", t.getFieldName(), t.dimension));
+            } else {
+                s.append(String.format("    private int %s;%n", t.getFieldName()));
+            }
+        }
+        s.append('\n');
+        for (final String m : src.getMethods()) {
+            s.append(m).append('\n');
+        }
+        appendAccessor(s, "public void", "reset", "", "", reset, null);
+        appendAccessor(s, "protected int", "read", "final int offset", "offset", read, readOffsets);
+        appendAccessor(s, "protected void", "write", "final int offset, final int value", "offset, value", write,
+                readOffsets);
+        appendAccessor(s, "protected int", "readElement", "final int offset, final int index", "offset, index",
+                readElement, elementOffsets);
+        s.append("}\n");
+        return s.toString();
+    }
+
+    /**
+     * Appends a tag accessor to the generated class. Accessors with more than
+     * MAX_ACCESSOR_TAGS tags are divided into private methods, each handling a
+     * consecutive range of tags, which the accessor calls in turn or selects by
+     * comparing the offset.
+     *
+     * @param s          Destination source.
+     * @param modifiers  Access modifier and return type.
+     * @param name       Method name.
+     * @param parameters Parameter declarations.
+     * @param arguments  Parameter names, passed to the divided methods.
+     * @param lines      Method body, or switch cases if offsets are given.
+     * @param offsets    Offset of each switch case, in ascending order, or null
+     *                   for a plain body executed in full.
+     */
+    private static void appendAccessor(final StringBuilder s, final String modifiers, final String name,
+            final String parameters, final String arguments, final List<String> lines, final List<Integer> offsets) {
+        final String declaration = modifiers + " " + name + "(" + parameters + ")";
+        final String switchOn = (offsets != null) ? "switch (offset)" : null;
+        if (lines.size() <= MAX_ACCESSOR_TAGS) {
+            appendMethod(s, declaration, lines, switchOn);
+            return;
+        }
+
+        final String returnType = modifiers.substring(modifiers.indexOf(' ') + 1);
+        final List<String> calls = new ArrayList<>();
+        for (int first = 0; first < lines.size(); first += MAX_ACCESSOR_TAGS) {
+            final int end = Math.min(first + MAX_ACCESSOR_TAGS, lines.size());
+            final String part = "_" + name + calls.size();
+            appendMethod(s, "private " + returnType + " " + part + "(" + parameters + ")", lines.subList(first, end),
+                    switchOn);
+
+            final String call = part + "(" + arguments + ");";
+            if (offsets == null) {
+                calls.add(call);
+            } else if (end == lines.size()) {
+                calls.add(returnType.equals("void") ? call : "return " + call);
+            } else {
+                calls.add("if (offset < " + offsets.get(end) + ") { "
+                        + (returnType.equals("void") ? call + " return;" : "return " + call) + " }");
+            }
+        }
+        appendMethod(s, declaration, calls, null);
+    }
+
+    /**
+     * Appends a method to the generated class.
+     *
+     * @param s           Destination source.
+     * @param declaration Method declaration, excluding the opening brace.
+     * @param lines       Method body, or switch cases if a switch is given.
+     * @param switchOn    Switch statement header, or null for a plain body.
+     */
+    private static void appendMethod(final StringBuilder s, final String declaration, final List<String> lines,
+            final String switchOn) {
+        s.append("    ").append(declaration).append(" {\n");
+        final String indent = (switchOn == null) ? "        " : "            ";
+        if (switchOn != null) {
+            s.append("        ").append(switchOn).append(" {\n");
+        }
+        for (final String l : lines) {
+            s.append(indent).append(l).append('\n');
+        }
+        if (switchOn != null) {
+            s.append("        default: throw new AssertionError(offset);\n");
+            s.append("        }\n");
+        }
+        s.append("    }\n\n");
+    }
+
+    /**
+     * Compiles Java source in memory.
+     *
+     * @param className Fully-qualified name of the class defined by the source.
+     * @param source    Java source.
+     * @return Bytecode of every resulting class, keyed by binary class name.
+     * @throws CompileException If the Java compiler is unavailable or failed.
+     */
+    private static Map<String, byte[]> javac(final String className, final String source) throws CompileException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new CompileException("No Java compiler is available; a JDK is required to compile routines.");
+        }
+
+        final JavaFileObject input = new SimpleJavaFileObject(
+                URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        // The file managers hold the class path jars open, so must be closed after
+        // every compilation.
+        final Map<String, ByteArrayOutputStream> output = new HashMap<>();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final List<String> options = Arrays.asList("-classpath", getClassPath(), "-g:none", "-nowarn");
+        final boolean success;
+        try (StandardJavaFileManager standard = compiler.getStandardFileManager(null, null, null);
+                JavaFileManager files = new ForwardingJavaFileManager<StandardJavaFileManager>(standard) {
+                    @Override
+                    public JavaFileObject getJavaFileForOutput(final Location location, final String name,
+                            final JavaFileObject.Kind kind, final FileObject sibling) {
+                        return new SimpleJavaFileObject(
+                                URI.create("mem:///" + name.replace('.', '/') + kind.extension), kind) {
+                            @Override
+                            public OutputStream openOutputStream() {
+                                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                                output.put(name, bytes);
+                                return bytes;
+                            }
+                        };
+                    }
+                }) {
+            success = compiler.getTask(null, files, diagnostics, options, null, Collections.singletonList(input))
+                    .call();
+        } catch (IOException e) {
+            throw new CompileException("Compiling routines failed: " + e.getMessage());
+        }
+
+        if (!success) {
+            final StringBuilder msg = new StringBuilder("Compiling routines failed:");
+            for (final Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+                msg.append(String.format("%nline %d: %s", d.getLineNumber(), d.getMessage(null)));
+            }
+            throw new CompileException(msg.toString());
+        }
+
+        final Map<String, byte[]> classes = new HashMap<>();
+        for (final Map.Entry<String, ByteArrayOutputStream> e : output.entrySet()) {
+            classes.put(e.getKey(), e.getValue().toByteArray());
+        }
+        return classes;
+    }
+
+    /**
+     * Builds the class path given to the compiler. The location this module was
+     * loaded from is added explicitly, as plugin class loaders are not reflected
+     * in the system class path.
+     *
+     * @return Class path.
+     */
+    private static String getClassPath() {
+        final String system = System.getProperty("java.class.path", "");
+        final CodeSource code = CompiledAoi.class.getProtectionDomain().getCodeSource();
+        if (code == null) {
+            return system;
+        }
+        try {
+            return new File(code.getLocation().toURI()).getPath() + File.pathSeparator + system;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return system;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+
+/**
+ * Executes the structured text routines of an add-on instruction in memory,
+ * emulating a single AOI instance on a Logix controller. The routines are
+ * parsed once when the interpreter is created; each scan then only evaluates
+ * the resulting statement tree against an integer array holding every tag.
+ * <p>
+ * Only the subset of structured text emitted by this module's generators is
+ * supported: assignment, IF, CASE, WHILE, and EXIT statements on BOOL and DINT
+ * tags and single-dimension arrays. An out-of-range array subscript raises a
+ * {@link MajorFaultException}, matching the controller's behavior that the
+ * generated logic relies on to halt the processor.
+ * <p>
+ * Typical use follows the controller's execution order: call
+ * {@link #prescan()} once, then for each scan set the input parameters,
+ * call {@link #scan(boolean)}, and read the output parameters.
+ */
+public class AoiInterpreter {
+    /**
+     * Tags accessible to the routines.
+     */
+    private final TagTable tags;
+
+    /**
+     * Storage for every tag value.
+     */
+    private final int[] memory;
+
+    /**
+     * Parsed statements of each routine.
+     */
+    private final Map<ScanModeRoutine, Statement[]> routines = new EnumMap<>(ScanModeRoutine.class);
+
+    /**
+     * Implicit EnableIn parameter.
+     */
+    private final TagTable.Tag enableIn;
+
+    /**
+     * Implicit EnableOut parameter.
+     */
+    private final TagTable.Tag enableOut;
+
+    /**
+     * Constructor.
+     *
+     * @param aoi The add-on instruction to execute.
+     * @throws ParseException If a routine contains unsupported structured text.
+     */
+    public AoiInterpreter(final AddOnInstruction aoi) throws ParseException {
+        tags = new TagTable(aoi);
+        memory = new int[tags.size()];
+        enableIn = tags.get("EnableIn");
+        enableOut = tags.get("EnableOut");
+
+        for (final ScanModeRoutine r : ScanModeRoutine.values()) {
+            routines.put(r, Parser.parse(r, aoi.getStructuredTextLines(r), tags));
+        }
+    }
+
+    /**
+     * Executes the prescan routine, as the controller does when transitioning to
+     * run mode.
+     *
+     * @throws MajorFaultException If the routine faulted.
+     */
+    public void prescan() throws MajorFaultException {
+        Statement.execute(routines.get(ScanModeRoutine.Prescan), memory);
+    }
+
+    /**
+     * Executes a single scan of the AOI. The logic routine is executed if the rung
+     * condition is true, otherwise the enable-in false routine.
+     *
+     * @param rungCondition The AOI's EnableIn value.
+     * @throws MajorFaultException If the routine faulted.
+     */
+    public void scan(final boolean rungCondition) throws MajorFaultException {
+        final int value = rungCondition ? 1 : 0;
+        memory[enableIn.offset] = value;
+        memory[enableOut.offset] = value;
+        Statement.execute(routines.get(rungCondition ? ScanModeRoutine.Logic : ScanModeRoutine.EnableInFalse),
+                memory);
+    }
+
+    /**
+     * Resets every tag to zero, as when an AOI instance is first created.
+     */
+    public void reset() {
+        Arrays.fill(memory, 0);
+    }
+
+    /**
+     * Reads a non-array tag.
+     *
+     * @param name Tag name.
+     * @return Tag value; zero or one for BOOL tags.
+     */
+    public int getValue(final String name) {
+        return memory[tags.lookup(name, false).offset];
+    }
+
+    /**
+     * Reads an element of an array tag.
+     *
+     * @param name  Tag name.
+     * @param index Element index.
+     * @return Element value.
+     */
+    public int getValue(final String name, final int index) {
+        return memory[element(name, index)];
+    }
+
+    /**
+     * Reads a non-array tag as a boolean.
+     *
+     * @param name Tag name.
+     * @return True if the tag is non-zero.
+     */
+    public boolean getBool(final String name) {
+        return getValue(name) != 0;
+    }
+
+    /**
+     * Writes a non-array tag, typically an input parameter.
+     *
+     * @param name  Tag name.
+     * @param value Value to write; converted to zero or one for BOOL tags.
+     */
+    public void setValue(final String name, final int value) {
+        final TagTable.Tag tag = tags.lookup(name, false);
+        memory[tag.offset] = tag.bool ? ((value != 0) ? 1 : 0) : value;
+    }
+
+    /**
+     * Writes a non-array tag as a boolean.
+     *
+     * @param name  Tag name.
+     * @param value Value to write.
+     */
+    public void setBool(final String name, final boolean value) {
+        setValue(name, value ? 1 : 0);
+    }
+
+    /**
+     * Computes the storage offset of an array element for external access.
+     *
+     * @param name  Tag name.
+     * @param index Element index.
+     * @return Storage offset.
+     * @throws IllegalArgumentException If the tag is not an array or the index is
+     *                                  out of range.
+     */
+    private int element(final String name, final int index) {
+        final TagTable.Tag tag = tags.lookup(name, true);
+        if ((index < 0) || (index >= tag.dimension)) {
+            throw new IllegalArgumentException(String.format("Index out of range: %s[%d]", name, index));
+        }
+        return tag.offset + index;
+    }
+}
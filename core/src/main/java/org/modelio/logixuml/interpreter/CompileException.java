@@ -0,0 +1,36 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+/**
+ * Exception thrown when routines cannot be compiled into a Java class, such as
+ * when running on a JRE that does not provide a Java compiler.
+ */
+@SuppressWarnings("serial")
+public class CompileException extends Exception {
+    /**
+     * Constructor.
+     *
+     * @param msg Description of the problem.
+     */
+    CompileException(final String msg) {
+        super(msg);
+    }
+}
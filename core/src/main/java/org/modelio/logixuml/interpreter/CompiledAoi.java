@@ -0,0 +1,271 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import org.modelio.logixuml.l5x.AddOnInstruction;
+
+/**
+ * An add-on instruction whose structured text routines have been compiled into
+ * a Java class, for simulations requiring far more scans than the
+ * {@link AoiInterpreter} can execute in reasonable time. Each tag is held in
+ * its own int field, or int array for array tags, allowing the JIT compiler to
+ * optimize the routines like hand-written Java.
+ * <p>
+ * Behavior is identical to the interpreter, including the major faults raised
+ * by out-of-range array subscripts. Compilation requires a JDK; it is performed
+ * once per AOI, after which {@link #newInstance()} creates additional
+ * independent instances without recompiling.
+ * <p>
+ * The tag accessors taking a handle avoid a name lookup on every access, and
+ * are intended for inputs and outputs read and written on every scan.
+ */
+public abstract class CompiledAoi {
+    /**
+     * Tags accessible to the routines.
+     */
+    private TagTable tags;
+
+    /**
+     * Compiles the routines of an add-on instruction.
+     *
+     * @param aoi The add-on instruction to compile.
+     * @return A new instance of the compiled AOI with every tag cleared.
+     * @throws ParseException   If a routine contains unsupported structured text.
+     * @throws CompileException If the Java compiler is unavailable or failed.
+     */
+    public static CompiledAoi compile(final AddOnInstruction aoi) throws ParseException, CompileException {
+        final TagTable tags = new TagTable(aoi);
+        final CompiledAoi instance = AoiCompiler.compile(aoi, tags);
+        instance.tags = tags;
+        return instance;
+    }
+
+    /**
+     * Creates another instance of the same compiled AOI, with every tag cleared.
+     *
+     * @return The new instance.
+     */
+    public CompiledAoi newInstance() {
+        final CompiledAoi instance;
+        try {
+            instance = getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+        instance.tags = tags;
+        return instance;
+    }
+
+    /**
+     * Executes the prescan routine, as the controller does when transitioning to
+     * run mode.
+     *
+     * @throws MajorFaultException If the routine faulted.
+     */
+    public abstract void prescan() throws MajorFaultException;
+
+    /**
+     * Executes a single scan with a true rung condition, setting EnableIn and
+     * EnableOut before executing the logic routine.
+     *
+     * @throws MajorFaultException If the routine faulted.
+     */
+    public abstract void scan() throws MajorFaultException;
+
+    /**
+     * Executes a single scan with a false rung condition, clearing EnableIn and
+     * EnableOut before executing the enable-in false routine.
+     *
+     * @throws MajorFaultException If the routine faulted.
+     */
+    public abstract void enableInFalse() throws MajorFaultException;
+
+    /**
+     * Resets every tag to zero, as when an AOI instance is first created.
+     */
+    public abstract void reset();
+
+    /**
+     * Reads a non-array tag field.
+     *
+     * @param offset Storage offset assigned to the tag.
+     * @return Tag value.
+     */
+    protected abstract int read(int offset);
+
+    /**
+     * Writes a non-array tag field.
+     *
+     * @param offset Storage offset assigned to the tag.
+     * @param value  Value to write; converted to zero or one for BOOL tags.
+     */
+    protected abstract void write(int offset, int value);
+
+    /**
+     * Reads an element of an array tag field.
+     *
+     * @param offset Storage offset assigned to the tag.
+     * @param index  Element index, already confirmed to be within range.
+     * @return Element value.
+     */
+    protected abstract int readElement(int offset, int index);
+
+    /**
+     * Resolves a non-array tag name into a handle for the handle-based accessors.
+     *
+     * @param name Tag name.
+     * @return Tag handle.
+     * @throws IllegalArgumentException If the tag is undefined or an array.
+     */
+    public int getHandle(final String name) {
+        return tags.lookup(name, false).offset;
+    }
+
+    /**
+     * Reads a non-array tag.
+     *
+     * @param handle Tag handle.
+     * @return Tag value; zero or one for BOOL tags.
+     */
+    public int getValue(final int handle) {
+        return read(handle);
+    }
+
+    /**
+     * Writes a non-array tag.
+     *
+     * @param handle Tag handle.
+     * @param value  Value to write; converted to zero or one for BOOL tags.
+     */
+    public void setValue(final int handle, final int value) {
+        write(handle, value);
+    }
+
+    /**
+     * Reads a non-array tag.
+     *
+     * @param name Tag name.
+     * @return Tag value; zero or one for BOOL tags.
+     */
+    public int getValue(final String name) {
+        return read(getHandle(name));
+    }
+
+    /**
+     * Reads an element of an array tag.
+     *
+     * @param name  Tag name.
+     * @param index Element index.
+     * @return Element value.
+     * @throws IllegalArgumentException If the index is out of range.
+     */
+    public int getValue(final String name, final int index) {
+        final TagTable.Tag tag = tags.lookup(name, true);
+        if ((index < 0) || (index >= tag.dimension)) {
+            throw new IllegalArgumentException(String.format("Index out of range: %s[%d]", name, index));
+        }
+        return readElement(tag.offset, index);
+    }
+
+    /**
+     * Reads a non-array tag as a boolean.
+     *
+     * @param name Tag name.
+     * @return True if the tag is non-zero.
+     */
+    public boolean getBool(final String name) {
+        return getValue(name) != 0;
+    }
+
+    /**
+     * Writes a non-array tag, typically an input parameter.
+     *
+     * @param name  Tag name.
+     * @param value Value to write; converted to zero or one for BOOL tags.
+     */
+    public void setValue(final String name, final int value) {
+        write(getHandle(name), value);
+    }
+
+    /**
+     * Writes a non-array tag as a boolean.
+     *
+     * @param name  Tag name.
+     * @param value Value to write.
+     */
+    public void setBool(final String name, final boolean value) {
+        setValue(name, value ? 1 : 0);
+    }
+
+    /**
+     * Confirms an array subscript is within range; called by compiled routines.
+     *
+     * @param index     Subscript value.
+     * @param dimension Array size.
+     * @param name      Tag name, for the fault description.
+     * @return The subscript.
+     * @throws MajorFaultException If the subscript is out of range.
+     */
+    protected static int index(final int index, final int dimension, final String name) throws MajorFaultException {
+        if ((index < 0) || (index >= dimension)) {
+            throw new MajorFaultException(String.format("Array subscript out of range: %s[%d]", name, index));
+        }
+        return index;
+    }
+
+    /**
+     * Integer division; called by compiled routines.
+     *
+     * @param a Dividend.
+     * @param b Divisor.
+     * @return Quotient.
+     * @throws MajorFaultException If the divisor is zero.
+     */
+    protected static int divide(final int a, final int b) throws MajorFaultException {
+        if (b == 0) {
+            throw new MajorFaultException("Division by zero.");
+        }
+        return a / b;
+    }
+
+    /**
+     * Integer modulo; called by compiled routines.
+     *
+     * @param a Dividend.
+     * @param b Divisor.
+     * @return Remainder.
+     * @throws MajorFaultException If the divisor is zero.
+     */
+    protected static int modulo(final int a, final int b) throws MajorFaultException {
+        if (b == 0) {
+            throw new MajorFaultException("Division by zero.");
+        }
+        return a % b;
+    }
+
+    /**
+     * Faults a loop exceeding the iteration limit; called by compiled routines.
+     *
+     * @throws MajorFaultException Always.
+     */
+    protected static void watchdog() throws MajorFaultException {
+        throw new MajorFaultException("Watchdog: WHILE loop did not terminate.");
+    }
+}
@@ -0,0 +1,554 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+/**
+ * Node of a parsed structured text expression. Values of every type are
+ * represented as integers; BOOL values are always zero or one.
+ */
+abstract class Expression {
+    /**
+     * Binary operators, from highest to lowest precedence group.
+     */
+    enum Operator {
+        MULTIPLY, DIVIDE, MOD, ADD, SUBTRACT, LESS, LESS_EQUAL, GREATER, GREATER_EQUAL, EQUAL, NOT_EQUAL, AND,
+        XOR, OR
+    }
+
+    /**
+     * Computes the value of the expression.
+     *
+     * @param m Tag storage.
+     * @return The expression value.
+     * @throws MajorFaultException If evaluation faults the controller.
+     */
+    abstract int evaluate(int[] m) throws MajorFaultException;
+
+    /**
+     * Tests the expression type.
+     *
+     * @return True if the expression yields a BOOL, false for DINT.
+     */
+    abstract boolean isBool();
+
+    /**
+     * Translates the expression into an equivalent Java int expression for
+     * compiled routines.
+     *
+     * @return Java source.
+     */
+    abstract String toJava();
+
+    /**
+     * Counts the instructions executed to evaluate the expression, for scan cost
+     * estimates. Operators and array subscripts count as one instruction each;
+     * constants and tag references are free.
+     *
+     * @return Number of instructions.
+     */
+    abstract int instructions();
+
+    /**
+     * Translates the expression into a Java boolean expression that is true if
+     * the value is non-zero, as used for IF and WHILE conditions.
+     *
+     * @return Java source.
+     */
+    String toJavaCondition() {
+        return "(" + toJava() + " != 0)";
+    }
+
+    /**
+     * Expression that may be the target of an assignment.
+     */
+    abstract static class Target extends Expression {
+        /**
+         * Stores a value, converting it to the target type.
+         *
+         * @param m     Tag storage.
+         * @param value Value to store.
+         * @throws MajorFaultException If the store faults the controller.
+         */
+        abstract void store(int[] m, int value) throws MajorFaultException;
+
+        /**
+         * Translates an assignment to this target into a Java statement.
+         *
+         * @param value Assigned value.
+         * @return Java source.
+         */
+        String toJavaStore(final Expression value) {
+            final String v;
+            if (!isBool() || value.isBool()) {
+                v = value.toJava();
+            } else if (value instanceof Constant) {
+                v = (((Constant) value).getValue() != 0) ? "1" : "0";
+            } else {
+                v = "((" + value.toJava() + " != 0) ? 1 : 0)";
+            }
+            return toJava() + " = " + v + ";";
+        }
+    }
+
+    /**
+     * Integer literal.
+     */
+    static final class Constant extends Expression {
+        /**
+         * Literal value.
+         */
+        private final int value;
+
+        /**
+         * Constructor.
+         *
+         * @param value Literal value.
+         */
+        Constant(final int value) {
+            this.value = value;
+        }
+
+        /**
+         * Getter method for the literal value.
+         *
+         * @return The literal value.
+         */
+        int getValue() {
+            return value;
+        }
+
+        @Override
+        int evaluate(final int[] m) {
+            return value;
+        }
+
+        @Override
+        boolean isBool() {
+            return false;
+        }
+
+        @Override
+        String toJava() {
+            if (value == Integer.MIN_VALUE) {
+                return "(-2147483647 - 1)";
+            }
+            return (value < 0) ? "(" + value + ")" : Integer.toString(value);
+        }
+
+        @Override
+        int instructions() {
+            return 0;
+        }
+    }
+
+    /**
+     * Reference to a non-array tag.
+     */
+    static final class TagValue extends Target {
+        /**
+         * Referenced tag.
+         */
+        private final TagTable.Tag tag;
+
+        /**
+         * Storage offset of the tag.
+         */
+        private final int offset;
+
+        /**
+         * True for BOOL tags.
+         */
+        private final boolean bool;
+
+        /**
+         * Constructor.
+         *
+         * @param tag Referenced tag.
+         */
+        TagValue(final TagTable.Tag tag) {
+            this.tag = tag;
+            offset = tag.offset;
+            bool = tag.bool;
+        }
+
+        @Override
+        int evaluate(final int[] m) {
+            return m[offset];
+        }
+
+        @Override
+        boolean isBool() {
+            return bool;
+        }
+
+        @Override
+        void store(final int[] m, final int value) {
+            m[offset] = bool ? ((value != 0) ? 1 : 0) : value;
+        }
+
+        @Override
+        String toJava() {
+            return tag.getFieldName();
+        }
+
+        @Override
+        int instructions() {
+            return 0;
+        }
+    }
+
+    /**
+     * Reference to an element of an array tag.
+     */
+    static final class ArrayElement extends Target {
+        /**
+         * Referenced array tag.
+         */
+        private final TagTable.Tag tag;
+
+        /**
+         * Expression computing the element index.
+         */
+        private final Expression index;
+
+        /**
+         * Constructor.
+         *
+         * @param tag   Referenced array tag.
+         * @param index Element index expression.
+         */
+        ArrayElement(final TagTable.Tag tag, final Expression index) {
+            this.tag = tag;
+            this.index = index;
+        }
+
+        /**
+         * Computes the storage offset of the referenced element.
+         *
+         * @param m Tag storage.
+         * @return Storage offset.
+         * @throws MajorFaultException If the index is out of range.
+         */
+        private int locate(final int[] m) throws MajorFaultException {
+            final int i = index.evaluate(m);
+            if ((i < 0) || (i >= tag.dimension)) {
+                throw new MajorFaultException(String.format("Array subscript out of range: %s[%d]", tag.name, i));
+            }
+            return tag.offset + i;
+        }
+
+        @Override
+        int evaluate(final int[] m) throws MajorFaultException {
+            return m[locate(m)];
+        }
+
+        @Override
+        boolean isBool() {
+            return tag.bool;
+        }
+
+        @Override
+        void store(final int[] m, final int value) throws MajorFaultException {
+            m[locate(m)] = tag.bool ? ((value != 0) ? 1 : 0) : value;
+        }
+
+        @Override
+        String toJava() {
+            return String.format("%s[index(%s, %d, \"%s\")]", tag.getFieldName(), index.toJava(), tag.dimension,
+                    tag.name);
+        }
+
+        @Override
+        int instructions() {
+            return 1 + index.instructions();
+        }
+    }
+
+    /**
+     * Arithmetic negation.
+     */
+    static final class Negate extends Expression {
+        /**
+         * Operand.
+         */
+        private final Expression operand;
+
+        /**
+         * Constructor.
+         *
+         * @param operand Operand.
+         */
+        Negate(final Expression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int evaluate(final int[] m) throws MajorFaultException {
+            return -operand.evaluate(m);
+        }
+
+        @Override
+        boolean isBool() {
+            return false;
+        }
+
+        @Override
+        String toJava() {
+            return "(-" + operand.toJava() + ")";
+        }
+
+        @Override
+        int instructions() {
+            return 1 + operand.instructions();
+        }
+    }
+
+    /**
+     * Logical negation of a BOOL, or bitwise complement of a DINT.
+     */
+    static final class Not extends Expression {
+        /**
+         * Operand.
+         */
+        private final Expression operand;
+
+        /**
+         * Constructor.
+         *
+         * @param operand Operand.
+         */
+        Not(final Expression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int evaluate(final int[] m) throws MajorFaultException {
+            final int v = operand.evaluate(m);
+            return operand.isBool() ? (v ^ 1) : ~v;
+        }
+
+        @Override
+        boolean isBool() {
+            return operand.isBool();
+        }
+
+        @Override
+        String toJava() {
+            return operand.isBool() ? "(" + operand.toJava() + " ^ 1)" : "(~" + operand.toJava() + ")";
+        }
+
+        @Override
+        int instructions() {
+            return 1 + operand.instructions();
+        }
+
+        @Override
+        String toJavaCondition() {
+            return operand.isBool() ? "(" + operand.toJava() + " == 0)" : super.toJavaCondition();
+        }
+    }
+
+    /**
+     * Operation on two operands. AND, OR, and XOR are bitwise, which is equivalent
+     * to the logical operation for BOOL operands.
+     */
+    static final class Binary extends Expression {
+        /**
+         * Operation performed.
+         */
+        private final Operator op;
+
+        /**
+         * Left operand.
+         */
+        private final Expression left;
+
+        /**
+         * Right operand.
+         */
+        private final Expression right;
+
+        /**
+         * True if the result is a BOOL.
+         */
+        private final boolean bool;
+
+        /**
+         * True if the operation is a logical AND or OR of BOOL operands, which is
+         * evaluated with short-circuiting.
+         */
+        private final boolean logical;
+
+        /**
+         * Constructor.
+         *
+         * @param op    Operation performed.
+         * @param left  Left operand.
+         * @param right Right operand.
+         */
+        Binary(final Operator op, final Expression left, final Expression right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+
+            final boolean boolOperands = left.isBool() && right.isBool();
+            switch (op) {
+            case AND:
+            case XOR:
+            case OR:
+                bool = boolOperands;
+                break;
+            case LESS:
+            case LESS_EQUAL:
+            case GREATER:
+            case GREATER_EQUAL:
+            case EQUAL:
+            case NOT_EQUAL:
+                bool = true;
+                break;
+            default:
+                bool = false;
+            }
+            logical = boolOperands && ((op == Operator.AND) || (op == Operator.OR));
+        }
+
+        @Override
+        int evaluate(final int[] m) throws MajorFaultException {
+            final int a = left.evaluate(m);
+
+            // Logical operators on BOOL operands short-circuit.
+            if (logical && ((a == 0) == (op == Operator.AND))) {
+                return a;
+            }
+
+            final int b = right.evaluate(m);
+            switch (op) {
+            case MULTIPLY:
+                return a * b;
+            case DIVIDE:
+                return a / nonZero(b);
+            case MOD:
+                return a % nonZero(b);
+            case ADD:
+                return a + b;
+            case SUBTRACT:
+                return a - b;
+            case LESS:
+                return (a < b) ? 1 : 0;
+            case LESS_EQUAL:
+                return (a <= b) ? 1 : 0;
+            case GREATER:
+                return (a > b) ? 1 : 0;
+            case GREATER_EQUAL:
+                return (a >= b) ? 1 : 0;
+            case EQUAL:
+                return (a == b) ? 1 : 0;
+            case NOT_EQUAL:
+                return (a != b) ? 1 : 0;
+            case AND:
+                return a & b;
+            case XOR:
+                return a ^ b;
+            case OR:
+                return a | b;
+            default:
+                throw new AssertionError(op);
+            }
+        }
+
+        /**
+         * Confirms a divisor is not zero. The controller reports integer division by
+         * zero as a minor fault; it is treated as a major fault here since generated
+         * logic never divides.
+         *
+         * @param divisor Divisor value.
+         * @return The divisor.
+         * @throws MajorFaultException If the divisor is zero.
+         */
+        private static int nonZero(final int divisor) throws MajorFaultException {
+            if (divisor == 0) {
+                throw new MajorFaultException("Division by zero.");
+            }
+            return divisor;
+        }
+
+        @Override
+        boolean isBool() {
+            return bool;
+        }
+
+        @Override
+        String toJava() {
+            final String a = left.toJava();
+            final String b = right.toJava();
+            switch (op) {
+            case MULTIPLY:
+                return "(" + a + " * " + b + ")";
+            case DIVIDE:
+                return "divide(" + a + ", " + b + ")";
+            case MOD:
+                return "modulo(" + a + ", " + b + ")";
+            case ADD:
+                return "(" + a + " + " + b + ")";
+            case SUBTRACT:
+                return "(" + a + " - " + b + ")";
+            case AND:
+                return logical ? "(" + toJavaCondition() + " ? 1 : 0)" : "(" + a + " & " + b + ")";
+            case XOR:
+                return "(" + a + " ^ " + b + ")";
+            case OR:
+                return logical ? "(" + toJavaCondition() + " ? 1 : 0)" : "(" + a + " | " + b + ")";
+            default:
+                return "(" + toJavaCondition() + " ? 1 : 0)";
+            }
+        }
+
+        @Override
+        int instructions() {
+            return 1 + left.instructions() + right.instructions();
+        }
+
+        @Override
+        String toJavaCondition() {
+            switch (op) {
+            case LESS:
+                return "(" + left.toJava() + " < " + right.toJava() + ")";
+            case LESS_EQUAL:
+                return "(" + left.toJava() + " <= " + right.toJava() + ")";
+            case GREATER:
+                return "(" + left.toJava() + " > " + right.toJava() + ")";
+            case GREATER_EQUAL:
+                return "(" + left.toJava() + " >= " + right.toJava() + ")";
+            case EQUAL:
+                return "(" + left.toJava() + " == " + right.toJava() + ")";
+            case NOT_EQUAL:
+                return "(" + left.toJava() + " != " + right.toJava() + ")";
+            case AND:
+                return logical ? "(" + left.toJavaCondition() + " && " + right.toJavaCondition() + ")"
+                        : super.toJavaCondition();
+            case OR:
+                return logical ? "(" + left.toJavaCondition() + " || " + right.toJavaCondition() + ")"
+                        : super.toJavaCondition();
+            default:
+                return super.toJavaCondition();
+            }
+        }
+    }
+}
\ No newline at end of file
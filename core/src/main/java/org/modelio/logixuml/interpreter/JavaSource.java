@@ -0,0 +1,275 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Accumulates the Java source of a compiled add-on instruction. Statement
+ * sequences exceeding a size limit are split into separate private methods,
+ * because the JVM refuses to JIT compile very large methods and rejects methods
+ * beyond 64 KiB of bytecode, both of which a large state machine's logic routine
+ * would otherwise produce. IF and CASE statements exceeding the limit likewise
+ * move groups of their clauses into separate methods.
+ */
+class JavaSource {
+    /**
+     * Maximum weight of statements emitted in a single method before the remainder
+     * is moved into additional methods.
+     */
+    static final int MAX_METHOD_WEIGHT = 40;
+
+    /**
+     * Width of the widest CASE selector range enumerated as switch labels.
+     */
+    static final int MAX_CASE_RANGE = 64;
+
+    /**
+     * Completed methods, in order of completion.
+     */
+    private final List<String> methods = new ArrayList<>();
+
+    /**
+     * Body of the method currently being emitted.
+     */
+    private StringBuilder body;
+
+    /**
+     * Indentation level of the next line.
+     */
+    private int depth;
+
+    /**
+     * Labels of the loops enclosing the current statement, innermost first.
+     */
+    private Deque<String> loops;
+
+    /**
+     * Counter used to generate unique identifiers.
+     */
+    private int nextName;
+
+    /**
+     * Emits a complete method.
+     *
+     * @param declaration Method declaration, excluding the opening brace.
+     * @param prologue    Lines executed before the statements.
+     * @param statements  Method body.
+     */
+    void method(final String declaration, final List<String> prologue, final Statement[] statements) {
+        method(declaration, () -> {
+            for (final String s : prologue) {
+                line(s);
+            }
+            block(statements);
+        });
+    }
+
+    /**
+     * Emits a complete method, preserving the state of the method currently being
+     * emitted.
+     *
+     * @param declaration Method declaration, excluding the opening brace.
+     * @param content     Emits the method body.
+     */
+    private void method(final String declaration, final Runnable content) {
+        final StringBuilder outerBody = body;
+        final int outerDepth = depth;
+        final Deque<String> outerLoops = loops;
+
+        body = new StringBuilder();
+        depth = 1;
+        loops = new ArrayDeque<>();
+        open(declaration + " {");
+        content.run();
+        close("}");
+        methods.add(body.toString());
+
+        body = outerBody;
+        depth = outerDepth;
+        loops = outerLoops;
+    }
+
+    /**
+     * Emits a new private method, used by statements too large for a single
+     * method to move parts of themselves elsewhere. The content must not contain
+     * an EXIT escaping to an enclosing loop.
+     *
+     * @param parameter Name of an int parameter, or null for no parameters.
+     * @param content   Emits the method body.
+     * @return Name of the method.
+     */
+    String privateMethod(final String parameter, final Runnable content) {
+        final String name = newName("block");
+        method("private void " + name + "(" + ((parameter != null) ? "final int " + parameter : "")
+                + ") throws MajorFaultException", content);
+        return name;
+    }
+
+    /**
+     * Emits a sequence of statements, moving groups of them into new methods if
+     * the sequence is too large. Statements with an EXIT escaping to an enclosing
+     * loop always remain in the current method.
+     *
+     * @param statements Statements to emit.
+     */
+    void block(final Statement[] statements) {
+        if (Statement.weight(statements) <= MAX_METHOD_WEIGHT) {
+            for (final Statement s : statements) {
+                s.toJava(this);
+            }
+            return;
+        }
+
+        final List<Statement> group = new ArrayList<>();
+        int weight = 0;
+        for (final Statement s : statements) {
+            if (s.hasFreeExit()) {
+                emitGroup(group);
+                weight = 0;
+                s.toJava(this);
+                continue;
+            }
+            if (!group.isEmpty() && ((weight + s.weight()) > MAX_METHOD_WEIGHT)) {
+                emitGroup(group);
+                weight = 0;
+            }
+            group.add(s);
+            weight += s.weight();
+        }
+        emitGroup(group);
+    }
+
+    /**
+     * Moves a group of statements into a new method, replacing them with a call.
+     *
+     * @param group Statements to move; cleared afterwards.
+     */
+    private void emitGroup(final List<Statement> group) {
+        if (group.isEmpty()) {
+            return;
+        }
+
+        // The group is already sized to fit, so is not split again.
+        final Statement[] statements = group.toArray(new Statement[group.size()]);
+        line(privateMethod(null, () -> {
+            for (final Statement s : statements) {
+                s.toJava(this);
+            }
+        }) + "();");
+        group.clear();
+    }
+
+    /**
+     * Generates an identifier unique within the class.
+     *
+     * @param prefix Identifier prefix.
+     * @return The identifier.
+     */
+    String newName(final String prefix) {
+        return "_" + prefix + (nextName++);
+    }
+
+    /**
+     * Marks the beginning of a loop body.
+     *
+     * @param label Label of the loop.
+     */
+    void enterLoop(final String label) {
+        loops.push(label);
+    }
+
+    /**
+     * Marks the end of a loop body.
+     */
+    void exitLoop() {
+        loops.pop();
+    }
+
+    /**
+     * Getter method for the label of the innermost loop.
+     *
+     * @return Loop label.
+     */
+    String getLoop() {
+        if (loops.isEmpty()) {
+            throw new AssertionError("EXIT outside loop.");
+        }
+        return loops.peek();
+    }
+
+    /**
+     * Emits a line at the current indentation.
+     *
+     * @param s Line content.
+     */
+    void line(final String s) {
+        for (int i = 0; i < depth; i++) {
+            body.append("    ");
+        }
+        body.append(s).append('\n');
+    }
+
+    /**
+     * Emits a line and increases the indentation of the following lines.
+     *
+     * @param s Line content.
+     */
+    void open(final String s) {
+        line(s);
+        indent();
+    }
+
+    /**
+     * Decreases the indentation and emits a line.
+     *
+     * @param s Line content.
+     */
+    void close(final String s) {
+        unindent();
+        line(s);
+    }
+
+    /**
+     * Increases the indentation.
+     */
+    void indent() {
+        depth++;
+    }
+
+    /**
+     * Decreases the indentation.
+     */
+    void unindent() {
+        depth--;
+    }
+
+    /**
+     * Getter method for every emitted method.
+     *
+     * @return Method source, in order of completion.
+     */
+    List<String> getMethods() {
+        return methods;
+    }
+}
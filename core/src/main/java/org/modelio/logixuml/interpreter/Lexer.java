@@ -0,0 +1,253 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+
+/**
+ * Splits the lines of a structured text routine into tokens. Comments and
+ * whitespace are discarded.
+ */
+class Lexer {
+    /**
+     * Token categories.
+     */
+    enum Kind {
+        /**
+         * Identifier or keyword.
+         */
+        IDENTIFIER,
+
+        /**
+         * Integer literal.
+         */
+        NUMBER,
+
+        /**
+         * Operator or punctuation.
+         */
+        SYMBOL,
+
+        /**
+         * End of the routine.
+         */
+        END
+    }
+
+    /**
+     * A single token.
+     */
+    static class Token {
+        /**
+         * Token category.
+         */
+        final Kind kind;
+
+        /**
+         * Token text; identifiers and keywords are converted to upper case since
+         * Logix is not case-sensitive.
+         */
+        final String text;
+
+        /**
+         * Value of a number token; zero for other kinds.
+         */
+        final int value;
+
+        /**
+         * Zero-based line number where the token begins.
+         */
+        final int line;
+
+        /**
+         * Constructor.
+         *
+         * @param kind  Token category.
+         * @param text  Token text.
+         * @param value Numeric value, if applicable.
+         * @param line  Line number.
+         */
+        Token(final Kind kind, final String text, final int value, final int line) {
+            this.kind = kind;
+            this.text = text;
+            this.value = value;
+            this.line = line;
+        }
+
+        /**
+         * Tests if this token is a given keyword or symbol.
+         *
+         * @param s Keyword, in upper case, or symbol text.
+         * @return True if the token matches.
+         */
+        boolean is(final String s) {
+            return (kind != Kind.NUMBER) && (kind != Kind.END) && text.equals(s);
+        }
+    }
+
+    /**
+     * Multi-character symbols, which must be matched before their single-character
+     * prefixes.
+     */
+    private static final String[] LONG_SYMBOLS = { ":=", "..", "<>", "<=", ">=" };
+
+    /**
+     * Single-character symbols.
+     */
+    private static final String SHORT_SYMBOLS = ":;,[]()=<>+-*/&";
+
+    /**
+     * Not instantiable.
+     */
+    private Lexer() {
+    }
+
+    /**
+     * Tokenizes a routine.
+     *
+     * @param routine Routine being tokenized; used for error messages.
+     * @param lines   Structured text lines.
+     * @return Tokens, terminated by an END token.
+     * @throws ParseException If a character sequence is not a valid token.
+     */
+    static List<Token> tokenize(final ScanModeRoutine routine, final List<String> lines) throws ParseException {
+        final List<Token> tokens = new ArrayList<>();
+        boolean inComment = false;
+        String commentEnd = null;
+
+        for (int n = 0; n < lines.size(); n++) {
+            final String l = lines.get(n);
+            int i = 0;
+
+            while (i < l.length()) {
+                // Skip the remainder of a block comment.
+                if (inComment) {
+                    final int end = l.indexOf(commentEnd, i);
+                    if (end < 0) {
+                        i = l.length();
+                        continue;
+                    }
+                    i = end + commentEnd.length();
+                    inComment = false;
+                    continue;
+                }
+
+                final char c = l.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (l.startsWith("/*", i) || l.startsWith("(*", i)) {
+                    commentEnd = (c == '/') ? "*/" : "*)";
+                    inComment = true;
+                    i += 2;
+                } else if (l.startsWith("//", i)) {
+                    i = l.length();
+                } else if (Character.isLetter(c) || (c == '_')) {
+                    final int start = i;
+                    while ((i < l.length()) && (Character.isLetterOrDigit(l.charAt(i)) || (l.charAt(i) == '_'))) {
+                        i++;
+                    }
+                    tokens.add(new Token(Kind.IDENTIFIER, l.substring(start, i).toUpperCase(), 0, n));
+                } else if (Character.isDigit(c)) {
+                    i = number(routine, l, i, n, tokens);
+                } else {
+                    i = symbol(routine, l, i, n, tokens);
+                }
+            }
+        }
+
+        if (inComment) {
+            throw new ParseException(routine, lines.size(), "Unterminated comment.");
+        }
+
+        tokens.add(new Token(Kind.END, "", 0, lines.size()));
+        return tokens;
+    }
+
+    /**
+     * Reads an integer literal, with an optional base prefix, e.g. 16#FF.
+     *
+     * @param routine Routine being tokenized.
+     * @param l       Line text.
+     * @param start   Index of the first digit.
+     * @param n       Line number.
+     * @param tokens  List receiving the token.
+     * @return Index following the literal.
+     * @throws ParseException If the literal is invalid or out of range.
+     */
+    private static int number(final ScanModeRoutine routine, final String l, final int start, final int n,
+            final List<Token> tokens) throws ParseException {
+        int i = start;
+        while ((i < l.length()) && (Character.isLetterOrDigit(l.charAt(i)) || (l.charAt(i) == '_')
+                || (l.charAt(i) == '#'))) {
+            i++;
+        }
+
+        final String text = l.substring(start, i).replace("_", "");
+        final int hash = text.indexOf('#');
+        final long value;
+        try {
+            value = (hash < 0) ? Long.parseLong(text)
+                    : Long.parseLong(text.substring(hash + 1), Integer.parseInt(text.substring(0, hash)));
+        } catch (NumberFormatException e) {
+            throw new ParseException(routine, n, "Invalid number: " + text);
+        }
+
+        // Based literals may express negative DINT values in two's complement.
+        final long max = (hash < 0) ? Integer.MAX_VALUE : 0xFFFFFFFFL;
+        if (value > max) {
+            throw new ParseException(routine, n, "Number out of range: " + text);
+        }
+
+        tokens.add(new Token(Kind.NUMBER, text, (int) value, n));
+        return i;
+    }
+
+    /**
+     * Reads an operator or punctuation symbol.
+     *
+     * @param routine Routine being tokenized.
+     * @param l       Line text.
+     * @param start   Index of the symbol.
+     * @param n       Line number.
+     * @param tokens  List receiving the token.
+     * @return Index following the symbol.
+     * @throws ParseException If the character is not a symbol.
+     */
+    private static int symbol(final ScanModeRoutine routine, final String l, final int start, final int n,
+            final List<Token> tokens) throws ParseException {
+        for (final String s : LONG_SYMBOLS) {
+            if (l.startsWith(s, start)) {
+                tokens.add(new Token(Kind.SYMBOL, s, 0, n));
+                return start + s.length();
+            }
+        }
+
+        final char c = l.charAt(start);
+        if (SHORT_SYMBOLS.indexOf(c) < 0) {
+            throw new ParseException(routine, n, "Unexpected character: " + c);
+        }
+
+        tokens.add(new Token(Kind.SYMBOL, String.valueOf(c), 0, n));
+        return start + 1;
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+/**
+ * Exception thrown when executing a routine causes a condition the controller
+ * would report as a major fault, such as an array subscript out of range.
+ * Generated add-on instructions use this deliberately to halt the processor.
+ */
+@SuppressWarnings("serial")
+public class MajorFaultException extends Exception {
+    /**
+     * Constructor.
+     *
+     * @param msg Description of the fault.
+     */
+    MajorFaultException(final String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+
+/**
+ * Exception thrown when a routine contains structured text outside the subset
+ * supported by the interpreter, or refers to an undefined tag.
+ */
+@SuppressWarnings("serial")
+public class ParseException extends Exception {
+    /**
+     * Constructor.
+     *
+     * @param routine Routine containing the error.
+     * @param line    Zero-based line number, matching the L5X line numbering.
+     * @param msg     Description of the problem.
+     */
+    ParseException(final ScanModeRoutine routine, final int line, final String msg) {
+        super(String.format("%s routine, line %d: %s", routine, line, msg));
+    }
+}
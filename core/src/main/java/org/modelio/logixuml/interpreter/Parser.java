@@ -0,0 +1,533 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.modelio.logixuml.interpreter.Expression.Operator;
+import org.modelio.logixuml.interpreter.Lexer.Kind;
+import org.modelio.logixuml.interpreter.Lexer.Token;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+
+/**
+ * Recursive-descent parser for the structured text subset emitted by the
+ * generators: assignments, IF, CASE, WHILE, and EXIT statements with integer
+ * and boolean expressions over BOOL and DINT tags and arrays. Tag references
+ * are resolved while parsing, so executing the result needs no name lookups.
+ */
+class Parser {
+    /**
+     * Routine being parsed; used for error messages.
+     */
+    private final ScanModeRoutine routine;
+
+    /**
+     * Tokens of the entire routine.
+     */
+    private final List<Token> tokens;
+
+    /**
+     * Tags available to the routine.
+     */
+    private final TagTable tags;
+
+    /**
+     * Index of the current token.
+     */
+    private int pos;
+
+    /**
+     * Depth of the WHILE loops enclosing the current statement.
+     */
+    private int loopDepth;
+
+    /**
+     * Constructor.
+     *
+     * @param routine Routine being parsed.
+     * @param lines   Structured text lines.
+     * @param tags    Tags available to the routine.
+     * @throws ParseException If the lines could not be tokenized.
+     */
+    private Parser(final ScanModeRoutine routine, final List<String> lines, final TagTable tags)
+            throws ParseException {
+        this.routine = routine;
+        this.tokens = Lexer.tokenize(routine, lines);
+        this.tags = tags;
+    }
+
+    /**
+     * Parses an entire routine.
+     *
+     * @param routine Routine being parsed.
+     * @param lines   Structured text lines.
+     * @param tags    Tags available to the routine.
+     * @return The routine's statements.
+     * @throws ParseException If the routine is not valid.
+     */
+    static Statement[] parse(final ScanModeRoutine routine, final List<String> lines, final TagTable tags)
+            throws ParseException {
+        final Parser p = new Parser(routine, lines, tags);
+        final Statement[] block = p.block();
+        if (p.peek().kind != Kind.END) {
+            throw p.error("Unexpected " + p.peek().text);
+        }
+        return block;
+    }
+
+    /**
+     * Parses statements until a token that cannot begin a statement, which
+     * terminates the enclosing clause.
+     *
+     * @return The statements.
+     * @throws ParseException If a statement is not valid.
+     */
+    private Statement[] block() throws ParseException {
+        final List<Statement> list = new ArrayList<>();
+        while (true) {
+            final Token t = peek();
+            if ((t.kind != Kind.IDENTIFIER) && !t.is(";")) {
+                break; // END, or the start of the next CASE selector.
+            }
+            if (t.is("ELSIF") || t.is("ELSE") || t.is("END_IF") || t.is("END_CASE") || t.is("END_WHILE")) {
+                break;
+            }
+
+            final Statement s = statement();
+            if (s != null) {
+                list.add(s);
+            }
+        }
+        return list.toArray(new Statement[list.size()]);
+    }
+
+    /**
+     * Parses a single statement.
+     *
+     * @return The statement, or null for an empty statement.
+     * @throws ParseException If the statement is not valid.
+     */
+    private Statement statement() throws ParseException {
+        final Token t = next();
+
+        if (t.is(";")) {
+            return null;
+        } else if (t.is("IF")) {
+            return ifStatement();
+        } else if (t.is("CASE")) {
+            return caseStatement();
+        } else if (t.is("WHILE")) {
+            return whileStatement();
+        } else if (t.is("EXIT")) {
+            if (loopDepth == 0) {
+                throw error("EXIT outside of a loop.");
+            }
+            expect(";");
+            return new Statement.Exit();
+        }
+
+        // Anything else must be an assignment.
+        final Expression.Target target = reference(t);
+        expect(":=");
+        final Expression value = expression();
+        expect(";");
+        return new Statement.Assign(target, value);
+    }
+
+    /**
+     * Parses the remainder of an IF statement following the IF keyword.
+     *
+     * @return The statement.
+     * @throws ParseException If the statement is not valid.
+     */
+    private Statement ifStatement() throws ParseException {
+        final List<Expression> conditions = new ArrayList<>();
+        final List<Statement[]> blocks = new ArrayList<>();
+        Statement[] elseBlock = new Statement[0];
+
+        do {
+            conditions.add(expression());
+            expect("THEN");
+            blocks.add(block());
+        } while (accept("ELSIF"));
+
+        if (accept("ELSE")) {
+            elseBlock = block();
+        }
+        expect("END_IF");
+        expect(";");
+
+        return new Statement.If(conditions.toArray(new Expression[conditions.size()]),
+                blocks.toArray(new Statement[blocks.size()][]), elseBlock);
+    }
+
+    /**
+     * Parses the remainder of a CASE statement following the CASE keyword.
+     *
+     * @return The statement.
+     * @throws ParseException If the statement is not valid.
+     */
+    private Statement caseStatement() throws ParseException {
+        final Expression expression = expression();
+        expect("OF");
+
+        // Each range is stored as { low, high, block index }.
+        final List<int[]> ranges = new ArrayList<>();
+        final List<Statement[]> blocks = new ArrayList<>();
+        Statement[] elseBlock = new Statement[0];
+
+        while ((peek().kind == Kind.NUMBER) || peek().is("-")) {
+            do {
+                final int low = selectorValue();
+                final int high = accept("..") ? selectorValue() : low;
+                if (high < low) {
+                    throw error("Empty selector range.");
+                }
+                ranges.add(new int[] { low, high, blocks.size() });
+            } while (accept(","));
+            expect(":");
+            blocks.add(block());
+        }
+
+        if (accept("ELSE")) {
+            elseBlock = block();
+        }
+        expect("END_CASE");
+        expect(";");
+
+        // Sort the ranges for binary search, rejecting any overlap.
+        ranges.sort(Comparator.comparingInt(r -> r[0]));
+        final int[] low = new int[ranges.size()];
+        final int[] high = new int[ranges.size()];
+        final Statement[][] rangeBlocks = new Statement[ranges.size()][];
+        for (int i = 0; i < ranges.size(); i++) {
+            final int[] r = ranges.get(i);
+            if ((i > 0) && (r[0] <= high[i - 1])) {
+                throw error("Duplicate selector value: " + r[0]);
+            }
+            low[i] = r[0];
+            high[i] = r[1];
+            rangeBlocks[i] = blocks.get(r[2]);
+        }
+
+        return new Statement.Case(expression, low, high, rangeBlocks, elseBlock);
+    }
+
+    /**
+     * Parses a CASE selector value, which may be negative.
+     *
+     * @return The value.
+     * @throws ParseException If the next token is not a number.
+     */
+    private int selectorValue() throws ParseException {
+        final boolean negative = accept("-");
+        final Token t = next();
+        if (t.kind != Kind.NUMBER) {
+            throw error("Expected selector value.");
+        }
+        return negative ? -t.value : t.value;
+    }
+
+    /**
+     * Parses the remainder of a WHILE statement following the WHILE keyword.
+     *
+     * @return The statement.
+     * @throws ParseException If the statement is not valid.
+     */
+    private Statement whileStatement() throws ParseException {
+        final Expression condition = expression();
+        expect("DO");
+
+        loopDepth++;
+        final Statement[] body = block();
+        loopDepth--;
+
+        expect("END_WHILE");
+        expect(";");
+        return new Statement.While(condition, body);
+    }
+
+    /**
+     * Parses an expression, starting from the lowest precedence operator.
+     *
+     * @return The expression.
+     * @throws ParseException If the expression is not valid.
+     */
+    private Expression expression() throws ParseException {
+        Expression e = xorExpression();
+        while (accept("OR")) {
+            e = new Expression.Binary(Operator.OR, e, xorExpression());
+        }
+        return e;
+    }
+
+    /**
+     * Parses an XOR expression.
+     *
+     * @return The expression.
+     * @throws ParseException If the expression is not valid.
+     */
+    private Expression xorExpression() throws ParseException {
+        Expression e = andExpression();
+        while (accept("XOR")) {
+            e = new Expression.Binary(Operator.XOR, e, andExpression());
+        }
+        return e;
+    }
+
+    /**
+     * Parses an AND expression.
+     *
+     * @return The expression.
+     * @throws ParseException If the expression is not valid.
+     */
+    private Expression andExpression() throws ParseException {
+        Expression e = equality();
+        while (accept("AND") || accept("&")) {
+            e = new Expression.Binary(Operator.AND, e, equality());
+        }
+        return e;
+    }
+
+    /**
+     * Parses an equality comparison.
+     *
+     * @return The expression.
+     * @throws ParseException If the expression is not valid.
+     */
+    private Expression equality() throws ParseException {
+        Expression e = relation();
+        while (true) {
+            if (accept("=")) {
+                e = new Expression.Binary(Operator.EQUAL, e, relation());
+            } else if (accept("<>")) {
+                e = new Expression.Binary(Operator.NOT_EQUAL, e, relation());
+            } else {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Parses a relational comparison.
+     *
+     * @return The expression.
+     * @throws ParseException If the expression is not valid.
+     */
+    private Expression relation() throws ParseException {
+        Expression e = sum();
+        while (true) {
+            if (accept("<")) {
+                e = new Expression.Binary(Operator.LESS, e, sum());
+            } else if (accept("<=")) {
+                e = new Expression.Binary(Operator.LESS_EQUAL, e, sum());
+            } else if (accept(">")) {
+                e = new Expression.Binary(Operator.GREATER, e, sum());
+            } else if (accept(">=")) {
+                e = new Expression.Binary(Operator.GREATER_EQUAL, e, sum());
+            } else {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Parses an addition or subtraction.
+     *
+     * @return The expression.
+     * @throws ParseException If the expression is not valid.
+     */
+    private Expression sum() throws ParseException {
+        Expression e = product();
+        while (true) {
+            if (accept("+")) {
+                e = new Expression.Binary(Operator.ADD, e, product());
+            } else if (accept("-")) {
+                e = new Expression.Binary(Operator.SUBTRACT, e, product());
+            } else {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Parses a multiplication, division, or modulo.
+     *
+     * @return The expression.
+     * @throws ParseException If the expression is not valid.
+     */
+    private Expression product() throws ParseException {
+        Expression e = unary();
+        while (true) {
+            if (accept("*")) {
+                e = new Expression.Binary(Operator.MULTIPLY, e, unary());
+            } else if (accept("/")) {
+                e = new Expression.Binary(Operator.DIVIDE, e, unary());
+            } else if (accept("MOD")) {
+                e = new Expression.Binary(Operator.MOD, e, unary());
+            } else {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Parses a negation, NOT, or primary expression.
+     *
+     * @return The expression.
+     * @throws ParseException If the expression is not valid.
+     */
+    private Expression unary() throws ParseException {
+        if (accept("-")) {
+            final Expression operand = unary();
+            if (operand instanceof Expression.Constant) {
+                return new Expression.Constant(-((Expression.Constant) operand).getValue());
+            }
+            return new Expression.Negate(operand);
+        } else if (accept("NOT")) {
+            return new Expression.Not(unary());
+        }
+        return primary();
+    }
+
+    /**
+     * Parses a literal, tag reference, or parenthesized expression.
+     *
+     * @return The expression.
+     * @throws ParseException If the expression is not valid.
+     */
+    private Expression primary() throws ParseException {
+        final Token t = next();
+
+        if (t.kind == Kind.NUMBER) {
+            return new Expression.Constant(t.value);
+        } else if (t.is("(")) {
+            final Expression e = expression();
+            expect(")");
+            return e;
+        } else if (t.kind == Kind.IDENTIFIER) {
+            return reference(t);
+        }
+
+        throw error("Unexpected " + t.text);
+    }
+
+    /**
+     * Resolves a tag reference, including an array subscript if the tag is an
+     * array.
+     *
+     * @param t Token containing the tag name.
+     * @return The tag reference.
+     * @throws ParseException If the tag is undefined or subscripted incorrectly.
+     */
+    private Expression.Target reference(final Token t) throws ParseException {
+        if (t.kind != Kind.IDENTIFIER) {
+            throw error("Expected tag name.");
+        }
+
+        final TagTable.Tag tag = tags.get(t.text);
+        if (tag == null) {
+            throw error("Undefined tag: " + t.text);
+        }
+
+        if (tag.dimension == 0) {
+            if (peek().is("[")) {
+                throw error("Tag is not an array: " + tag.name);
+            }
+            return new Expression.TagValue(tag);
+        }
+
+        expect("[");
+        final Expression index = expression();
+        expect("]");
+        return new Expression.ArrayElement(tag, index);
+    }
+
+    /**
+     * Gets the current token without consuming it.
+     *
+     * @return The current token.
+     */
+    private Token peek() {
+        return tokens.get(pos);
+    }
+
+    /**
+     * Consumes the current token.
+     *
+     * @return The consumed token.
+     */
+    private Token next() {
+        final Token t = tokens.get(pos);
+        if (t.kind != Kind.END) {
+            pos++;
+        }
+        return t;
+    }
+
+    /**
+     * Consumes the current token if it is a given keyword or symbol.
+     *
+     * @param s Keyword or symbol.
+     * @return True if the token was consumed.
+     */
+    private boolean accept(final String s) {
+        if (peek().is(s)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Consumes a required keyword or symbol.
+     *
+     * @param s Keyword or symbol.
+     * @throws ParseException If the current token is something else.
+     */
+    private void expect(final String s) throws ParseException {
+        if (!accept(s)) {
+            throw error(String.format("Expected %s but found %s", s, describe(peek())));
+        }
+    }
+
+    /**
+     * Describes a token for an error message.
+     *
+     * @param t The token.
+     * @return Token description.
+     */
+    private static String describe(final Token t) {
+        return (t.kind == Kind.END) ? "end of routine" : t.text;
+    }
+
+    /**
+     * Creates an exception at the current position.
+     *
+     * @param msg Error description.
+     * @return The exception.
+     */
+    private ParseException error(final String msg) {
+        final int line = tokens.get(Math.min(pos, tokens.size() - 1)).line;
+        return new ParseException(routine, line, msg);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+
+/**
+ * Static estimate of the execution cost of a single scan of a routine, found
+ * by walking the parsed statements without executing them. Costs are given as
+ * the number of statements executed and the number of instructions, where an
+ * instruction is a statement, an operator, an array subscript, or a condition
+ * test.
+ * <p>
+ * The worst case takes the most expensive branch of every IF and CASE
+ * statement and iterates every WHILE loop the maximum number of times, so it is
+ * an upper bound on any actual scan. The typical case averages every branch,
+ * including an empty ELSE where none is given, and iterates every loop once,
+ * approximating a scan with no pending events.
+ */
+public final class ScanCost {
+    /**
+     * Cost of executing nothing.
+     */
+    static final ScanCost ZERO = new ScanCost(0, 0, 0, 0);
+
+    /**
+     * Number of statements executed in the worst case.
+     */
+    private final long worstStatements;
+
+    /**
+     * Number of statements executed in the typical case.
+     */
+    private final double typicalStatements;
+
+    /**
+     * Number of instructions executed in the worst case.
+     */
+    private final long worstInstructions;
+
+    /**
+     * Number of instructions executed in the typical case.
+     */
+    private final double typicalInstructions;
+
+    /**
+     * Constructor.
+     *
+     * @param worstStatements     Worst case statement count.
+     * @param typicalStatements   Typical statement count.
+     * @param worstInstructions   Worst case instruction count.
+     * @param typicalInstructions Typical instruction count.
+     */
+    ScanCost(final long worstStatements, final double typicalStatements, final long worstInstructions,
+            final double typicalInstructions) {
+        this.worstStatements = worstStatements;
+        this.typicalStatements = typicalStatements;
+        this.worstInstructions = worstInstructions;
+        this.typicalInstructions = typicalInstructions;
+    }
+
+    /**
+     * Estimates the cost of a single scan of every routine of an add-on
+     * instruction.
+     *
+     * @param aoi               The add-on instruction to analyze.
+     * @param maxLoopIterations Maximum number of iterations of any WHILE loop in a
+     *                          single scan, used for the worst case.
+     * @return Cost of each routine.
+     * @throws ParseException If a routine contains unsupported structured text.
+     */
+    public static Map<ScanModeRoutine, ScanCost> estimate(final AddOnInstruction aoi, final int maxLoopIterations)
+            throws ParseException {
+        final TagTable tags = new TagTable(aoi);
+        final Map<ScanModeRoutine, ScanCost> costs = new EnumMap<>(ScanModeRoutine.class);
+        for (final ScanModeRoutine r : ScanModeRoutine.values()) {
+            costs.put(r, Statement.cost(Parser.parse(r, aoi.getStructuredTextLines(r), tags), maxLoopIterations));
+        }
+        return costs;
+    }
+
+    /**
+     * Builds the cost of a single statement with no nested statements.
+     *
+     * @param instructions Number of instructions executed by the statement.
+     * @return The statement's cost.
+     */
+    static ScanCost statement(final int instructions) {
+        return new ScanCost(1, 1, instructions, instructions);
+    }
+
+    /**
+     * Builds the cost of evaluating instructions outside any statement, such as a
+     * loop condition.
+     *
+     * @param instructions Number of instructions.
+     * @return The instructions' cost.
+     */
+    static ScanCost instructions(final int instructions) {
+        return new ScanCost(0, 0, instructions, instructions);
+    }
+
+    /**
+     * Builds the cost of executing exactly one of several alternatives.
+     *
+     * @param alternatives Cost of each alternative; must not be empty.
+     * @return Most expensive alternative for the worst case, and the mean for the
+     *         typical case.
+     */
+    static ScanCost oneOf(final List<ScanCost> alternatives) {
+        long ws = 0;
+        long wi = 0;
+        double ts = 0;
+        double ti = 0;
+        for (final ScanCost c : alternatives) {
+            ws = Math.max(ws, c.worstStatements);
+            wi = Math.max(wi, c.worstInstructions);
+            ts += c.typicalStatements;
+            ti += c.typicalInstructions;
+        }
+        return new ScanCost(ws, ts / alternatives.size(), wi, ti / alternatives.size());
+    }
+
+    /**
+     * Combines the cost of executing this and another in sequence.
+     *
+     * @param other Cost executed afterwards.
+     * @return Total cost.
+     */
+    ScanCost plus(final ScanCost other) {
+        return new ScanCost(worstStatements + other.worstStatements, typicalStatements + other.typicalStatements,
+                worstInstructions + other.worstInstructions, typicalInstructions + other.typicalInstructions);
+    }
+
+    /**
+     * Builds the cost of executing this repeatedly.
+     *
+     * @param worst   Number of repetitions in the worst case.
+     * @param typical Number of repetitions in the typical case.
+     * @return Total cost.
+     */
+    ScanCost repeat(final long worst, final double typical) {
+        return new ScanCost(worstStatements * worst, typicalStatements * typical, worstInstructions * worst,
+                typicalInstructions * typical);
+    }
+
+    /**
+     * Getter method for the worst case statement count.
+     *
+     * @return Number of statements.
+     */
+    public long getWorstStatements() {
+        return worstStatements;
+    }
+
+    /**
+     * Getter method for the typical statement count.
+     *
+     * @return Number of statements.
+     */
+    public double getTypicalStatements() {
+        return typicalStatements;
+    }
+
+    /**
+     * Getter method for the worst case instruction count.
+     *
+     * @return Number of instructions.
+     */
+    public long getWorstInstructions() {
+        return worstInstructions;
+    }
+
+    /**
+     * Getter method for the typical instruction count.
+     *
+     * @return Number of instructions.
+     */
+    public double getTypicalInstructions() {
+        return typicalInstructions;
+    }
+
+    /**
+     * Formats the cost as a JSON object.
+     *
+     * @return JSON text.
+     */
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{ \"worstStatements\": %d, \"typicalStatements\": %.1f, \"worstInstructions\": %d, \"typicalInstructions\": %.1f }",
+                worstStatements, typicalStatements, worstInstructions, typicalInstructions);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d statements, %d instructions worst case; %.1f statements, %.1f instructions typical",
+                worstStatements, worstInstructions, typicalStatements, typicalInstructions);
+    }
+}
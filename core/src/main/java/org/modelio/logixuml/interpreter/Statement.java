@@ -0,0 +1,670 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Node of a parsed structured text statement.
+ */
+abstract class Statement {
+    /**
+     * Execution result indicating the next statement should be executed.
+     */
+    static final int CONTINUE = 0;
+
+    /**
+     * Execution result indicating an EXIT statement was executed, terminating the
+     * innermost loop.
+     */
+    static final int EXIT = 1;
+
+    /**
+     * Maximum number of iterations a single loop may execute before it is
+     * considered stuck. The controller would instead fault on its watchdog timer.
+     */
+    static final int MAX_LOOP_ITERATIONS = 1000000;
+
+    /**
+     * Executes the statement.
+     *
+     * @param m Tag storage.
+     * @return CONTINUE or EXIT.
+     * @throws MajorFaultException If execution faults the controller.
+     */
+    abstract int execute(int[] m) throws MajorFaultException;
+
+    /**
+     * Emits equivalent Java statements for compiled routines.
+     *
+     * @param src Destination source.
+     */
+    abstract void toJava(JavaSource src);
+
+    /**
+     * Computes the size of the statement, used to keep compiled methods small
+     * enough for the JIT compiler.
+     *
+     * @return Number of statements, including nested statements.
+     */
+    abstract int weight();
+
+    /**
+     * Determines if the statement contains an EXIT that terminates a loop outside
+     * the statement. Such statements cannot be moved into a separate method.
+     *
+     * @return True if an EXIT escapes the statement.
+     */
+    abstract boolean hasFreeExit();
+
+    /**
+     * Estimates the cost of executing the statement once.
+     *
+     * @param loopIterations Maximum iterations of any loop, for the worst case.
+     * @return Estimated cost, including nested statements.
+     */
+    abstract ScanCost cost(int loopIterations);
+
+    /**
+     * Estimates the cost of executing a sequence of statements.
+     *
+     * @param block          Statements.
+     * @param loopIterations Maximum iterations of any loop, for the worst case.
+     * @return Sum of the statement costs.
+     */
+    static ScanCost cost(final Statement[] block, final int loopIterations) {
+        ScanCost c = ScanCost.ZERO;
+        for (final Statement s : block) {
+            c = c.plus(s.cost(loopIterations));
+        }
+        return c;
+    }
+
+    /**
+     * Executes a sequence of statements.
+     *
+     * @param block Statements to execute.
+     * @param m     Tag storage.
+     * @return CONTINUE, or EXIT if a statement exited a loop.
+     * @throws MajorFaultException If execution faults the controller.
+     */
+    static int execute(final Statement[] block, final int[] m) throws MajorFaultException {
+        for (final Statement s : block) {
+            if (s.execute(m) == EXIT) {
+                return EXIT;
+            }
+        }
+        return CONTINUE;
+    }
+
+    /**
+     * Computes the total size of a sequence of statements.
+     *
+     * @param block Statements.
+     * @return Sum of the statement weights.
+     */
+    static int weight(final Statement[] block) {
+        int w = 0;
+        for (final Statement s : block) {
+            w += s.weight();
+        }
+        return w;
+    }
+
+    /**
+     * Determines if any statement in a sequence has an escaping EXIT.
+     *
+     * @param block Statements.
+     * @return True if an EXIT escapes the sequence.
+     */
+    static boolean hasFreeExit(final Statement[] block) {
+        for (final Statement s : block) {
+            if (s.hasFreeExit()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Assignment statement.
+     */
+    static final class Assign extends Statement {
+        /**
+         * Tag receiving the value.
+         */
+        private final Expression.Target target;
+
+        /**
+         * Value to assign.
+         */
+        private final Expression value;
+
+        /**
+         * Constructor.
+         *
+         * @param target Tag receiving the value.
+         * @param value  Value to assign.
+         */
+        Assign(final Expression.Target target, final Expression value) {
+            this.target = target;
+            this.value = value;
+        }
+
+        @Override
+        int execute(final int[] m) throws MajorFaultException {
+            target.store(m, value.evaluate(m));
+            return CONTINUE;
+        }
+
+        @Override
+        void toJava(final JavaSource src) {
+            src.line(target.toJavaStore(value));
+        }
+
+        @Override
+        int weight() {
+            return 1;
+        }
+
+        @Override
+        boolean hasFreeExit() {
+            return false;
+        }
+
+        @Override
+        ScanCost cost(final int loopIterations) {
+            return ScanCost.statement(1 + target.instructions() + value.instructions());
+        }
+    }
+
+    /**
+     * IF/ELSIF/ELSE statement.
+     */
+    static final class If extends Statement {
+        /**
+         * Condition of the IF clause followed by each ELSIF clause.
+         */
+        private final Expression[] conditions;
+
+        /**
+         * Statements executed for the condition of the same index.
+         */
+        private final Statement[][] blocks;
+
+        /**
+         * Statements of the ELSE clause; empty if absent.
+         */
+        private final Statement[] elseBlock;
+
+        /**
+         * Constructor.
+         *
+         * @param conditions Clause conditions.
+         * @param blocks     Clause statements.
+         * @param elseBlock  ELSE statements.
+         */
+        If(final Expression[] conditions, final Statement[][] blocks, final Statement[] elseBlock) {
+            this.conditions = conditions;
+            this.blocks = blocks;
+            this.elseBlock = elseBlock;
+        }
+
+        @Override
+        int execute(final int[] m) throws MajorFaultException {
+            for (int i = 0; i < conditions.length; i++) {
+                if (conditions[i].evaluate(m) != 0) {
+                    return execute(blocks[i], m);
+                }
+            }
+            return execute(elseBlock, m);
+        }
+
+        @Override
+        void toJava(final JavaSource src) {
+            toJava(src, 0, (weight() > JavaSource.MAX_METHOD_WEIGHT) && !hasFreeExit());
+        }
+
+        /**
+         * Emits the clauses beginning with a given clause. If split, clauses
+         * following those fitting within the method size limit are moved into a
+         * new method, called from the ELSE clause, which continues the chain.
+         *
+         * @param src   Destination source.
+         * @param first Index of the first clause to emit.
+         * @param split True if the clauses are too large for a single method.
+         */
+        private void toJava(final JavaSource src, final int first, final boolean split) {
+            int weight = 0;
+            for (int i = first; i < conditions.length; i++) {
+                weight += 1 + weight(blocks[i]);
+                if (split && (i > first) && (weight > JavaSource.MAX_METHOD_WEIGHT)) {
+                    final int rest = i;
+                    src.open("} else {");
+                    src.line(src.privateMethod(null, () -> toJava(src, rest, true)) + "();");
+                    src.close("}");
+                    return;
+                }
+                src.open(((i == first) ? "if " : "} else if ") + conditions[i].toJavaCondition() + " {");
+                src.block(blocks[i]);
+                src.unindent();
+            }
+            if (elseBlock.length > 0) {
+                src.open("} else {");
+                src.block(elseBlock);
+                src.unindent();
+            }
+            src.line("}");
+        }
+
+        @Override
+        int weight() {
+            int w = 1 + weight(elseBlock);
+            for (final Statement[] b : blocks) {
+                w += weight(b);
+            }
+            return w;
+        }
+
+        @Override
+        boolean hasFreeExit() {
+            for (final Statement[] b : blocks) {
+                if (hasFreeExit(b)) {
+                    return true;
+                }
+            }
+            return hasFreeExit(elseBlock);
+        }
+
+        /**
+         * Each clause's path includes testing every preceding condition; the ELSE
+         * path, taken even if empty, tests them all.
+         */
+        @Override
+        ScanCost cost(final int loopIterations) {
+            final List<ScanCost> paths = new ArrayList<>();
+            ScanCost tests = ScanCost.ZERO;
+            for (int i = 0; i < conditions.length; i++) {
+                tests = tests.plus(ScanCost.instructions(1 + conditions[i].instructions()));
+                paths.add(tests.plus(cost(blocks[i], loopIterations)));
+            }
+            paths.add(tests.plus(cost(elseBlock, loopIterations)));
+            return ScanCost.statement(0).plus(ScanCost.oneOf(paths));
+        }
+    }
+
+    /**
+     * CASE statement. Selector values are stored as sorted, non-overlapping
+     * ranges, which are searched with a binary search.
+     */
+    static final class Case extends Statement {
+        /**
+         * Expression compared to the selectors.
+         */
+        private final Expression expression;
+
+        /**
+         * Lower, inclusive bound of each selector range, in ascending order.
+         */
+        private final int[] low;
+
+        /**
+         * Upper, inclusive bound of each selector range.
+         */
+        private final int[] high;
+
+        /**
+         * Statements executed for each selector range.
+         */
+        private final Statement[][] blocks;
+
+        /**
+         * Statements of the ELSE clause; empty if absent.
+         */
+        private final Statement[] elseBlock;
+
+        /**
+         * Constructor.
+         *
+         * @param expression Expression compared to the selectors.
+         * @param low        Sorted lower range bounds.
+         * @param high       Upper range bounds.
+         * @param blocks     Statements for each range.
+         * @param elseBlock  ELSE statements.
+         */
+        Case(final Expression expression, final int[] low, final int[] high, final Statement[][] blocks,
+                final Statement[] elseBlock) {
+            this.expression = expression;
+            this.low = low;
+            this.high = high;
+            this.blocks = blocks;
+            this.elseBlock = elseBlock;
+        }
+
+        @Override
+        int execute(final int[] m) throws MajorFaultException {
+            final int v = expression.evaluate(m);
+
+            // Find the last range beginning at or below the value.
+            int lo = 0;
+            int hi = low.length - 1;
+            while (lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (low[mid] <= v) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+
+            if ((hi >= 0) && (v <= high[hi])) {
+                return execute(blocks[hi], m);
+            }
+            return execute(elseBlock, m);
+        }
+
+        /**
+         * Emits a Java switch, which the JVM implements with a jump table for dense
+         * selectors. Ranges too wide to enumerate as switch labels are instead
+         * tested in the default clause.
+         * <p>
+         * A CASE too large for a single method is divided into groups of
+         * consecutive selector ranges, each emitted as a switch in its own
+         * method. The group is chosen by comparing the value with the first
+         * selector of each group, and the ELSE statements are moved into a method
+         * shared by every group.
+         */
+        @Override
+        void toJava(final JavaSource src) {
+            final String v = src.newName("v");
+            src.open("{");
+            src.line("final int " + v + " = " + expression.toJava() + ";");
+
+            final List<Integer> groups = new ArrayList<>();
+            if ((weight() > JavaSource.MAX_METHOD_WEIGHT) && !hasFreeExit()) {
+                int weight = 0;
+                for (int i = 0; i < blocks.length; i++) {
+                    final int w = 1 + weight(blocks[i]);
+                    if (groups.isEmpty() || ((weight + w) > JavaSource.MAX_METHOD_WEIGHT)) {
+                        groups.add(i);
+                        weight = 0;
+                    }
+                    weight += w;
+                }
+            }
+
+            if (groups.size() < 2) {
+                switchToJava(src, v, 0, blocks.length, (elseBlock.length > 0) ? () -> src.block(elseBlock) : null);
+            } else {
+                final String elseCall = (elseBlock.length > 0)
+                        ? src.privateMethod(null, () -> src.block(elseBlock)) + "();"
+                        : null;
+                final Runnable otherwise = (elseCall != null) ? () -> src.line(elseCall) : null;
+                groups.add(blocks.length);
+                dispatchToJava(src, v, groups, 0, groups.size() - 1, otherwise);
+            }
+            src.close("}");
+        }
+
+        /**
+         * Emits a chain of IF statements calling the method of the group containing
+         * the value. Chains longer than the method size limit call methods
+         * selecting among several groups instead, forming a tree.
+         *
+         * @param src       Destination source.
+         * @param v         Name of the variable holding the value.
+         * @param groups    Index of the first selector range of each group, followed
+         *                  by the number of ranges.
+         * @param from      Index of the first group to select from.
+         * @param to        Index following the last group to select from.
+         * @param otherwise Emits the statements executed if no range matches; null
+         *                  if there are none.
+         */
+        private void dispatchToJava(final JavaSource src, final String v, final List<Integer> groups, final int from,
+                final int to, final Runnable otherwise) {
+            int step = 1;
+            while (((to - from + step - 1) / step) > JavaSource.MAX_METHOD_WEIGHT) {
+                step *= JavaSource.MAX_METHOD_WEIGHT;
+            }
+
+            for (int g = from; g < to; g += step) {
+                final int first = g;
+                final int end = Math.min(g + step, to);
+                final String call = src.privateMethod(v, () -> {
+                    if (end == (first + 1)) {
+                        switchToJava(src, v, groups.get(first), groups.get(end), otherwise);
+                    } else {
+                        dispatchToJava(src, v, groups, first, end, otherwise);
+                    }
+                }) + "(" + v + ");";
+
+                if (end < to) {
+                    src.open(((g == from) ? "if (" : "} else if (") + v + " < " + low[groups.get(end)] + ") {");
+                } else if (g > from) {
+                    src.open("} else {");
+                } else {
+                    src.line(call);
+                    return;
+                }
+                src.line(call);
+                src.unindent();
+            }
+            src.line("}");
+        }
+
+        /**
+         * Emits a switch covering a subset of the selector ranges.
+         *
+         * @param src       Destination source.
+         * @param v         Name of the variable holding the value.
+         * @param from      Index of the first selector range.
+         * @param to        Index following the last selector range.
+         * @param otherwise Emits the statements executed if no range matches; null
+         *                  if there are none.
+         */
+        private void switchToJava(final JavaSource src, final String v, final int from, final int to,
+                final Runnable otherwise) {
+            src.open("switch (" + v + ") {");
+
+            final List<Integer> wide = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                if (((long) high[i] - low[i]) >= JavaSource.MAX_CASE_RANGE) {
+                    wide.add(i);
+                    continue;
+                }
+                final StringBuilder labels = new StringBuilder();
+                for (long s = low[i]; s <= high[i]; s++) {
+                    labels.append((labels.length() == 0) ? "" : " ").append("case ").append(s).append(':');
+                }
+                src.line(labels.toString());
+                src.open("{");
+                src.block(blocks[i]);
+                src.close("}");
+                src.line("break;");
+            }
+
+            src.line("default:");
+            src.indent();
+            for (int j = 0; j < wide.size(); j++) {
+                final int i = wide.get(j);
+                src.open(String.format("%sif ((%s >= %d) && (%s <= %d)) {", (j == 0) ? "" : "} else ", v, low[i],
+                        v, high[i]));
+                src.block(blocks[i]);
+                src.unindent();
+            }
+            if (wide.isEmpty()) {
+                if (otherwise != null) {
+                    otherwise.run();
+                }
+            } else {
+                if (otherwise != null) {
+                    src.open("} else {");
+                    otherwise.run();
+                    src.unindent();
+                }
+                src.line("}");
+            }
+            src.unindent();
+            src.close("}");
+        }
+
+        @Override
+        int weight() {
+            int w = 1 + weight(elseBlock);
+            for (final Statement[] b : blocks) {
+                w += weight(b);
+            }
+            return w;
+        }
+
+        @Override
+        boolean hasFreeExit() {
+            for (final Statement[] b : blocks) {
+                if (hasFreeExit(b)) {
+                    return true;
+                }
+            }
+            return hasFreeExit(elseBlock);
+        }
+
+        @Override
+        ScanCost cost(final int loopIterations) {
+            final List<ScanCost> paths = new ArrayList<>();
+            for (final Statement[] b : blocks) {
+                paths.add(cost(b, loopIterations));
+            }
+            paths.add(cost(elseBlock, loopIterations));
+            return ScanCost.statement(1 + expression.instructions()).plus(ScanCost.oneOf(paths));
+        }
+    }
+
+    /**
+     * WHILE loop.
+     */
+    static final class While extends Statement {
+        /**
+         * Loop condition.
+         */
+        private final Expression condition;
+
+        /**
+         * Loop body.
+         */
+        private final Statement[] body;
+
+        /**
+         * Constructor.
+         *
+         * @param condition Loop condition.
+         * @param body      Loop body.
+         */
+        While(final Expression condition, final Statement[] body) {
+            this.condition = condition;
+            this.body = body;
+        }
+
+        @Override
+        int execute(final int[] m) throws MajorFaultException {
+            int iterations = 0;
+            while (condition.evaluate(m) != 0) {
+                if (++iterations > MAX_LOOP_ITERATIONS) {
+                    throw new MajorFaultException("Watchdog: WHILE loop did not terminate.");
+                }
+                if (execute(body, m) == EXIT) {
+                    break;
+                }
+            }
+            return CONTINUE;
+        }
+
+        @Override
+        void toJava(final JavaSource src) {
+            final String label = src.newName("loop");
+            final String count = src.newName("n");
+            src.open("{");
+            src.line("int " + count + " = 0;");
+            src.open(label + ": while " + condition.toJavaCondition() + " {");
+            src.open("if (++" + count + " > " + MAX_LOOP_ITERATIONS + ") {");
+            src.line("watchdog();");
+            src.close("}");
+            src.enterLoop(label);
+            src.block(body);
+            src.exitLoop();
+            src.close("}");
+            src.close("}");
+        }
+
+        @Override
+        int weight() {
+            return 1 + weight(body);
+        }
+
+        @Override
+        boolean hasFreeExit() {
+            return false;
+        }
+
+        /**
+         * The worst case tests the condition once more than the body executes; the
+         * typical case assumes a single iteration ending with an EXIT.
+         */
+        @Override
+        ScanCost cost(final int loopIterations) {
+            final ScanCost test = ScanCost.instructions(1 + condition.instructions());
+            return ScanCost.statement(0).plus(test.repeat(loopIterations + 1L, 1))
+                    .plus(cost(body, loopIterations).repeat(loopIterations, 1));
+        }
+    }
+
+    /**
+     * EXIT statement.
+     */
+    static final class Exit extends Statement {
+        @Override
+        int execute(final int[] m) {
+            return EXIT;
+        }
+
+        /**
+         * Emits a labeled break. The constant condition keeps javac from rejecting
+         * any statements following the EXIT as unreachable.
+         */
+        @Override
+        void toJava(final JavaSource src) {
+            src.line("if (true) break " + src.getLoop() + ";");
+        }
+
+        @Override
+        int weight() {
+            return 1;
+        }
+
+        @Override
+        boolean hasFreeExit() {
+            return true;
+        }
+
+        @Override
+        ScanCost cost(final int loopIterations) {
+            return ScanCost.statement(1);
+        }
+    }
+}
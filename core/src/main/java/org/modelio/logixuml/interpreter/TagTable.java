@@ -0,0 +1,181 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.DataType;
+
+/**
+ * Allocates storage for every tag accessible to an add-on instruction's
+ * routines. All tags share a single integer array; BOOL tags hold zero or one,
+ * and array tags occupy consecutive elements.
+ */
+class TagTable {
+    /**
+     * Storage allocated to a single tag.
+     */
+    static class Tag {
+        /**
+         * Tag name as defined in the AOI.
+         */
+        final String name;
+
+        /**
+         * Index of the tag's first element in the storage array.
+         */
+        final int offset;
+
+        /**
+         * True for BOOL tags.
+         */
+        final boolean bool;
+
+        /**
+         * Array size; zero for non-array tags.
+         */
+        final int dimension;
+
+        /**
+         * Constructor.
+         *
+         * @param name      Tag name.
+         * @param offset    Storage offset.
+         * @param bool      True for BOOL tags.
+         * @param dimension Array size, or zero.
+         */
+        Tag(final String name, final int offset, final boolean bool, final int dimension) {
+            this.name = name;
+            this.offset = offset;
+            this.bool = bool;
+            this.dimension = dimension;
+        }
+
+        /**
+         * Builds the name of the field holding this tag in compiled routines. A
+         * prefix avoids collisions with Java keywords.
+         *
+         * @return Java field name.
+         */
+        String getFieldName() {
+            return "t_" + name;
+        }
+    }
+
+    /**
+     * Tags keyed by upper case name, as Logix tag names are not case-sensitive.
+     */
+    private final Map<String, Tag> tags = new HashMap<>();
+
+    /**
+     * Total number of storage elements allocated.
+     */
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param aoi Add-on instruction defining the parameters and local tags.
+     */
+    TagTable(final AddOnInstruction aoi) {
+        // Implicit parameters present in every AOI.
+        add("EnableIn", DataType.BOOL, 0);
+        add("EnableOut", DataType.BOOL, 0);
+
+        for (final AddOnInstruction.Parameter p : aoi.getParameters()) {
+            add(p.getName(), p.getDataType(), 0);
+        }
+        for (final AddOnInstruction.LocalTag t : aoi.getLocalTags()) {
+            add(t.getName(), t.getDataType(), t.getDimension());
+        }
+    }
+
+    /**
+     * Allocates storage for a tag.
+     *
+     * @param name      Tag name.
+     * @param dataType  Tag data type.
+     * @param dimension Array size, or zero.
+     */
+    private void add(final String name, final DataType dataType, final int dimension) {
+        final String key = name.toUpperCase();
+        if (tags.containsKey(key)) {
+            throw new AssertionError(name);
+        }
+
+        tags.put(key, new Tag(name, size, dataType == DataType.BOOL, dimension));
+        size += Math.max(dimension, 1);
+    }
+
+    /**
+     * Looks up a tag by name.
+     *
+     * @param name Tag name, in any case.
+     * @return The tag, or null if undefined.
+     */
+    Tag get(final String name) {
+        return tags.get(name.toUpperCase());
+    }
+
+    /**
+     * Looks up a tag by name for external access.
+     *
+     * @param name  Tag name.
+     * @param array True if the tag must be an array, false if it must not be.
+     * @return The tag.
+     * @throws IllegalArgumentException If the tag is undefined or of the wrong
+     *                                  shape.
+     */
+    Tag lookup(final String name, final boolean array) {
+        final Tag tag = get(name);
+        if (tag == null) {
+            throw new IllegalArgumentException("Undefined tag: " + name);
+        }
+        if ((tag.dimension > 0) != array) {
+            throw new IllegalArgumentException((array ? "Tag is not an array: " : "Tag is an array: ") + name);
+        }
+        return tag;
+    }
+
+    /**
+     * Getter method for every defined tag.
+     *
+     * @return Tags in storage order.
+     */
+    List<Tag> getTags() {
+        final List<Tag> list = new ArrayList<>(tags.values());
+        list.sort(Comparator.comparingInt(t -> t.offset));
+        return list;
+    }
+
+    /**
+     * Getter method for the storage size.
+     *
+     * @return Number of integer elements required to hold every tag.
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.l5x;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.modelio.logixuml.statemachineaoi.ExportException;
+
+/**
+ * This class handles collecting the content defining an add-on instruction and
+ * exporting it to an L5X file. The actual XML is only generated when the AOI is
+ * written, by the selected {@link WriterBackend}.
+ */
+public class AddOnInstruction {
+    /**
+     * Definition of a single AOI parameter.
+     */
+    public static class Parameter {
+        private final String name;
+        private final ParameterUsage usage;
+        private final DataType dataType;
+        private final boolean visible;
+
+        /**
+         * Optional description; null if no description was given.
+         */
+        private final String description;
+
+        Parameter(final String name, final ParameterUsage usage, final DataType dataType, final boolean visible,
+                final String description) {
+            this.name = name;
+            this.usage = usage;
+            this.dataType = dataType;
+            this.visible = visible;
+            this.description = description;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ParameterUsage getUsage() {
+            return usage;
+        }
+
+        public DataType getDataType() {
+            return dataType;
+        }
+
+        boolean isVisible() {
+            return visible;
+        }
+
+        String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * Definition of a single local tag.
+     */
+    public static class LocalTag {
+        private final String name;
+        private final DataType dataType;
+
+        /**
+         * Array size; zero for non-array tags.
+         */
+        private final int dimension;
+
+        LocalTag(final String name, final DataType dataType, final int dimension) {
+            this.name = name;
+            this.dataType = dataType;
+            this.dimension = dimension;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataType getDataType() {
+            return dataType;
+        }
+
+        public int getDimension() {
+            return dimension;
+        }
+    }
+
+    /**
+     * Name of the add-on instruction.
+     */
+    private String Name;
+
+    /**
+     * Parameter definitions in the order they were created.
+     */
+    private final List<Parameter> Parameters = new ArrayList<>();
+
+    /**
+     * Local tag definitions in the order they were created.
+     */
+    private final List<LocalTag> LocalTags = new ArrayList<>();
+
+    /**
+     * Structured text lines for each routine, keyed by routine name. The position
+     * of each line in its list is also its line number.
+     */
+    private final Map<ScanModeRoutine, List<String>> RoutineLines = new EnumMap<>(ScanModeRoutine.class);
+
+    /**
+     * Backend used to generate the L5X content when the AOI is written.
+     */
+    private WriterBackend Backend = WriterBackend.DOM;
+
+    /**
+     * Constructor.
+     *
+     * @param name AOI name.
+     * @throws ExportException If an invalid name was given.
+     */
+    public AddOnInstruction(final String name) throws ExportException {
+        try {
+            validateIdentifier(name);
+        } catch (ExportException e) {
+            throw new ExportException(String.format("String is not a valid add-on instruction name: %s", name));
+        }
+        Name = name;
+
+        for (final ScanModeRoutine routine : ScanModeRoutine.values()) {
+            RoutineLines.put(routine, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Selects the backend used to generate the L5X file.
+     *
+     * @param backend The writer backend.
+     */
+    public void setWriterBackend(final WriterBackend backend) {
+        if (backend == null) {
+            throw new AssertionError();
+        }
+        Backend = backend;
+    }
+
+    /**
+     * Creates an AOI parameter.
+     *
+     * @param name     Parameter name.
+     * @param usage    Parameter direction; input or output.
+     * @param dataType RSLogix data type.
+     * @param visible  True to make the parameter visible in the ladder display.
+     * @param desc     Optional parameter description string.
+     * @throws ExportException If the name is invalid.
+     */
+    public void addParameter(final String name, final ParameterUsage usage, final DataType dataType,
+            final boolean visible, final String... desc) throws ExportException {
+        validateIdentifier(name);
+        Parameters.add(new Parameter(name, usage, dataType, visible, (desc.length > 0) ? desc[0] : null));
+    }
+
+    /**
+     * Creates a local tag.
+     *
+     * @param name     Tag name.
+     * @param dataType RSLogix name for the data type.
+     * @param dim      Optional array size if creating an array tag.
+     * @throws ExportException If the name is invalid.
+     */
+    public void addLocalTag(final String name, final DataType dataType, final int... dim) throws ExportException {
+        validateIdentifier(name);
+        LocalTags.add(new LocalTag(name, dataType, (dim.length > 0) ? dim[0] : 0));
+    }
+
+    /**
+     * Appends a line of structured text to a routine.
+     *
+     * @param routine Target routine.
+     * @param stLine  Structured text line to add.
+     */
+    public void addStructuredTextLine(final ScanModeRoutine routine, final String stLine) {
+        RoutineLines.get(routine).add(stLine);
+    }
+
+    /**
+     * Appends a sequence of structured text lines to a routine.
+     *
+     * @param routine Target routine.
+     * @param lines   ST lines to append.
+     */
+    public void addStructuredTextLines(final ScanModeRoutine routine, final List<String> lines) {
+        RoutineLines.get(routine).addAll(lines);
+    }
+
+    /**
+     * Getter method for the AOI name.
+     *
+     * @return The AOI name.
+     */
+    public String getName() {
+        return Name;
+    }
+
+    /**
+     * Getter method for the parameter definitions.
+     *
+     * @return Parameters in the order they were created.
+     */
+    public List<Parameter> getParameters() {
+        return unmodifiableList(Parameters);
+    }
+
+    /**
+     * Getter method for the local tag definitions.
+     *
+     * @return Local tags in the order they were created.
+     */
+    public List<LocalTag> getLocalTags() {
+        return unmodifiableList(LocalTags);
+    }
+
+    /**
+     * Getter method for the structured text content of a routine.
+     *
+     * @param routine Target routine.
+     * @return Structured text lines in line number order.
+     */
+    public List<String> getStructuredTextLines(final ScanModeRoutine routine) {
+        return unmodifiableList(RoutineLines.get(routine));
+    }
+
+    /**
+     * Writes the AOI to an L5X file.
+     *
+     * @param dir Target directory for the L5X file.
+     * @throws ExportException If the L5X file could not be written.
+     */
+    public void write(final String dir) throws ExportException {
+        final Path path;
+
+        // Combine the target directory and output file name into a complete, absolute
+        // path.
+        try {
+            path = Paths.get(dir, Name + ".L5X");
+        } catch (InvalidPathException e) {
+            throw new ExportException("Invalid output path.", e);
+        }
+
+        try (final OutputStream f = Files.newOutputStream(path)) {
+            write(f);
+        } catch (IOException e) {
+            throw new ExportException("Error writing L5X file.", e);
+        }
+    }
+
+    /**
+     * Writes the L5X content to a stream.
+     *
+     * @param out Destination stream; not closed by this method.
+     * @throws ExportException If the L5X content could not be generated.
+     */
+    public void write(final OutputStream out) throws ExportException {
+        Backend.getWriter().write(this, out);
+    }
+
+    /**
+     * Confirms a string is valid for use as a Logix identifier.
+     *
+     * @param id The identifier to test.
+     * @throws ExportException If the identifier string is invalid.
+     */
+    private void validateIdentifier(final String id) throws ExportException {
+        // Per RSLogix documentation, which references IEC-1131, Section 2.1.2.
+        final String pattern = "" //
+                + "(?x)        # Enable in-line regex comments.\n" //
+                + "(?i)        # Case-insensitive matching.\n" //
+                + "\\A[_a-z]   # Start with an underscore or letter.\n" //
+                + "(?:         # Additional characters after the first, if any.\n" //
+                + "  [a-z0-9]  # Allow all letters and digits.\n" //
+                + "  | (?<!_)_ # Underscore is permitted if it does not follow an underscore.\n" //
+                + "){0,39}     # Additional 39 characters are allowed, for a total of 40.\n" //
+                + "(?<!_)\\z   # Must not end in an underscore.";
+
+        if (!id.matches(pattern)) {
+            throw new ExportException();
+        }
+    }
+}
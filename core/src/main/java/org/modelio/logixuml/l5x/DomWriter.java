@@ -0,0 +1,193 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.l5x;
+
+import java.io.OutputStream;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.modelio.logixuml.statemachineaoi.ExportException;
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Generates L5X content by constructing an XML document, which is then
+ * serialized with an identity transform.
+ */
+class DomWriter implements L5xWriter {
+    @Override
+    public void write(final AddOnInstruction aoi, final OutputStream out) throws ExportException {
+        final DOMSource src = new DOMSource(createDoc(aoi));
+        final TransformerFactory xfrFactory = TransformerFactory.newInstance();
+
+        try {
+            final Transformer xfr = xfrFactory.newTransformer();
+            final StreamResult dst = new StreamResult(out);
+            xfr.transform(src, dst);
+        } catch (TransformerException e) {
+            throw new ExportException("XML transformation error.", e);
+        }
+    }
+
+    /**
+     * Generates an XML document with the complete AOI content.
+     *
+     * @param aoi Source add-on instruction.
+     * @return The XML document.
+     * @throws ExportException If an XML parser configuration error occurs.
+     */
+    private Document createDoc(final AddOnInstruction aoi) throws ExportException {
+        final DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+        final DocumentBuilder builder;
+
+        try {
+            builder = builderFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new ExportException("XML parser configuration error.", e);
+        }
+
+        final Document doc = builder.newDocument();
+
+        final Element root = doc.createElement("RSLogix5000Content");
+        root.setAttribute("TargetType", "AddOnInstructionDefinition");
+        root.setAttribute("SchemaRevision", "1.0");
+        root.setAttribute("ContainsContext", "true");
+        doc.appendChild(root);
+
+        final Element controller = doc.createElement("Controller");
+        root.appendChild(controller);
+
+        controller.appendChild(doc.createElement("DataTypes"));
+
+        final Element aoiDefs = doc.createElement("AddOnInstructionDefinitions");
+        controller.appendChild(aoiDefs);
+
+        final Element aoiDef = doc.createElement("AddOnInstructionDefinition");
+        aoiDef.setAttribute("Name", aoi.getName());
+        aoiDef.setAttribute("Use", "Target");
+        aoiDef.setAttribute("ExecutePrescan", "true");
+        aoiDef.setAttribute("ExecuteEnableInFalse", "true");
+        aoiDefs.appendChild(aoiDef);
+
+        final Element parameters = doc.createElement("Parameters");
+        aoiDef.appendChild(parameters);
+        for (final AddOnInstruction.Parameter p : aoi.getParameters()) {
+            parameters.appendChild(parameterElement(doc, p));
+        }
+
+        final Element localTags = doc.createElement("LocalTags");
+        aoiDef.appendChild(localTags);
+        for (final AddOnInstruction.LocalTag t : aoi.getLocalTags()) {
+            localTags.appendChild(localTagElement(doc, t));
+        }
+
+        // Add elements for each routine.
+        final Element routines = doc.createElement("Routines");
+        aoiDef.appendChild(routines);
+        for (final ScanModeRoutine r : ScanModeRoutine.values()) {
+            routines.appendChild(routineElement(doc, r, aoi));
+        }
+
+        return doc;
+    }
+
+    /**
+     * Generates an XML element defining a parameter.
+     *
+     * @param doc Parent XML document.
+     * @param p   Source parameter definition.
+     * @return The generated XML element.
+     */
+    private Element parameterElement(final Document doc, final AddOnInstruction.Parameter p) {
+        final Element e = doc.createElement("Parameter");
+        e.setAttribute("Name", p.getName());
+        e.setAttribute("Usage", p.getUsage().name());
+        e.setAttribute("DataType", p.getDataType().name());
+        e.setAttribute("Visible", Boolean.toString(p.isVisible()));
+
+        // Description is stored in a child element with CDATA content.
+        if (p.getDescription() != null) {
+            final Element descElement = doc.createElement("Description");
+            e.appendChild(descElement);
+            descElement.appendChild(doc.createCDATASection(p.getDescription()));
+        }
+
+        return e;
+    }
+
+    /**
+     * Generates an XML element defining a local tag.
+     *
+     * @param doc Parent XML document.
+     * @param t   Source local tag definition.
+     * @return The generated XML element.
+     */
+    private Element localTagElement(final Document doc, final AddOnInstruction.LocalTag t) {
+        final Element e = doc.createElement("LocalTag");
+        e.setAttribute("name", t.getName());
+        e.setAttribute("DataType", t.getDataType().name());
+
+        // Add the optional dimensions attribute for array tags.
+        if (t.getDimension() > 0) {
+            e.setAttribute("Dimensions", Integer.toString(t.getDimension()));
+        }
+
+        return e;
+    }
+
+    /**
+     * Generates an XML element defining a structured text routine.
+     *
+     * @param doc     Parent XML document.
+     * @param name    Routine name.
+     * @param aoi     Source add-on instruction.
+     * @return The generated XML element.
+     */
+    private Element routineElement(final Document doc, final ScanModeRoutine name, final AddOnInstruction aoi) {
+        final Element routine = doc.createElement("Routine");
+        routine.setAttribute("Name", name.name());
+        routine.setAttribute("Type", "ST");
+
+        final Element content = doc.createElement("STContent");
+        routine.appendChild(content);
+
+        // Line numbers start at zero and are simply each line's position within the
+        // routine.
+        int lineNum = 0;
+        for (final String stLine : aoi.getStructuredTextLines(name)) {
+            final Element line = doc.createElement("Line");
+            content.appendChild(line);
+            line.setAttribute("Number", Integer.toString(lineNum++));
+
+            final CDATASection cdataNode = doc.createCDATASection(L5xWriter.lineContent(stLine));
+            line.appendChild(cdataNode);
+        }
+
+        return routine;
+    }
+}
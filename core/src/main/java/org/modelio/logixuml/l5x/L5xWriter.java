@@ -0,0 +1,52 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.l5x;
+
+import java.io.OutputStream;
+
+import org.modelio.logixuml.statemachineaoi.ExportException;
+
+/**
+ * Interface for objects that serialize an add-on instruction into L5X content.
+ * Implementations must be stateless so a single instance can be shared by every
+ * AOI.
+ */
+interface L5xWriter {
+    /**
+     * Writes the complete L5X content for an add-on instruction.
+     *
+     * @param aoi Source add-on instruction.
+     * @param out Destination stream; not closed by this method.
+     * @throws ExportException If the L5X content could not be generated.
+     */
+    void write(AddOnInstruction aoi, OutputStream out) throws ExportException;
+
+    /**
+     * Converts a structured text line into the content of a Line element. Empty
+     * lines are replaced with a single whitespace to ensure the CDATA section is
+     * created, as it is required by RSLogix.
+     *
+     * @param stLine Source structured text line.
+     * @return The line content.
+     */
+    static String lineContent(final String stLine) {
+        return stLine.isEmpty() ? " " : stLine;
+    }
+}
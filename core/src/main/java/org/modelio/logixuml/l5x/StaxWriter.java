@@ -0,0 +1,229 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.l5x;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.modelio.logixuml.statemachineaoi.ExportException;
+
+/**
+ * Generates L5X content by streaming XML directly to the output, without
+ * building a document in memory.
+ * <p>
+ * The output is byte-for-byte identical to {@link DomWriter}, which requires
+ * replicating details of the identity transform: the XML declaration includes
+ * the standalone attribute, attributes are written in alphabetical order, empty
+ * elements are self-closing, and CDATA content containing the CDATA terminator
+ * is split into multiple sections.
+ */
+class StaxWriter implements L5xWriter {
+    /**
+     * XML declaration emitted by the identity transform.
+     */
+    private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+
+    /**
+     * Sequence terminating a CDATA section.
+     */
+    private static final String CDATA_END = "]]>";
+
+    @Override
+    public void write(final AddOnInstruction aoi, final OutputStream out) throws ExportException {
+        final XMLOutputFactory factory = XMLOutputFactory.newInstance();
+
+        // The declaration is written directly because XMLStreamWriter has no
+        // provision for the standalone attribute.
+        final Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        try {
+            w.write(DECLARATION);
+            final XMLStreamWriter xml = factory.createXMLStreamWriter(w);
+            writeContent(xml, aoi);
+            xml.flush();
+            w.flush();
+        } catch (XMLStreamException e) {
+            throw new ExportException("XML stream error.", e);
+        } catch (IOException e) {
+            throw new ExportException("Error writing L5X file.", e);
+        }
+    }
+
+    /**
+     * Writes everything following the XML declaration.
+     *
+     * @param xml Destination XML stream.
+     * @param aoi Source add-on instruction.
+     * @throws XMLStreamException If the XML could not be written.
+     */
+    private void writeContent(final XMLStreamWriter xml, final AddOnInstruction aoi) throws XMLStreamException {
+        xml.writeStartElement("RSLogix5000Content");
+        xml.writeAttribute("ContainsContext", "true");
+        xml.writeAttribute("SchemaRevision", "1.0");
+        xml.writeAttribute("TargetType", "AddOnInstructionDefinition");
+
+        xml.writeStartElement("Controller");
+        xml.writeEmptyElement("DataTypes");
+        xml.writeStartElement("AddOnInstructionDefinitions");
+
+        xml.writeStartElement("AddOnInstructionDefinition");
+        xml.writeAttribute("ExecuteEnableInFalse", "true");
+        xml.writeAttribute("ExecutePrescan", "true");
+        xml.writeAttribute("Name", aoi.getName());
+        xml.writeAttribute("Use", "Target");
+
+        writeParameters(xml, aoi.getParameters());
+        writeLocalTags(xml, aoi.getLocalTags());
+
+        xml.writeStartElement("Routines");
+        for (final ScanModeRoutine r : ScanModeRoutine.values()) {
+            writeRoutine(xml, r, aoi.getStructuredTextLines(r));
+        }
+        xml.writeEndElement(); // Routines
+
+        xml.writeEndElement(); // AddOnInstructionDefinition
+        xml.writeEndElement(); // AddOnInstructionDefinitions
+        xml.writeEndElement(); // Controller
+        xml.writeEndElement(); // RSLogix5000Content
+        xml.writeEndDocument();
+    }
+
+    /**
+     * Writes the parameters element and all parameter definitions.
+     *
+     * @param xml        Destination XML stream.
+     * @param parameters Source parameter definitions.
+     * @throws XMLStreamException If the XML could not be written.
+     */
+    private void writeParameters(final XMLStreamWriter xml, final List<AddOnInstruction.Parameter> parameters)
+            throws XMLStreamException {
+        if (parameters.isEmpty()) {
+            xml.writeEmptyElement("Parameters");
+            return;
+        }
+
+        xml.writeStartElement("Parameters");
+        for (final AddOnInstruction.Parameter p : parameters) {
+            final boolean hasDesc = p.getDescription() != null;
+            if (hasDesc) {
+                xml.writeStartElement("Parameter");
+            } else {
+                xml.writeEmptyElement("Parameter");
+            }
+
+            xml.writeAttribute("DataType", p.getDataType().name());
+            xml.writeAttribute("Name", p.getName());
+            xml.writeAttribute("Usage", p.getUsage().name());
+            xml.writeAttribute("Visible", Boolean.toString(p.isVisible()));
+
+            if (hasDesc) {
+                xml.writeStartElement("Description");
+                writeCData(xml, p.getDescription());
+                xml.writeEndElement(); // Description
+                xml.writeEndElement(); // Parameter
+            }
+        }
+        xml.writeEndElement();
+    }
+
+    /**
+     * Writes the local tags element and all local tag definitions.
+     *
+     * @param xml  Destination XML stream.
+     * @param tags Source local tag definitions.
+     * @throws XMLStreamException If the XML could not be written.
+     */
+    private void writeLocalTags(final XMLStreamWriter xml, final List<AddOnInstruction.LocalTag> tags)
+            throws XMLStreamException {
+        if (tags.isEmpty()) {
+            xml.writeEmptyElement("LocalTags");
+            return;
+        }
+
+        xml.writeStartElement("LocalTags");
+        for (final AddOnInstruction.LocalTag t : tags) {
+            xml.writeEmptyElement("LocalTag");
+            xml.writeAttribute("DataType", t.getDataType().name());
+            if (t.getDimension() > 0) {
+                xml.writeAttribute("Dimensions", Integer.toString(t.getDimension()));
+            }
+            xml.writeAttribute("name", t.getName());
+        }
+        xml.writeEndElement();
+    }
+
+    /**
+     * Writes a structured text routine.
+     *
+     * @param xml   Destination XML stream.
+     * @param name  Routine name.
+     * @param lines Structured text content.
+     * @throws XMLStreamException If the XML could not be written.
+     */
+    private void writeRoutine(final XMLStreamWriter xml, final ScanModeRoutine name, final List<String> lines)
+            throws XMLStreamException {
+        xml.writeStartElement("Routine");
+        xml.writeAttribute("Name", name.name());
+        xml.writeAttribute("Type", "ST");
+
+        if (lines.isEmpty()) {
+            xml.writeEmptyElement("STContent");
+        } else {
+            xml.writeStartElement("STContent");
+            int lineNum = 0;
+            for (final String stLine : lines) {
+                xml.writeStartElement("Line");
+                xml.writeAttribute("Number", Integer.toString(lineNum++));
+                writeCData(xml, L5xWriter.lineContent(stLine));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement(); // STContent
+        }
+
+        xml.writeEndElement(); // Routine
+    }
+
+    /**
+     * Writes text as CDATA, splitting it into multiple sections wherever it
+     * contains the CDATA terminator.
+     *
+     * @param xml  Destination XML stream.
+     * @param text Content to write.
+     * @throws XMLStreamException If the XML could not be written.
+     */
+    private void writeCData(final XMLStreamWriter xml, final String text) throws XMLStreamException {
+        int start = 0;
+        int end = text.indexOf(CDATA_END);
+        while (end >= 0) {
+            // Break between the two closing brackets and the greater-than sign.
+            xml.writeCData(text.substring(start, end + 2));
+            start = end + 2;
+            end = text.indexOf(CDATA_END, start);
+        }
+        xml.writeCData(text.substring(start));
+    }
+}
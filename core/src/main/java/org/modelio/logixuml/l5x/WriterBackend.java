@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.l5x;
+
+/**
+ * Available methods of generating L5X content. All backends produce identical
+ * output.
+ */
+public enum WriterBackend {
+    /**
+     * Assembles a complete XML document in memory, which is then serialized with
+     * an identity transform.
+     */
+    DOM(new DomWriter()),
+
+    /**
+     * Streams XML content directly to the output as it is generated.
+     */
+    STAX(new StaxWriter());
+
+    /**
+     * Object implementing this backend.
+     */
+    private final L5xWriter writer;
+
+    WriterBackend(final L5xWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Getter method for the object implementing this backend.
+     *
+     * @return The writer object.
+     */
+    L5xWriter getWriter() {
+        return writer;
+    }
+}
@@ -60,6 +60,11 @@ class AoiEvent {
      */
     private final int id;
 
+    /**
+     * Event queue priority band; zero is the lowest priority.
+     */
+    private int priority;
+
     /**
      * Constructor.
      *
@@ -105,7 +110,7 @@ class AoiEvent {
         // input rising edge.
         final IfThen ifBlock = new IfThen();
         final String onsExp = inputTagName + " AND NOT " + onsTagName;
-        ifBlock.addCase(onsExp, eventQueue.enqueueValue(id));
+        ifBlock.addCase(onsExp, eventQueue.enqueueValue(id, priority));
         final List<String> stLines = ifBlock.getLines();
 
         // Update the ONS storage bit after the IF/THEN block.
@@ -122,4 +127,13 @@ class AoiEvent {
     int getId() {
         return id;
     }
+
+    /**
+     * Setter method for the event's priority.
+     *
+     * @param priority Event queue priority band; zero is the lowest priority.
+     */
+    void setPriority(final int priority) {
+        this.priority = priority;
+    }
 }
@@ -31,12 +31,10 @@ import org.modelio.logixuml.l5x.AddOnInstruction;
 import org.modelio.logixuml.l5x.DataType;
 import org.modelio.logixuml.l5x.ParameterUsage;
 import org.modelio.logixuml.l5x.ScanModeRoutine;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
-import org.modelio.vcore.smkernel.mapi.MRef;
+import org.modelio.logixuml.structuredtext.LinePool;
 
 /**
- * This object handles converting a single state model object into add-on
+ * This object handles converting a single snapshot state into add-on
  * instruction components, consisting of the state name, the stable condition,
  * and transitions excluding any initial transition. Initial transitions are
  * captured and incorporated into transitions that target states with initial
@@ -44,9 +42,14 @@ import org.modelio.vcore.smkernel.mapi.MRef;
  */
 class AoiState {
     /**
-     * Source model object.
+     * Snapshot containing the source state.
      */
-    private final State state;
+    private final ModelSnapshot model;
+
+    /**
+     * Identifier of the source state.
+     */
+    private final int state;
 
     /**
      * Sanitized name extracted from the source model object.
@@ -83,14 +86,43 @@ class AoiState {
      */
     private final String activeTagName;
 
+    /**
+     * Pooled statements assigning the entry output, indexed by the assigned value;
+     * element 0 de-energizes the output and element 1 energizes it. These are
+     * built once rather than for every condition referring to the state.
+     */
+    private final String[] entryLines;
+
+    /**
+     * Pooled statements assigning the exit output; see {@link #entryLines}.
+     */
+    private final String[] exitLines;
+
+    /**
+     * Pooled statements assigning the do output; see {@link #entryLines}.
+     */
+    private final String[] doLines;
+
+    /**
+     * Pooled statements assigning the active output; see {@link #entryLines}.
+     */
+    private final String[] activeLines;
+
+    /**
+     * Pooled statement driving the active output.
+     */
+    private final String activeOutputLine;
+
     /**
      * Constructor.
      *
-     * @param state Source model object.
+     * @param model Snapshot containing the source state.
+     * @param state Identifier of the source state.
      * @throws ExportException If the state name is invalid or the state contains
      *                         too many regions.
      */
-    AoiState(final State state) throws ExportException {
+    AoiState(final ModelSnapshot model, final int state) throws ExportException {
+        this.model = model;
         this.state = state;
         name = validateName();
         validateRegions();
@@ -99,6 +131,13 @@ class AoiState {
         exitTagName = TagNamePrefix.EXIT + name;
         doTagName = TagNamePrefix.DO + name;
         activeTagName = TagNamePrefix.ACTIVE + name;
+
+        entryLines = buildOutputLines(entryTagName);
+        exitLines = buildOutputLines(exitTagName);
+        doLines = buildOutputLines(doTagName);
+        activeLines = buildOutputLines(activeTagName);
+        activeOutputLine = LinePool
+                .intern(activeTagName + " := " + entryTagName + " OR " + exitTagName + " OR " + doTagName + ";");
     }
 
     /**
@@ -108,9 +147,9 @@ class AoiState {
      * @throws ExportException If the state name is invalid.
      */
     private String validateName() throws ExportException {
-        final String name = state.getName().trim();
+        final String name = model.getStateName(state).trim();
         if (name.isEmpty()) {
-            throw new ExportException("State can not have an empty name.", state);
+            throw new ExportException("State can not have an empty name.", model.getElement(state));
         }
         return name;
     }
@@ -130,8 +169,8 @@ class AoiState {
      * @throws ExportException If the state contains more than one region.
      */
     private void validateRegions() throws ExportException {
-        if (state.getOwnedRegion().size() > 1) {
-            throw new ExportException("States may not have more than one region.", state);
+        if (model.getRegionCount(state) > 1) {
+            throw new ExportException("States may not have more than one region.", model.getElement(state));
         }
     }
 
@@ -142,14 +181,14 @@ class AoiState {
      * @return The stable condition object.
      */
     Condition getStableCondition() {
-        final Condition c = new Condition();
+        final Condition c = new Condition(model);
 
         // Include the do action for the state itself.
-        c.addDoAction(new MRef(state));
+        c.addDoAction(state);
 
         // Include do actions for all super-states containing this state.
-        for (MRef ref : SuperState.getSuperStateRefs(state)) {
-            c.addDoAction(ref);
+        for (final int s : model.getSuperStates(state)) {
+            c.addDoAction(s);
         }
 
         return c;
@@ -172,15 +211,16 @@ class AoiState {
 
         // Build the list of states from which outgoing transitions will be captured,
         // which is this state and all enclosing super-states.
-        final List<State> states = SuperState.getSuperStates(state);
-        states.add(0, state);
+        final List<Integer> states = new ArrayList<>();
+        states.add(state);
+        states.addAll(model.getSuperStates(state));
 
         // Evaluate transitions starting at the top-level super-state. This is important
         // so transitions defined in lower-level states will override transitions from
         // super-states with the same triggering event.
         Collections.reverse(states);
 
-        for (final State s : states) {
+        for (final int s : states) {
             map.putAll(getSingleTransitions(s, txFactory));
         }
 
@@ -191,30 +231,31 @@ class AoiState {
      * Assembles a mapping of events and transition conditions for transitions
      * leaving a state, excluding any transitions defined by enclosing super-states.
      *
-     * @param source    Source state.
+     * @param source    Source state identifier.
      * @param txFactory Object that will generate transition conditions.
      * @return Mapping of event name to transition conditions.
      * @throws ExportException If an invalid event name or transition was found.
      */
-    private Map<String, TransitionConditions> getSingleTransitions(final State source,
+    private Map<String, TransitionConditions> getSingleTransitions(final int source,
             final TransitionConditionsFactory txFactory) throws ExportException {
         final Map<String, TransitionConditions> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
-        for (final Transition tx : source.getOutGoing()) {
-            String event = tx.getReceivedEvents();
+        for (final int tx : model.getOutgoing(source)) {
+            String event = model.getTransitionEvent(tx);
             event = (event == null) ? "" : event.trim();
             if (event.isEmpty()) {
-                throw new ExportException("Missing name for the event triggering a transition.", tx);
+                throw new ExportException("Missing name for the event triggering a transition.",
+                        model.getTransition(tx));
             }
 
             if (map.containsKey(event)) {
                 throw new ExportException(
                         "Multiple transitions leaving a state have the same triggering event: \"" + event + "\"",
-                        source);
+                        model.getElement(source));
             }
 
             try {
-                map.put(event, txFactory.build(tx, state));
+                map.put(event, txFactory.build(model, tx, state));
             } catch (IgnoreTransitionException e) {
                 // This transition in the context of this state yields a transition to self,
                 // i.e. ignore the transition.
@@ -244,7 +285,8 @@ class AoiState {
                     "True when the state machine is entering, exiting, or stable in the " + name + " state.");
         } catch (ExportException e) {
             throw new ExportException(
-                    "The state name \"" + name + "\" is invalid for use as part of an AOI parameter name.", state);
+                    "The state name \"" + name + "\" is invalid for use as part of an AOI parameter name.",
+                    model.getElement(state));
         }
 
         // Reset all outputs in prescan and enable-in false.
@@ -252,7 +294,7 @@ class AoiState {
         st.add(setEntryOutput(false));
         st.add(setExitOutput(false));
         st.add(setDoOutput(false));
-        st.add(setOutput(activeTagName, false));
+        st.add(setOutput(activeLines, false));
         aoi.addStructuredTextLines(ScanModeRoutine.Prescan, st);
         aoi.addStructuredTextLines(ScanModeRoutine.EnableInFalse, st);
     }
@@ -263,7 +305,7 @@ class AoiState {
      * @return The generated structured text line.
      */
     String setEntryOutput(final boolean value) {
-        return setOutput(entryTagName, value);
+        return setOutput(entryLines, value);
     }
 
     /**
@@ -272,7 +314,7 @@ class AoiState {
      * @return The generated structured text line.
      */
     String setExitOutput(final boolean value) {
-        return setOutput(exitTagName, value);
+        return setOutput(exitLines, value);
     }
 
     /**
@@ -281,7 +323,7 @@ class AoiState {
      * @return The generated structured text line.
      */
     String setDoOutput(final boolean value) {
-        return setOutput(doTagName, value);
+        return setOutput(doLines, value);
     }
 
     /**
@@ -291,19 +333,28 @@ class AoiState {
      * @return The generated structured text line.
      */
     String setActiveOutput() {
-        return activeTagName + " := " + entryTagName + " OR " + exitTagName + " OR " + doTagName + ";";
+        return activeOutputLine;
     }
 
     /**
-     * Generates a structured text line to set one of the boolean outputs to a
+     * Selects the structured text line to set one of the boolean outputs to a
      * value.
      *
+     * @param lines Pooled statements for the output.
+     * @param value Target value.
+     * @return The structured text line.
+     */
+    private static String setOutput(final String[] lines, final boolean value) {
+        return lines[value ? 1 : 0];
+    }
+
+    /**
+     * Builds the statements assigning each value to a boolean output.
+     *
      * @param tagName Output tag name.
-     * @param value   Target value.
-     * @return The generated structured text line.
+     * @return Pooled statements, indexed by assigned value.
      */
-    private String setOutput(final String tagName, final boolean value) {
-        final int intValue = value ? 1 : 0;
-        return tagName + " := " + intValue + ";";
+    private static String[] buildOutputLines(final String tagName) {
+        return new String[] { LinePool.intern(tagName + " := 0;"), LinePool.intern(tagName + " := 1;") };
     }
 }
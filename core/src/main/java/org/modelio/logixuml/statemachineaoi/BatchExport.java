@@ -0,0 +1,244 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.modelio.logixuml.l5x.WriterBackend;
+
+/**
+ * This object generates and writes the AOIs for a set of state machine
+ * snapshots, optionally in parallel with a bounded number of threads. Each AOI
+ * is generated and written independently, so a failure exporting one state
+ * machine does not prevent the others from being written.
+ * <p>
+ * Snapshots are immutable and independent of the source model, so both the
+ * structured text generation and the L5X serialization are performed by the
+ * export threads.
+ */
+public class BatchExport {
+    /**
+     * Receives notification as each AOI is written, and allows the export to be
+     * canceled. Methods may be called from multiple threads when exporting in
+     * parallel.
+     */
+    public interface Monitor {
+        /**
+         * Determines if state machines not yet exported should be skipped.
+         *
+         * @return True if the export has been canceled.
+         */
+        boolean isCanceled();
+
+        /**
+         * Called after a state machine has been exported, whether or not it was
+         * successful. State machines skipped due to cancellation are not reported.
+         *
+         * @param name Name identifying the state machine.
+         * @param aoi  The generated add-on instruction, or null if it could not be
+         *             generated.
+         */
+        void exported(String name, StateMachineAoi aoi);
+    }
+
+    /**
+     * Monitor for exports that cannot be canceled and do not report progress.
+     */
+    private static final Monitor NO_MONITOR = new Monitor() {
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public void exported(final String name, final StateMachineAoi aoi) {
+        }
+    };
+
+    /**
+     * Maximum number of AOIs exported simultaneously.
+     */
+    private final int threads;
+
+    /**
+     * Backend used to generate the L5X files.
+     */
+    private final WriterBackend backend;
+
+    /**
+     * Constructor for exports with the default writer backend.
+     *
+     * @param threads Maximum number of AOIs to export simultaneously; values less
+     *                than two export serially in the calling thread.
+     */
+    public BatchExport(final int threads) {
+        this(threads, WriterBackend.DOM);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param threads Maximum number of AOIs to export simultaneously; values less
+     *                than two export serially in the calling thread.
+     * @param backend Backend used to generate the L5X files.
+     */
+    public BatchExport(final int threads, final WriterBackend backend) {
+        this.threads = threads;
+        this.backend = backend;
+    }
+
+    /**
+     * Generates and writes the AOI for every state machine.
+     *
+     * @param snapshots State machines to export, keyed by name.
+     * @param dir       Target directory for the L5X files.
+     * @return Exceptions raised by state machines that could not be exported,
+     *         keyed by name in the same order as the given snapshots. Empty if all
+     *         AOIs were written successfully.
+     */
+    public Map<String, ExportException> export(final Map<String, ModelSnapshot> snapshots, final String dir) {
+        return export(snapshots, dir, NO_MONITOR);
+    }
+
+    /**
+     * Generates and writes the AOI for every state machine, reporting progress to
+     * a monitor. State machines not yet started when the monitor is canceled are
+     * skipped; those already in progress are completed.
+     *
+     * @param snapshots State machines to export, keyed by name.
+     * @param dir       Target directory for the L5X files.
+     * @param monitor   Receives progress and cancellation requests.
+     * @return Exceptions raised by state machines that could not be exported,
+     *         keyed by name in the same order as the given snapshots. Empty if all
+     *         AOIs were written, or skipped, successfully.
+     */
+    public Map<String, ExportException> export(final Map<String, ModelSnapshot> snapshots, final String dir,
+            final Monitor monitor) {
+        final Map<String, ExportException> errors = new LinkedHashMap<>();
+
+        if ((threads < 2) || (snapshots.size() < 2)) {
+            for (final Map.Entry<String, ModelSnapshot> e : snapshots.entrySet()) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                try {
+                    export(e.getKey(), e.getValue(), dir, monitor);
+                } catch (ExportException ex) {
+                    errors.put(e.getKey(), ex);
+                }
+            }
+        } else {
+            exportParallel(snapshots, dir, errors, monitor);
+        }
+
+        return unmodifiableMap(errors);
+    }
+
+    /**
+     * Exports state machines with a fixed-size pool of threads.
+     *
+     * @param snapshots State machines to export, keyed by name.
+     * @param dir       Target directory for the L5X files.
+     * @param errors    Mapping to receive exceptions raised by each state machine.
+     * @param monitor   Receives progress and cancellation requests.
+     */
+    private void exportParallel(final Map<String, ModelSnapshot> snapshots, final String dir,
+            final Map<String, ExportException> errors, final Monitor monitor) {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, snapshots.size()));
+
+        try {
+            final List<String> names = new ArrayList<>();
+            final List<Future<Void>> results = new ArrayList<>();
+            for (final Map.Entry<String, ModelSnapshot> e : snapshots.entrySet()) {
+                names.add(e.getKey());
+                results.add(executor.submit(() -> {
+                    if (!monitor.isCanceled()) {
+                        export(e.getKey(), e.getValue(), dir, monitor);
+                    }
+                    return null;
+                }));
+            }
+
+            // Results are collected in submission order so errors are reported in the
+            // same order as the source snapshots.
+            for (int i = 0; i < names.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    rethrowUnchecked(e.getCause());
+                    errors.put(names.get(i), (ExportException) e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    errors.put(names.get(i), new ExportException("Export interrupted.", e));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates and writes the AOI for a single state machine.
+     *
+     * @param name     Name identifying the state machine.
+     * @param snapshot The state machine.
+     * @param dir      Target directory for the L5X files.
+     * @param monitor  Receives notification when the export is complete.
+     * @throws ExportException If the AOI could not be generated or written.
+     */
+    private void export(final String name, final ModelSnapshot snapshot, final String dir,
+            final Monitor monitor) throws ExportException {
+        StateMachineAoi aoi = null;
+        try {
+            aoi = new StateMachineAoi(snapshot);
+            aoi.setWriterBackend(backend);
+            aoi.export(dir);
+        } finally {
+            monitor.exported(name, aoi);
+        }
+    }
+
+    /**
+     * Propagates unchecked exceptions and errors, such as assertion failures,
+     * raised by an export task back to the calling thread.
+     *
+     * @param cause Exception raised by the export task.
+     */
+    private void rethrowUnchecked(final Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (!(cause instanceof ExportException)) {
+            throw new AssertionError(cause);
+        }
+    }
+}
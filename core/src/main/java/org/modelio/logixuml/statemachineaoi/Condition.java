@@ -0,0 +1,283 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This object completely defines the AOI output condition every time it is
+ * scanned by maintaining the set of active(energized) action outputs, e.g.
+ * entry, do, and exit, for all states, The term <em>state</em> could also be
+ * applied to this purpose, however, <em>condition</em> is used to avoid
+ * confusion with states defined by the UML state machine.
+ * <p>
+ * States are stored as bits indexed by their dense snapshot identifiers, so a
+ * condition occupies a few words regardless of the model size, and two
+ * conditions can be compared without boxing. The model elements themselves
+ * were validated when the snapshot assigned the identifiers; adding a state
+ * only needs a range check.
+ */
+class Condition {
+    /**
+     * States with an active entry action.
+     */
+    private final BitSet actionEntry = new BitSet();
+
+    /**
+     * States with an active do action.
+     */
+    private final BitSet actionDo = new BitSet();
+
+    /**
+     * States with an active exit action.
+     */
+    private final BitSet actionExit = new BitSet();
+
+    /**
+     * Number of states in the snapshot; valid identifiers are below this value.
+     */
+    private final int stateCount;
+
+    /**
+     * Constructor.
+     *
+     * @param model Model snapshot containing the states.
+     */
+    public Condition(final ModelSnapshot model) {
+        this(model.getStateCount());
+    }
+
+    /**
+     * Constructor for a condition with no active actions.
+     *
+     * @param stateCount Number of states in the snapshot.
+     */
+    private Condition(final int stateCount) {
+        this.stateCount = stateCount;
+    }
+
+    /**
+     * Adds a state to the set of entry actions.
+     *
+     * @param state Identifier of the target state.
+     */
+    public void addEntryAction(final int state) {
+        assertIsState(state);
+        actionEntry.set(state);
+    }
+
+    /**
+     * Gets the active entry action states.
+     *
+     * @return Set of identifiers of states with an active entry action.
+     */
+    public Set<Integer> getEntryActions() {
+        return toSet(actionEntry);
+    }
+
+    /**
+     * Adds a state to the set of do actions.
+     *
+     * @param state Identifier of the target state.
+     */
+    public void addDoAction(final int state) {
+        assertIsState(state);
+        actionDo.set(state);
+    }
+
+    /**
+     * Gets the active do action states.
+     *
+     * @return Set of identifiers of states with an active do action.
+     */
+    public Set<Integer> getDoActions() {
+        return toSet(actionDo);
+    }
+
+    /**
+     * Adds a state to the set of exit actions.
+     *
+     * @param state Identifier of the target state.
+     */
+    public void addExitAction(final int state) {
+        assertIsState(state);
+        actionExit.set(state);
+    }
+
+    /**
+     * Gets the active exit action states.
+     *
+     * @return Set of identifiers of states with an active exit action.
+     */
+    public Set<Integer> getExitActions() {
+        return toSet(actionExit);
+    }
+
+    /**
+     * Confirms a given identifier refers to a state, which is the only type of
+     * model element that can be added to a condition.
+     *
+     * @param state Identifier to verify.
+     */
+    private void assertIsState(final int state) {
+        if ((state < 0) || (state >= stateCount)) {
+            throw new AssertionError(state);
+        }
+    }
+
+    /**
+     * Copies the members of a bit set into a set of identifiers.
+     *
+     * @param bits Source bit set.
+     * @return Set containing the index of every set bit.
+     */
+    private static Set<Integer> toSet(final BitSet bits) {
+        final Set<Integer> set = new HashSet<>();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            set.add(i);
+        }
+        return set;
+    }
+
+    /**
+     * Generates a structured text statements to energize the state action outputs
+     * active in this condition. Outputs within each action type are listed in
+     * state identifier order.
+     *
+     * @param stateMap Mapping to resolve state identifiers to objects handling the
+     *                 state output tags.
+     * @return List of structured text statements.
+     */
+    List<String> setOutputs(final Map<Integer, AoiState> stateMap) {
+        final List<String> st = new ArrayList<>(
+                actionEntry.cardinality() + actionDo.cardinality() + actionExit.cardinality());
+        assignOutputs(stateMap, true, st);
+        return unmodifiableList(st);
+    }
+
+    /**
+     * Generates structured text statements to change the state action outputs
+     * from those of a previous condition to those of this condition, followed by
+     * statements updating the active output of every affected state. Outputs with
+     * the same value in both conditions, and the active outputs of states with no
+     * changed outputs, are left untouched.
+     *
+     * @param previous Condition whose outputs are currently energized, or null if
+     *                 all outputs are de-energized.
+     * @param stateMap Mapping to resolve state identifiers to objects handling the
+     *                 state output tags.
+     * @return List of structured text statements.
+     */
+    List<String> changeOutputs(final Condition previous, final Map<Integer, AoiState> stateMap) {
+        final Condition cleared = (previous == null) ? new Condition(stateCount) : previous.minus(this);
+        final Condition energized = (previous == null) ? this : minus(previous);
+
+        final List<String> st = new ArrayList<>();
+        cleared.assignOutputs(stateMap, false, st);
+        energized.assignOutputs(stateMap, true, st);
+
+        final BitSet affected = cleared.getStates();
+        affected.or(energized.getStates());
+        for (int id = affected.nextSetBit(0); id >= 0; id = affected.nextSetBit(id + 1)) {
+            st.add(stateMap.get(id).setActiveOutput());
+        }
+
+        return unmodifiableList(st);
+    }
+
+    /**
+     * Creates a condition with the actions active in this condition but not in
+     * another.
+     *
+     * @param other Condition whose actions are removed.
+     * @return The difference between the two conditions.
+     */
+    private Condition minus(final Condition other) {
+        final Condition c = new Condition(stateCount);
+        c.actionEntry.or(actionEntry);
+        c.actionEntry.andNot(other.actionEntry);
+        c.actionDo.or(actionDo);
+        c.actionDo.andNot(other.actionDo);
+        c.actionExit.or(actionExit);
+        c.actionExit.andNot(other.actionExit);
+        return c;
+    }
+
+    /**
+     * Gets the states with any active action.
+     *
+     * @return New bit set indexed by state identifier.
+     */
+    private BitSet getStates() {
+        final BitSet states = (BitSet) actionEntry.clone();
+        states.or(actionDo);
+        states.or(actionExit);
+        return states;
+    }
+
+    /**
+     * Appends statements assigning every action output active in this condition.
+     * Outputs within each action type are listed in state identifier order.
+     *
+     * @param stateMap Mapping to resolve state identifiers to objects handling the
+     *                 state output tags.
+     * @param value    Value to assign.
+     * @param st       List receiving the statements.
+     */
+    private void assignOutputs(final Map<Integer, AoiState> stateMap, final boolean value, final List<String> st) {
+        for (int id = actionEntry.nextSetBit(0); id >= 0; id = actionEntry.nextSetBit(id + 1)) {
+            st.add(stateMap.get(id).setEntryOutput(value));
+        }
+        for (int id = actionDo.nextSetBit(0); id >= 0; id = actionDo.nextSetBit(id + 1)) {
+            st.add(stateMap.get(id).setDoOutput(value));
+        }
+        for (int id = actionExit.nextSetBit(0); id >= 0; id = actionExit.nextSetBit(id + 1)) {
+            st.add(stateMap.get(id).setExitOutput(value));
+        }
+    }
+
+    /**
+     * Conditions are equal if they energize the same set of outputs.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Condition)) {
+            return false;
+        }
+        final Condition other = (Condition) obj;
+        return actionEntry.equals(other.actionEntry) && actionDo.equals(other.actionDo)
+                && actionExit.equals(other.actionExit);
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * ((31 * actionEntry.hashCode()) + actionDo.hashCode())) + actionExit.hashCode();
+    }
+}
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.modelio.logixuml.structuredtext.CaseOf;
+import org.modelio.logixuml.structuredtext.LinePool;
 
 /**
  * This object handles the sequence of condition identifiers during the course
@@ -42,6 +43,22 @@ class ConditionIdSequence {
      */
     private final Map<Integer, Integer> nextId = new HashMap<>();
 
+    /**
+     * True if transitional conditions may be shared between transitions, in which
+     * case a transitional condition may follow more than one condition.
+     */
+    private final boolean shared;
+
+    /**
+     * Constructor.
+     *
+     * @param shared True if transitional conditions are merged across
+     *               transitions.
+     */
+    ConditionIdSequence(final boolean shared) {
+        this.shared = shared;
+    }
+
     /**
      * Records the identifier of the next condition in a transition.
      *
@@ -56,14 +73,27 @@ class ConditionIdSequence {
         }
 
         // If the next ID already exists as a value it must be a stable condition at
-        // the completion of a transition, so it must not also be a key.
-        if (nextId.containsValue(next) && nextId.containsKey(next)) {
+        // the completion of a transition, so it must not also be a key. This does not
+        // apply to merged conditions, which can be the common tail of several
+        // transitions.
+        if (!shared && nextId.containsValue(next) && nextId.containsKey(next)) {
             throw new AssertionError(next);
         }
 
         nextId.put(current, next);
     }
 
+    /**
+     * Acquires the condition following a transitional condition.
+     *
+     * @param current Identifier of the current condition.
+     * @return Identifier of the next condition, or null if the current condition
+     *         is not transitional.
+     */
+    Integer getNext(final int current) {
+        return nextId.get(current);
+    }
+
     /**
      * Generates structured text statements to increment the condition variable
      * through transitional steps.
@@ -80,7 +110,7 @@ class ConditionIdSequence {
         // Add a case for each transitional condition value to advance the condition
         // variable to the next condition in the transition.
         for (final int currentId : nextId.keySet()) {
-            st.addCase(currentId, tagName + " := " + nextId.get(currentId) + ";");
+            st.addCase(currentId, LinePool.intern(tagName + " := " + nextId.get(currentId) + ";"));
         }
 
         return unmodifiableList(st.getLines());
@@ -22,15 +22,11 @@ package org.modelio.logixuml.statemachineaoi;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableMap;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.TreeMap;
 import java.util.function.IntSupplier;
-import java.util.stream.Collectors;
-
-import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
-import org.modelio.vcore.smkernel.mapi.MObject;
 
 /**
  * The class handles the process of extracting events from a state machine, and
@@ -38,34 +34,35 @@ import org.modelio.vcore.smkernel.mapi.MObject;
  */
 class EventMap {
     /**
-     * Builds a mapping of event names to AoiEvent objects from the set of state
-     * machine UML model objects.
+     * Builds a mapping of event names to AoiEvent objects from the transitions of a
+     * state machine snapshot.
      *
-     * @param elements Set of all UML model elements contained within the source
-     *                 state machine.
+     * @param model Snapshot of the source state machine.
      * @return A map containing AoiEvent objects for each event in the UML model,
      *         keyed by event name.
      */
-    static Map<String, AoiEvent> build(final Set<MObject> elements) {
-        final List<String> names = getEventNames(elements);
+    static Map<String, AoiEvent> build(final ModelSnapshot model) {
+        final List<String> names = getEventNames(model);
         return buildMap(names);
     }
 
     /**
      * Extracts the triggering event names from all transitions in the UML model.
      *
-     * @param elements Set of all UML model elements contained within the source
-     *                 state machine.
-     * @return List of event names.
+     * @param model Snapshot of the source state machine.
+     * @return List of event names, in transition identifier order.
      */
-    static private List<String> getEventNames(final Set<MObject> elements) {
-        final List<String> names = elements.stream() //
-                .filter(e -> e.getMClass().getQualifiedName().equals(Transition.MQNAME)) // Remove non-transitions.
-                .map(e -> (Transition) e) // Cast to Transition objects.
-                .filter(t -> t.getReceivedEvents() != null) // Ignore transitions with no event.
-                .map(t -> t.getReceivedEvents().trim()) // Extract event names.
-                .filter(name -> !name.isEmpty()) // Ignore transitions with blank event names.
-                .collect(Collectors.toList());
+    static private List<String> getEventNames(final ModelSnapshot model) {
+        final List<String> names = new ArrayList<>();
+
+        for (int tx = 0; tx < model.getTransitionCount(); tx++) {
+            final String event = model.getTransitionEvent(tx);
+
+            // Ignore transitions with no event or blank event names.
+            if ((event != null) && !event.trim().isEmpty()) {
+                names.add(event.trim());
+            }
+        }
 
         return unmodifiableList(names);
     }
@@ -0,0 +1,689 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.DataType;
+import org.modelio.logixuml.l5x.ParameterUsage;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+import org.modelio.logixuml.structuredtext.Halt;
+import org.modelio.logixuml.structuredtext.IfThen;
+import org.modelio.logixuml.structuredtext.LinePool;
+
+/**
+ * A buffer to store and retrieve events, implemented as a FIFO using a DINT
+ * array as storage:
+ *
+ * <pre>
+ *   [0] <- Tail index where the next value will be removed(dequeue).
+ *   [1]
+ *   [2] <- Head index where the next value will be stored(enqueue).
+ *   .
+ *   .
+ *   .
+ *   [capacity - 1]
+ * </pre>
+ *
+ * The storage array is accessed in a circular manner, so the head and tail
+ * indices will wrap back to zero when the end of the array is reached.
+ * <p>
+ * The queue may optionally be divided into priority bands, each with its own
+ * storage array and indices. Events are always removed from the highest
+ * non-empty band, and in FIFO order within a band. The base tags listed above
+ * form band zero, the lowest priority.
+ */
+class EventQueue {
+    /**
+     * String constants defining the parameter and local tag names.
+     */
+    private class TagNames {
+        /**
+         * Local DINT array tag used to store values in the queue.
+         */
+        private final static String STORAGE = "q";
+
+        /**
+         * Local DINT tag storing the index into the storage array where the next value
+         * will be placed.
+         */
+        private final static String HEAD = "qh";
+
+        /**
+         * Local DINT tag storing the index into the storage array where the next value
+         * will be removed.
+         */
+        private final static String TAIL = "qt";
+
+        /**
+         * Local DINT tag holding the number of items currently in the queue.
+         */
+        private final static String SIZE = "qs";
+
+        /**
+         * Output BOOL parameter that is set if an attempt is made to enqueue more items
+         * than the queue can hold.
+         */
+        private final static String OVERFLOW = "eventQ_overflow";
+
+        /**
+         * Output DINT parameter that contains the highest number of events ever stored
+         * in the queue.
+         */
+        private final static String WATERMARK = "eventQ_watermark";
+
+        /**
+         * Output DINT parameter counting events discarded due to overflow. Only used
+         * with overflow policies that do not halt the processor.
+         */
+        private final static String DROPPED = "eventQ_dropped";
+
+        /**
+         * Output DINT parameter counting events stored in the queue. Only used with
+         * diagnostics.
+         */
+        private final static String ENQUEUED = "eventQ_enqueued";
+
+        /**
+         * Output DINT parameter counting events removed from the queue for
+         * evaluation. Only used with diagnostics.
+         */
+        private final static String CONSUMED = "eventQ_consumed";
+
+        /**
+         * Output DINT parameter holding the most scans any event waited in the queue.
+         * Only used with diagnostics.
+         */
+        private final static String MAX_WAIT = "eventQ_maxWait";
+
+        /**
+         * Local DINT tag counting scans since the queue was last empty; serves as
+         * the timestamp for arriving events. Only used with diagnostics.
+         */
+        private final static String CLOCK = "qc";
+
+        /**
+         * Local DINT array tag, parallel to the storage array, holding the
+         * timestamp of each queued event. Only used with diagnostics.
+         */
+        private final static String TIMESTAMP = "qw";
+
+        /**
+         * Local DINT tag holding the wait of the event being removed. Only used with
+         * diagnostics.
+         */
+        private final static String WAIT = "qwt";
+
+        /**
+         * Local BOOL array tag, indexed by event ID, flagging events currently
+         * stored in the queue. Only used when coalescing events.
+         */
+        private final static String PENDING = "qp";
+
+        /**
+         * Infix inserted before the band number to form the tag names of priority
+         * bands above zero, e.g., qb1 and qhb1.
+         */
+        private final static String BAND = "b";
+
+        /**
+         * Local DINT tag holding the total number of items in a band above zero.
+         */
+        private final static String BAND_SIZE = "qs";
+    }
+
+    /**
+     * Number of bits in a DINT; BOOL arrays must be sized in multiples of this.
+     */
+    private static final int BOOL_ARRAY_ALIGNMENT = 32;
+
+    /**
+     * Add-on instruction containing the queue.
+     */
+    private AddOnInstruction aoi;
+
+    /**
+     * Number of items the queue can hold.
+     */
+    private int capacity;
+
+    /**
+     * True if an event is not queued again while already stored in the queue.
+     */
+    private boolean coalesce;
+
+    /**
+     * Number of priority bands above band zero.
+     */
+    private int priorities;
+
+    /**
+     * Action taken when an event arrives while the queue is full.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.HALT;
+
+    /**
+     * True if throughput and latency outputs are generated.
+     */
+    private boolean diagnostics;
+
+    /**
+     * Constructor.
+     *
+     * @param aoi      Add-on instruction containing the queue.
+     * @param capacity Maximum number of events that queue must hold.
+     * @throws ExportException If the AOI resources could not be created.
+     */
+    public EventQueue(final AddOnInstruction aoi, final int capacity) throws ExportException {
+        this.aoi = aoi;
+        this.capacity = capacity;
+        createTags();
+
+        // Empty the queue in the prescan and enable-in false routines.
+        clear(ScanModeRoutine.Prescan);
+        clear(ScanModeRoutine.EnableInFalse);
+    }
+
+    /**
+     * Enables coalescing, where an event arriving while the same event is already
+     * in the queue is discarded. Each event has a pending flag, indexed by event
+     * ID, so the check requires no search of the queue. The order of distinct
+     * events is unaffected.
+     *
+     * @param maxId Highest event ID that will be queued.
+     * @throws ExportException If the AOI resources could not be created.
+     */
+    void coalesce(final int maxId) throws ExportException {
+        coalesce = true;
+        final int size = ((maxId / BOOL_ARRAY_ALIGNMENT) + 1) * BOOL_ARRAY_ALIGNMENT;
+        aoi.addLocalTag(TagNames.PENDING, DataType.BOOL, size);
+
+        final List<String> lines = new ArrayList<>();
+        for (int id = 1; id <= maxId; id++) {
+            lines.add(TagNames.PENDING + "[" + id + "] := 0;");
+        }
+        aoi.addStructuredTextLines(ScanModeRoutine.Prescan, lines);
+        aoi.addStructuredTextLines(ScanModeRoutine.EnableInFalse, lines);
+    }
+
+    /**
+     * Adds priority bands above the default band zero. Each band receives its own
+     * storage array, sized to the full queue capacity, as any band may hold every
+     * queued event. The capacity limit applies to the total number of events in
+     * all bands. Timestamp arrays are also created for the new bands if
+     * diagnostics are already enabled.
+     *
+     * @param priorities Number of additional bands; events may then be queued with
+     *                   priority zero through this value, inclusive.
+     * @throws ExportException If the AOI resources could not be created.
+     */
+    void prioritize(final int priorities) throws ExportException {
+        final int firstBand = this.priorities + 1;
+        this.priorities = priorities;
+
+        final List<String> lines = new ArrayList<>();
+        for (int band = firstBand; band <= priorities; band++) {
+            aoi.addLocalTag(bandTag(TagNames.STORAGE, band), DataType.DINT, capacity);
+            aoi.addLocalTag(bandTag(TagNames.HEAD, band), DataType.DINT);
+            aoi.addLocalTag(bandTag(TagNames.TAIL, band), DataType.DINT);
+            aoi.addLocalTag(bandTag(TagNames.BAND_SIZE, band), DataType.DINT);
+
+            lines.add(bandTag(TagNames.HEAD, band) + " := 0;");
+            lines.add(bandTag(TagNames.TAIL, band) + " := 0;");
+            lines.add(bandTag(TagNames.BAND_SIZE, band) + " := 0;");
+        }
+        aoi.addStructuredTextLines(ScanModeRoutine.Prescan, lines);
+        aoi.addStructuredTextLines(ScanModeRoutine.EnableInFalse, lines);
+        if (diagnostics) {
+            createTimestampTags(firstBand);
+        }
+    }
+
+    /**
+     * Selects the action taken when an event arrives while the queue is full.
+     * Policies other than halting add an output counting discarded events.
+     *
+     * @param policy The overflow policy.
+     * @throws ExportException If the AOI resources could not be created.
+     */
+    void setOverflowPolicy(final OverflowPolicy policy) throws ExportException {
+        overflowPolicy = policy;
+        if (policy != OverflowPolicy.HALT) {
+            aoi.addParameter(TagNames.DROPPED, ParameterUsage.Output, DataType.DINT, true,
+                    "Number of events discarded due to overflow.");
+        }
+    }
+
+    /**
+     * Adds outputs counting events entering and leaving the queue, and the longest
+     * time any event waited. Waits are measured in scans by storing a timestamp
+     * alongside each event. The clock is restarted whenever the queue is empty,
+     * so it cannot overflow while the queue is serviced. May be called before or
+     * after priority bands are added.
+     *
+     * @throws ExportException If the AOI resources could not be created.
+     */
+    void enableDiagnostics() throws ExportException {
+        diagnostics = true;
+        aoi.addParameter(TagNames.ENQUEUED, ParameterUsage.Output, DataType.DINT, true,
+                "Number of events stored in the event queue.");
+        aoi.addParameter(TagNames.CONSUMED, ParameterUsage.Output, DataType.DINT, true,
+                "Number of events removed from the event queue.");
+        aoi.addParameter(TagNames.MAX_WAIT, ParameterUsage.Output, DataType.DINT, true,
+                "Most scans an event waited in the event queue.");
+        aoi.addLocalTag(TagNames.CLOCK, DataType.DINT);
+        aoi.addLocalTag(TagNames.WAIT, DataType.DINT);
+        createTimestampTags(0);
+    }
+
+    /**
+     * Defines the timestamp arrays for diagnostics, one per priority band.
+     *
+     * @param firstBand Lowest band requiring a timestamp array; every band from
+     *                  this one through the highest receives an array.
+     * @throws ExportException If the AOI resources could not be created.
+     */
+    private void createTimestampTags(final int firstBand) throws ExportException {
+        for (int band = firstBand; band <= priorities; band++) {
+            aoi.addLocalTag(bandTag(TagNames.TIMESTAMP, band), DataType.DINT, capacity);
+        }
+    }
+
+    /**
+     * Getter method for the queue capacity.
+     *
+     * @return Maximum number of events the queue can hold.
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Defines the parameters and local tags used by the queue.
+     *
+     * @throws ExportException If the necessary parameters or local tags could not
+     *                         be created.
+     */
+    private void createTags() throws ExportException {
+        try {
+            aoi.addParameter(TagNames.OVERFLOW, ParameterUsage.Output, DataType.BOOL, true,
+                    "True if an overflow has occurred.");
+            aoi.addParameter(TagNames.WATERMARK, ParameterUsage.Output, DataType.DINT, true,
+                    "Highest number of events stored.");
+
+            aoi.addLocalTag(TagNames.STORAGE, DataType.DINT, capacity);
+            aoi.addLocalTag(TagNames.HEAD, DataType.DINT);
+            aoi.addLocalTag(TagNames.TAIL, DataType.DINT);
+            aoi.addLocalTag(TagNames.SIZE, DataType.DINT);
+        } catch (ExportException e) {
+            // These tag names are not derived from UML model names, and should never be
+            // invalid.
+            throw new ExportException("Failed to create event queue tags.");
+        }
+    }
+
+    /**
+     * Generates a set of structured text commands to empty the queue.
+     *
+     * @param routine Routine to append the structured text lines to.
+     */
+    private void clear(final ScanModeRoutine routine) {
+        ArrayList<String> lines = new ArrayList<String>();
+
+        lines.add(TagNames.HEAD + " := 0;");
+        lines.add(TagNames.TAIL + " := 0;");
+        lines.add(TagNames.SIZE + " := 0;");
+        lines.add(TagNames.OVERFLOW + " := 0;");
+
+        aoi.addStructuredTextLines(routine, lines);
+    }
+
+    /**
+     * Generates a list of structured text statements to add any event with an input
+     * rising edge to the event queue.
+     *
+     * @param events Set of objects representing the events to be evaluated.
+     * @return Structured text lines.
+     */
+    List<String> enqueueEvents(final Collection<AoiEvent> events) {
+        final List<String> lines = new ArrayList<>();
+
+        // Advance the diagnostic clock before timestamping new events.
+        if (diagnostics) {
+            final IfThen clock = new IfThen();
+            clock.addCase(TagNames.SIZE + " = 0", TagNames.CLOCK + " := 0;");
+            clock.addElse(TagNames.CLOCK + " := " + TagNames.CLOCK + " + 1;");
+            lines.addAll(clock.getLines());
+        }
+
+        events.stream() //
+                .map(e -> e.evalInput(this)) //
+                .forEach(lines::addAll);
+        return unmodifiableList(lines);
+    }
+
+    /**
+     * Generates a set of structured text commands in the logic routine to place a
+     * value into the queue.
+     *
+     * @param value    Value to add to the queue.
+     * @param priority Band receiving the value; zero is the lowest priority.
+     * @return Structured text lines implementing the enqueue operation.
+     */
+    List<String> enqueueValue(final int value, final int priority) {
+        if ((priority < 0) || (priority > priorities)) {
+            throw new AssertionError("Event priority out of range.");
+        }
+
+        final List<String> lines = new ArrayList<>();
+        if (coalesce) {
+            lines.add(LinePool.intern(TagNames.PENDING + "[" + value + "] := 1;"));
+        }
+
+        // Store the value at the head of the array.
+        final String head = bandTag(TagNames.HEAD, priority);
+        lines.add(LinePool.intern(bandTag(TagNames.STORAGE, priority) + "[" + head + "] := " + value + ";"));
+        if (diagnostics) {
+            lines.add(LinePool.intern(bandTag(TagNames.TIMESTAMP, priority) + "[" + head + "] := " + TagNames.CLOCK + ";"));
+            lines.add(LinePool.intern(TagNames.ENQUEUED + " := " + TagNames.ENQUEUED + " + 1;"));
+        }
+
+        // Increment the head pointer.
+        incrementIndex(head, lines);
+
+        // Increment the band size; band zero is not tracked separately.
+        if (priority > 0) {
+            final String bandSize = bandTag(TagNames.BAND_SIZE, priority);
+            lines.add(LinePool.intern(bandSize + " := " + bandSize + " + 1;"));
+        }
+
+        // Increment the current size.
+        lines.add(LinePool.intern(TagNames.SIZE + " := " + TagNames.SIZE + " + 1;"));
+
+        // Update the high watermark output.
+        final IfThen watermark = new IfThen();
+        watermark.addCase( //
+                TagNames.SIZE + " > " + TagNames.WATERMARK, //
+                LinePool.intern(TagNames.WATERMARK + " := " + TagNames.SIZE + ";") //
+        );
+        lines.addAll(watermark.getLines());
+
+        final List<String> checked = handleOverflow(lines);
+
+        // Skip the entire operation if coalescing and the event is already queued.
+        if (coalesce) {
+            final IfThen notPending = new IfThen();
+            notPending.addCase("NOT " + TagNames.PENDING + "[" + value + "]", checked);
+            return unmodifiableList(notPending.getLines());
+        }
+
+        return unmodifiableList(checked);
+    }
+
+    /**
+     * Applies the overflow policy to a set of statements storing a value in the
+     * queue.
+     *
+     * @param store Structured text lines storing the value.
+     * @return Structured text lines checking for overflow and storing the value.
+     */
+    private List<String> handleOverflow(final List<String> store) {
+        final String full = TagNames.SIZE + " = " + capacity;
+        final List<String> lines = new ArrayList<>();
+        final IfThen overflowCheck = new IfThen();
+        final List<String> overflowStatements = new ArrayList<>();
+
+        switch (overflowPolicy) {
+        case HALT:
+            // Set the overflow flag and halt the processor if the queue is full.
+            overflowStatements.add(LinePool.intern(TagNames.OVERFLOW + " := 1;"));
+            overflowStatements.addAll(Halt.getLines());
+            overflowCheck.addCase(full, overflowStatements);
+            lines.addAll(overflowCheck.getLines());
+            lines.addAll(store);
+            break;
+
+        case LATCH:
+            // Set the overflow flag in addition to discarding the new value.
+            overflowStatements.add(LinePool.intern(TagNames.OVERFLOW + " := 1;"));
+            dropNewest(full, overflowStatements, store, lines);
+            break;
+
+        case DROP_NEWEST:
+            dropNewest(full, overflowStatements, store, lines);
+            break;
+
+        case DROP_OLDEST:
+            // Make room for the new value by discarding the oldest one.
+            discardOldest(overflowStatements);
+            overflowStatements.add(countDropped());
+            overflowCheck.addCase(full, overflowStatements);
+            lines.addAll(overflowCheck.getLines());
+            lines.addAll(store);
+            break;
+
+        default:
+            throw new AssertionError("Unhandled overflow policy.");
+        }
+
+        return lines;
+    }
+
+    /**
+     * Generates structured text lines storing a value only if the queue is not
+     * full, discarding the new value otherwise.
+     *
+     * @param full               Condition true if the queue is full.
+     * @param overflowStatements Structured text lines executed when the queue is
+     *                           full, which are followed by counting the dropped
+     *                           value.
+     * @param store              Structured text lines storing the value.
+     * @param lines              List of structured text lines to append onto.
+     */
+    private static void dropNewest(final String full, final List<String> overflowStatements,
+            final List<String> store, final List<String> lines) {
+        overflowStatements.add(countDropped());
+        final IfThen overflowCheck = new IfThen();
+        overflowCheck.addCase(full, overflowStatements);
+        overflowCheck.addElse(store);
+        lines.addAll(overflowCheck.getLines());
+    }
+
+    /**
+     * Generates the structured text line counting a dropped value.
+     *
+     * @return The structured text line.
+     */
+    private static String countDropped() {
+        return LinePool.intern(TagNames.DROPPED + " := " + TagNames.DROPPED + " + 1;");
+    }
+
+    /**
+     * Generates structured text lines to discard the value at the tail of the
+     * lowest priority band holding a value.
+     *
+     * @param lines List of structured text lines to append onto.
+     */
+    private void discardOldest(final List<String> lines) {
+        if (priorities == 0) {
+            discardTail(0, lines);
+            return;
+        }
+
+        // Band zero size is not tracked, but is nonzero if the total exceeds the
+        // sum of the other bands.
+        final List<String> upperSizes = new ArrayList<>();
+        for (int band = 1; band <= priorities; band++) {
+            upperSizes.add(bandTag(TagNames.BAND_SIZE, band));
+        }
+
+        final IfThen selectBand = new IfThen();
+        final List<String> discardFromBand = new ArrayList<>();
+        discardTail(0, discardFromBand);
+        selectBand.addCase(TagNames.SIZE + " > " + String.join(" + ", upperSizes), discardFromBand);
+        for (int band = 1; band < priorities; band++) {
+            final List<String> discard = new ArrayList<>();
+            discardTail(band, discard);
+            selectBand.addCase(bandTag(TagNames.BAND_SIZE, band) + " > 0", discard);
+        }
+        final List<String> discard = new ArrayList<>();
+        discardTail(priorities, discard);
+        selectBand.addElse(discard);
+        lines.addAll(selectBand.getLines());
+    }
+
+    /**
+     * Generates structured text lines to discard the value at the tail of a band.
+     *
+     * @param band  Band to remove from.
+     * @param lines List of structured text lines to append onto.
+     */
+    private void discardTail(final int band, final List<String> lines) {
+        final String tail = bandTag(TagNames.TAIL, band);
+        if (coalesce) {
+            lines.add(LinePool.intern(
+                    TagNames.PENDING + "[" + bandTag(TagNames.STORAGE, band) + "[" + tail + "]] := 0;"));
+        }
+        incrementIndex(tail, lines);
+        if (band > 0) {
+            final String bandSize = bandTag(TagNames.BAND_SIZE, band);
+            lines.add(LinePool.intern(bandSize + " := " + bandSize + " - 1;"));
+        }
+        lines.add(LinePool.intern(TagNames.SIZE + " := " + TagNames.SIZE + " - 1;"));
+    }
+
+    /**
+     * Generates a set of structured text commands in the logic routine to remove a
+     * value from the queue
+     *
+     * @param dest Tag name to receive the value.
+     * @return Structured text lines implementing the dequeue operation.
+     */
+    public List<String> dequeue(final String dest) {
+        final IfThen st = new IfThen();
+
+        // Add a case to handle removing an event if the queue has one or more events.
+        final List<String> removeEvent = new ArrayList<>();
+        if (priorities > 0) {
+            // Select the highest band holding an event; band zero must hold the event
+            // if all others are empty.
+            final IfThen selectBand = new IfThen();
+            for (int band = priorities; band > 0; band--) {
+                final String bandSize = bandTag(TagNames.BAND_SIZE, band);
+                final List<String> removeFromBand = new ArrayList<>();
+                removeTail(band, dest, removeFromBand);
+                removeFromBand.add(LinePool.intern(bandSize + " := " + bandSize + " - 1;"));
+                selectBand.addCase(bandSize + " > 0", removeFromBand);
+            }
+            final List<String> removeFromBand = new ArrayList<>();
+            removeTail(0, dest, removeFromBand);
+            selectBand.addElse(removeFromBand);
+            removeEvent.addAll(selectBand.getLines());
+        } else {
+            removeTail(0, dest, removeEvent);
+        }
+        removeEvent.add(LinePool.intern(TagNames.SIZE + " := " + TagNames.SIZE + " - 1;")); // Reduce the current size.
+        if (coalesce) {
+            removeEvent.add(LinePool.intern(TagNames.PENDING + "[" + dest + "] := 0;"));
+        }
+        if (diagnostics) {
+            removeEvent.add(LinePool.intern(TagNames.CONSUMED + " := " + TagNames.CONSUMED + " + 1;"));
+        }
+        st.addCase(notEmpty(), removeEvent);
+
+        // Clear the destination tag if the queue is empty.
+        st.addElse(LinePool.intern(dest + " := 0;"));
+
+        return unmodifiableList(st.getLines());
+    }
+
+    /**
+     * Generates structured text lines to remove the value at the tail of a band.
+     *
+     * @param band  Band to remove from.
+     * @param dest  Tag name to receive the value.
+     * @param lines List of structured text lines to append onto.
+     */
+    private void removeTail(final int band, final String dest, final List<String> lines) {
+        final String tail = bandTag(TagNames.TAIL, band);
+        lines.add(LinePool.intern(dest + " := " + bandTag(TagNames.STORAGE, band) + "[" + tail + "];")); // Remove value from tail index.
+
+        // Capture the longest wait.
+        if (diagnostics) {
+            lines.add(LinePool.intern(
+                    TagNames.WAIT + " := " + TagNames.CLOCK + " - " + bandTag(TagNames.TIMESTAMP, band) + "[" + tail + "];"));
+            final IfThen maxWait = new IfThen();
+            maxWait.addCase(TagNames.WAIT + " > " + TagNames.MAX_WAIT,
+                    LinePool.intern(TagNames.MAX_WAIT + " := " + TagNames.WAIT + ";"));
+            lines.addAll(maxWait.getLines());
+        }
+
+        incrementIndex(tail, lines); // Increment the tail pointer.
+    }
+
+    /**
+     * Forms the name of a tag belonging to a priority band. Band zero uses the base
+     * name unaltered.
+     *
+     * @param base Base tag name.
+     * @param band Band number.
+     * @return The tag name.
+     */
+    private static String bandTag(final String base, final int band) {
+        return (band == 0) ? base : base + TagNames.BAND + band;
+    }
+
+    /**
+     * Builds a structured text expression that is true if the queue holds one or
+     * more events.
+     *
+     * @return Boolean expression.
+     */
+    String notEmpty() {
+        return TagNames.SIZE + " > 0";
+    }
+
+    /**
+     * Generates a set of structured text lines to increment an array index. Power
+     * of two capacities wrap by masking the incremented value, avoiding a
+     * comparison and branch.
+     *
+     * @param tag   Tag name to increment.
+     * @param lines List of structured text lines to append onto.
+     */
+    private void incrementIndex(final String tag, final List<String> lines) {
+        if (Integer.bitCount(capacity) == 1) {
+            lines.add(LinePool.intern(tag + " := (" + tag + " + 1) AND " + (capacity - 1) + ";"));
+            return;
+        }
+
+        lines.add(LinePool.intern(tag + " := " + tag + " + 1;"));
+
+        // Wrap back to the beginning if the index has reached the end of the array.
+        final IfThen wrap = new IfThen();
+        wrap.addCase(tag + " = " + capacity, LinePool.intern(tag + " := 0;"));
+        lines.addAll(wrap.getLines());
+    }
+}
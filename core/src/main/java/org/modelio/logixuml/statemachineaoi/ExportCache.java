@@ -0,0 +1,230 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An on-disk store of previously exported files, allowing state machines whose
+ * content has not changed to be exported without generating the AOI again.
+ * <p>
+ * Entries are directories named by a digest of the model content, the
+ * generator version, and the generator code, each holding a copy of every file
+ * written by the export. Including the code means a rebuilt generator never
+ * reuses entries from an earlier build, even if the version is unchanged.
+ * The cache resides in a hidden subdirectory of the export directory, and may be
+ * deleted at any time to force every state machine to be generated again.
+ */
+public class ExportCache {
+    /**
+     * Name of the cache subdirectory within the export directory.
+     */
+    private static final String CACHE_DIR = ".logixuml-cache";
+
+    /**
+     * Digest of the generator code, computed on first use.
+     */
+    private static class GeneratorDigest {
+        /**
+         * Digest of the jar or class directory containing the generator.
+         */
+        private static final String VALUE = computeGeneratorDigest();
+    }
+
+    /**
+     * Target directory for the exported files.
+     */
+    private final String dir;
+
+    /**
+     * Identifies the generator; entries created by other versions are not used.
+     */
+    private final String generatorVersion;
+
+    /**
+     * Constructor.
+     *
+     * @param dir              Target directory for the exported files.
+     * @param generatorVersion Version of the module generating the AOIs.
+     */
+    public ExportCache(final String dir, final String generatorVersion) {
+        this.dir = dir;
+        this.generatorVersion = generatorVersion;
+    }
+
+    /**
+     * Places the files of a previous export of identical content into the export
+     * directory. Files already identical to the cached copy are not rewritten.
+     *
+     * @param model Snapshot of the state machine to export.
+     * @return True if the export was restored from the cache; false if the AOI
+     *         must be generated.
+     * @throws ExportException If the cached files could not be copied.
+     */
+    public boolean restore(final ModelSnapshot model) throws ExportException {
+        final Path entry = getEntry(model.getContentHash());
+        if (!Files.isDirectory(entry)) {
+            return false;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(entry)) {
+            for (final Path cached : files) {
+                final Path target = getPath(dir, cached.getFileName().toString());
+                if (!sameContent(cached, target)) {
+                    Files.copy(cached, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            throw new ExportException("Error restoring cached export.", e);
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds the files written by a successful export to the cache.
+     *
+     * @param aoi The exported AOI.
+     * @throws ExportException If the cache entry could not be created.
+     */
+    public void store(final StateMachineAoi aoi) throws ExportException {
+        final Path entry = getEntry(aoi.getContentHash());
+        if (Files.isDirectory(entry)) {
+            return;
+        }
+
+        // Files are collected in a temporary directory, then renamed into place, so
+        // an interrupted store never leaves a partial entry.
+        try {
+            final Path temp = Files.createTempDirectory(Files.createDirectories(entry.getParent()), "tmp");
+            for (final String file : aoi.getOutputFiles()) {
+                Files.copy(getPath(dir, file), temp.resolve(file));
+            }
+
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Another export may have stored identical content first.
+                if (!Files.isDirectory(entry)) {
+                    throw e;
+                }
+                for (final String file : aoi.getOutputFiles()) {
+                    Files.delete(temp.resolve(file));
+                }
+                Files.delete(temp);
+            }
+        } catch (IOException e) {
+            throw new ExportException("Error writing export cache.", e);
+        }
+    }
+
+    /**
+     * Locates the cache entry for given model content.
+     *
+     * @param contentHash Digest of the model content.
+     * @return Path of the entry directory, which may not exist.
+     * @throws ExportException If the export directory is not a valid path.
+     */
+    private Path getEntry(final String contentHash) throws ExportException {
+        return getPath(dir, CACHE_DIR,
+                ModelSnapshot.sha256(generatorVersion + "\n" + GeneratorDigest.VALUE + "\n" + contentHash));
+    }
+
+    /**
+     * Computes a digest of the jar file, or class directory, the generator was
+     * loaded from. If the location cannot be read, a random value is returned
+     * instead, so entries are only reused within the running process.
+     *
+     * @return Hexadecimal digest.
+     */
+    private static String computeGeneratorDigest() {
+        try {
+            final CodeSource source = ExportCache.class.getProtectionDomain().getCodeSource();
+            if (source != null) {
+                final Path location = Paths.get(source.getLocation().toURI());
+                final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                if (Files.isDirectory(location)) {
+                    final List<Path> files;
+                    try (Stream<Path> walk = Files.walk(location)) {
+                        files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                    }
+                    for (final Path file : files) {
+                        digest.update(location.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                        digest.update(Files.readAllBytes(file));
+                    }
+                } else {
+                    digest.update(Files.readAllBytes(location));
+                }
+                return ModelSnapshot.toHex(digest.digest());
+            }
+        } catch (IOException | URISyntaxException | IllegalArgumentException | SecurityException
+                | NoSuchAlgorithmException e) {
+            // Fall through to the per-process value.
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Converts a sequence of path strings to a path.
+     *
+     * @param first First path string.
+     * @param more  Additional path strings to join.
+     * @return The path.
+     * @throws ExportException If the strings do not form a valid path.
+     */
+    private static Path getPath(final String first, final String... more) throws ExportException {
+        try {
+            return Paths.get(first, more);
+        } catch (InvalidPathException e) {
+            throw new ExportException("Invalid output path.", e);
+        }
+    }
+
+    /**
+     * Compares the content of two files.
+     *
+     * @param a First file.
+     * @param b Second file, which may not exist.
+     * @return True if both files exist with identical content.
+     * @throws IOException If either file could not be read.
+     */
+    private static boolean sameContent(final Path a, final Path b) throws IOException {
+        if (!Files.isRegularFile(b) || (Files.size(a) != Files.size(b))) {
+            return false;
+        }
+        return Arrays.equals(Files.readAllBytes(a), Files.readAllBytes(b));
+    }
+}
@@ -19,8 +19,6 @@
 
 package org.modelio.logixuml.statemachineaoi;
 
-import org.modelio.vcore.smkernel.mapi.MObject;
-
 /**
  * Exception thrown when a problem is encountered when attempting to export an
  * add-on instruction, typically due to invalid UML model content.
@@ -28,9 +26,10 @@ import org.modelio.vcore.smkernel.mapi.MObject;
 @SuppressWarnings("serial")
 public class ExportException extends Exception {
     /**
-     * The UML model object where the problem occurred.
+     * The UML model object where the problem occurred, as supplied by the model
+     * reader; a Modelio MObject when exporting from a Modelio session.
      */
-    private final MObject modelObject;
+    private final Object modelObject;
 
     /**
      * No-argument constructor.
@@ -55,7 +54,7 @@ public class ExportException extends Exception {
      * @param msg         The detail message.
      * @param modelObject The UML model object that is the source of the problem.
      */
-    public ExportException(final String msg, final MObject modelObject) {
+    public ExportException(final String msg, final Object modelObject) {
         super(msg);
         this.modelObject = modelObject;
     }
@@ -76,7 +75,7 @@ public class ExportException extends Exception {
      *
      * @return The UML model object provided by the constructor.
      */
-    public MObject getModelObject() {
+    public Object getModelObject() {
         return modelObject;
     }
 }
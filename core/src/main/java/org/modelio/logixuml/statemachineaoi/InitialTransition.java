@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import java.util.List;
+
+import org.modelio.logixuml.statemachineaoi.ModelSnapshot.Initial;
+
+/**
+ * Static method to locate the initial transition of a state machine or state.
+ */
+class InitialTransition {
+    /**
+     * Acquires the transition originating from an object's initial pseudo state.
+     *
+     * @param model  Snapshot containing the parent object.
+     * @param parent Identifier of the state to query, or
+     *               {@link ModelSnapshot#STATE_MACHINE} for the state machine.
+     * @return Identifier of the transition originating from the initial pseudo
+     *         state, or {@link ModelSnapshot#NONE} if the parent object has no
+     *         initial transition.
+     * @throws ExportException
+     */
+    static int getInitialTransition(final ModelSnapshot model, final int parent) throws ExportException {
+        int transition = ModelSnapshot.NONE;
+
+        if (hasRegion(model, parent)) {
+            final Initial initial = findInRegion(model, parent);
+            if (initial != null) {
+                transition = getTransition(initial);
+                validateTransition(model, parent, transition);
+            }
+        }
+
+        return transition;
+    }
+
+    /**
+     * Determines if the parent has a region that may contain the initial
+     * transition. Initial pseudo states are always children of a region.
+     *
+     * @param model  Snapshot containing the parent object.
+     * @param parent Identifier of the object to query.
+     * @return True if the parent has a single region; false if no child regions
+     *         exist.
+     * @throws ExportException If a state object has multiple regions.
+     */
+    static private boolean hasRegion(final ModelSnapshot model, final int parent) throws ExportException {
+        switch (model.getRegionCount(parent)) {
+        // A state with no regions has no initial transition.
+        case 0:
+            return false;
+
+        case 1:
+            return true;
+
+        default:
+            throw new ExportException("Multiple regions are not supported.", model.getElement(parent));
+        }
+    }
+
+    /**
+     * Locates the initial transition within the parent's region.
+     *
+     * @param model  Snapshot containing the parent object.
+     * @param parent Identifier of the object owning the region.
+     * @return The initial pseudo state, or null if none was found.
+     * @throws ExportException If the region contains more than one initial
+     *                         transition.
+     */
+    static private Initial findInRegion(final ModelSnapshot model, final int parent) throws ExportException {
+        final Initial initial;
+        final List<Initial> initials = model.getInitials(parent);
+
+        switch (initials.size()) {
+        case 0:
+            initial = null;
+            break;
+
+        case 1:
+            initial = initials.get(0);
+            break;
+
+        default:
+            throw new ExportException("Multiple initial transitions not supported.", model.getRegion(parent));
+        }
+
+        return initial;
+    }
+
+    /**
+     * Acquires the outgoing transition from the initial pseudo state.
+     *
+     * @param initial Source initial pseudo state.
+     * @return Identifier of the outgoing transition.
+     * @throws ExportException If the pseudo state does not have a single outgoing
+     *                         transition.
+     */
+    static private int getTransition(final Initial initial) throws ExportException {
+        final List<Integer> outgoing = initial.getOutgoing();
+
+        if (outgoing.size() != 1) {
+            throw new ExportException("Initial state must have exactly one outgoing transition.",
+                    initial.getElement());
+        }
+
+        return outgoing.get(0);
+    }
+
+    /**
+     * Confirms a transition is suitable as an initial transition. Only checks
+     * conditions unique to initial transitions; validation for conditions common
+     * all transitions is implemented elsewhere.
+     *
+     * @param model      Snapshot containing the transition.
+     * @param origin     Identifier of the object owning the initial pseudo state
+     *                   where the transition originates.
+     * @param transition Identifier of the transition to test.
+     * @throws ExportException If the transition is not a valid initial transition.
+     */
+    static private void validateTransition(final ModelSnapshot model, final int origin, final int transition)
+            throws ExportException {
+        // Confirm no trigger event is defined.
+        final String event = model.getTransitionEvent(transition);
+        if ((event != null) && !event.trim().isEmpty()) {
+            throw new ExportException("Initial transitions can not have a trigger event.",
+                    model.getTransition(transition));
+        }
+
+        // If this is an initial transition within a state, and not a state machine, it
+        // must target a sub-state.
+        if (origin != ModelSnapshot.STATE_MACHINE) {
+            final int target = model.getTransitionTarget(transition);
+            if ((target == ModelSnapshot.NONE) || !model.getSuperStateIndex().isSuperState(origin, target)) {
+                throw new ExportException("Initial transition must target a substate.", model.getElement(origin));
+            }
+        }
+    }
+}
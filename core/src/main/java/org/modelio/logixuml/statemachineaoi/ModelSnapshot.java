@@ -0,0 +1,960 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable, compact copy of a state machine model taken in a single pass over
+ * the source model. States and transitions are assigned dense integer
+ * identifiers, starting at zero, and all relationships between them are stored
+ * as identifiers; the remainder of the export pipeline operates exclusively on
+ * this object and never queries the modeling session.
+ * <p>
+ * Snapshots are assembled with a {@link Builder} by a reader for a particular
+ * model source, such as a Modelio session or a model file, so the generator
+ * itself has no dependency on any modeling tool. Model elements are retained
+ * as opaque objects only so they can be attached to an {@link ExportException}
+ * to identify the offending element; they are never navigated after the
+ * snapshot is built.
+ */
+public final class ModelSnapshot {
+    /**
+     * Identifier used in place of a state to refer to the state machine itself,
+     * e.g. as the parent of top-level states.
+     */
+    public static final int STATE_MACHINE = -1;
+
+    /**
+     * Identifier representing the absence of a state or transition.
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Initial pseudo state and its outgoing transitions.
+     */
+    static final class Initial {
+        /**
+         * Source model object.
+         */
+        private final Object element;
+
+        /**
+         * Identifiers of transitions leaving the pseudo state.
+         */
+        private final List<Integer> outgoing;
+
+        /**
+         * Constructor.
+         *
+         * @param element  Source model object.
+         * @param outgoing Identifiers of transitions leaving the pseudo state.
+         */
+        private Initial(final Object element, final List<Integer> outgoing) {
+            this.element = element;
+            this.outgoing = unmodifiableList(outgoing);
+        }
+
+        /**
+         * Getter method for the source model object.
+         *
+         * @return The initial pseudo state model object.
+         */
+        Object getElement() {
+            return element;
+        }
+
+        /**
+         * Getter method for the outgoing transitions.
+         *
+         * @return Identifiers of transitions leaving the pseudo state.
+         */
+        List<Integer> getOutgoing() {
+            return outgoing;
+        }
+    }
+
+    /**
+     * Content shared by the state machine and states that may enclose a region.
+     */
+    private static class Container {
+        /**
+         * Source model object.
+         */
+        final Object element;
+
+        /**
+         * Number of regions owned by the container.
+         */
+        final int regionCount;
+
+        /**
+         * First region owned by the container; null if there are no regions.
+         */
+        final Object region;
+
+        /**
+         * Initial pseudo states within the first region.
+         */
+        final List<Initial> initials;
+
+        /**
+         * Constructor.
+         *
+         * @param element     Source model object.
+         * @param regionCount Number of owned regions.
+         * @param region      First owned region, or null.
+         * @param initials    Initial pseudo states within the first region.
+         */
+        Container(final Object element, final int regionCount, final Object region, final List<Initial> initials) {
+            this.element = element;
+            this.regionCount = regionCount;
+            this.region = region;
+            this.initials = unmodifiableList(initials);
+        }
+    }
+
+    /**
+     * Snapshot of a single state.
+     */
+    private static final class StateNode extends Container {
+        /**
+         * Untrimmed state name.
+         */
+        final String name;
+
+        /**
+         * Identifier of the directly enclosing state, or STATE_MACHINE for top-level
+         * states.
+         */
+        final int parent;
+
+        /**
+         * Identifiers of transitions leaving this state.
+         */
+        final List<Integer> outgoing;
+
+        /**
+         * Constructor.
+         *
+         * @param element     Source model object.
+         * @param name        Untrimmed state name.
+         * @param parent      Identifier of the enclosing state.
+         * @param regionCount Number of owned regions.
+         * @param region      First owned region, or null.
+         * @param initials    Initial pseudo states within the first region.
+         * @param outgoing    Identifiers of outgoing transitions.
+         */
+        StateNode(final Object element, final String name, final int parent, final int regionCount,
+                final Object region, final List<Initial> initials, final List<Integer> outgoing) {
+            super(element, regionCount, region, initials);
+            this.name = name;
+            this.parent = parent;
+            this.outgoing = unmodifiableList(outgoing);
+        }
+    }
+
+    /**
+     * Snapshot of a single transition.
+     */
+    private static final class TransitionNode {
+        /**
+         * Source model object.
+         */
+        final Object element;
+
+        /**
+         * Identifier of the source state, or NONE if the transition originates from a
+         * pseudo state.
+         */
+        final int source;
+
+        /**
+         * Identifier of the target state, or NONE if the target is not a state.
+         */
+        final int target;
+
+        /**
+         * Qualified metaclass name of the target element.
+         */
+        final String targetType;
+
+        /**
+         * Untrimmed triggering event, which may be null.
+         */
+        final String event;
+
+        /**
+         * Constructor.
+         *
+         * @param element    Source model object.
+         * @param source     Source state identifier.
+         * @param target     Target state identifier.
+         * @param targetType Qualified metaclass name of the target element.
+         * @param event      Triggering event.
+         */
+        TransitionNode(final Object element, final int source, final int target, final String targetType,
+                final String event) {
+            this.element = element;
+            this.source = source;
+            this.target = target;
+            this.targetType = targetType;
+            this.event = event;
+        }
+    }
+
+    /**
+     * The state machine itself.
+     */
+    private final Container stateMachine;
+
+    /**
+     * Untrimmed state machine name.
+     */
+    private final String name;
+
+    /**
+     * Stereotype property table values.
+     */
+    private final StereotypeProperties properties;
+
+    /**
+     * All states, indexed by identifier.
+     */
+    private final List<StateNode> states;
+
+    /**
+     * All transitions, indexed by identifier.
+     */
+    private final List<TransitionNode> transitions;
+
+    /**
+     * Converts model objects to the keys of stateIds and transitionIds.
+     */
+    private final Function<Object, ?> keys;
+
+    /**
+     * State identifiers keyed by model object key.
+     */
+    private final Map<Object, Integer> stateIds;
+
+    /**
+     * Ancestry table of the state hierarchy.
+     */
+    private final SuperStateIndex superStateIndex;
+
+    /**
+     * Transition identifiers keyed by model object key.
+     */
+    private final Map<Object, Integer> transitionIds;
+
+    /**
+     * Constructor.
+     *
+     * @param builder Object holding the content read from the model.
+     */
+    private ModelSnapshot(final Builder builder) {
+        stateMachine = builder.stateMachine.freeze();
+        name = builder.name;
+        properties = builder.properties;
+        final List<StateNode> stateNodes = new ArrayList<>();
+        for (final Builder.StateContent s : builder.states) {
+            stateNodes.add(s.freeze());
+        }
+        states = unmodifiableList(stateNodes);
+        transitions = unmodifiableList(builder.transitions);
+        keys = builder.keys;
+        stateIds = Collections.unmodifiableMap(builder.stateIds);
+        transitionIds = Collections.unmodifiableMap(builder.transitionIds);
+        superStateIndex = new SuperStateIndex(builder.stateParents);
+    }
+
+    /**
+     * Names of the stereotype properties read from a state machine; the
+     * configuration of a snapshot is given as values for these names.
+     *
+     * @return Read-only list of property names.
+     */
+    public static List<String> getPropertyNames() {
+        return StereotypeProperties.getKeys();
+    }
+
+    /**
+     * Getter method for the untrimmed state machine name.
+     *
+     * @return The state machine name.
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Getter method for the stereotype property table values.
+     *
+     * @return The property values.
+     */
+    StereotypeProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Getter method for the number of states.
+     *
+     * @return The number of states; identifiers range from zero to one less than
+     *         this value.
+     */
+    int getStateCount() {
+        return states.size();
+    }
+
+    /**
+     * Tests if an integer is a valid state identifier.
+     *
+     * @param id Value to test.
+     * @return True if the value identifies a state.
+     */
+    boolean isState(final int id) {
+        return (id >= 0) && (id < states.size());
+    }
+
+    /**
+     * Looks up the identifier assigned to a state model object.
+     *
+     * @param state State model object.
+     * @return The state identifier, or NONE if the object is not a state in this
+     *         snapshot.
+     */
+    int getStateId(final Object state) {
+        return stateIds.getOrDefault(keys.apply(state), NONE);
+    }
+
+    /**
+     * Acquires the model object of a state, for use in exception reporting only.
+     *
+     * @param state State identifier, or STATE_MACHINE.
+     * @return The model object.
+     */
+    Object getElement(final int state) {
+        return getContainer(state).element;
+    }
+
+    /**
+     * Getter method for a state's untrimmed name.
+     *
+     * @param state State identifier.
+     * @return The state name.
+     */
+    String getStateName(final int state) {
+        return states.get(state).name;
+    }
+
+    /**
+     * Getter method for a state's directly enclosing state.
+     *
+     * @param state State identifier.
+     * @return The enclosing state identifier, or STATE_MACHINE for a top-level
+     *         state.
+     */
+    int getParent(final int state) {
+        return states.get(state).parent;
+    }
+
+    /**
+     * Acquires the list of super-states enclosing a given state.
+     *
+     * @param state State identifier.
+     * @return Read-only list of super-state identifiers, starting with the state
+     *         directly enclosing the target state, and ending with the top-level
+     *         state.
+     */
+    List<Integer> getSuperStates(final int state) {
+        return superStateIndex.getSuperStates(state);
+    }
+
+    /**
+     * Getter method for the ancestry table of the state hierarchy.
+     *
+     * @return The super-state index.
+     */
+    SuperStateIndex getSuperStateIndex() {
+        return superStateIndex;
+    }
+
+    /**
+     * Getter method for the number of regions owned by a state or the state
+     * machine.
+     *
+     * @param container State identifier, or STATE_MACHINE.
+     * @return The number of owned regions.
+     */
+    int getRegionCount(final int container) {
+        return getContainer(container).regionCount;
+    }
+
+    /**
+     * Getter method for the first region owned by a state or the state machine, for
+     * use in exception reporting only.
+     *
+     * @param container State identifier, or STATE_MACHINE.
+     * @return The region model object, or null if there are no regions.
+     */
+    Object getRegion(final int container) {
+        return getContainer(container).region;
+    }
+
+    /**
+     * Getter method for the initial pseudo states within the first region of a
+     * state or the state machine.
+     *
+     * @param container State identifier, or STATE_MACHINE.
+     * @return Initial pseudo states.
+     */
+    List<Initial> getInitials(final int container) {
+        return getContainer(container).initials;
+    }
+
+    /**
+     * Getter method for the transitions leaving a state.
+     *
+     * @param state State identifier.
+     * @return Outgoing transition identifiers.
+     */
+    List<Integer> getOutgoing(final int state) {
+        return states.get(state).outgoing;
+    }
+
+    /**
+     * Getter method for the number of transitions.
+     *
+     * @return The number of transitions.
+     */
+    int getTransitionCount() {
+        return transitions.size();
+    }
+
+    /**
+     * Looks up the identifier assigned to a transition model object.
+     *
+     * @param transition Transition model object.
+     * @return The transition identifier, or NONE if the transition is not part of
+     *         this snapshot.
+     */
+    int getTransitionId(final Object transition) {
+        return transitionIds.getOrDefault(keys.apply(transition), NONE);
+    }
+
+    /**
+     * Acquires the model object of a transition, for use in exception reporting
+     * only.
+     *
+     * @param transition Transition identifier.
+     * @return The model object.
+     */
+    Object getTransition(final int transition) {
+        return transitions.get(transition).element;
+    }
+
+    /**
+     * Getter method for a transition's source state.
+     *
+     * @param transition Transition identifier.
+     * @return Source state identifier, or NONE for transitions leaving a pseudo
+     *         state.
+     */
+    int getTransitionSource(final int transition) {
+        return transitions.get(transition).source;
+    }
+
+    /**
+     * Getter method for a transition's target state.
+     *
+     * @param transition Transition identifier.
+     * @return Target state identifier, or NONE if the target is not a state.
+     */
+    int getTransitionTarget(final int transition) {
+        return transitions.get(transition).target;
+    }
+
+    /**
+     * Getter method for the metaclass of a transition's target element.
+     *
+     * @param transition Transition identifier.
+     * @return Qualified metaclass name.
+     */
+    String getTransitionTargetType(final int transition) {
+        return transitions.get(transition).targetType;
+    }
+
+    /**
+     * Getter method for a transition's triggering event.
+     *
+     * @param transition Transition identifier.
+     * @return The untrimmed event, which may be null.
+     */
+    String getTransitionEvent(final int transition) {
+        return transitions.get(transition).event;
+    }
+
+    /**
+     * Computes a digest of every part of the snapshot affecting the exported AOI:
+     * names, hierarchy, transitions, events, and stereotype property values.
+     * Model object references are excluded, so the digest is stable across
+     * sessions and only changes with the exported content.
+     *
+     * @return Hexadecimal SHA-256 digest.
+     */
+    String getContentHash() {
+        final StringBuilder content = new StringBuilder();
+        appendField(content, name);
+        for (final Map.Entry<String, String> e : properties.getValues().entrySet()) {
+            appendField(content, e.getKey());
+            appendField(content, e.getValue());
+        }
+
+        appendContainer(content, stateMachine);
+        content.append(states.size()).append(';');
+        for (final StateNode s : states) {
+            appendField(content, s.name);
+            content.append(s.parent).append(';');
+            appendContainer(content, s);
+            content.append(s.outgoing).append(';');
+        }
+
+        content.append(transitions.size()).append(';');
+        for (final TransitionNode t : transitions) {
+            content.append(t.source).append(';').append(t.target).append(';');
+            appendField(content, t.targetType);
+            appendField(content, t.event);
+        }
+
+        return sha256(content.toString());
+    }
+
+    /**
+     * Computes the SHA-256 digest of a string.
+     *
+     * @param text Source string, encoded as UTF-8.
+     * @return Hexadecimal digest.
+     */
+    static String sha256(final String text) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e); // Every Java platform must support SHA-256.
+        }
+
+        return toHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Formats a digest as a hexadecimal string.
+     *
+     * @param digest Digest bytes.
+     * @return Hexadecimal digest.
+     */
+    static String toHex(final byte[] digest) {
+        final StringBuilder hex = new StringBuilder();
+        for (final byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Appends a possibly null string to digest content, prefixed by its length so
+     * adjacent fields cannot be confused.
+     *
+     * @param content Digest content.
+     * @param field   String to append, or null.
+     */
+    private static void appendField(final StringBuilder content, final String field) {
+        if (field == null) {
+            content.append("-;");
+        } else {
+            content.append(field.length()).append(':').append(field).append(';');
+        }
+    }
+
+    /**
+     * Appends the region count and initial pseudo states of a container to digest
+     * content.
+     *
+     * @param content   Digest content.
+     * @param container The container.
+     */
+    private static void appendContainer(final StringBuilder content, final Container container) {
+        content.append(container.regionCount).append(';');
+        content.append(container.initials.size()).append(';');
+        for (final Initial i : container.initials) {
+            content.append(i.outgoing).append(';');
+        }
+    }
+
+    /**
+     * Selects the container content for a state or the state machine.
+     *
+     * @param id State identifier, or STATE_MACHINE.
+     * @return The container content.
+     */
+    private Container getContainer(final int id) {
+        return (id == STATE_MACHINE) ? stateMachine : states.get(id);
+    }
+
+    /**
+     * Accumulates the content of a snapshot as it is read from a model source.
+     * <p>
+     * Every state must be added before any transition, so transition targets can
+     * be resolved to state identifiers. Identifiers are assigned in the order
+     * elements are added, and readers must therefore visit the model in a
+     * deterministic order to produce identical AOIs from identical models. Model
+     * objects are compared by a key chosen by the reader, which must implement
+     * equals() and hashCode() such that every reference to the same model element
+     * yields an equal key.
+     */
+    public static final class Builder {
+        /**
+         * Mutable content of the state machine or a state.
+         */
+        private static class ContainerContent {
+            /**
+             * Source model object.
+             */
+            final Object element;
+
+            /**
+             * Number of regions owned by the container.
+             */
+            int regionCount;
+
+            /**
+             * First region owned by the container; null if there are no regions.
+             */
+            Object region;
+
+            /**
+             * Source model objects of the initial pseudo states.
+             */
+            final List<Object> initialElements = new ArrayList<>();
+
+            /**
+             * Outgoing transitions of each initial pseudo state, in the same order
+             * as initialElements.
+             */
+            final List<List<Integer>> initialOutgoing = new ArrayList<>();
+
+            /**
+             * Constructor.
+             *
+             * @param element Source model object.
+             */
+            ContainerContent(final Object element) {
+                this.element = element;
+            }
+
+            /**
+             * Creates immutable copies of the initial pseudo states.
+             *
+             * @return The initial pseudo states.
+             */
+            List<Initial> getInitials() {
+                final List<Initial> initials = new ArrayList<>();
+                for (int i = 0; i < initialElements.size(); i++) {
+                    initials.add(new Initial(initialElements.get(i), initialOutgoing.get(i)));
+                }
+                return initials;
+            }
+
+            /**
+             * Creates the immutable container content.
+             *
+             * @return The container.
+             */
+            Container freeze() {
+                return new Container(element, regionCount, region, getInitials());
+            }
+        }
+
+        /**
+         * Mutable content of a state.
+         */
+        private static final class StateContent extends ContainerContent {
+            /**
+             * Untrimmed state name.
+             */
+            final String name;
+
+            /**
+             * Identifier of the directly enclosing state.
+             */
+            final int parent;
+
+            /**
+             * Identifiers of transitions leaving this state.
+             */
+            final List<Integer> outgoing = new ArrayList<>();
+
+            /**
+             * Constructor.
+             *
+             * @param element Source model object.
+             * @param name    Untrimmed state name.
+             * @param parent  Identifier of the enclosing state.
+             */
+            StateContent(final Object element, final String name, final int parent) {
+                super(element);
+                this.name = name;
+                this.parent = parent;
+            }
+
+            @Override
+            StateNode freeze() {
+                return new StateNode(element, name, parent, regionCount, region, getInitials(), outgoing);
+            }
+        }
+
+        /**
+         * See {@link ModelSnapshot#stateMachine}.
+         */
+        private final ContainerContent stateMachine;
+
+        /**
+         * See {@link ModelSnapshot#name}.
+         */
+        private final String name;
+
+        /**
+         * See {@link ModelSnapshot#properties}.
+         */
+        private final StereotypeProperties properties;
+
+        /**
+         * See {@link ModelSnapshot#states}.
+         */
+        private final List<StateContent> states = new ArrayList<>();
+
+        /**
+         * See {@link ModelSnapshot#transitions}.
+         */
+        private final List<TransitionNode> transitions = new ArrayList<>();
+
+        /**
+         * See {@link ModelSnapshot#keys}.
+         */
+        private final Function<Object, ?> keys;
+
+        /**
+         * See {@link ModelSnapshot#stateIds}.
+         */
+        private final Map<Object, Integer> stateIds = new HashMap<>();
+
+        /**
+         * See {@link ModelSnapshot#transitionIds}.
+         */
+        private final Map<Object, Integer> transitionIds = new HashMap<>();
+
+        /**
+         * Parent identifiers of every state, in identifier order.
+         */
+        private final List<Integer> stateParents = new ArrayList<>();
+
+        /**
+         * Constructor for model objects compared with their own equals() method.
+         *
+         * @param element    Source state machine model object.
+         * @param name       Untrimmed state machine name.
+         * @param properties Stereotype property values keyed by the names given by
+         *                   {@link ModelSnapshot#getPropertyNames()}. Missing or
+         *                   null values are equivalent to blank values.
+         */
+        public Builder(final Object element, final String name, final Map<String, String> properties) {
+            this(element, name, properties, Function.identity());
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param element    Source state machine model object.
+         * @param name       Untrimmed state machine name.
+         * @param properties Stereotype property values keyed by the names given by
+         *                   {@link ModelSnapshot#getPropertyNames()}. Missing or
+         *                   null values are equivalent to blank values.
+         * @param keys       Converts a model object to the key used to compare it.
+         */
+        public Builder(final Object element, final String name, final Map<String, String> properties,
+                final Function<Object, ?> keys) {
+            this.stateMachine = new ContainerContent(element);
+            this.name = name;
+            this.properties = new StereotypeProperties(properties);
+            this.keys = keys;
+        }
+
+        /**
+         * Adds a state.
+         *
+         * @param element Source model object.
+         * @param name    Untrimmed state name.
+         * @param parent  Identifier of the directly enclosing state, or
+         *                STATE_MACHINE for a top-level state.
+         * @return The identifier assigned to the state.
+         */
+        public int addState(final Object element, final String name, final int parent) {
+            if ((parent != STATE_MACHINE) && ((parent < 0) || (parent >= states.size()))) {
+                throw new IllegalArgumentException("Undefined parent state.");
+            }
+            if (!transitions.isEmpty()) {
+                throw new IllegalStateException("States must be added before transitions.");
+            }
+
+            final int id = states.size();
+            states.add(new StateContent(element, name, parent));
+            stateParents.add(parent);
+            stateIds.put(keys.apply(element), id);
+            return id;
+        }
+
+        /**
+         * Defines the regions owned by a state or the state machine. Containers
+         * without regions need not be defined.
+         *
+         * @param container State identifier, or STATE_MACHINE.
+         * @param count     Number of owned regions.
+         * @param region    Model object of the first region, or null if there are no
+         *                  regions.
+         */
+        public void setRegions(final int container, final int count, final Object region) {
+            final ContainerContent c = getContent(container);
+            c.regionCount = count;
+            c.region = region;
+        }
+
+        /**
+         * Adds an initial pseudo state within the first region of a state or the
+         * state machine.
+         *
+         * @param container State identifier, or STATE_MACHINE.
+         * @param element   Source model object.
+         * @return Index of the pseudo state within its container.
+         */
+        public int addInitial(final int container, final Object element) {
+            final ContainerContent c = getContent(container);
+            c.initialElements.add(element);
+            c.initialOutgoing.add(new ArrayList<>());
+            return c.initialElements.size() - 1;
+        }
+
+        /**
+         * Adds a transition leaving a state.
+         *
+         * @param element    Source model object.
+         * @param source     Source state identifier.
+         * @param target     Target model object.
+         * @param targetType Qualified metaclass name of the target element.
+         * @param event      Untrimmed triggering event, which may be null.
+         * @return The identifier assigned to the transition.
+         */
+        public int addTransition(final Object element, final int source, final Object target,
+                final String targetType, final String event) {
+            return addTransition(element, source, target, targetType, event, getState(source).outgoing);
+        }
+
+        /**
+         * Adds a transition leaving an initial pseudo state.
+         *
+         * @param container  State identifier, or STATE_MACHINE, enclosing the pseudo
+         *                   state.
+         * @param initial    Index of the pseudo state returned by
+         *                   {@link #addInitial(int, Object)}.
+         * @param element    Source model object.
+         * @param target     Target model object.
+         * @param targetType Qualified metaclass name of the target element.
+         * @param event      Untrimmed triggering event, which may be null.
+         * @return The identifier assigned to the transition.
+         */
+        public int addInitialTransition(final int container, final int initial, final Object element,
+                final Object target, final String targetType, final String event) {
+            return addTransition(element, NONE, target, targetType, event,
+                    getContent(container).initialOutgoing.get(initial));
+        }
+
+        /**
+         * Creates the snapshot from the accumulated content.
+         *
+         * @return The snapshot.
+         */
+        public ModelSnapshot build() {
+            return new ModelSnapshot(this);
+        }
+
+        /**
+         * Adds a transition to the snapshot and its source.
+         *
+         * @param element    Source model object.
+         * @param source     Source state identifier, or NONE.
+         * @param target     Target model object.
+         * @param targetType Qualified metaclass name of the target element.
+         * @param event      Untrimmed triggering event, which may be null.
+         * @param outgoing   Outgoing transitions of the source.
+         * @return The identifier assigned to the transition.
+         */
+        private int addTransition(final Object element, final int source, final Object target,
+                final String targetType, final String event, final List<Integer> outgoing) {
+            final int id = transitions.size();
+            transitions.add(new TransitionNode(element, source, stateIds.getOrDefault(keys.apply(target), NONE),
+                    targetType, event));
+            transitionIds.put(keys.apply(element), id);
+            outgoing.add(id);
+            return id;
+        }
+
+        /**
+         * Selects the content of a state.
+         *
+         * @param id State identifier.
+         * @return The state content.
+         */
+        private StateContent getState(final int id) {
+            if ((id < 0) || (id >= states.size())) {
+                throw new IllegalArgumentException("Undefined state.");
+            }
+            return states.get(id);
+        }
+
+        /**
+         * Selects the content of a state or the state machine.
+         *
+         * @param id State identifier, or STATE_MACHINE.
+         * @return The container content.
+         */
+        private ContainerContent getContent(final int id) {
+            return (id == STATE_MACHINE) ? stateMachine : getState(id);
+        }
+    }
+}
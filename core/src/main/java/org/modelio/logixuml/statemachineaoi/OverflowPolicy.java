@@ -0,0 +1,46 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+/**
+ * Available actions taken when an event arrives while the event queue is full.
+ */
+enum OverflowPolicy {
+    /**
+     * Set the overflow output and halt the processor with a major fault.
+     */
+    HALT,
+
+    /**
+     * Discard the arriving event.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Discard the oldest event in the lowest priority band holding events, then
+     * queue the arriving event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Set the overflow output and discard the arriving event.
+     */
+    LATCH;
+}
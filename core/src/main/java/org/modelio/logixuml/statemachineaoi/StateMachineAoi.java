@@ -0,0 +1,1043 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntSupplier;
+
+import org.modelio.logixuml.interpreter.ParseException;
+import org.modelio.logixuml.interpreter.ScanCost;
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.DataType;
+import org.modelio.logixuml.l5x.ParameterUsage;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+import org.modelio.logixuml.l5x.WriterBackend;
+import org.modelio.logixuml.structuredtext.CaseOf;
+import org.modelio.logixuml.structuredtext.Halt;
+import org.modelio.logixuml.structuredtext.IfThen;
+import org.modelio.logixuml.structuredtext.WhileDo;
+
+public class StateMachineAoi {
+    /**
+     * String added to the state machine model name to form the AOI's name.
+     */
+    private static String NAME_PREFIX = "stateMachine_";
+
+    /**
+     * AOI output object.
+     */
+    private final AddOnInstruction aoi;
+
+    /**
+     * Object handling the event queue implementation.
+     */
+    private final EventQueue eventQ;
+
+    /**
+     * Set of AoiEvent objects keyed by event name.
+     */
+    private final Map<String, AoiEvent> events;
+
+    /**
+     * Mapping of state identifiers to the object handling the AOI implementation of
+     * each state.
+     */
+    private final Map<Integer, AoiState> states;
+
+    /**
+     * Container to maintain the sequence of condition identifiers during a
+     * transition.
+     */
+    private final ConditionIdSequence cvSeq;
+
+    /**
+     * Object generating transition conditions according to the selected transition
+     * scan mode.
+     */
+    private final TransitionConditionsFactory transitionFactory;
+
+    /**
+     * Object generating unique, integer identifiers for every condition.
+     */
+    private final IntSupplier conditionIdSupplier;
+
+    /**
+     * Mapping of the integer identifier assigned to every possible output
+     * condition, stable and transition.
+     */
+    private final Map<Integer, Condition> conditions;
+
+    /**
+     * Integer identifier for conditions representing the stable output condition
+     * for each state.
+     */
+    private final Map<Integer, Integer> stableConditions;
+
+    /**
+     * True if identical transitional conditions leading to the same next condition
+     * are assigned a single identifier.
+     */
+    private final boolean mergeConditions;
+
+    /**
+     * Identifiers of previously allocated transitional conditions, keyed first by
+     * the identifier of the following condition, then by the condition itself. Only
+     * used when merging conditions.
+     */
+    private final Map<Integer, Map<Condition, Integer>> mergedConditions;
+
+    /**
+     * Identifiers of the first condition of every transition leaving each state,
+     * keyed by the identifier of the state's stable condition. Transitions may
+     * share a first condition if conditions are merged.
+     */
+    private final Map<Integer, Set<Integer>> transitionsFrom;
+
+    /**
+     * True if state outputs are only written when the condition variable changes,
+     * rather than cleared and set every scan.
+     */
+    private final boolean deltaOutputs;
+
+    /**
+     * Maximum number of events evaluated in a single scan; zero if unlimited.
+     */
+    private final int eventBudget;
+
+    /**
+     * True if event throughput and latency outputs are generated.
+     */
+    private final boolean diagnostics;
+
+    /**
+     * Source state, event, and target state names of each transition, indexed by
+     * its slot in the transition counter array; null if transitions are not
+     * counted.
+     */
+    private final List<String[]> transitionCounters;
+
+    /**
+     * Digest of the model content this AOI was generated from.
+     */
+    private final String contentHash;
+
+    /**
+     * Estimated cost of a single scan of each routine; computed on first use.
+     */
+    private Map<ScanModeRoutine, ScanCost> scanCost;
+
+    /**
+     * Value of condition variable tag when the AOI is scanned true for the first
+     * time, following either Prescan or after being scanned false. This value must
+     * be zero so it does not collide with dynamically-allocated condition IDs,
+     * which are always non-zero. The first condition of the state machine's
+     * top-level initial transition will follow this in the condition sequence,
+     * although it doesn't necessarily have to be 1.
+     */
+    private static final int RESET_CONDITION = 0;
+
+    /**
+     * Value representing the absence of an event. This must be zero because actual
+     * event IDs are non-zero.
+     */
+    private static final int NO_EVENT = 0;
+
+    /**
+     * Names for local tags that are not derived from model objects.
+     */
+    private class TagNames {
+        /**
+         * Boolean AOI output indicating when the state machine is operating.
+         */
+        private final static String ACTIVE_OUTPUT = "active";
+
+        /**
+         * ID of the condition describing the current output states.
+         */
+        private final static String CONDITION_VARIABLE = "cv";
+
+        /**
+         * ID of the condition whose outputs were last written; only used with delta
+         * outputs.
+         */
+        private final static String PREVIOUS_CONDITION_VARIABLE = "pcv";
+
+        /**
+         * ID of the event that has been removed from the event queue and is being
+         * evaluated for triggering a transition.
+         */
+        private final static String CURRENT_EVENT = "e";
+
+        /**
+         * Number of events removed from the event queue in the current scan. Only
+         * used when the number of events per scan is limited.
+         */
+        private final static String EVENT_COUNT = "ec";
+
+        /**
+         * Output counting the scans that stopped evaluating events because the
+         * per-scan limit was reached while events remained in the queue.
+         */
+        private final static String BUDGET_HITS = "eventQ_budgetHits";
+
+        /**
+         * Output counting events evaluated without triggering a transition. Only
+         * used with diagnostics.
+         */
+        private final static String UNMATCHED = "eventQ_unmatched";
+
+        /**
+         * Output counting transitions triggered by events. Only used with
+         * diagnostics.
+         */
+        private final static String TRANSITIONS = "transitionCount";
+
+        /**
+         * Local DINT array counting the number of times each transition was
+         * triggered. Only used when counting transitions.
+         */
+        private final static String TRANSITION_COUNTERS = "txc";
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param model Snapshot of the source state machine.
+     * @throws ExportException
+     */
+    public StateMachineAoi(final ModelSnapshot model) throws ExportException {
+        contentHash = model.getContentHash();
+        aoi = initializeAoi(model);
+        Halt.createTags(aoi);
+        final StereotypeProperties props = model.getProperties();
+        eventQ = new EventQueue(aoi, props.getEventQueueSize());
+        eventQ.setOverflowPolicy(props.getOverflowPolicy());
+        transitionFactory = new TransitionConditionsFactory(props.getTransitionScanMode());
+        mergeConditions = props.getMergeConditions();
+        deltaOutputs = props.getDeltaOutputs();
+        eventBudget = props.getEventBudget();
+        if (eventBudget > 0) {
+            createEventBudgetTags();
+        }
+
+        events = EventMap.build(model);
+        for (final AoiEvent e : events.values()) {
+            e.initializeAoi(aoi);
+        }
+        if (props.getCoalesceEvents()) {
+            eventQ.coalesce(events.values().stream().mapToInt(AoiEvent::getId).max().orElse(0));
+        }
+        assignEventPriorities(props.getEventPriorities());
+        diagnostics = props.getDiagnostics();
+        if (diagnostics) {
+            eventQ.enableDiagnostics();
+            createDiagnosticTags();
+        }
+        transitionCounters = props.getTransitionCounters() ? new ArrayList<>() : null;
+
+        states = StateMap.build(model);
+        for (final AoiState state : states.values()) {
+            state.initializeAoi(aoi);
+        }
+
+        conditionIdSupplier = new IntegerIdentifier();
+        conditions = new HashMap<>();
+        stableConditions = new HashMap<>();
+        mergedConditions = new HashMap<>();
+        transitionsFrom = new HashMap<>();
+        cvSeq = new ConditionIdSequence(mergeConditions);
+
+        // Generate identifiers for the stable conditions of every state. Stable
+        // conditions must all be allocated before any transitional conditions. See
+        // triggerTransitions() for details.
+        for (final int state : states.keySet()) {
+            final int id = conditionIdSupplier.getAsInt();
+            conditions.put(id, states.get(state).getStableCondition());
+            stableConditions.put(state, id);
+        }
+
+        buildInitialTransition(model);
+        buildLogicRoutine();
+    }
+
+    /**
+     * Instantiates the add-on instruction and allocates static resources.
+     *
+     * @param model Snapshot of the source state machine.
+     * @return The created AOI object.
+     * @throws ExportException If the state machine name is invalid.
+     */
+    private AddOnInstruction initializeAoi(final ModelSnapshot model) throws ExportException {
+        final AddOnInstruction aoi = new AddOnInstruction(getName(model));
+
+        // Begin each routine with a header comment.
+        final List<String> header = buildRoutineComment(model);
+        aoi.addStructuredTextLines(ScanModeRoutine.Logic, header);
+        aoi.addStructuredTextLines(ScanModeRoutine.Prescan, header);
+        aoi.addStructuredTextLines(ScanModeRoutine.EnableInFalse, header);
+
+        createActiveOutput(aoi);
+
+        // Create the condition variable tag and ensure it is reset in prescan and
+        // enable-in false.
+        aoi.addLocalTag(TagNames.CONDITION_VARIABLE, DataType.DINT);
+        final String resetCv = TagNames.CONDITION_VARIABLE + " := " + RESET_CONDITION + ";";
+        aoi.addStructuredTextLine(ScanModeRoutine.Prescan, resetCv);
+        aoi.addStructuredTextLine(ScanModeRoutine.EnableInFalse, resetCv);
+
+        // The current event tag does not need to be reset in non-logic scan modes.
+        aoi.addLocalTag(TagNames.CURRENT_EVENT, DataType.DINT);
+
+        return aoi;
+    }
+
+    /**
+     * Creates the tags used to limit the number of events evaluated per scan.
+     */
+    private void createEventBudgetTags() {
+        try {
+            aoi.addParameter(TagNames.BUDGET_HITS, ParameterUsage.Output, DataType.DINT, true,
+                    "Number of scans that deferred events to the next scan.");
+            aoi.addLocalTag(TagNames.EVENT_COUNT, DataType.DINT);
+        } catch (ExportException e) {
+            throw new AssertionError(); // Static tag names; should never be invalid.
+        }
+    }
+
+    /**
+     * Creates the outputs counting the outcome of evaluated events.
+     */
+    private void createDiagnosticTags() {
+        try {
+            aoi.addParameter(TagNames.UNMATCHED, ParameterUsage.Output, DataType.DINT, true,
+                    "Number of events that did not trigger a transition.");
+            aoi.addParameter(TagNames.TRANSITIONS, ParameterUsage.Output, DataType.DINT, true,
+                    "Number of transitions triggered by events.");
+        } catch (ExportException e) {
+            throw new AssertionError(); // Static tag names; should never be invalid.
+        }
+    }
+
+    /**
+     * Creates the array counting triggered transitions, sized after every
+     * transition has been assigned a slot.
+     */
+    private void createTransitionCounterTag() {
+        try {
+            aoi.addLocalTag(TagNames.TRANSITION_COUNTERS, DataType.DINT, Math.max(transitionCounters.size(), 1));
+        } catch (ExportException e) {
+            throw new AssertionError(); // Static tag name; should never be invalid.
+        }
+    }
+
+    /**
+     * Places events into event queue priority bands. Listed groups receive
+     * descending priorities above band zero, which holds all unlisted events.
+     *
+     * @param groups Event names grouped by priority, highest first.
+     * @throws ExportException If a listed event is not used by any transition.
+     */
+    private void assignEventPriorities(final List<List<String>> groups) throws ExportException {
+        if (groups.isEmpty()) {
+            return;
+        }
+
+        eventQ.prioritize(groups.size());
+        int priority = groups.size();
+        for (final List<String> group : groups) {
+            for (final String name : group) {
+                final AoiEvent event = events.get(name);
+                if (event == null) {
+                    throw new ExportException("Event priorities refer to undefined event " + name + ".");
+                }
+                event.setPriority(priority);
+            }
+            priority--;
+        }
+    }
+
+    /**
+     * Creates the AOI's active boolean output.
+     *
+     * @param aoi Target add-on instruction.
+     */
+    private void createActiveOutput(final AddOnInstruction aoi) {
+        try {
+            aoi.addParameter(TagNames.ACTIVE_OUTPUT, ParameterUsage.Output, DataType.BOOL, true,
+                    "True when this state machine is enabled and responding to events.");
+        } catch (ExportException e) {
+            throw new AssertionError(); // Static tag name; should never be invalid.
+        }
+
+        // Energize the output when AOI is scanned true.
+        aoi.addStructuredTextLine(ScanModeRoutine.Logic, TagNames.ACTIVE_OUTPUT + " := 1;");
+
+        // De-energize the output during prescan and scan false.
+        final String reset = TagNames.ACTIVE_OUTPUT + " := 0;";
+        aoi.addStructuredTextLine(ScanModeRoutine.Prescan, reset);
+        aoi.addStructuredTextLine(ScanModeRoutine.EnableInFalse, reset);
+    }
+
+    /**
+     * Constructs the structured text comment placed at the beginning of every
+     * routine.
+     *
+     * @param model Snapshot of the source state machine.
+     * @return List of structured text lines containing the header comment.
+     */
+    private List<String> buildRoutineComment(final ModelSnapshot model) {
+        final List<String> lines = new ArrayList<>();
+
+        final Date date = new Date();
+        final String timestamp = DateFormat.getDateInstance().format(date);
+
+        lines.add("/*");
+        lines.add("!! Do not modify this add-on instruction !!");
+        lines.add("");
+        lines.add(
+                "This AOI was automatically generated from a UML state machine using the Modelio modeling software and LogixUML module.");
+        lines.add(
+                "Any modifications must be applied first to the state machine, followed by exporting an updated AOI.");
+        lines.add("");
+        lines.add("Source state machine: " + model.getName());
+        lines.add("Exported by: " + System.getProperty("user.name"));
+        lines.add("Exported on: " + timestamp);
+        lines.add("*/");
+
+        return unmodifiableList(lines);
+    }
+
+    /**
+     * Builds the AOI name from the state machine name.
+     *
+     * @param model Snapshot of the source state machine.
+     * @return The AOI name.
+     * @throws ExportException If the state machine name is blank.
+     */
+    private String getName(final ModelSnapshot model) throws ExportException {
+        final String objName = model.getName().trim();
+
+        // The only validation required here is to confirm the name isn't blank before
+        // adding the prefix. Further checks for invalid names are applied when the
+        // AddOnInstruction object confirms the name is a valid Logix identifier.
+        if (objName.isEmpty()) {
+            throw new ExportException("State machine cannot have an empty name.");
+        }
+
+        return NAME_PREFIX + objName;
+    }
+
+    /**
+     * Allocates the conditions required for the state machine's top-level initial
+     * transition.
+     *
+     * @param model Snapshot of the source state machine.
+     * @throws ExportException If the state machine's initial transition is absent
+     *                         or invalid.
+     */
+    private void buildInitialTransition(final ModelSnapshot model) throws ExportException {
+        final int initial = InitialTransition.getInitialTransition(model, ModelSnapshot.STATE_MACHINE);
+        if (initial == ModelSnapshot.NONE) {
+            throw new ExportException("State machine must have a top-level initial transition.");
+        }
+
+        final TransitionConditions txConditions;
+        try {
+            txConditions = transitionFactory.build(model, initial, ModelSnapshot.NONE);
+        } catch (IgnoreTransitionException e) {
+            throw new AssertionError(); // Top-level initial transition should never be ignored.
+        }
+
+        // The reset condition must lead directly to the initial transition's
+        // first condition so the initial transition is executed immediately after
+        // prescan or scan-false.
+        cvSeq.storeNext(RESET_CONDITION, allocateConditionId(txConditions));
+    }
+
+    /**
+     * Constructs the add-on instruction's logic routine.
+     *
+     * @throws ExportException If an invalid transition was found.
+     */
+    private void buildLogicRoutine() throws ExportException {
+        // The ST for this block must be generated before the block advancing the
+        // condition variable through transitions because the condition IDs for those
+        // transitions are allocated here. The generated ST is then added to the routine
+        // below.
+        final List<String> transitionLoop = triggerTransitions();
+
+        aoi.addStructuredTextLines(ScanModeRoutine.Logic, eventQ.enqueueEvents(events.values()));
+        aoi.addStructuredTextLines(ScanModeRoutine.Logic, cvSeq.advance(TagNames.CONDITION_VARIABLE));
+
+        // Append the transition trigger block here.
+        aoi.addStructuredTextLines(ScanModeRoutine.Logic, transitionLoop);
+        if (transitionCounters != null) {
+            createTransitionCounterTag();
+        }
+
+        aoi.addStructuredTextLines(ScanModeRoutine.Logic,
+                deltaOutputs ? setStateOutputDeltas(conditions) : setStateOutputs(conditions));
+    }
+
+    /**
+     * Builds structured text statements to remove events from the event queue one
+     * at a time, checking if each will initiate a transition from the currently
+     * active state.
+     *
+     * @return Structured text lines.
+     * @throws ExportException If an invalid transition was found.
+     */
+    private List<String> triggerTransitions() throws ExportException {
+        // This entire block is contained within a WHILE_DO loop to continually remove
+        // events from the event queue until it is either depleted or an event triggers
+        // a transition. Triggering a transition can only occur when the state machine
+        // is in a stable condition, i.e. not in the midst of a transition, so the loop
+        // condition is based on the condition variable remaining within the range of
+        // stable conditions.
+        final int lastStableCondition = Collections.max(stableConditions.values());
+        final WhileDo loop = new WhileDo(TagNames.CONDITION_VARIABLE + " <= " + lastStableCondition);
+
+        // If limited, stop once the budgeted number of events has been evaluated,
+        // leaving any remaining events in the queue for the next scan.
+        if (eventBudget > 0) {
+            final IfThen countHit = new IfThen();
+            countHit.addCase(eventQ.notEmpty(), TagNames.BUDGET_HITS + " := " + TagNames.BUDGET_HITS + " + 1;");
+            final List<String> stop = new ArrayList<>(countHit.getLines());
+            stop.add("EXIT;");
+
+            final IfThen budgetReached = new IfThen();
+            budgetReached.addCase(TagNames.EVENT_COUNT + " = " + eventBudget, stop);
+            loop.addStatements(budgetReached.getLines());
+        }
+
+        // The loop continues by removing the next event from the event queue.
+        loop.addStatements(TagNames.CURRENT_EVENT + " := " + NO_EVENT + ";");
+        loop.addStatements(eventQ.dequeue(TagNames.CURRENT_EVENT));
+
+        // Terminate the loop if the event queue is empty.
+        final IfThen noEvent = new IfThen();
+        noEvent.addCase(TagNames.CURRENT_EVENT + " = " + NO_EVENT, "EXIT;");
+        loop.addStatements(noEvent.getLines());
+        if (eventBudget > 0) {
+            loop.addStatements(TagNames.EVENT_COUNT + " := " + TagNames.EVENT_COUNT + " + 1;");
+        }
+
+        // Build a CASE_OF block with a case for every stable condition to evaluate the
+        // current event for possible transition triggers.
+        final CaseOf stateTransitions = new CaseOf(TagNames.CONDITION_VARIABLE);
+        for (final int state : states.keySet()) {
+            stateTransitions.addCase(stableConditions.get(state), evaluateEvent(state));
+        }
+        stateTransitions.addElse(Halt.getLines());
+        loop.addStatements(stateTransitions.getLines());
+
+        // The condition variable only leaves the stable range if the event triggered
+        // a transition.
+        if (diagnostics) {
+            final IfThen outcome = new IfThen();
+            outcome.addCase(TagNames.CONDITION_VARIABLE + " <= " + lastStableCondition,
+                    TagNames.UNMATCHED + " := " + TagNames.UNMATCHED + " + 1;");
+            outcome.addElse(TagNames.TRANSITIONS + " := " + TagNames.TRANSITIONS + " + 1;");
+            loop.addStatements(outcome.getLines());
+        }
+
+        final List<String> st = new ArrayList<>();
+        if (eventBudget > 0) {
+            st.add(TagNames.EVENT_COUNT + " := 0;");
+        }
+        st.addAll(loop.getLines());
+        return unmodifiableList(st);
+    }
+
+    /**
+     * Generates a list of structured text statements to initiate a transition from
+     * a given state based on the current event.
+     *
+     * @param state Identifier of the source state.
+     * @return Structured text statements.
+     * @throws ExportException If a problem was found with the transitions leaving
+     *                         the source state.
+     */
+    private List<String> evaluateEvent(final int state) throws ExportException {
+        final List<String> st = new ArrayList<>();
+        final Map<String, TransitionConditions> transitions = states.get(state).getTransitions(transitionFactory);
+        final Set<Integer> firstConditions = new TreeSet<>();
+        transitionsFrom.put(stableConditions.get(state), firstConditions);
+
+        // Iterate through every event triggering a transition from the source state.
+        for (final String event : transitions.keySet()) {
+            final TransitionConditions tx = transitions.get(event);
+            final int firstConditionId = allocateConditionId(tx);
+            firstConditions.add(firstConditionId);
+
+            // Generate an IF_THEN block to set the condition variable to the transition's
+            // first condition ID if this is the current event.
+            final List<String> trigger = new ArrayList<>();
+            trigger.add(TagNames.CONDITION_VARIABLE + " := " + firstConditionId + ";");
+
+            // Count the transition in the next free slot.
+            if (transitionCounters != null) {
+                final String slot = TagNames.TRANSITION_COUNTERS + "[" + transitionCounters.size() + "]";
+                trigger.add(slot + " := " + slot + " + 1;");
+                transitionCounters.add(
+                        new String[] { states.get(state).getName(), event, states.get(tx.getTarget()).getName() });
+            }
+
+            final IfThen eventActive = new IfThen();
+            eventActive.addCase(TagNames.CURRENT_EVENT + " = " + events.get(event).getId(), trigger);
+            st.addAll(eventActive.getLines());
+        }
+
+        return unmodifiableList(st);
+    }
+
+    /**
+     * Allocates identifiers for each condition in a given transition.
+     *
+     * @param t Source transition object.
+     * @return The identifier of the transition's first condition.
+     */
+    private int allocateConditionId(final TransitionConditions t) {
+        if (mergeConditions) {
+            return allocateMergedConditionId(t);
+        }
+
+        int firstId = 0;
+        int lastId = 0;
+        for (final Condition c : t.getConditions()) {
+            final int id = conditionIdSupplier.getAsInt();
+            conditions.put(id, c);
+
+            if (firstId == 0) {
+                firstId = id;
+            }
+
+            // Store the sequence of conditions for those following the first.
+            if (lastId != 0) {
+                cvSeq.storeNext(lastId, id);
+            }
+
+            lastId = id;
+        }
+
+        // The stable condition of the target state follows the transition's final
+        // condition.
+        cvSeq.storeNext(lastId, stableConditions.get(t.getTarget()));
+
+        return firstId;
+    }
+
+    /**
+     * Allocates identifiers for each condition in a given transition, reusing the
+     * identifier of any previously allocated condition with the same actions and
+     * the same following condition. Conditions are visited from the last to the
+     * first so the following condition's identifier is always known, which lets
+     * transitions share a common tail of conditions.
+     *
+     * @param t Source transition object.
+     * @return The identifier of the transition's first condition.
+     */
+    private int allocateMergedConditionId(final TransitionConditions t) {
+        final List<Condition> list = t.getConditions();
+
+        // The stable condition of the target state follows the transition's final
+        // condition.
+        int next = stableConditions.get(t.getTarget());
+
+        for (int i = list.size() - 1; i >= 0; i--) {
+            final Condition c = list.get(i);
+            Map<Condition, Integer> bySuccessor = mergedConditions.get(next);
+            if (bySuccessor == null) {
+                bySuccessor = new HashMap<>();
+                mergedConditions.put(next, bySuccessor);
+            }
+
+            Integer id = bySuccessor.get(c);
+            if (id == null) {
+                id = conditionIdSupplier.getAsInt();
+                conditions.put(id, c);
+                cvSeq.storeNext(id, next);
+                bySuccessor.put(c, id);
+            }
+
+            next = id;
+        }
+
+        return next;
+    }
+
+    /**
+     * Generates a set of structured text statements setting the state outputs based
+     * on the current condition.
+     *
+     * @param conditions Integer IDs for all possible conditions.
+     * @return Structured text statements.
+     */
+    private List<String> setStateOutputs(final Map<Integer, Condition> conditions) {
+        final List<String> st = new ArrayList<>();
+
+        // Begin by unconditionally clearing all outputs.
+        for (final AoiState state : states.values()) {
+            st.add(state.setEntryOutput(false));
+            st.add(state.setDoOutput(false));
+            st.add(state.setExitOutput(false));
+        }
+
+        // Evaluate the current condition variable, and energize outputs associated with
+        // the current condition.
+        // Identical conditions, e.g. the final scan of transitions into the same
+        // state, share a single generated statement list.
+        final CaseOf cvCases = new CaseOf(TagNames.CONDITION_VARIABLE);
+        final Map<Condition, List<String>> outputs = new HashMap<>();
+        for (final int cv : conditions.keySet()) {
+            final Condition c = conditions.get(cv);
+            List<String> lines = outputs.get(c);
+            if (lines == null) {
+                lines = c.setOutputs(states);
+                outputs.put(c, lines);
+            }
+            cvCases.addCase(cv, lines);
+        }
+        cvCases.addElse(Halt.getLines()); // Fault on undefined condition variable.
+        hintStableConditions(cvCases);
+        st.addAll(cvCases.getLines());
+
+        // The state active outputs can now be set as they are just a function of the
+        // entry, do, and exit outputs.
+        for (final AoiState state : states.values()) {
+            st.add(state.setActiveOutput());
+        }
+
+        return unmodifiableList(st);
+    }
+
+    /**
+     * Generates a set of structured text statements updating the state outputs
+     * only when the condition variable has changed since the previous scan. Each
+     * change writes only the outputs that differ between the previous and current
+     * conditions, in two steps mirroring the logic routine: a transitional
+     * condition advances to its next condition, then a stable condition may
+     * trigger a transition. The observable outputs are identical to
+     * {@link #setStateOutputs(Map)}.
+     * <p>
+     * A transition may complete and another begin in the same scan if an event is
+     * already queued, in which case both steps are applied. Outputs of the
+     * intermediate stable condition are then written twice, rather than generating
+     * a case for every combination of transitions into and out of each state.
+     *
+     * @param conditions Integer IDs for all possible conditions.
+     * @return Structured text statements.
+     */
+    private List<String> setStateOutputDeltas(final Map<Integer, Condition> conditions) {
+        // Create the previous condition variable, resetting it along with the outputs
+        // in prescan and enable-in false. The reset value matches no condition, so the
+        // first scan following a reset only energizes outputs.
+        try {
+            aoi.addLocalTag(TagNames.PREVIOUS_CONDITION_VARIABLE, DataType.DINT);
+        } catch (ExportException e) {
+            throw new AssertionError(); // Static tag name; should never be invalid.
+        }
+        final String resetPcv = TagNames.PREVIOUS_CONDITION_VARIABLE + " := " + RESET_CONDITION + ";";
+        aoi.addStructuredTextLine(ScanModeRoutine.Prescan, resetPcv);
+        aoi.addStructuredTextLine(ScanModeRoutine.EnableInFalse, resetPcv);
+
+        // Identical condition pairs share a single generated statement list.
+        final Map<List<Condition>, List<String>> changes = new HashMap<>();
+
+        // The first step advances a transitional previous condition, including the
+        // reset condition, to the condition following it.
+        final List<Integer> transitionalIds = new ArrayList<>(conditions.keySet());
+        transitionalIds.add(RESET_CONDITION);
+        transitionalIds.removeAll(transitionsFrom.keySet());
+        final CaseOf advanceCases = new CaseOf(TagNames.PREVIOUS_CONDITION_VARIABLE);
+        for (final int pcv : transitionalIds) {
+            final int next = cvSeq.getNext(pcv);
+            final List<String> advance = new ArrayList<>(changeOutputs(pcv, next, changes));
+            advance.add(TagNames.PREVIOUS_CONDITION_VARIABLE + " := " + next + ";");
+            advanceCases.addCase(pcv, advance);
+        }
+
+        // The second step applies a transition triggered from a stable condition.
+        final CaseOf triggerCases = new CaseOf(TagNames.PREVIOUS_CONDITION_VARIABLE);
+        for (final Map.Entry<Integer, Set<Integer>> e : transitionsFrom.entrySet()) {
+            // The condition can never change in a state without transitions.
+            if (e.getValue().isEmpty()) {
+                triggerCases.addCase(e.getKey(), Halt.getLines());
+                continue;
+            }
+
+            final CaseOf currentCases = new CaseOf(TagNames.CONDITION_VARIABLE);
+            for (final int cv : e.getValue()) {
+                currentCases.addCase(cv, changeOutputs(e.getKey(), cv, changes));
+            }
+            currentCases.addElse(Halt.getLines()); // Fault on an impossible condition change.
+            triggerCases.addCase(e.getKey(), currentCases.getLines());
+        }
+        triggerCases.addElse(Halt.getLines()); // Fault on undefined condition variable.
+        final IfThen triggered = new IfThen();
+        triggered.addCase(TagNames.CONDITION_VARIABLE + " <> " + TagNames.PREVIOUS_CONDITION_VARIABLE,
+                triggerCases.getLines());
+
+        final List<String> update = new ArrayList<>(advanceCases.getLines());
+        update.addAll(triggered.getLines());
+        update.add(TagNames.PREVIOUS_CONDITION_VARIABLE + " := " + TagNames.CONDITION_VARIABLE + ";");
+
+        final IfThen changed = new IfThen();
+        changed.addCase(TagNames.CONDITION_VARIABLE + " <> " + TagNames.PREVIOUS_CONDITION_VARIABLE, update);
+
+        return unmodifiableList(changed.getLines());
+    }
+
+    /**
+     * Acquires the structured text statements changing the outputs from one
+     * condition to another.
+     *
+     * @param previous Identifier of the previous condition, or the reset
+     *                 condition.
+     * @param current  Identifier of the current condition.
+     * @param changes  Previously generated statements keyed by the pair of
+     *                 previous and current conditions.
+     * @return Structured text statements.
+     */
+    private List<String> changeOutputs(final int previous, final int current,
+            final Map<List<Condition>, List<String>> changes) {
+        final Condition from = conditions.get(previous); // Null for the reset condition.
+        final Condition to = conditions.get(current);
+        final List<Condition> key = Arrays.asList(from, to);
+        List<String> lines = changes.get(key);
+        if (lines == null) {
+            lines = to.changeOutputs(from, states);
+            changes.put(key, lines);
+        }
+        return lines;
+    }
+
+    /**
+     * Marks the stable conditions as the most frequently matched selectors of a
+     * CASE block evaluating the condition variable. The state machine spends
+     * nearly every scan in a stable condition, passing through transitional
+     * conditions only briefly.
+     *
+     * @param cvCases CASE block evaluating the condition variable.
+     */
+    private void hintStableConditions(final CaseOf cvCases) {
+        for (final int id : stableConditions.values()) {
+            cvCases.setFrequencyHint(id, 1);
+        }
+    }
+
+    /**
+     * Getter method for the AOI name.
+     *
+     * @return The name of the generated add-on instruction.
+     */
+    public String getName() {
+        return aoi.getName();
+    }
+
+    /**
+     * Getter method for the digest of the source model content.
+     *
+     * @return Hexadecimal digest.
+     */
+    String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Lists the names of the files written by an export.
+     *
+     * @return File names, without directory.
+     */
+    List<String> getOutputFiles() {
+        final List<String> files = new ArrayList<>();
+        files.add(getName() + ".L5X");
+        files.add(getName() + ".cost.json");
+        if (transitionCounters != null) {
+            files.add(getName() + ".transitions.json");
+        }
+        return unmodifiableList(files);
+    }
+
+    /**
+     * Getter method for the generated add-on instruction.
+     *
+     * @return The assembled AOI.
+     */
+    AddOnInstruction getAddOnInstruction() {
+        return aoi;
+    }
+
+    /**
+     * Getter method for the sequence of transitional condition identifiers.
+     *
+     * @return The condition identifier sequence.
+     */
+    ConditionIdSequence getConditionIdSequence() {
+        return cvSeq;
+    }
+
+    /**
+     * Estimates the cost of a single scan of each routine. The worst case allows
+     * the transition loop to dequeue every event the queue can hold, or the event
+     * budget if smaller, plus a final iteration finding the queue empty or the
+     * budget reached.
+     *
+     * @return Estimated cost of each routine.
+     */
+    synchronized Map<ScanModeRoutine, ScanCost> getScanCost() {
+        if (scanCost == null) {
+            try {
+                final int events = (eventBudget > 0) ? Math.min(eventBudget, eventQ.getCapacity())
+                        : eventQ.getCapacity();
+                scanCost = ScanCost.estimate(aoi, events + 1);
+            } catch (ParseException e) {
+                throw new AssertionError(e); // Generated structured text must always parse.
+            }
+        }
+        return scanCost;
+    }
+
+    /**
+     * Summarizes the estimated scan cost of each routine for display.
+     *
+     * @return Multi-line report text.
+     */
+    public String getScanCostReport() {
+        final StringBuilder report = new StringBuilder(getName()).append(" scan cost:");
+        for (final Map.Entry<ScanModeRoutine, ScanCost> e : getScanCost().entrySet()) {
+            report.append(String.format("%n  %s: %s", e.getKey(), e.getValue()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Selects the backend used to generate the L5X file when exported.
+     *
+     * @param backend The writer backend.
+     */
+    public void setWriterBackend(final WriterBackend backend) {
+        aoi.setWriterBackend(backend);
+    }
+
+    /**
+     * Writes the assembled AOI to an L5X file, along with a JSON file containing
+     * the estimated scan cost, and another mapping the transition counters if
+     * transitions are counted.
+     *
+     * @param dir Target directory for the L5X file.
+     * @throws ExportException If any file could not be written.
+     */
+    public void export(final String dir) throws ExportException {
+        aoi.write(dir);
+        writeScanCost(dir);
+        if (transitionCounters != null) {
+            writeTransitionCounters(dir);
+        }
+    }
+
+    /**
+     * Writes the estimated scan cost to a JSON file named after the AOI.
+     *
+     * @param dir Target directory.
+     * @throws ExportException If the file could not be written.
+     */
+    private void writeScanCost(final String dir) throws ExportException {
+        final Path path;
+        try {
+            path = Paths.get(dir, getName() + ".cost.json");
+        } catch (InvalidPathException e) {
+            throw new ExportException("Invalid output path.", e);
+        }
+
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"aoi\": \"").append(getName()).append("\",\n");
+        json.append("  \"eventQueueSize\": ").append(eventQ.getCapacity()).append(",\n");
+        json.append("  \"conditions\": ").append(conditions.size()).append(",\n");
+        json.append("  \"routines\": {");
+        String separator = "\n";
+        for (final Map.Entry<ScanModeRoutine, ScanCost> e : getScanCost().entrySet()) {
+            json.append(separator).append("    \"").append(e.getKey()).append("\": ").append(e.getValue().toJson());
+            separator = ",\n";
+        }
+        json.append("\n  }\n}\n");
+
+        try {
+            Files.write(path, json.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new ExportException("Error writing scan cost file.", e);
+        }
+    }
+
+    /**
+     * Writes a JSON file named after the AOI identifying the transition counted by
+     * each element of the transition counter array.
+     *
+     * @param dir Target directory.
+     * @throws ExportException If the file could not be written.
+     */
+    private void writeTransitionCounters(final String dir) throws ExportException {
+        final Path path;
+        try {
+            path = Paths.get(dir, getName() + ".transitions.json");
+        } catch (InvalidPathException e) {
+            throw new ExportException("Invalid output path.", e);
+        }
+
+        final StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"aoi\": \"").append(getName()).append("\",\n");
+        json.append("  \"tag\": \"").append(TagNames.TRANSITION_COUNTERS).append("\",\n");
+        json.append("  \"transitions\": [");
+        String separator = "\n";
+        for (int i = 0; i < transitionCounters.size(); i++) {
+            final String[] tx = transitionCounters.get(i);
+            json.append(separator).append(String.format(
+                    "    { \"index\": %d, \"source\": \"%s\", \"event\": \"%s\", \"target\": \"%s\" }", i, tx[0],
+                    tx[1], tx[2]));
+            separator = ",\n";
+        }
+        json.append("\n  ]\n}\n");
+
+        try {
+            Files.write(path, json.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new ExportException("Error writing transition counter file.", e);
+        }
+    }
+}
@@ -20,17 +20,11 @@
 package org.modelio.logixuml.statemachineaoi;
 
 import static java.util.Collections.unmodifiableMap;
-import static java.util.Collections.unmodifiableSet;
 
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-
-import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
-import org.modelio.vcore.smkernel.mapi.MObject;
-import org.modelio.vcore.smkernel.mapi.MRef;
 
 /**
  * This class handles constructing a map of AoiState objects from all the states
@@ -38,46 +32,33 @@ import org.modelio.vcore.smkernel.mapi.MRef;
  */
 class StateMap {
     /**
-     * Builds a mapping of AoiState objects keyed by MRefs.
+     * Builds a mapping of AoiState objects keyed by state identifier, in
+     * identifier order.
      *
-     * @param elements Child model elements of the source state machine.
+     * @param model Snapshot of the source state machine.
      * @return Map of AoiState objects.
      * @throws ExportException If a duplicate state name was found or a state was
      *                         otherwise invalid.
      */
-    static Map<MRef, AoiState> build(final Set<MObject> elements) throws ExportException {
+    static Map<Integer, AoiState> build(final ModelSnapshot model) throws ExportException {
         final Set<String> stateNames = new HashSet<>();
-        final Map<MRef, AoiState> map = new HashMap<>();
+        final Map<Integer, AoiState> map = new LinkedHashMap<>();
 
-        for (final State stateElement : getStateElements(elements)) {
-            final AoiState aoiState = new AoiState(stateElement);
+        for (int id = 0; id < model.getStateCount(); id++) {
+            final AoiState aoiState = new AoiState(model, id);
 
             // Verify the name is unique among all other states. Names are treated in a
             // case-insensitive manner because state names are used to create Logix tags,
             // which are not case-sensitive.
             final String normalizedName = aoiState.getName().toLowerCase();
             if (stateNames.contains(normalizedName)) {
-                throw new ExportException("Duplicate state name.", stateElement);
+                throw new ExportException("Duplicate state name.", model.getElement(id));
             }
             stateNames.add(normalizedName);
 
-            map.put(new MRef(stateElement), aoiState);
+            map.put(id, aoiState);
         }
 
         return unmodifiableMap(map);
     }
-
-    /**
-     * Extracts states from all the model elements of a state machine.
-     *
-     * @param elements Child model elements of the source state machine.
-     * @return The set of state model elements.
-     */
-    static private Set<State> getStateElements(final Set<MObject> elements) {
-        final Set<State> set = elements.stream() //
-                .filter(e -> e.getMClass().getQualifiedName().equals(State.MQNAME)) // Select only state objects
-                .map(e -> (State) e) // Cast to State object.
-                .collect(Collectors.toSet());
-        return unmodifiableSet(set);
-    }
 }
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This class validates parameter values specified in the module's stereotype
+ * property table. All values are supplied by the model reader when the object
+ * is constructed; validation is deferred until each value is requested.
+ */
+class StereotypeProperties {
+    /**
+     * Names of every property read from the table.
+     */
+    private static final String[] KEYS = { "eventQueueSize", "transitionScanMode", "mergeConditions", "deltaOutputs",
+            "eventBudget", "coalesceEvents", "eventPriorities", "overflowPolicy", "diagnostics", "transitionCounters" };
+
+    /**
+     * Trimmed property values keyed by property name.
+     */
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * Lower, inclusive limit for event queue sizes.
+     */
+    private static final int MIN_EVENT_QUEUE_SIZE = 1;
+
+    /**
+     * Upper, inclusive limit for event queue sizes.
+     */
+    private static final int MAX_EVENT_QUEUE_SIZE = 256;
+
+    /**
+     * Constructor.
+     *
+     * @param tableValues Raw property values keyed by property name. Missing or null
+     *                    values, which occur if no value has been entered since
+     *                    the stereotype was applied, are converted to an empty
+     *                    string, matching the default values defined in the
+     *                    property table.
+     */
+    StereotypeProperties(final Map<String, String> tableValues) {
+        for (final String key : KEYS) {
+            final String value = tableValues.get(key);
+            values.put(key, (value == null) ? "" : value.trim());
+        }
+    }
+
+    /**
+     * Getter method for the names of every property read from the table.
+     *
+     * @return Read-only list of property names.
+     */
+    static List<String> getKeys() {
+        return Collections.unmodifiableList(Arrays.asList(KEYS));
+    }
+
+    /**
+     * Acquires every property value without validation, for computing a digest of
+     * the exported content.
+     *
+     * @return Trimmed property values keyed by property name, in a fixed order.
+     */
+    Map<String, String> getValues() {
+        final Map<String, String> ordered = new LinkedHashMap<>();
+        for (final String key : KEYS) {
+            ordered.put(key, values.get(key));
+        }
+        return ordered;
+    }
+
+    /**
+     * Getter method to acquire the event queue size parameter.
+     *
+     * @return The selected event queue size.
+     * @throws ExportException If the property table contains an invalid event queue
+     *                         size.
+     */
+    int getEventQueueSize() throws ExportException {
+        final String rawValue = getTableValue("eventQueueSize");
+        final int value;
+
+        try {
+            value = Integer.parseInt(rawValue);
+            if ((value < MIN_EVENT_QUEUE_SIZE) || (value > MAX_EVENT_QUEUE_SIZE)) {
+                throw new IllegalArgumentException();
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ExportException("Illegal event queue size. Valid values are between " + MIN_EVENT_QUEUE_SIZE
+                    + " and " + MAX_EVENT_QUEUE_SIZE + " inclusive.");
+        }
+
+        return value;
+    }
+
+    /**
+     * Getter method to acquire the transition scan mode parameter.
+     *
+     * @return The selected transition scan mode.
+     * @throws ExportException If the property table contains an invalid transition
+     *                         scan mode.
+     */
+    TransitionScanMode getTransitionScanMode() throws ExportException {
+        final TransitionScanMode mode;
+        final String rawValue = getTableValue("transitionScanMode");
+
+        try {
+            mode = TransitionScanMode.valueOf(rawValue.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ExportException("Undefined transition scan mode.");
+        }
+
+        return mode;
+    }
+
+    /**
+     * Getter method to acquire the event queue overflow policy. The processor is
+     * halted if the property is left blank.
+     *
+     * @return The selected overflow policy.
+     * @throws ExportException If the property table contains an undefined policy.
+     */
+    OverflowPolicy getOverflowPolicy() throws ExportException {
+        final String rawValue = getTableValue("overflowPolicy");
+        if (rawValue.isEmpty()) {
+            return OverflowPolicy.HALT;
+        }
+
+        try {
+            return OverflowPolicy.valueOf(rawValue.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ExportException("Undefined event queue overflow policy.");
+        }
+    }
+
+    /**
+     * Getter method to acquire the condition merging parameter. Merging is disabled
+     * if the property is left blank.
+     *
+     * @return True if identical transitional conditions should share an
+     *         identifier.
+     * @throws ExportException If the property table contains a value other than
+     *                         true or false.
+     */
+    boolean getMergeConditions() throws ExportException {
+        return getBoolean("mergeConditions", "merge conditions");
+    }
+
+    /**
+     * Getter method to acquire the delta output parameter. Delta outputs are
+     * disabled if the property is left blank.
+     *
+     * @return True if state outputs should only be written when the condition
+     *         changes.
+     * @throws ExportException If the property table contains a value other than
+     *                         true or false.
+     */
+    boolean getDeltaOutputs() throws ExportException {
+        return getBoolean("deltaOutputs", "delta outputs");
+    }
+
+    /**
+     * Getter method to acquire the event coalescing parameter. Coalescing is
+     * disabled if the property is left blank.
+     *
+     * @return True if an event already in the event queue should not be queued
+     *         again.
+     * @throws ExportException If the property table contains a value other than
+     *                         true or false.
+     */
+    boolean getCoalesceEvents() throws ExportException {
+        return getBoolean("coalesceEvents", "coalesce events");
+    }
+
+    /**
+     * Getter method to acquire the diagnostics parameter. Diagnostics are disabled
+     * if the property is left blank.
+     *
+     * @return True if event throughput and latency outputs should be generated.
+     * @throws ExportException If the property table contains a value other than
+     *                         true or false.
+     */
+    boolean getDiagnostics() throws ExportException {
+        return getBoolean("diagnostics", "diagnostics");
+    }
+
+    /**
+     * Getter method to acquire the transition counter parameter. Counters are
+     * disabled if the property is left blank.
+     *
+     * @return True if each triggered transition should be counted.
+     * @throws ExportException If the property table contains a value other than
+     *                         true or false.
+     */
+    boolean getTransitionCounters() throws ExportException {
+        return getBoolean("transitionCounters", "transition counters");
+    }
+
+    /**
+     * Getter method to acquire the maximum number of events evaluated per scan.
+     * The number is unlimited if the property is left blank or zero.
+     *
+     * @return The event budget, or zero if unlimited.
+     * @throws ExportException If the property table contains a value that is not
+     *                         a non-negative integer.
+     */
+    int getEventBudget() throws ExportException {
+        final String rawValue = getTableValue("eventBudget");
+        if (rawValue.isEmpty()) {
+            return 0;
+        }
+
+        final int value;
+        try {
+            value = Integer.parseInt(rawValue);
+            if (value < 0) {
+                throw new IllegalArgumentException();
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ExportException("Illegal event budget. Valid values are blank or a non-negative integer.");
+        }
+
+        return value;
+    }
+
+    /**
+     * Getter method to acquire the event priority groups. The property lists
+     * event names separated by commas, with groups separated by semicolons in
+     * descending priority order, e.g., "estopAck; faultReset, alarm". All events
+     * share a single priority if the property is left blank.
+     *
+     * @return Event names grouped by priority, highest first; empty if no
+     *         priorities are assigned.
+     * @throws ExportException If the property table contains an empty group or
+     *                         name, or lists an event more than once.
+     */
+    List<List<String>> getEventPriorities() throws ExportException {
+        final String rawValue = getTableValue("eventPriorities");
+        final List<List<String>> groups = new ArrayList<>();
+        if (rawValue.isEmpty()) {
+            return groups;
+        }
+
+        final Set<String> listed = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (final String rawGroup : rawValue.split(";", -1)) {
+            final List<String> group = new ArrayList<>();
+            for (final String rawName : rawGroup.split(",", -1)) {
+                final String name = rawName.trim();
+                if (name.isEmpty()) {
+                    throw new ExportException("Illegal event priorities. Event names must not be blank.");
+                }
+                if (!listed.add(name)) {
+                    throw new ExportException("Illegal event priorities. Event " + name + " is listed more than once.");
+                }
+                group.add(name);
+            }
+            groups.add(group);
+        }
+
+        return groups;
+    }
+
+    /**
+     * Parses a boolean property, treating a blank value as false.
+     *
+     * @param key         Name of the property to get.
+     * @param description Property description used in error messages.
+     * @return The property value.
+     * @throws ExportException If the value is not blank, true, or false.
+     */
+    private boolean getBoolean(final String key, final String description) throws ExportException {
+        final String rawValue = getTableValue(key);
+
+        if (rawValue.isEmpty() || rawValue.equalsIgnoreCase("false")) {
+            return false;
+        } else if (rawValue.equalsIgnoreCase("true")) {
+            return true;
+        }
+
+        throw new ExportException("Illegal " + description + " value. Valid values are true or false.");
+    }
+
+    /**
+     * Retrieves a previously read value from the stereotype property table.
+     *
+     * @param key Name of the property to get.
+     * @return The property value.
+     */
+    private String getTableValue(final String key) {
+        return values.get(key);
+    }
+}
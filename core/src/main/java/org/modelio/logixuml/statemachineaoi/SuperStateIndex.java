@@ -0,0 +1,206 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ancestry table for the state hierarchy of a model snapshot, built once so
+ * super-state queries never walk the hierarchy. Each state's path from its
+ * top-level super-state down to itself is stored as an array, which yields
+ * constant-time super-state lists, depths, and ancestor tests; lowest common
+ * ancestors are found with a binary search over those paths.
+ */
+final class SuperStateIndex {
+    /**
+     * Path of each state, indexed by state identifier, beginning with the
+     * top-level super-state and ending with the state itself.
+     */
+    private final int[][] paths;
+
+    /**
+     * Super-states of each state, indexed by state identifier, starting with the
+     * directly enclosing state.
+     */
+    private final List<List<Integer>> superStates;
+
+    /**
+     * Constructor.
+     *
+     * @param parents Parent of each state, indexed by state identifier. Parents
+     *                must have lower identifiers than their sub-states, and
+     *                top-level states have {@link ModelSnapshot#STATE_MACHINE} as
+     *                their parent.
+     */
+    SuperStateIndex(final List<Integer> parents) {
+        paths = new int[parents.size()][];
+        final List<List<Integer>> supers = new ArrayList<>(parents.size());
+
+        for (int id = 0; id < parents.size(); id++) {
+            final int parent = parents.get(id);
+            final int[] parentPath;
+
+            if (parent == ModelSnapshot.STATE_MACHINE) {
+                parentPath = new int[0];
+            } else if (parent < id) {
+                parentPath = paths[parent];
+            } else {
+                throw new AssertionError(id);
+            }
+
+            final int[] path = new int[parentPath.length + 1];
+            System.arraycopy(parentPath, 0, path, 0, parentPath.length);
+            path[parentPath.length] = id;
+            paths[id] = path;
+
+            final List<Integer> list = new ArrayList<>(parentPath.length);
+            for (int i = parentPath.length - 1; i >= 0; i--) {
+                list.add(parentPath[i]);
+            }
+            supers.add(unmodifiableList(list));
+        }
+
+        superStates = unmodifiableList(supers);
+    }
+
+    /**
+     * Acquires the list of super-states containing a given state.
+     *
+     * @param state State identifier.
+     * @return Read-only list of super-state identifiers, starting with the state
+     *         directly enclosing the target state, and ending with the top-level
+     *         state.
+     */
+    List<Integer> getSuperStates(final int state) {
+        return superStates.get(state);
+    }
+
+    /**
+     * Gets the nesting depth of a state.
+     *
+     * @param state State identifier.
+     * @return Number of super-states enclosing the state; zero for top-level
+     *         states.
+     */
+    int getDepth(final int state) {
+        return paths[state].length - 1;
+    }
+
+    /**
+     * Tests if a state is enclosed by another state.
+     *
+     * @param superState Identifier of the possible enclosing state.
+     * @param state      Identifier of the possible sub-state.
+     * @return True if superState encloses state at any level; false if they are
+     *         the same state.
+     */
+    boolean isSuperState(final int superState, final int state) {
+        final int depth = getDepth(superState);
+        return (depth < getDepth(state)) && (paths[state][depth] == superState);
+    }
+
+    /**
+     * Finds the lowest state that is either the same as, or encloses, both given
+     * states.
+     *
+     * @param a First state identifier.
+     * @param b Second state identifier.
+     * @return Identifier of the lowest common ancestor, which may be one of the
+     *         given states if it encloses the other, or
+     *         {@link ModelSnapshot#STATE_MACHINE} if the states share no enclosing
+     *         state.
+     */
+    int getLowestCommonAncestor(final int a, final int b) {
+        final int[] pathA = paths[a];
+        final int[] pathB = paths[b];
+
+        // Paths agree from the top-level state down to the common ancestor and differ
+        // below it, so the last agreeing level is found with a binary search.
+        int lo = 0;
+        int hi = Math.min(pathA.length, pathB.length);
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (pathA[mid] == pathB[mid]) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        return (lo == 0) ? ModelSnapshot.STATE_MACHINE : pathA[lo - 1];
+    }
+
+    /**
+     * Finds the lowest common ancestor of a collection of states.
+     *
+     * @param states State identifiers; must not be empty.
+     * @return See {@link #getLowestCommonAncestor(int, int)}.
+     */
+    int getLowestCommonAncestor(final Collection<Integer> states) {
+        int lca = ModelSnapshot.NONE;
+        boolean first = true;
+
+        for (final int s : states) {
+            if (first) {
+                lca = s;
+                first = false;
+            } else {
+                lca = getLowestCommonAncestor(lca, s);
+            }
+
+            if (lca == ModelSnapshot.STATE_MACHINE) {
+                break;
+            }
+        }
+
+        if (first) {
+            throw new AssertionError();
+        }
+
+        return lca;
+    }
+
+    /**
+     * Lists the states along the path from a state up to, but excluding, one of
+     * its ancestors.
+     *
+     * @param state    State identifier.
+     * @param ancestor Identifier of a state enclosing or equal to state, or
+     *                 {@link ModelSnapshot#STATE_MACHINE}.
+     * @return State identifiers, starting with state and ending with the
+     *         sub-state of ancestor; empty if state and ancestor are the same.
+     */
+    List<Integer> getPathBelow(final int state, final int ancestor) {
+        final int[] path = paths[state];
+        final int stop = (ancestor == ModelSnapshot.STATE_MACHINE) ? -1 : getDepth(ancestor);
+        if ((stop >= path.length) || ((stop >= 0) && (path[stop] != ancestor))) {
+            throw new AssertionError(ancestor);
+        }
+        final List<Integer> list = new ArrayList<>(path.length);
+        for (int i = path.length - 1; i > stop; i--) {
+            list.add(path[i]);
+        }
+        return list;
+    }
+}
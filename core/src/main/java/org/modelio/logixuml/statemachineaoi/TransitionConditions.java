@@ -22,20 +22,10 @@ package org.modelio.logixuml.statemachineaoi;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-
-import org.modelio.api.modelio.model.IModelingSession;
-import org.modelio.logixuml.impl.LogixUMLModule;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.StateVertex;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
-import org.modelio.vcore.smkernel.mapi.MObject;
-import org.modelio.vcore.smkernel.mapi.MRef;
 
 /**
- * This object evaluates a transition model object to generate a list of
+ * This object evaluates a snapshot transition to generate a list of
  * {@link Condition} objects defining the entry/exit/do outputs that are
  * energized in each scan of the transition. Concrete subclasses represent each
  * of the available scan modes, and implement methods which must be unique in
@@ -51,40 +41,51 @@ abstract class TransitionConditions {
     private final List<Condition> conditions;
 
     /**
-     * The ultimate target of the transition, after all intermediary initial
-     * transitions are followed.
+     * Identifier of the ultimate target of the transition, after all intermediary
+     * initial transitions are followed.
+     */
+    private final int target;
+
+    /**
+     * Snapshot containing the transition.
      */
-    private final State target;
+    private final ModelSnapshot model;
 
     /**
-     * Modeling session used to resolve model object references.
+     * Ancestry table of the snapshot's state hierarchy.
      */
-    private final IModelingSession session;
+    private final SuperStateIndex supers;
 
     /**
      * Constructor.
      *
-     * @param transition   Model element defining the transition.
-     * @param activeSource Lowest-level state model element that is currently active
-     *                     at the start of this transition. This will differ from
-     *                     the transition's source state in cases of a transition
-     *                     defined by a superstate, but starting within an enclosed
-     *                     substate.
+     * @param model        Snapshot containing the transition.
+     * @param transition   Identifier of the transition.
+     * @param activeSource Identifier of the lowest-level state that is currently
+     *                     active at the start of this transition, or
+     *                     {@link ModelSnapshot#NONE} for a state machine's initial
+     *                     transition. This will differ from the transition's source
+     *                     state in cases of a transition defined by a superstate,
+     *                     but starting within an enclosed substate.
      * @throws ExportException
      * @throws IgnoreTransitionException If the transition should be ignored in the
      *                                   context of the active source state.
      */
-    TransitionConditions(final Transition transition, final State activeSource)
+    TransitionConditions(final ModelSnapshot model, final int transition, final int activeSource)
             throws ExportException, IgnoreTransitionException {
+        this.model = model;
+        supers = model.getSuperStateIndex();
+
         // Self-transitions are not permitted.
-        if (transition.getSource() == transition.getTarget()) {
-            throw new ExportException("Transition must have different source and target states.", transition);
+        final int txSource = model.getTransitionSource(transition);
+        if ((txSource != ModelSnapshot.NONE) && (txSource == model.getTransitionTarget(transition))) {
+            throw new ExportException("Transition must have different source and target states.",
+                    model.getTransition(transition));
         }
 
-        session = LogixUMLModule.getInstance().getModuleContext().getModelingSession();
         target = getTargetState(transition, activeSource);
-        final List<MRef> exits = computeExitStates(activeSource, target);
-        final List<MRef> entries = computeEntryStates(activeSource, target);
+        final List<Integer> exits = computeExitStates(activeSource, target);
+        final List<Integer> entries = computeEntryStates(activeSource, target);
         conditions = computeConditions(exits, entries);
 
         for (final Condition c : conditions) {
@@ -104,113 +105,120 @@ abstract class TransitionConditions {
     /**
      * Getter method to acquire the transition's ultimate target state.
      *
-     * @return Reference to the transition's ultimate target state.
+     * @return Identifier of the transition's ultimate target state.
      */
-    MRef getTarget() {
-        return new MRef(target);
+    int getTarget() {
+        return target;
+    }
+
+    /**
+     * Getter method for the snapshot containing the transition, for use by
+     * subclasses creating conditions.
+     *
+     * @return The model snapshot.
+     */
+    protected ModelSnapshot getModel() {
+        return model;
     }
 
     /**
      * Finds the ultimate state targeted by the transition, following any initial
      * transitions within target states.
      *
-     * @param tx     Model object defining the transition.
+     * @param tx     Identifier of the transition.
      * @param source State where the transition originates. This may not be the
      *               actual source of the transition model object for a group
      *               transition defined in a superstate.
-     * @return The ultimate target state.
+     * @return Identifier of the ultimate target state.
      * @throws ExportException
      * @throws IgnoreTransitionException If the transition should be ignored in the
      *                                   context of the active source state.
      */
-    private State getTargetState(final Transition tx, final State source)
-            throws ExportException, IgnoreTransitionException {
-        State targetState = null;
-        StateVertex targetElement = tx.getTarget();
+    private int getTargetState(final int tx, final int source) throws ExportException, IgnoreTransitionException {
+        int targetState = ModelSnapshot.NONE;
+        int targetTx = tx;
+        int targetElement = model.getTransitionTarget(tx);
 
         // Ignore this transition if it targets the active state, which can happen for
         // transitions defined in a superstate(group transition).
-        if (targetElement == source) {
+        if ((source != ModelSnapshot.NONE) && (targetElement == source)) {
             throw new IgnoreTransitionException();
         }
 
-        final List<State> sourceSupers = new ArrayList<State>();
-        if (source != null) {
-            sourceSupers.addAll(SuperState.getSuperStates(source));
-        }
-
         // Iteratively follow initial transitions until a target state is found with no
         // initial transition.
         do {
-            final String targetType = targetElement.getMClass().getQualifiedName();
-
             // Transitions must target only state objects.
-            if (!targetType.equals(State.MQNAME)) {
-                throw new AssertionError(targetType);
+            if (targetElement == ModelSnapshot.NONE) {
+                throw new AssertionError(model.getTransitionTargetType(targetTx));
             }
 
             // Check to see if the target state has its own initial transition.
-            final Transition targetInitial = InitialTransition.getInitialTransition(targetElement);
+            final int targetInitial = InitialTransition.getInitialTransition(model, targetElement);
 
             // Final target is reached if no initial transition is found or the target is a
             // super-state containing the source, in which case the initial transition is
             // ignored because a transition from a sub-state to its enclosing super-state
             // does not re-enter the super-state, and therefore the initial transition does
             // not apply.
-            if ((targetInitial == null) || (sourceSupers.contains(targetElement))) {
-                targetState = (State) targetElement;
+            if ((targetInitial == ModelSnapshot.NONE)
+                    || ((source != ModelSnapshot.NONE) && supers.isSuperState(targetElement, source))) {
+                targetState = targetElement;
             } else {
-                targetElement = targetInitial.getTarget();
+                targetTx = targetInitial;
+                targetElement = model.getTransitionTarget(targetInitial);
             }
 
-        } while (targetState == null);
+        } while (targetState == ModelSnapshot.NONE);
 
         return targetState;
     }
 
+    /**
+     * Finds the lowest state enclosing, or equal to, both the source and target.
+     * States at or above this level are neither exited nor entered.
+     *
+     * @param source Transition source state, or NONE.
+     * @param target Transition target state.
+     * @return The common ancestor, or STATE_MACHINE if there is none.
+     */
+    private int commonAncestor(final int source, final int target) {
+        return (source == ModelSnapshot.NONE) ? ModelSnapshot.STATE_MACHINE
+                : supers.getLowestCommonAncestor(source, target);
+    }
+
     /**
      * Determines the list of states that will have their exit action triggered.
      *
-     * @param source Transition source state.
+     * @param source Transition source state, or NONE.
      * @param target Transition target state.
-     * @return List of state references that will be exited, starting with the
+     * @return List of state identifiers that will be exited, starting with the
      *         source state, which may not be exited in some transition types, and
      *         ending with the highest-level super-state.
      */
-    private List<MRef> computeExitStates(final State source, final State target) {
-        final List<MRef> exits = new ArrayList<MRef>();
-
-        // Begin by exiting the source and all of its enclosing super-states.
-        if (source != null) {
-            exits.add(new MRef(source));
-            exits.addAll(SuperState.getSuperStateRefs(source));
+    private List<Integer> computeExitStates(final int source, final int target) {
+        // The source and all of its enclosing super-states are exited, except the
+        // target and any of its enclosing super-states, i.e. all states below the
+        // common ancestor.
+        if (source == ModelSnapshot.NONE) {
+            return new ArrayList<>();
         }
-
-        // Do not exit the target or any of its enclosing super-states.
-        exits.remove(new MRef(target));
-        exits.removeAll(SuperState.getSuperStateRefs(target));
-
-        return exits;
+        return supers.getPathBelow(source, commonAncestor(source, target));
     }
 
     /**
      * Determines the list of states that will have their entry action triggered.
      *
-     * @param source Transition source state.
+     * @param source Transition source state, or NONE.
      * @param target Transition target state.
-     * @return List of references to states that will be entered, starting with the
+     * @return List of identifiers of states that will be entered, starting with the
      *         highest-level super-state, and ending with the target state.
      */
-    private List<MRef> computeEntryStates(final State source, final State target) {
-        // Begin with the target state and all of its enclosing super-states.
-        final List<MRef> entries = SuperState.getSuperStateRefs(target);
-        entries.add(0, new MRef(target));
-
-        // Do not enter the source state or any of its super-states.
-        if (source != null) {
-            entries.remove(new MRef(source));
-            entries.removeAll(SuperState.getSuperStateRefs(source));
-        }
+    private List<Integer> computeEntryStates(final int source, final int target) {
+        // The target state and all of its enclosing super-states are entered, except
+        // the source state or any of its super-states, i.e. all states below the
+        // common ancestor.
+        final List<Integer> entries = supers.getPathBelow(target, commonAncestor(source, target));
 
         // Entry actions are listed top-down.
         Collections.reverse(entries);
@@ -226,13 +234,13 @@ abstract class TransitionConditions {
     private void addDoStates(final Condition c) {
         // Super-states common to all active entry actions will have their do action
         // active.
-        for (final MRef ref : commonSuperStates(c.getEntryActions())) {
-            c.addDoAction(ref);
+        for (final int s : commonSuperStates(c.getEntryActions())) {
+            c.addDoAction(s);
         }
 
         // Super-states common to all active exit actions also have active do actions.
-        for (final MRef ref : commonSuperStates(c.getExitActions())) {
-            c.addDoAction(ref);
+        for (final int s : commonSuperStates(c.getExitActions())) {
+            c.addDoAction(s);
         }
     }
 
@@ -242,19 +250,19 @@ abstract class TransitionConditions {
      * @param substates Set of sub-states to evaluate.
      * @return The set of super-states that are common to every sub-state.
      */
-    private Set<MRef> commonSuperStates(final Collection<MRef> substates) {
-        final Set<MRef> common = new HashSet<MRef>();
-
-        // Assemble the super-states from all given sub-states.
-        for (final MRef ref : substates) {
-            final MObject state = session.findByRef(ref);
-            common.addAll(SuperState.getSuperStateRefs(state));
-        }
-
-        // Remove super-states not common to every sub-state.
-        for (final MRef ref : substates) {
-            final MObject state = session.findByRef(ref);
-            common.retainAll(SuperState.getSuperStateRefs(state));
+    private List<Integer> commonSuperStates(final Collection<Integer> substates) {
+        final List<Integer> common = new ArrayList<>();
+
+        if (!substates.isEmpty()) {
+            // Every super-state of the lowest common ancestor encloses all sub-states.
+            // The ancestor itself is also common unless it is one of the sub-states.
+            final int lca = supers.getLowestCommonAncestor(substates);
+            if (lca != ModelSnapshot.STATE_MACHINE) {
+                if (!substates.contains(lca)) {
+                    common.add(lca);
+                }
+                common.addAll(supers.getSuperStates(lca));
+            }
         }
 
         return common;
@@ -276,5 +284,5 @@ abstract class TransitionConditions {
      *                highest superclass to inner subclass
      * @return The list of conditions implementing the transition.
      */
-    abstract protected List<Condition> computeConditions(final List<MRef> exits, final List<MRef> entries);
+    abstract protected List<Condition> computeConditions(final List<Integer> exits, final List<Integer> entries);
 }
@@ -19,9 +19,6 @@
 
 package org.modelio.logixuml.statemachineaoi;
 
-import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
-
 /**
  * Factory object that will generate TransitionCondition instances based on the
  * selected transition scan mode.
@@ -46,30 +43,32 @@ public class TransitionConditionsFactory {
      * Constructs an instance of a transition condition object based on the selected
      * scan mode.
      *
-     * @param transition   Source model object from which conditions will be built.
+     * @param model        Snapshot containing the transition.
+     * @param transition   Identifier of the transition from which conditions will
+     *                     be built.
      * @param activeSource See parameter of the same name in TransitionConditions
-     *                     {@link TransitionConditions#TransitionConditions(Transition, State)
+     *                     {@link TransitionConditions#TransitionConditions(ModelSnapshot, int, int)
      *                     constructor}.
      * @return The transition condition generator object.
      * @throws ExportException           If the source transition was invalid.
      * @throws IgnoreTransitionException If the transition should be ignored in the
      *                                   context of the active source state.
      */
-    TransitionConditions build(final Transition transition, final State activeSource)
+    TransitionConditions build(final ModelSnapshot model, final int transition, final int activeSource)
             throws ExportException, IgnoreTransitionException {
         TransitionConditions t = null;
 
         switch (scanMode) {
         case SINGLE:
-            t = new TransitionSingle(transition, activeSource);
+            t = new TransitionSingle(model, transition, activeSource);
             break;
 
         case DUAL:
-            t = new TransitionDual(transition, activeSource);
+            t = new TransitionDual(model, transition, activeSource);
             break;
 
         case SEQUENTIAL:
-            t = new TransitionSequential(transition, activeSource);
+            t = new TransitionSequential(model, transition, activeSource);
             break;
         }
 
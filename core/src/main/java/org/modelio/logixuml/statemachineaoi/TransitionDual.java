@@ -22,27 +22,23 @@ package org.modelio.logixuml.statemachineaoi;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
-import org.modelio.vcore.smkernel.mapi.MRef;
-
 /**
  * This object generates a list of conditions for dual-scan transitions.
  */
 class TransitionDual extends TransitionConditions {
-    TransitionDual(final Transition transition, final State activeSource)
+    TransitionDual(final ModelSnapshot model, final int transition, final int activeSource)
             throws ExportException, IgnoreTransitionException {
-        super(transition, activeSource);
+        super(model, transition, activeSource);
     }
 
     @Override
-    protected List<Condition> computeConditions(final List<MRef> exits, final List<MRef> entries) {
+    protected List<Condition> computeConditions(final List<Integer> exits, final List<Integer> entries) {
         final List<Condition> list = new ArrayList<Condition>();
 
         // First condition contains all exit actions.
         if (!exits.isEmpty()) {
-            final Condition first = new Condition();
-            for (MRef r : exits) {
+            final Condition first = new Condition(getModel());
+            for (final int r : exits) {
                 first.addExitAction(r);
             }
             list.add(first);
@@ -50,8 +46,8 @@ class TransitionDual extends TransitionConditions {
 
         // Last condition contains all entry actions.
         if (!entries.isEmpty()) {
-            final Condition last = new Condition();
-            for (MRef r : entries) {
+            final Condition last = new Condition(getModel());
+            for (final int r : entries) {
                 last.addEntryAction(r);
             }
             list.add(last);
@@ -22,33 +22,29 @@ package org.modelio.logixuml.statemachineaoi;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
-import org.modelio.vcore.smkernel.mapi.MRef;
-
 /**
  * This object generates a list of conditions for sequential-scan transitions.
  */
 class TransitionSequential extends TransitionConditions {
-    TransitionSequential(final Transition transition, final State activeSource)
+    TransitionSequential(final ModelSnapshot model, final int transition, final int activeSource)
             throws ExportException, IgnoreTransitionException {
-        super(transition, activeSource);
+        super(model, transition, activeSource);
     }
 
     @Override
-    protected List<Condition> computeConditions(final List<MRef> exits, final List<MRef> entries) {
+    protected List<Condition> computeConditions(final List<Integer> exits, final List<Integer> entries) {
         final List<Condition> list = new ArrayList<Condition>();
 
         // Begin with the exit actions, one per condition.
-        for (final MRef r : exits) {
-            final Condition c = new Condition();
+        for (final int r : exits) {
+            final Condition c = new Condition(getModel());
             c.addExitAction(r);
             list.add(c);
         }
 
         // End with the entry actions, one per condition.
-        for (final MRef r : entries) {
-            final Condition c = new Condition();
+        for (final int r : entries) {
+            final Condition c = new Condition(getModel());
             c.addEntryAction(r);
             list.add(c);
         }
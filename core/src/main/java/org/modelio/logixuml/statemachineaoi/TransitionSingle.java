@@ -22,28 +22,24 @@ package org.modelio.logixuml.statemachineaoi;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
-import org.modelio.vcore.smkernel.mapi.MRef;
-
 /**
  * This object generates a list of conditions for single-scan transitions.
  */
 class TransitionSingle extends TransitionConditions {
-    TransitionSingle(final Transition transition, final State activeSource)
+    TransitionSingle(final ModelSnapshot model, final int transition, final int activeSource)
             throws ExportException, IgnoreTransitionException {
-        super(transition, activeSource);
+        super(model, transition, activeSource);
     }
 
     @Override
-    protected List<Condition> computeConditions(final List<MRef> exits, final List<MRef> entries) {
+    protected List<Condition> computeConditions(final List<Integer> exits, final List<Integer> entries) {
         // All entry and exit actions are added to a single condition.
-        final Condition c = new Condition();
-        for (MRef r : exits) {
+        final Condition c = new Condition(getModel());
+        for (final int r : exits) {
             c.addExitAction(r);
         }
 
-        for (MRef r : entries) {
+        for (final int r : entries) {
             c.addEntryAction(r);
         }
 
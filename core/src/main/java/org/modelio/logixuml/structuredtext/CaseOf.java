@@ -0,0 +1,231 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.structuredtext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Generates a CASE_OF structured text block.
+ * <p>
+ * Cases are emitted in ascending selector order, so the output does not depend
+ * on the order cases were added. Selectors sharing identical statements are
+ * combined into a single case, using a range for consecutive values, e.g.
+ * <code>1..12,15:</code>. Since the controller evaluates selectors in the order
+ * they appear, an optional frequency hint may be given to move the most
+ * frequently matched cases to the front.
+ */
+public class CaseOf implements IStructuredTextGenerator {
+    /**
+     * Expression evaluated in the CASE statement.
+     */
+    final String expression;
+
+    /**
+     * Structured text statements keyed by selector value, in ascending selector
+     * order.
+     */
+    private final Map<Integer, List<String>> cases;
+
+    /**
+     * Structured text statements for the ELSE clause; null if no ELSE clause was
+     * defined.
+     */
+    private List<String> elseStatements;
+
+    /**
+     * Relative frequency each selector is expected to match, keyed by selector
+     * value. Selectors without a hint have a frequency of zero.
+     */
+    private final Map<Integer, Long> frequencies;
+
+    /**
+     * Constructor.
+     *
+     * @param expression Tag or expression that will be evaluated.
+     */
+    public CaseOf(final String expression) {
+        this.expression = expression;
+        cases = new TreeMap<>();
+        frequencies = new HashMap<>();
+    }
+
+    /**
+     * Assigns a set of structured text statements to a given selector value.
+     *
+     * @param selector   The value to compare to the CASE expression.
+     * @param statements The structured text statements to execute for the given
+     *                   selector value.
+     */
+    public void addCase(final int selector, final List<String> statements) {
+        // All selector values must be unique.
+        if (cases.containsKey(selector)) {
+            throw new AssertionError(selector);
+        }
+
+        if (statements == null) {
+            throw new AssertionError();
+        }
+
+        cases.put(selector, statements);
+    }
+
+    /**
+     * Vararg version of {@link CaseOf#addCase(int, List)}.
+     *
+     * @see CaseOf#addCase(int, List)
+     */
+    public void addCase(final int selector, final String... statements) {
+        addCase(selector, Arrays.asList(statements));
+    }
+
+    /**
+     * Creates an ELSE case if no selector values match.
+     *
+     * @param statements The structured text statements to execute in the ELSE
+     *                   clause.
+     */
+    public void addElse(final List<String> statements) {
+        // Only one else block is allowed.
+        if (elseStatements != null) {
+            throw new AssertionError();
+        }
+
+        if (statements == null) {
+            throw new AssertionError();
+        }
+
+        elseStatements = statements;
+    }
+
+    /**
+     * Sets the relative frequency a selector value is expected to match. Cases with
+     * higher total frequency are emitted first; cases with equal frequency remain
+     * in ascending selector order.
+     *
+     * @param selector  The selector value.
+     * @param frequency Relative, non-negative frequency.
+     */
+    public void setFrequencyHint(final int selector, final long frequency) {
+        if (frequency < 0) {
+            throw new AssertionError(frequency);
+        }
+
+        frequencies.put(selector, frequency);
+    }
+
+    @Override
+    public List<String> getLines() {
+        final List<String> lines = new ArrayList<>();
+
+        lines.add(LinePool.intern(String.format("CASE %s OF", expression)));
+
+        // Group selectors sharing identical statements. Iterating the cases in
+        // ascending order leaves each group's selectors sorted, and the groups
+        // sorted by their lowest selector.
+        final Map<List<String>, List<Integer>> groups = new LinkedHashMap<>();
+        for (final Map.Entry<Integer, List<String>> c : cases.entrySet()) {
+            List<Integer> selectors = groups.get(c.getValue());
+            if (selectors == null) {
+                selectors = new ArrayList<>();
+                groups.put(c.getValue(), selectors);
+            }
+            selectors.add(c.getKey());
+        }
+
+        // Move the most frequent groups to the front; the sort is stable so groups
+        // of equal frequency keep their ascending order.
+        final List<Map.Entry<List<String>, List<Integer>>> ordered = new ArrayList<>(groups.entrySet());
+        if (!frequencies.isEmpty()) {
+            ordered.sort(Comparator.comparingLong(
+                    (final Map.Entry<List<String>, List<Integer>> g) -> -getFrequency(g.getValue())));
+        }
+
+        for (final Map.Entry<List<String>, List<Integer>> g : ordered) {
+            lines.add(LinePool.intern(formatSelectors(g.getValue()) + ":"));
+            lines.addAll(g.getKey());
+        }
+
+        // Append the else clause if one was defined.
+        if (elseStatements != null) {
+            lines.add("ELSE");
+            lines.addAll(elseStatements);
+        }
+
+        lines.add("END_CASE;");
+
+        return lines;
+    }
+
+    /**
+     * Computes the total frequency hint of a group of selectors.
+     *
+     * @param selectors Selector values.
+     * @return Sum of the selectors' frequencies.
+     */
+    private long getFrequency(final List<Integer> selectors) {
+        long total = 0;
+        for (final int s : selectors) {
+            final Long f = frequencies.get(s);
+            total += (f == null) ? 0 : f;
+        }
+        return total;
+    }
+
+    /**
+     * Formats a list of selector values into a CASE selector, combining runs of
+     * three or more consecutive values into a range.
+     *
+     * @param selectors Selector values in ascending order.
+     * @return The selector text, excluding the trailing colon.
+     */
+    static String formatSelectors(final List<Integer> selectors) {
+        final StringBuilder sb = new StringBuilder();
+
+        int i = 0;
+        while (i < selectors.size()) {
+            // Find the end of the run of consecutive values beginning at i.
+            int j = i;
+            while ((j + 1 < selectors.size()) && (selectors.get(j + 1) == selectors.get(j) + 1)) {
+                j++;
+            }
+
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(selectors.get(i));
+            if (j - i >= 2) {
+                sb.append("..").append(selectors.get(j));
+            } else if (j > i) {
+                sb.append(',').append(selectors.get(j));
+            }
+
+            i = j + 1;
+        }
+
+        return sb.toString();
+    }
+}
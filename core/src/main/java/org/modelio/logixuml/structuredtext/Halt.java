@@ -41,6 +41,14 @@ public class Halt {
         private final static String INDEX = "pfi"; // Array index.
     }
 
+    /**
+     * Statements causing the fault, shared by every caller.
+     */
+    private static final List<String> LINES = unmodifiableList(Arrays.asList( //
+            LinePool.intern(TagNames.INDEX + " := -1;"), //
+            LinePool.intern(TagNames.ARRAY + "[" + TagNames.INDEX + "] := 0;") //
+    ));
+
     /**
      * Creates the required local tags.
      *
@@ -61,10 +69,6 @@ public class Halt {
      * @return List of structured text lines.
      */
     public static List<String> getLines() {
-        final String lines[] = { //
-                TagNames.INDEX + " := -1;", //
-                TagNames.ARRAY + "[" + TagNames.INDEX + "] := 0;" //
-        };
-        return unmodifiableList(Arrays.asList(lines));
+        return LINES;
     }
 }
@@ -165,7 +165,7 @@ public class IfThen implements IStructuredTextGenerator {
             // Use "IF" for the first case, "ELSEIF" for all others.
             final String ifKeyword = (cases.indexOf(c) == 0) ? "IF" : "ELSIF";
 
-            lines.add(String.format("%s %s THEN", ifKeyword, c.getExpression()));
+            lines.add(LinePool.intern(String.format("%s %s THEN", ifKeyword, c.getExpression())));
             lines.addAll(c.getStatements());
         }
 
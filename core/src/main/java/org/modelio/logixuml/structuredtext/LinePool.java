@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.structuredtext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared pool of structured text lines. Generated routines repeat many short
+ * lines, e.g. state output assignments, queue index updates, and CASE
+ * selectors, often thousands of times in a large state machine. Passing each
+ * generated line through this pool replaces it with a single canonical
+ * instance, so duplicates held by the routine buffers cost only a reference.
+ * <p>
+ * The pool is used concurrently by parallel exports, so lookups do not lock.
+ * Its size is bounded by discarding every entry once the limit is reached;
+ * lines already returned stay valid, they are just no longer shared with lines
+ * interned afterwards.
+ */
+public final class LinePool {
+    /**
+     * Number of distinct lines held before the pool is emptied.
+     */
+    static final int MAX_SIZE = 1 << 16;
+
+    /**
+     * Canonical instances keyed by themselves.
+     */
+    private static final Map<String, String> pool = new ConcurrentHashMap<>();
+
+    /**
+     * Not instantiable.
+     */
+    private LinePool() {
+    }
+
+    /**
+     * Gets the canonical instance of a line.
+     *
+     * @param line The line to look up.
+     * @return A line equal to the given line; the same instance is returned for
+     *         every equal line while it remains in the pool.
+     */
+    public static String intern(final String line) {
+        final String existing = pool.get(line);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (pool.size() >= MAX_SIZE) {
+            clear();
+        }
+
+        final String previous = pool.putIfAbsent(line, line);
+        return (previous == null) ? line : previous;
+    }
+
+    /**
+     * Discards every pooled line.
+     */
+    static void clear() {
+        pool.clear();
+    }
+}
@@ -77,7 +77,7 @@ public class WhileDo {
      */
     public List<String> getLines() {
         final List<String> st = new ArrayList<>();
-        st.add("WHILE " + expression + " DO");
+        st.add(LinePool.intern("WHILE " + expression + " DO"));
         st.addAll(body);
         st.add("END_WHILE;");
         return unmodifiableList(st);
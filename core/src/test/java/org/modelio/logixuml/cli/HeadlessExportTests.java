@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the command line exporter.
+ */
+class HeadlessExportTests {
+    /**
+     * Temporary directory for model and exported files.
+     */
+    @TempDir
+    Path dir;
+
+    /**
+     * Captured progress messages.
+     */
+    private ByteArrayOutputStream out;
+
+    /**
+     * Captured error messages.
+     */
+    private ByteArrayOutputStream err;
+
+    @BeforeEach
+    void setUp() {
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Confirm an L5X file is written for a state machine read from XMI.
+     */
+    @Test
+    void xmi() throws IOException {
+        writeXmi(XmiReaderTests.XMI);
+        assertEquals(HeadlessExport.EXIT_SUCCESS, run("-o", dir.toString(), dir.toString()));
+        assertTrue(Files.exists(dir.resolve("stateMachine_demo.L5X")));
+        assertTrue(getOutput().contains("1 exported, 0 unchanged, 0 failed."));
+    }
+
+    /**
+     * Confirm an unchanged state machine is restored from the cache, which is
+     * enabled by default, unless the cache is disabled.
+     */
+    @Test
+    void cache() throws IOException {
+        writeXmi(XmiReaderTests.XMI);
+        assertEquals(HeadlessExport.EXIT_SUCCESS, run("-o", dir.toString(), dir.toString()));
+        assertEquals(HeadlessExport.EXIT_SUCCESS, run("-o", dir.toString(), dir.toString()));
+        assertTrue(getOutput().contains("0 exported, 1 unchanged, 0 failed."));
+        assertEquals(HeadlessExport.EXIT_SUCCESS, run("-o", dir.toString(), "--no-cache", dir.toString()));
+        assertTrue(getOutput().endsWith("1 exported, 0 unchanged, 0 failed." + System.lineSeparator()));
+    }
+
+    /**
+     * Confirm each writer backend can be selected on the command line.
+     */
+    @Test
+    void writer() throws IOException {
+        writeXmi(XmiReaderTests.XMI);
+        for (final String backend : new String[] { "dom", "stax", "STAX" }) {
+            Files.deleteIfExists(dir.resolve("stateMachine_demo.L5X"));
+            assertEquals(HeadlessExport.EXIT_SUCCESS,
+                    run("-o", dir.toString(), "--no-cache", "--writer", backend, dir.toString()));
+            assertTrue(Files.exists(dir.resolve("stateMachine_demo.L5X")));
+        }
+    }
+
+    /**
+     * Confirm properties given on the command line override stereotype values.
+     */
+    @Test
+    void propertyOverride() throws IOException {
+        writeXmi(XmiReaderTests.XMI.replace(" transitionScanMode=\"dual\"", ""));
+        assertEquals(HeadlessExport.EXIT_EXPORT_ERROR, run("-o", dir.toString(), dir.toString()));
+        assertEquals(HeadlessExport.EXIT_SUCCESS,
+                run("-o", dir.toString(), "-P", "transitionScanMode=single", dir.toString()));
+    }
+
+    /**
+     * Confirm a failed state machine is reported with the element causing the
+     * error.
+     */
+    @Test
+    void exportError() throws IOException {
+        writeXmi(XmiReaderTests.XMI.replace("uml:State\" xmi:id=\"A\"", "uml:FinalState\" xmi:id=\"A\""));
+        assertEquals(HeadlessExport.EXIT_EXPORT_ERROR, run("-o", dir.toString(), dir.toString()));
+        assertFalse(Files.exists(dir.resolve("stateMachine_demo.L5X")));
+        assertTrue(new String(err.toByteArray(), StandardCharsets.UTF_8).startsWith("demo: "));
+        assertTrue(getOutput().contains("0 exported, 0 unchanged, 1 failed."));
+    }
+
+    /**
+     * Confirm state machines sharing a name are all rejected, whether or not
+     * the first one was read successfully.
+     */
+    @Test
+    void duplicateName() throws IOException {
+        final String invalid = XmiReaderTests.XMI.replace("uml:State\" xmi:id=\"A\"", "uml:FinalState\" xmi:id=\"A\"");
+        for (final String first : new String[] { XmiReaderTests.XMI, invalid }) {
+            out.reset();
+            err.reset();
+            Files.write(dir.resolve("a.xmi"), first.getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve("b.xmi"), XmiReaderTests.XMI.getBytes(StandardCharsets.UTF_8));
+            assertEquals(HeadlessExport.EXIT_EXPORT_ERROR, run("-o", dir.toString(), "--no-cache", dir.toString()));
+            assertFalse(Files.exists(dir.resolve("stateMachine_demo.L5X")));
+            assertTrue(new String(err.toByteArray(), StandardCharsets.UTF_8).contains("Duplicate state machine name."));
+            assertTrue(getOutput().contains("0 exported, 0 unchanged, 1 failed."));
+        }
+    }
+
+    /**
+     * Confirm invalid command lines are rejected before exporting.
+     */
+    @Test
+    void usage() {
+        assertEquals(HeadlessExport.EXIT_USAGE, run());
+        assertEquals(HeadlessExport.EXIT_USAGE, run("-o"));
+        assertEquals(HeadlessExport.EXIT_USAGE, run("--unknown", "x.xmi"));
+        assertEquals(HeadlessExport.EXIT_USAGE, run("-P", "undefined=1", "x.xmi"));
+        assertEquals(HeadlessExport.EXIT_USAGE, run("-P", "=1", "x.xmi"));
+        assertEquals(HeadlessExport.EXIT_USAGE, run("-j", "0", "x.xmi"));
+        assertEquals(HeadlessExport.EXIT_USAGE, run("-j", "many", "x.xmi"));
+        assertEquals(HeadlessExport.EXIT_USAGE, run("--writer", "sax", "x.xmi"));
+        assertEquals(HeadlessExport.EXIT_USAGE, run("x.xmi", "--writer"));
+        assertEquals("", getOutput());
+    }
+
+    /**
+     * Confirm a missing input file is reported as an export error.
+     */
+    @Test
+    void missingFile() {
+        assertEquals(HeadlessExport.EXIT_EXPORT_ERROR, run(dir.resolve("missing.xmi").toString()));
+    }
+
+    /**
+     * Executes the exporter, capturing its output.
+     *
+     * @param args Command line arguments.
+     * @return Exit status.
+     */
+    private int run(final String... args) {
+        try (PrintStream o = new PrintStream(out, true); PrintStream e = new PrintStream(err, true)) {
+            return HeadlessExport.run(args, o, e);
+        }
+    }
+
+    /**
+     * Acquires the captured progress messages.
+     *
+     * @return Progress output.
+     */
+    private String getOutput() {
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes an XMI model file to the temporary directory.
+     *
+     * @param content File content.
+     */
+    private void writeXmi(final String content) throws IOException {
+        Files.write(dir.resolve("model.xmi"), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+
+/**
+ * Unit tests for interpreting pattern archive source.
+ */
+class PatternReaderTests {
+    /**
+     * Source defining a state machine with a single state, in the same form
+     * generated by Modelio.
+     */
+    static final String SOURCE = String.join("\n",
+            "package test;",
+            "public class Pattern {",
+            "this.elements.add(this.model.create(org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine.class, this.root));",
+            "this.elements.get(0).mSet(this.elements.get(0).getMClass().getAttribute(\"IsReentrant\"),Boolean.valueOf(\"false\"));",
+            "this.elements.get(0).mSet(this.elements.get(0).getMClass().getAttribute(\"Name\"),(String) this.parameters.get(\"$(name)\") +\"_sm\");",
+            "this.elements.add(this.model.create(org.modelio.metamodel.uml.behavior.stateMachineModel.Region.class, this.root));",
+            "this.elements.add(this.model.create(org.modelio.metamodel.uml.behavior.stateMachineModel.InitialPseudoState.class, this.root));",
+            "this.elements.add(this.model.create(org.modelio.metamodel.uml.behavior.stateMachineModel.Transition.class, this.root));",
+            "this.elements.get(3).mSet(this.elements.get(3).getMClass().getAttribute(\"ReceivedEvents\"),\"\");",
+            "this.elements.add(this.model.create(org.modelio.metamodel.uml.behavior.stateMachineModel.State.class, this.root));",
+            "this.elements.get(4).mSet(this.elements.get(4).getMClass().getAttribute(\"Name\"),\"State \\\"1\\\"\" +\"\");",
+            "this.elements.add(this.model.create(org.modelio.metamodel.uml.infrastructure.properties.PropertyTable.class, this.root));",
+            "this.elements.get(0).mGet(this.elements.get(0).getMClass().getDependency(\"Top\")).add(elements.get(1));",
+            "this.elements.get(0).mGet(this.elements.get(0).getMClass().getDependency(\"Owner\")).add((MObject) this.parameters.get(\"owner\"));",
+            "this.elements.get(1).mGet(this.elements.get(1).getMClass().getDependency(\"Sub\")).add(elements.get(2));",
+            "this.elements.get(1).mGet(this.elements.get(1).getMClass().getDependency(\"Sub\")).add(elements.get(4));",
+            "this.elements.get(2).mGet(this.elements.get(2).getMClass().getDependency(\"OutGoing\")).add(elements.get(3));",
+            "this.elements.get(3).mGet(this.elements.get(3).getMClass().getDependency(\"Target\")).add(elements.get(4));",
+            "}");
+
+    /**
+     * Temporary directory for pattern archives.
+     */
+    @TempDir
+    Path dir;
+
+    /**
+     * Confirm elements, attributes, and dependencies are created as defined.
+     */
+    @Test
+    void parse() throws IOException, ExportException {
+        final List<ModelElement> sms = PatternReader.parse(new BufferedReader(new StringReader(SOURCE)));
+        assertEquals(1, sms.size());
+
+        final ModelElement sm = sms.get(0);
+        assertEquals("Standard.StateMachine", sm.getMetaclass());
+        assertEquals("$(name)_sm", sm.getAttribute("Name"));
+        assertNull(sm.getAttribute("IsReentrant"));
+        assertEquals(0, sm.getDependency("Owner").size());
+
+        final ModelElement region = sm.getDependency("Top").get(0);
+        assertEquals("Standard.Region", region.getMetaclass());
+
+        final List<ModelElement> sub = region.getDependency("Sub");
+        assertEquals(2, sub.size());
+        assertEquals("Standard.InitialPseudoState", sub.get(0).getMetaclass());
+        assertEquals("State \"1\"", sub.get(1).getAttribute("Name"));
+
+        final ModelElement transition = sub.get(0).getDependency("OutGoing").get(0);
+        assertEquals("", transition.getAttribute("ReceivedEvents"));
+        assertEquals(sub.get(1), transition.getDependency("Target").get(0));
+    }
+
+    /**
+     * Confirm an exception is raised for references to elements not yet
+     * created.
+     */
+    @Test
+    void undefinedElement() {
+        final String source = "this.elements.get(3).mSet(this.elements.get(3).getMClass().getAttribute(\"Name\"),\"x\");";
+        assertThrows(ExportException.class,
+                () -> PatternReader.parse(new BufferedReader(new StringReader(source))));
+    }
+
+    /**
+     * Confirm evaluation of string expressions.
+     */
+    @Test
+    void parseString() {
+        assertEquals("", PatternReader.parseString("\"\""));
+        assertEquals("abc", PatternReader.parseString("\"abc\" +\"\""));
+        assertEquals("a\tb\\c\u00e9", PatternReader.parseString("\"a\\tb\\\\c\\u00e9\""));
+        assertEquals("x_$(name)", PatternReader.parseString("\"x_\" + (String) this.parameters.get(\"$(name)\")"));
+        assertNull(PatternReader.parseString("Boolean.valueOf(\"false\")"));
+        assertNull(PatternReader.parseString("\"unterminated"));
+        assertNull(PatternReader.parseString("\"a\" - \"b\""));
+        assertNull(PatternReader.parseString("\"\\q\""));
+    }
+
+    /**
+     * Confirm the source is read from a pattern archive.
+     */
+    @Test
+    void read() throws IOException, ExportException {
+        final Path file = writeArchive(dir.resolve("p.umlt"), "Pattern.java", SOURCE);
+        assertEquals(1, PatternReader.read(file).size());
+    }
+
+    /**
+     * Confirm an exception is raised for archives without pattern source.
+     */
+    @Test
+    void missingSource() throws IOException {
+        final Path file = writeArchive(dir.resolve("p.umlt"), "Other.java", SOURCE);
+        assertThrows(ExportException.class, () -> PatternReader.read(file));
+    }
+
+    /**
+     * Confirm an exception is raised for files that are not archives.
+     */
+    @Test
+    void notArchive() throws IOException {
+        final Path file = Files.write(dir.resolve("p.umlt"), SOURCE.getBytes(StandardCharsets.UTF_8));
+        assertThrows(ExportException.class, () -> PatternReader.read(file));
+    }
+
+    /**
+     * Creates an archive containing a single entry.
+     *
+     * @param file    Archive path.
+     * @param entry   Entry name.
+     * @param content Entry content.
+     * @return The archive path.
+     */
+    static Path writeArchive(final Path file, final String entry, final String content) throws IOException {
+        try (OutputStream os = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(os)) {
+            zip.putNextEntry(new ZipEntry(entry));
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+
+/**
+ * Unit tests for reading state machines from XMI files.
+ */
+class XmiReaderTests {
+    /**
+     * Document defining a state machine with a composite state, triggers given
+     * both by name and event reference, and a stereotype application.
+     */
+    static final String XMI = String.join("\n",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+            "<xmi:XMI xmi:version=\"2.1\" xmlns:xmi=\"http://schema.omg.org/spec/XMI/2.1\""
+                    + " xmlns:uml=\"http://www.eclipse.org/uml2/3.0.0/UML\" xmlns:LogixUML=\"http://logixuml\">",
+            "<uml:Model xmi:id=\"m\" name=\"model\">",
+            "<packagedElement xmi:type=\"uml:StateMachine\" xmi:id=\"sm\" name=\"demo\">",
+            "<region xmi:id=\"r1\">",
+            "<subvertex xmi:type=\"uml:State\" xmi:id=\"A\" name=\"A\"/>",
+            "<subvertex xmi:type=\"uml:State\" xmi:id=\"B\" name=\"B\">",
+            "<region xmi:id=\"r2\">",
+            "<subvertex xmi:type=\"uml:State\" xmi:id=\"B1\" name=\"B1\"/>",
+            "<subvertex xmi:type=\"uml:Pseudostate\" xmi:id=\"ib\"/>",
+            "<transition xmi:id=\"t2\" source=\"ib\" target=\"B1\"/>",
+            "<transition xmi:id=\"t4\" source=\"B1\" target=\"A\"><trigger xmi:id=\"tr2\" event=\"ev\"/></transition>",
+            "</region>",
+            "</subvertex>",
+            "<subvertex xmi:type=\"uml:Pseudostate\" xmi:id=\"ia\" kind=\"initial\"/>",
+            "<transition xmi:id=\"t1\" source=\"ia\" target=\"A\"/>",
+            "<transition xmi:id=\"t3\"><source xmi:idref=\"A\"/><target xmi:idref=\"B\"/>"
+                    + "<trigger xmi:id=\"tr1\" name=\"go\"/></transition>",
+            "</region>",
+            "</packagedElement>",
+            "<packagedElement xmi:type=\"uml:SignalEvent\" xmi:id=\"ev\" name=\"back\"/>",
+            "</uml:Model>",
+            "<LogixUML:StateMachineAoi xmi:id=\"st\" base_StateMachine=\"sm\" eventQueueSize=\"2\""
+                    + " transitionScanMode=\"dual\"/>",
+            "</xmi:XMI>");
+
+    /**
+     * Temporary directory for XMI files.
+     */
+    @TempDir
+    Path dir;
+
+    /**
+     * Confirm the state machine structure is read.
+     */
+    @Test
+    void structure() throws IOException, ExportException {
+        final List<ModelElement> sms = XmiReader.read(write(XMI));
+        assertEquals(1, sms.size());
+
+        final ModelElement sm = sms.get(0);
+        assertEquals("demo", sm.getAttribute("Name"));
+
+        final List<ModelElement> top = sm.getDependency("Top").get(0).getDependency("Sub");
+        assertEquals(3, top.size());
+        assertEquals("Standard.State", top.get(0).getMetaclass());
+        assertEquals("Standard.InitialPseudoState", top.get(2).getMetaclass());
+
+        final List<ModelElement> sub = top.get(1).getDependency("OwnedRegion").get(0).getDependency("Sub");
+        assertEquals(2, sub.size());
+        assertEquals("B1", sub.get(0).getAttribute("Name"));
+        assertEquals("Standard.InitialPseudoState", sub.get(1).getMetaclass());
+    }
+
+    /**
+     * Confirm transitions are linked to their source and target, with events
+     * taken from either the trigger name or referenced event.
+     */
+    @Test
+    void transitions() throws IOException, ExportException {
+        final ModelElement sm = XmiReader.read(write(XMI)).get(0);
+        final List<ModelElement> top = sm.getDependency("Top").get(0).getDependency("Sub");
+        final ModelElement a = top.get(0);
+        final ModelElement b = top.get(1);
+        final ModelElement b1 = b.getDependency("OwnedRegion").get(0).getDependency("Sub").get(0);
+
+        final ModelElement go = a.getDependency("OutGoing").get(0);
+        assertEquals("go", go.getAttribute("ReceivedEvents"));
+        assertEquals(b, go.getDependency("Target").get(0));
+
+        final ModelElement back = b1.getDependency("OutGoing").get(0);
+        assertEquals("back", back.getAttribute("ReceivedEvents"));
+        assertEquals(a, back.getDependency("Target").get(0));
+    }
+
+    /**
+     * Confirm stereotype property values are assigned to the extended state
+     * machine.
+     */
+    @Test
+    void stereotype() throws IOException, ExportException {
+        final ModelElement sm = XmiReader.read(write(XMI)).get(0);
+        assertEquals(2, sm.getProperties().size());
+        assertEquals("2", sm.getProperties().get("eventQueueSize"));
+        assertEquals("dual", sm.getProperties().get("transitionScanMode"));
+    }
+
+    /**
+     * Confirm an exception is raised for transitions without a target.
+     */
+    @Test
+    void undefinedTarget() throws IOException {
+        final Path file = write(XMI.replace("target=\"B1\"", "target=\"missing\""));
+        assertThrows(ExportException.class, () -> XmiReader.read(file));
+    }
+
+    /**
+     * Confirm an exception is raised for transitions with multiple triggers.
+     */
+    @Test
+    void multipleTriggers() throws IOException {
+        final Path file = write(XMI.replace("<trigger xmi:id=\"tr1\" name=\"go\"/>",
+                "<trigger xmi:id=\"tr1\" name=\"go\"/><trigger xmi:id=\"tr3\" name=\"stop\"/>"));
+        assertThrows(ExportException.class, () -> XmiReader.read(file));
+    }
+
+    /**
+     * Confirm an exception is raised for malformed documents.
+     */
+    @Test
+    void malformed() throws IOException {
+        final Path file = write(XMI.substring(0, XMI.length() / 2));
+        assertThrows(ExportException.class, () -> XmiReader.read(file));
+    }
+
+    /**
+     * Writes an XMI file to the temporary directory.
+     *
+     * @param content File content.
+     * @return The file path.
+     */
+    private Path write(final String content) throws IOException {
+        return Files.write(dir.resolve("model.xmi"), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
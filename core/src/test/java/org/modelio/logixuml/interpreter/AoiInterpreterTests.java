@@ -0,0 +1,231 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.DataType;
+import org.modelio.logixuml.l5x.ParameterUsage;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+import org.modelio.logixuml.structuredtext.CaseOf;
+import org.modelio.logixuml.structuredtext.Halt;
+import org.modelio.logixuml.structuredtext.IfThen;
+import org.modelio.logixuml.structuredtext.WhileDo;
+
+/**
+ * Unit tests for the structured text interpreter.
+ */
+class AoiInterpreterTests {
+    private AddOnInstruction aoi;
+
+    @BeforeEach
+    void setUp() throws ExportException {
+        aoi = new AddOnInstruction("test");
+        aoi.addParameter("in", ParameterUsage.Input, DataType.BOOL, true);
+        aoi.addParameter("out", ParameterUsage.Output, DataType.DINT, true);
+        aoi.addLocalTag("x", DataType.DINT);
+        aoi.addLocalTag("b", DataType.BOOL);
+        aoi.addLocalTag("arr", DataType.DINT, 4);
+        Halt.createTags(aoi);
+    }
+
+    /**
+     * Adds lines to the logic routine and creates the interpreter.
+     *
+     * @param lines Logic routine lines.
+     * @return The interpreter.
+     */
+    private AoiInterpreter logic(final String... lines) throws ParseException {
+        aoi.addStructuredTextLines(ScanModeRoutine.Logic, Arrays.asList(lines));
+        return new AoiInterpreter(aoi);
+    }
+
+    /**
+     * Confirm assignment and arithmetic, including operator precedence.
+     */
+    @Test
+    void arithmetic() throws Exception {
+        final AoiInterpreter it = logic("x := 2 + 3 * 4;", "out := (x - 4) MOD 5 - -1;");
+        it.scan(true);
+        assertEquals(14, it.getValue("x"));
+        assertEquals(1, it.getValue("out"));
+    }
+
+    /**
+     * Confirm tag names are not case-sensitive.
+     */
+    @Test
+    void caseInsensitive() throws Exception {
+        final AoiInterpreter it = logic("X := 7;");
+        it.scan(true);
+        assertEquals(7, it.getValue("x"));
+    }
+
+    /**
+     * Confirm values assigned to BOOL tags are converted to zero or one.
+     */
+    @Test
+    void boolConversion() throws Exception {
+        final AoiInterpreter it = logic("b := 5;", "x := NOT b;");
+        it.scan(true);
+        assertTrue(it.getBool("b"));
+        assertEquals(0, it.getValue("x"));
+    }
+
+    /**
+     * Confirm comments are ignored, including those spanning lines.
+     */
+    @Test
+    void comments() throws Exception {
+        final AoiInterpreter it = logic("/*", "x := 1;", "*/", "out := 2; // x := 3;");
+        it.scan(true);
+        assertEquals(0, it.getValue("x"));
+        assertEquals(2, it.getValue("out"));
+    }
+
+    /**
+     * Confirm IF, ELSIF, and ELSE clauses generated by IfThen.
+     */
+    @Test
+    void ifThen() throws Exception {
+        final IfThen st = new IfThen();
+        st.addCase("x = 1", "out := 10;");
+        st.addCase("x = 2", "out := 20;");
+        st.addElse("out := 30;");
+        final AoiInterpreter it = logic(st.getLines().toArray(new String[0]));
+
+        for (final int[] v : new int[][] { { 1, 10 }, { 2, 20 }, { 3, 30 } }) {
+            it.setValue("x", v[0]);
+            it.scan(true);
+            assertEquals(v[1], it.getValue("out"));
+        }
+    }
+
+    /**
+     * Confirm CASE selectors, including merged ranges and the ELSE clause,
+     * generated by CaseOf.
+     */
+    @Test
+    void caseOf() throws Exception {
+        final CaseOf st = new CaseOf("x");
+        st.addCase(1, "out := 10;");
+        st.addCase(2, "out := 10;");
+        st.addCase(3, "out := 10;");
+        st.addCase(5, "out := 50;");
+        st.addElse(Arrays.asList("out := -1;"));
+        final AoiInterpreter it = logic(st.getLines().toArray(new String[0]));
+
+        for (final int[] v : new int[][] { { 0, -1 }, { 1, 10 }, { 3, 10 }, { 4, -1 }, { 5, 50 }, { 6, -1 } }) {
+            it.setValue("x", v[0]);
+            it.scan(true);
+            assertEquals(v[1], it.getValue("out"), "x = " + v[0]);
+        }
+    }
+
+    /**
+     * Confirm WHILE loops and EXIT generated by WhileDo.
+     */
+    @Test
+    void whileDo() throws Exception {
+        final IfThen exit = new IfThen();
+        exit.addCase("x = 3", "EXIT;");
+        final WhileDo st = new WhileDo("x < 10");
+        st.addStatements("arr[x] := x * 2;");
+        st.addStatements(exit.getLines());
+        st.addStatements("x := x + 1;");
+        final AoiInterpreter it = logic(st.getLines().toArray(new String[0]));
+
+        it.scan(true);
+        assertEquals(3, it.getValue("x"));
+        assertEquals(4, it.getValue("arr", 2));
+        assertEquals(6, it.getValue("arr", 3));
+    }
+
+    /**
+     * Confirm a loop that never terminates faults.
+     */
+    @Test
+    void watchdog() throws Exception {
+        final AoiInterpreter it = logic("WHILE 1 = 1 DO", "x := x + 1;", "END_WHILE;");
+        assertThrows(MajorFaultException.class, () -> it.scan(true));
+    }
+
+    /**
+     * Confirm the Halt statements cause a major fault.
+     */
+    @Test
+    void halt() throws Exception {
+        final AoiInterpreter it = logic(Halt.getLines().toArray(new String[0]));
+        assertThrows(MajorFaultException.class, () -> it.scan(true));
+    }
+
+    /**
+     * Confirm the routine executed depends on the rung condition, and prescan
+     * executes the prescan routine.
+     */
+    @Test
+    void scanModes() throws Exception {
+        aoi.addStructuredTextLine(ScanModeRoutine.Prescan, "x := 1;");
+        aoi.addStructuredTextLine(ScanModeRoutine.EnableInFalse, "x := 2;");
+        final AoiInterpreter it = logic("x := 3;");
+
+        it.prescan();
+        assertEquals(1, it.getValue("x"));
+        it.scan(false);
+        assertEquals(2, it.getValue("x"));
+        assertFalse(it.getBool("EnableOut"));
+        it.scan(true);
+        assertEquals(3, it.getValue("x"));
+        assertTrue(it.getBool("EnableOut"));
+    }
+
+    /**
+     * Confirm references to undefined tags are rejected.
+     */
+    @Test
+    void undefinedTag() {
+        assertThrows(ParseException.class, () -> logic("y := 1;"));
+    }
+
+    /**
+     * Confirm syntax errors are rejected.
+     */
+    @Test
+    void syntaxError() {
+        assertThrows(ParseException.class, () -> logic("IF x = 1 THEN", "x := 2;"));
+    }
+
+    /**
+     * Confirm EXIT is rejected outside a loop.
+     */
+    @Test
+    void exitOutsideLoop() {
+        assertThrows(ParseException.class, () -> logic("EXIT;"));
+    }
+}
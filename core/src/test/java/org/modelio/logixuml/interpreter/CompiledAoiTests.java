@@ -0,0 +1,277 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.DataType;
+import org.modelio.logixuml.l5x.ParameterUsage;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+import org.modelio.logixuml.structuredtext.CaseOf;
+import org.modelio.logixuml.structuredtext.Halt;
+import org.modelio.logixuml.structuredtext.IfThen;
+import org.modelio.logixuml.structuredtext.WhileDo;
+
+/**
+ * Unit tests for routines compiled into Java classes.
+ */
+class CompiledAoiTests {
+    private AddOnInstruction aoi;
+
+    @BeforeEach
+    void setUp() throws ExportException {
+        assumeTrue(ToolProvider.getSystemJavaCompiler() != null, "Requires a JDK.");
+        aoi = new AddOnInstruction("test");
+        aoi.addParameter("in", ParameterUsage.Input, DataType.BOOL, true);
+        aoi.addParameter("out", ParameterUsage.Output, DataType.DINT, true);
+        aoi.addLocalTag("x", DataType.DINT);
+        aoi.addLocalTag("b", DataType.BOOL);
+        aoi.addLocalTag("arr", DataType.DINT, 4);
+        Halt.createTags(aoi);
+    }
+
+    /**
+     * Adds lines to the logic routine and compiles the AOI.
+     *
+     * @param lines Logic routine lines.
+     * @return The compiled AOI.
+     */
+    private CompiledAoi logic(final String... lines) throws Exception {
+        aoi.addStructuredTextLines(ScanModeRoutine.Logic, Arrays.asList(lines));
+        return CompiledAoi.compile(aoi);
+    }
+
+    /**
+     * Confirm expressions evaluate as in the interpreter, including operator
+     * precedence and BOOL conversion.
+     */
+    @Test
+    void expressions() throws Exception {
+        final CompiledAoi c = logic("x := 2 + 3 * 4;", "out := (x - 4) MOD 5 - -1;", "b := x;",
+                "in := NOT b OR x > 20;");
+        c.scan();
+        assertEquals(14, c.getValue("x"));
+        assertEquals(1, c.getValue("out"));
+        assertEquals(1, c.getValue("b"));
+        assertFalse(c.getBool("in"));
+    }
+
+    /**
+     * Confirm CASE selectors, including a range too wide to enumerate as switch
+     * labels.
+     */
+    @Test
+    void caseOf() throws Exception {
+        final CaseOf st = new CaseOf("x");
+        for (int i = 1; i <= 3; i++) {
+            st.addCase(i, "out := 10;");
+        }
+        st.addCase(5, "out := 50;");
+        st.addElse(Arrays.asList("out := -1;"));
+        final List<String> lines = new ArrayList<>(st.getLines());
+        lines.addAll(Arrays.asList("CASE x OF", "100..100000:", "arr[0] := 1;", "ELSE", "arr[0] := 0;",
+                "END_CASE;"));
+        final CompiledAoi c = logic(lines.toArray(new String[0]));
+
+        for (final int[] v : new int[][] { { 0, -1, 0 }, { 1, 10, 0 }, { 3, 10, 0 }, { 4, -1, 0 }, { 5, 50, 0 },
+                { 100, -1, 1 }, { 100000, -1, 1 }, { 100001, -1, 0 } }) {
+            c.setValue("x", v[0]);
+            c.scan();
+            assertEquals(v[1], c.getValue("out"), "x = " + v[0]);
+            assertEquals(v[2], c.getValue("arr", 0), "x = " + v[0]);
+        }
+    }
+
+    /**
+     * Confirm EXIT terminates only the loop containing it, including from within
+     * a CASE statement.
+     */
+    @Test
+    void exit() throws Exception {
+        final CaseOf exit = new CaseOf("x");
+        exit.addCase(3, "EXIT;");
+        final WhileDo st = new WhileDo("x < 10");
+        st.addStatements("arr[x] := x * 2;");
+        st.addStatements(exit.getLines());
+        st.addStatements("x := x + 1;");
+        final CompiledAoi c = logic(st.getLines().toArray(new String[0]));
+
+        c.scan();
+        assertEquals(3, c.getValue("x"));
+        assertEquals(4, c.getValue("arr", 2));
+        assertEquals(6, c.getValue("arr", 3));
+    }
+
+    /**
+     * Confirm a routine too large for a single method is split without altering
+     * execution order, including around an EXIT that cannot be moved.
+     */
+    @Test
+    void largeRoutine() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        final IfThen exit = new IfThen();
+        exit.addCase("out = 301", "EXIT;");
+        lines.add("WHILE out < 1000 DO");
+        for (int i = 0; i < 5 * JavaSource.MAX_METHOD_WEIGHT; i++) {
+            lines.add("out := out + 1;");
+            if (i == 100) {
+                lines.addAll(exit.getLines());
+            }
+        }
+        lines.add("END_WHILE;");
+        final CompiledAoi c = logic(lines.toArray(new String[0]));
+
+        c.scan();
+        assertEquals(301, c.getValue("out"));
+    }
+
+    /**
+     * Confirm a CASE with a selector per state of a large state machine, each
+     * holding an IF clause per event, is split across methods without altering
+     * the statements executed.
+     */
+    @Test
+    void largeCase() throws Exception {
+        final int selectors = 500;
+        final int clauses = 8;
+        final CaseOf st = new CaseOf("x");
+        for (int i = 0; i < selectors; i++) {
+            final IfThen dispatch = new IfThen();
+            for (int j = 0; j < clauses; j++) {
+                dispatch.addCase("y = " + j, "out := " + ((i * clauses) + j) + ";");
+            }
+            dispatch.addElse("out := " + (100000 + i) + ";");
+            st.addCase(i, dispatch.getLines());
+        }
+        st.addElse(Arrays.asList("out := -1;"));
+        aoi.addLocalTag("y", DataType.DINT);
+        final CompiledAoi c = logic(st.getLines().toArray(new String[0]));
+
+        for (int x = -1; x <= selectors; x++) {
+            for (int y = 0; y <= clauses; y++) {
+                c.setValue("x", x);
+                c.setValue("y", y);
+                c.scan();
+                final int expected = ((x < 0) || (x == selectors)) ? -1
+                        : (y < clauses) ? ((x * clauses) + y) : (100000 + x);
+                assertEquals(expected, c.getValue("out"), "x = " + x + ", y = " + y);
+            }
+        }
+    }
+
+    /**
+     * Confirm an IF with more clauses than fit in a single method is split
+     * without altering the clause executed.
+     */
+    @Test
+    void largeIf() throws Exception {
+        final int clauses = 500;
+        final IfThen st = new IfThen();
+        for (int i = 0; i < clauses; i++) {
+            st.addCase("x = " + i, "out := " + (i * 2) + ";");
+        }
+        st.addElse("out := -1;");
+        final CompiledAoi c = logic(st.getLines().toArray(new String[0]));
+
+        for (int x = -1; x <= clauses; x++) {
+            c.setValue("x", x);
+            c.scan();
+            assertEquals(((x < 0) || (x == clauses)) ? -1 : (x * 2), c.getValue("out"), "x = " + x);
+        }
+    }
+
+    /**
+     * Confirm faults raised by the interpreter are also raised when compiled.
+     */
+    @Test
+    void faults() throws Exception {
+        assertThrows(MajorFaultException.class, () -> logic(Halt.getLines().toArray(new String[0])).scan());
+        setUp();
+        assertThrows(MajorFaultException.class, () -> logic("x := 1 / x;").scan());
+        setUp();
+        assertThrows(MajorFaultException.class, () -> logic("WHILE 1 = 1 DO", "x := x + 1;", "END_WHILE;").scan());
+    }
+
+    /**
+     * Confirm the routine executed depends on the method called.
+     */
+    @Test
+    void scanModes() throws Exception {
+        aoi.addStructuredTextLine(ScanModeRoutine.Prescan, "x := 1;");
+        aoi.addStructuredTextLine(ScanModeRoutine.EnableInFalse, "x := 2;");
+        final CompiledAoi c = logic("x := 3;");
+
+        c.prescan();
+        assertEquals(1, c.getValue("x"));
+        c.enableInFalse();
+        assertEquals(2, c.getValue("x"));
+        assertFalse(c.getBool("EnableOut"));
+        c.scan();
+        assertEquals(3, c.getValue("x"));
+        assertTrue(c.getBool("EnableOut"));
+    }
+
+    /**
+     * Confirm instances are independent, and handles access the same tags as
+     * names.
+     */
+    @Test
+    void instances() throws Exception {
+        final CompiledAoi c1 = logic("out := out + 1;");
+        final CompiledAoi c2 = c1.newInstance();
+        final int out = c1.getHandle("OUT");
+
+        c1.scan();
+        c1.scan();
+        c2.scan();
+        assertEquals(2, c1.getValue(out));
+        assertEquals(1, c2.getValue("out"));
+
+        c1.setValue(out, 10);
+        assertEquals(10, c1.getValue("out"));
+        c1.reset();
+        assertEquals(0, c1.getValue("out"));
+    }
+
+    /**
+     * Confirm invalid tag accesses are rejected.
+     */
+    @Test
+    void invalidAccess() throws Exception {
+        final CompiledAoi c = logic();
+        assertThrows(IllegalArgumentException.class, () -> c.getValue("y"));
+        assertThrows(IllegalArgumentException.class, () -> c.getValue("arr"));
+        assertThrows(IllegalArgumentException.class, () -> c.getValue("arr", 4));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.interpreter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelio.logixuml.l5x.AddOnInstruction;
+import org.modelio.logixuml.l5x.DataType;
+import org.modelio.logixuml.l5x.ScanModeRoutine;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+
+/**
+ * Unit tests for static scan cost estimates.
+ */
+class ScanCostTests {
+    private AddOnInstruction aoi;
+
+    @BeforeEach
+    void setUp() throws ExportException {
+        aoi = new AddOnInstruction("test");
+        aoi.addLocalTag("x", DataType.DINT);
+        aoi.addLocalTag("arr", DataType.DINT, 4);
+    }
+
+    /**
+     * Estimates the logic routine cost.
+     *
+     * @param loopIterations Maximum loop iterations.
+     * @param lines          Logic routine lines.
+     * @return The logic routine cost.
+     */
+    private ScanCost logic(final int loopIterations, final String... lines) throws ParseException {
+        aoi.addStructuredTextLines(ScanModeRoutine.Logic, Arrays.asList(lines));
+        return ScanCost.estimate(aoi, loopIterations).get(ScanModeRoutine.Logic);
+    }
+
+    /**
+     * Confirm assignments count operators and subscripts as instructions.
+     */
+    @Test
+    void assignment() throws Exception {
+        final ScanCost c = logic(1, "x := 1;", "arr[x + 1] := -x * 2;");
+        assertEquals(2, c.getWorstStatements());
+        assertEquals(2.0, c.getTypicalStatements());
+        assertEquals(1 + 5, c.getWorstInstructions());
+        assertEquals(6.0, c.getTypicalInstructions());
+    }
+
+    /**
+     * Confirm IF takes the most expensive clause in the worst case and averages
+     * the clauses, including an implied empty ELSE, in the typical case.
+     */
+    @Test
+    void ifThen() throws Exception {
+        final ScanCost c = logic(1, "IF x = 1 THEN", "x := 2;", "x := 3;", "ELSIF x = 2 THEN", "x := 4;",
+                "END_IF;");
+
+        // Paths: 2 tests + 2 statements, 4 tests + 1 statement, 4 tests.
+        assertEquals(3, c.getWorstStatements());
+        assertEquals(1 + (2 + 1 + 0) / 3.0, c.getTypicalStatements(), 1e-9);
+        assertEquals(5, c.getWorstInstructions());
+        assertEquals((4 + 5 + 4) / 3.0, c.getTypicalInstructions(), 1e-9);
+    }
+
+    /**
+     * Confirm CASE selects among its clauses and the ELSE clause.
+     */
+    @Test
+    void caseOf() throws Exception {
+        final ScanCost c = logic(1, "CASE x + 1 OF", "1:", "x := 2;", "x := 3;", "2..5:", "x := 4;", "END_CASE;");
+        assertEquals(3, c.getWorstStatements());
+        assertEquals(1 + 1.0, c.getTypicalStatements(), 1e-9);
+        assertEquals(2 + 2, c.getWorstInstructions());
+        assertEquals(2 + 1.0, c.getTypicalInstructions(), 1e-9);
+    }
+
+    /**
+     * Confirm loops iterate the maximum number of times in the worst case, and
+     * once in the typical case.
+     */
+    @Test
+    void whileDo() throws Exception {
+        final ScanCost c = logic(3, "WHILE x < 10 DO", "x := x + 1;", "END_WHILE;");
+        assertEquals(1 + 3, c.getWorstStatements());
+        assertEquals(2.0, c.getTypicalStatements());
+        assertEquals((2 * 4) + (2 * 3), c.getWorstInstructions());
+        assertEquals(2 + 2.0, c.getTypicalInstructions());
+    }
+
+    /**
+     * Confirm every routine is estimated.
+     */
+    @Test
+    void allRoutines() throws Exception {
+        aoi.addStructuredTextLine(ScanModeRoutine.Prescan, "x := 0;");
+        assertEquals(3, ScanCost.estimate(aoi, 1).size());
+        assertEquals(1, ScanCost.estimate(aoi, 1).get(ScanModeRoutine.Prescan).getWorstStatements());
+        assertEquals(0, ScanCost.estimate(aoi, 1).get(ScanModeRoutine.EnableInFalse).getWorstStatements());
+    }
+}
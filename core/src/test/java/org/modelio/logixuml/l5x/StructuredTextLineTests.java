@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.l5x;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Unit tests for structured text lines written to routines.
+ */
+class StructuredTextLineTests {
+    /**
+     * Directory receiving the exported L5X file.
+     */
+    @TempDir
+    Path dir;
+
+    private AddOnInstruction aoi;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        aoi = new AddOnInstruction("aoi");
+    }
+
+    /**
+     * Confirm lines are numbered sequentially from zero in the order they were
+     * added.
+     */
+    @Test
+    void lineNumbers() throws Exception {
+        final List<String> expected = Arrays.asList("a := 1;", "b := 2;", "c := 3;");
+        aoi.addStructuredTextLines(ScanModeRoutine.Logic, expected);
+
+        final NodeList lines = getLines(ScanModeRoutine.Logic);
+        assertEquals(expected.size(), lines.getLength());
+        for (int i = 0; i < lines.getLength(); i++) {
+            final Element line = (Element) lines.item(i);
+            assertEquals(Integer.toString(i), line.getAttribute("Number"));
+            assertEquals(expected.get(i), line.getTextContent());
+        }
+    }
+
+    /**
+     * Confirm each routine maintains its own line numbering.
+     */
+    @Test
+    void independentRoutines() throws Exception {
+        aoi.addStructuredTextLine(ScanModeRoutine.Logic, "a := 1;");
+        aoi.addStructuredTextLine(ScanModeRoutine.Prescan, "b := 2;");
+        aoi.addStructuredTextLine(ScanModeRoutine.Logic, "c := 3;");
+
+        assertEquals(Arrays.asList("a := 1;", "c := 3;"), getContent(ScanModeRoutine.Logic));
+        assertEquals(Arrays.asList("b := 2;"), getContent(ScanModeRoutine.Prescan));
+        assertEquals(new ArrayList<String>(), getContent(ScanModeRoutine.EnableInFalse));
+    }
+
+    /**
+     * Confirm empty lines are replaced with a single space.
+     */
+    @Test
+    void emptyLine() throws Exception {
+        aoi.addStructuredTextLine(ScanModeRoutine.Logic, "");
+        assertEquals(Arrays.asList(" "), getContent(ScanModeRoutine.Logic));
+    }
+
+    /**
+     * Confirm writing the same AOI more than once does not duplicate lines.
+     */
+    @Test
+    void multipleWrites() throws Exception {
+        aoi.addStructuredTextLine(ScanModeRoutine.Logic, "a := 1;");
+        aoi.write(dir.toString());
+        assertEquals(Arrays.asList("a := 1;"), getContent(ScanModeRoutine.Logic));
+    }
+
+    /**
+     * Writes the AOI and extracts the text of every line in a routine.
+     *
+     * @param routine Target routine.
+     * @return Line content in document order.
+     */
+    private List<String> getContent(final ScanModeRoutine routine) throws Exception {
+        final NodeList lines = getLines(routine);
+        final List<String> content = new ArrayList<>();
+        for (int i = 0; i < lines.getLength(); i++) {
+            content.add(lines.item(i).getTextContent());
+        }
+        return content;
+    }
+
+    /**
+     * Writes the AOI and parses the resulting L5X file to locate the Line elements
+     * in a routine.
+     *
+     * @param routine Target routine.
+     * @return Line elements in document order.
+     */
+    private NodeList getLines(final ScanModeRoutine routine) throws Exception {
+        aoi.write(dir.toString());
+        final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(dir.resolve("aoi.L5X").toFile());
+
+        final NodeList routines = doc.getElementsByTagName("Routine");
+        for (int i = 0; i < routines.getLength(); i++) {
+            final Element e = (Element) routines.item(i);
+            if (e.getAttribute("Name").equals(routine.name())) {
+                return e.getElementsByTagName("Line");
+            }
+        }
+
+        throw new AssertionError(routine);
+    }
+}
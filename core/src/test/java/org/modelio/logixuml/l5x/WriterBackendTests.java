@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.l5x;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+
+/**
+ * Unit tests confirming every writer backend generates identical L5X content.
+ */
+class WriterBackendTests {
+    private AddOnInstruction aoi;
+
+    @BeforeEach
+    void setUp() throws ExportException {
+        aoi = new AddOnInstruction("aoi");
+    }
+
+    /**
+     * Confirm an AOI with no parameters, local tags, or routine content.
+     */
+    @Test
+    void empty() throws ExportException {
+        assertIdentical();
+    }
+
+    /**
+     * Confirm an AOI with parameters, both with and without descriptions, and
+     * local tags, both scalar and array.
+     */
+    @Test
+    void tags() throws ExportException {
+        aoi.addParameter("in", ParameterUsage.Input, DataType.BOOL, true, "Input description.");
+        aoi.addParameter("out", ParameterUsage.Output, DataType.DINT, false);
+        aoi.addLocalTag("scalar", DataType.BOOL);
+        aoi.addLocalTag("array", DataType.DINT, 4);
+        assertIdentical();
+    }
+
+    /**
+     * Confirm structured text lines in every routine, including empty lines.
+     */
+    @Test
+    void routines() throws ExportException {
+        aoi.addStructuredTextLine(ScanModeRoutine.Prescan, "x := 0;");
+        aoi.addStructuredTextLine(ScanModeRoutine.Logic, "IF a < b AND c > d THEN");
+        aoi.addStructuredTextLine(ScanModeRoutine.Logic, "");
+        aoi.addStructuredTextLine(ScanModeRoutine.Logic, "END_IF;");
+        aoi.addStructuredTextLine(ScanModeRoutine.EnableInFalse, "x := 1;");
+        assertIdentical();
+    }
+
+    /**
+     * Confirm content containing the CDATA terminator, which must be split into
+     * multiple CDATA sections.
+     */
+    @Test
+    void cdataTerminator() throws ExportException {
+        aoi.addParameter("p", ParameterUsage.Input, DataType.BOOL, true, "a]]>b]]]]>c");
+        aoi.addStructuredTextLine(ScanModeRoutine.Logic, "// ]]>");
+        assertIdentical();
+    }
+
+    /**
+     * Writes the AOI with each backend and confirms the results are the same.
+     */
+    private void assertIdentical() throws ExportException {
+        final byte[] expected = write(WriterBackend.DOM);
+        for (final WriterBackend backend : WriterBackend.values()) {
+            assertArrayEquals(expected, write(backend), backend.name());
+        }
+    }
+
+    /**
+     * Writes the AOI with a given backend.
+     *
+     * @param backend Selected writer backend.
+     * @return The L5X content.
+     */
+    private byte[] write(final WriterBackend backend) throws ExportException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        aoi.setWriterBackend(backend);
+        aoi.write(out);
+        return out.toByteArray();
+    }
+}
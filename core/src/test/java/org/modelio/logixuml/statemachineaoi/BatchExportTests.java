@@ -0,0 +1,224 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Unit tests for exporting multiple AOIs, both serially and in parallel.
+ */
+class BatchExportTests {
+    /**
+     * Directory receiving the exported L5X files.
+     */
+    @TempDir
+    Path dir;
+
+    /**
+     * State machines to be exported, keyed by name.
+     */
+    private final Map<String, ModelSnapshot> snapshots = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 4; i++) {
+            snapshots.put("sm" + i, snapshot("sm" + i));
+        }
+    }
+
+    /**
+     * Confirm every AOI is written.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 8 })
+    void allWritten(final int threads) {
+        final Map<String, ExportException> errors = new BatchExport(threads).export(snapshots, dir.toString());
+
+        assertTrue(errors.isEmpty());
+        for (final String name : snapshots.keySet()) {
+            assertTrue(Files.exists(l5x(name)), name);
+            assertTrue(Files.exists(dir.resolve("stateMachine_" + name + ".cost.json")), name);
+        }
+    }
+
+    /**
+     * Confirm an error is reported for every AOI that could not be written, in
+     * the same order as the source snapshots.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 8 })
+    void errorPerAoi(final int threads) {
+        final String missingDir = dir.resolve("missing").toString();
+        final Map<String, ExportException> errors = new BatchExport(threads).export(snapshots, missingDir);
+        assertEquals(new ArrayList<>(snapshots.keySet()), new ArrayList<>(errors.keySet()));
+    }
+
+    /**
+     * Confirm a state machine that cannot be generated is reported without
+     * preventing the others from being written.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 8 })
+    void generationError(final int threads) {
+        snapshots.put("sm1", snapshot("not a valid name"));
+        final TestMonitor monitor = new TestMonitor(Integer.MAX_VALUE);
+        final Map<String, ExportException> errors = new BatchExport(threads).export(snapshots, dir.toString(),
+                monitor);
+
+        assertEquals(Collections.singletonList("sm1"), new ArrayList<>(errors.keySet()));
+        assertTrue(monitor.exported.containsKey("sm1"));
+        assertNull(monitor.exported.get("sm1"));
+        for (final String name : new String[] { "sm0", "sm2", "sm3" }) {
+            assertTrue(Files.exists(l5x(name)), name);
+        }
+    }
+
+    /**
+     * Confirm the monitor is notified once for every state machine with the
+     * generated AOI.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 8 })
+    void monitorNotified(final int threads) {
+        final TestMonitor monitor = new TestMonitor(Integer.MAX_VALUE);
+        new BatchExport(threads).export(snapshots, dir.toString(), monitor);
+
+        assertEquals(snapshots.keySet(), monitor.exported.keySet());
+        for (final Map.Entry<String, StateMachineAoi> e : monitor.exported.entrySet()) {
+            assertEquals("stateMachine_" + e.getKey(), e.getValue().getName());
+        }
+    }
+
+    /**
+     * Confirm nothing is written if canceled before starting.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 8 })
+    void canceledBeforeStart(final int threads) {
+        final TestMonitor monitor = new TestMonitor(0);
+        final Map<String, ExportException> errors = new BatchExport(threads).export(snapshots, dir.toString(),
+                monitor);
+
+        assertTrue(errors.isEmpty());
+        assertTrue(monitor.exported.isEmpty());
+        for (final String name : snapshots.keySet()) {
+            assertFalse(Files.exists(l5x(name)), name);
+        }
+    }
+
+    /**
+     * Confirm state machines following a cancellation are skipped when exporting
+     * serially.
+     */
+    @Test
+    void canceledSerial() {
+        final TestMonitor monitor = new TestMonitor(2);
+        new BatchExport(1).export(snapshots, dir.toString(), monitor);
+
+        final List<String> names = new ArrayList<>(snapshots.keySet());
+        assertEquals(names.subList(0, 2), new ArrayList<>(monitor.exported.keySet()));
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(i < 2, Files.exists(l5x(names.get(i))), names.get(i));
+        }
+    }
+
+    /**
+     * Monitor recording exported AOIs, and canceling after a given number of
+     * state machines have been exported.
+     */
+    private static class TestMonitor implements BatchExport.Monitor {
+        /**
+         * Number of state machines to export before canceling.
+         */
+        private final int limit;
+
+        /**
+         * AOIs reported as exported, keyed by state machine name in the order
+         * reported.
+         */
+        final Map<String, StateMachineAoi> exported = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        /**
+         * Constructor.
+         *
+         * @param limit Number of state machines to export before canceling.
+         */
+        TestMonitor(final int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return exported.size() >= limit;
+        }
+
+        @Override
+        public void exported(final String name, final StateMachineAoi aoi) {
+            exported.put(name, aoi);
+        }
+    }
+
+    /**
+     * Locates the L5X file written for a state machine.
+     *
+     * @param name State machine name.
+     * @return Path to the L5X file.
+     */
+    private Path l5x(final String name) {
+        return dir.resolve("stateMachine_" + name + ".L5X");
+    }
+
+    /**
+     * Creates a state machine snapshot with the bare minimum components.
+     *
+     * @param name Name to assign to the state machine.
+     * @return The state machine snapshot.
+     */
+    private static ModelSnapshot snapshot(final String name) {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("eventQueueSize", "1");
+        properties.put("transitionScanMode", TransitionScanMode.SEQUENTIAL.name());
+        final ModelSnapshot.Builder builder = new ModelSnapshot.Builder(name, name, properties);
+        final Object state = new Object();
+        builder.addState(state, "state", ModelSnapshot.STATE_MACHINE);
+        builder.setRegions(ModelSnapshot.STATE_MACHINE, 1, new Object());
+        final int initial = builder.addInitial(ModelSnapshot.STATE_MACHINE, new Object());
+        builder.addInitialTransition(ModelSnapshot.STATE_MACHINE, initial, new Object(), state, "Standard.State", "");
+        return builder.build();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.modelio.logixuml.l5x.AddOnInstruction;
+
+/**
+ * Unit tests for the configuration of the event queue.
+ */
+class EventQueueTests {
+    /**
+     * Confirm diagnostics and priority bands produce the same tags regardless of
+     * the order they are applied.
+     */
+    @Test
+    void diagnosticsBeforePriorities() throws ExportException {
+        final AddOnInstruction prioritiesFirst = new AddOnInstruction("aoi");
+        final EventQueue q1 = new EventQueue(prioritiesFirst, 4);
+        q1.prioritize(2);
+        q1.enableDiagnostics();
+
+        final AddOnInstruction diagnosticsFirst = new AddOnInstruction("aoi");
+        final EventQueue q2 = new EventQueue(diagnosticsFirst, 4);
+        q2.enableDiagnostics();
+        q2.prioritize(2);
+
+        final Set<String> tags = localTags(diagnosticsFirst);
+        assertEquals(localTags(prioritiesFirst), tags);
+        assertTrue(tags.contains("qwb2"), "Missing timestamp array for the highest band.");
+    }
+
+    /**
+     * Acquires the names of all local tags defined in an AOI.
+     *
+     * @param aoi Target AOI.
+     * @return Local tag names.
+     */
+    private Set<String> localTags(final AddOnInstruction aoi) {
+        return aoi.getLocalTags().stream() //
+                .map(AddOnInstruction.LocalTag::getName) //
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
@@ -0,0 +1,650 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.modelio.logixuml.interpreter.AoiInterpreter;
+import org.modelio.logixuml.interpreter.CompiledAoi;
+import org.modelio.logixuml.l5x.AddOnInstruction;
+
+/**
+ * Executes generated add-on instructions with the structured text interpreter,
+ * confirming the state outputs respond to events. The state machine has a
+ * top-level state A, and a super-state B containing B1 and B2:
+ *
+ * <pre>
+ *   initial -> A
+ *   A --go--> B, entering B1 via B's initial transition
+ *   B1 --next--> B2
+ *   B --back--> A
+ *   B2 --reset--> A
+ * </pre>
+ */
+class StateMachineSimulationTests {
+    /**
+     * Names of every state in the model.
+     */
+    private static final String[] STATES = { "A", "B", "B1", "B2" };
+
+    /**
+     * Names of every event in the model.
+     */
+    private static final String[] EVENTS = { "go", "next", "back", "reset" };
+
+    /**
+     * Number of states in the large, flat model.
+     */
+    private static final int LARGE_STATES = 500;
+
+    /**
+     * Number of events each state of the large model responds to.
+     */
+    private static final int LARGE_EVENTS = 8;
+
+    /**
+     * Metaclass of every transition target.
+     */
+    private static final String STATE_TYPE = "Standard.State";
+
+    /**
+     * Number of scans executed after each event, enough for any transition to
+     * complete in every scan mode.
+     */
+    private static final int SETTLE_SCANS = 4;
+
+    /**
+     * Confirm the active states after a sequence of events.
+     */
+    @ParameterizedTest
+    @EnumSource(TransitionScanMode.class)
+    void activeStates(final TransitionScanMode mode) throws Exception {
+        final AoiInterpreter it = interpreter(mode, "false", "false");
+        it.prescan();
+
+        settle(it);
+        assertActive(it, "A");
+
+        event(it, "go");
+        assertActive(it, "B", "B1");
+
+        event(it, "next");
+        assertActive(it, "B", "B2");
+
+        event(it, "reset");
+        assertActive(it, "A");
+
+        event(it, "go");
+        event(it, "back");
+        assertActive(it, "A");
+    }
+
+    /**
+     * Confirm condition merging and delta outputs do not alter the outputs of any
+     * scan.
+     */
+    @ParameterizedTest
+    @EnumSource(TransitionScanMode.class)
+    void optionsEquivalent(final TransitionScanMode mode) throws Exception {
+        final List<String> expected = trace(interpreter(mode, "false", "false"));
+        assertEquals(expected, trace(interpreter(mode, "true", "false")));
+        assertEquals(expected, trace(interpreter(mode, "false", "true")));
+        assertEquals(expected, trace(interpreter(mode, "true", "true")));
+    }
+
+    /**
+     * Confirm the compiled AOI produces the same outputs as the interpreter for
+     * random events.
+     */
+    @ParameterizedTest
+    @EnumSource(TransitionScanMode.class)
+    void compiledEquivalent(final TransitionScanMode mode) throws Exception {
+        assumeTrue(ToolProvider.getSystemJavaCompiler() != null, "Requires a JDK.");
+        final AddOnInstruction aoi = generate(mode, "true", "true");
+        final AoiInterpreter it = new AoiInterpreter(aoi);
+        final CompiledAoi compiled = CompiledAoi.compile(aoi);
+        it.prescan();
+        compiled.prescan();
+
+        final Random random = new Random(0);
+        for (int scan = 0; scan < 1000; scan++) {
+            // Events are spaced to avoid overflowing the queue.
+            final int event = ((scan % (SETTLE_SCANS + 1)) == 0) ? random.nextInt(EVENTS.length + 1) : -1;
+            for (int i = 0; i < EVENTS.length; i++) {
+                it.setBool("event_" + EVENTS[i], i == event);
+                compiled.setBool("event_" + EVENTS[i], i == event);
+            }
+            it.scan(true);
+            compiled.scan();
+            for (final String s : STATES) {
+                for (final String output : new String[] { "stateEntry_", "stateDo_", "stateExit_", "stateActive_" }) {
+                    assertEquals(it.getValue(output + s), compiled.getValue(output + s), output + s);
+                }
+            }
+        }
+    }
+
+    /**
+     * Confirm a machine with hundreds of states compiles, despite its routine far
+     * exceeding the size of a single method, and produces the same outputs as the
+     * interpreter.
+     */
+    @ParameterizedTest
+    @EnumSource(TransitionScanMode.class)
+    void compiledLargeMachine(final TransitionScanMode mode) throws Exception {
+        assumeTrue(ToolProvider.getSystemJavaCompiler() != null, "Requires a JDK.");
+        for (final String options : new String[] { "false", "true" }) {
+            final Map<String, String> props = properties(mode);
+            props.put("eventQueueSize", "16");
+            props.put("mergeConditions", options);
+            props.put("deltaOutputs", options);
+            final AddOnInstruction aoi = new StateMachineAoi(largeModel(props)).getAddOnInstruction();
+            final AoiInterpreter it = new AoiInterpreter(aoi);
+            final CompiledAoi compiled = CompiledAoi.compile(aoi);
+            it.prescan();
+            compiled.prescan();
+
+            final Random random = new Random(0);
+            for (int scan = 0; scan < 200; scan++) {
+                final int event = ((scan % (SETTLE_SCANS + 1)) == 0) ? random.nextInt(LARGE_EVENTS + 1) : -1;
+                for (int i = 0; i < LARGE_EVENTS; i++) {
+                    it.setBool("event_e" + i, i == event);
+                    compiled.setBool("event_e" + i, i == event);
+                }
+                it.scan(true);
+                compiled.scan();
+                for (int i = 0; i < LARGE_STATES; i++) {
+                    assertEquals(it.getValue("stateActive_s" + i), compiled.getValue("stateActive_s" + i), "s" + i);
+                    assertEquals(it.getValue("stateDo_s" + i), compiled.getValue("stateDo_s" + i), "s" + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Confirm the queue indices wrap around correctly for capacities wrapped by
+     * comparison and by bit mask.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "3", "4" })
+    void queueWrap(final String size) throws Exception {
+        final Map<String, String> props = properties(TransitionScanMode.SINGLE);
+        props.put("eventQueueSize", size);
+        final AoiInterpreter it = interpreter(props);
+        it.prescan();
+        settle(it);
+
+        // Enough events to pass through every queue slot several times.
+        for (int i = 0; i < 5; i++) {
+            event(it, "go");
+            assertActive(it, "B", "B1");
+            event(it, "next");
+            assertActive(it, "B", "B2");
+            event(it, "reset");
+            assertActive(it, "A");
+        }
+    }
+
+    /**
+     * Confirm events beyond the per-scan budget are deferred to following scans,
+     * and the deferral is counted.
+     */
+    @ParameterizedTest
+    @EnumSource(TransitionScanMode.class)
+    void eventBudget(final TransitionScanMode mode) throws Exception {
+        final Map<String, String> props = properties(mode);
+        props.put("eventQueueSize", "4");
+        props.put("eventBudget", "1");
+        final AoiInterpreter it = interpreter(props);
+        it.prescan();
+        settle(it);
+
+        // Events are queued in name order, so back, which is ignored in A, is
+        // evaluated alone in the first scan, deferring go.
+        it.setBool("event_back", true);
+        it.setBool("event_go", true);
+        it.scan(true);
+        assertActive(it, "A");
+        assertEquals(1, it.getValue("eventQ_budgetHits"));
+
+        it.setBool("event_back", false);
+        it.setBool("event_go", false);
+        settle(it);
+        assertActive(it, "B", "B1");
+        assertEquals(1, it.getValue("eventQ_budgetHits"));
+    }
+
+    /**
+     * Confirm an event already waiting in the queue is not queued again when
+     * coalescing is enabled.
+     */
+    @ParameterizedTest
+    @EnumSource(TransitionScanMode.class)
+    void coalesceEvents(final TransitionScanMode mode) throws Exception {
+        final Map<String, String> props = properties(mode);
+        props.put("eventQueueSize", "3");
+        props.put("eventBudget", "1");
+        props.put("coalesceEvents", "true");
+        final AoiInterpreter it = interpreter(props);
+        it.prescan();
+        settle(it);
+
+        // Queue three events ignored in A; one is evaluated per scan, leaving
+        // next and reset waiting.
+        it.setBool("event_back", true);
+        it.setBool("event_next", true);
+        it.setBool("event_reset", true);
+        it.scan(true);
+        it.setBool("event_back", false);
+        it.setBool("event_next", false);
+        it.setBool("event_reset", false);
+        it.scan(true);
+        assertEquals(2, it.getValue("eventQ_budgetHits"));
+
+        // The repeated reset is discarded, so the queue is empty once the
+        // waiting reset is evaluated.
+        it.setBool("event_reset", true);
+        it.scan(true);
+        assertEquals(2, it.getValue("eventQ_budgetHits"));
+        it.setBool("event_reset", false);
+
+        event(it, "go");
+        assertActive(it, "B", "B1");
+        assertEquals(2, it.getValue("eventQ_budgetHits"));
+    }
+
+    /**
+     * Confirm events in a higher priority band are evaluated before events queued
+     * ahead of them in a lower band.
+     */
+    @ParameterizedTest
+    @EnumSource(TransitionScanMode.class)
+    void eventPriorities(final TransitionScanMode mode) throws Exception {
+        final Map<String, String> props = properties(mode);
+        props.put("eventQueueSize", "2");
+        props.put("eventPriorities", "go");
+        final AoiInterpreter it = interpreter(props);
+        it.prescan();
+        settle(it);
+
+        // Back is queued first by name order, but go is evaluated first, entering
+        // B, and the deferred back then returns to A.
+        it.setBool("event_back", true);
+        it.setBool("event_go", true);
+        it.scan(true);
+        it.setBool("event_back", false);
+        it.setBool("event_go", false);
+        settle(it);
+        settle(it);
+        assertActive(it, "A");
+    }
+
+    /**
+     * Confirm priorities naming an event not used by any transition are rejected.
+     */
+    @Test
+    void eventPrioritiesUndefined() {
+        final Map<String, String> props = properties(TransitionScanMode.SINGLE);
+        props.put("eventPriorities", "go; stop");
+        assertThrows(ExportException.class, () -> new StateMachineAoi(model(props)));
+    }
+
+    /**
+     * Confirm overflow policies that do not halt discard the expected event and
+     * count it.
+     *
+     * @param policy   Overflow policy property value.
+     * @param expected States active after the overflow.
+     * @param latched  Expected overflow output state.
+     */
+    @ParameterizedTest
+    @CsvSource({ "DROP_NEWEST, B1, false", "DROP_OLDEST, B2, false", "LATCH, B1, true" })
+    void overflowPolicy(final String policy, final String expected, final boolean latched) throws Exception {
+        final Map<String, String> props = properties(TransitionScanMode.SINGLE);
+        props.put("eventQueueSize", "2");
+        props.put("overflowPolicy", policy);
+        props.put("coalesceEvents", "true");
+        final AoiInterpreter it = interpreter(props);
+        it.prescan();
+        settle(it);
+
+        // Back and go fill the queue in name order, so next overflows. Dropping
+        // the newest loses next; dropping the oldest loses back.
+        it.setBool("event_back", true);
+        it.setBool("event_go", true);
+        it.setBool("event_next", true);
+        it.scan(true);
+        it.setBool("event_back", false);
+        it.setBool("event_go", false);
+        it.setBool("event_next", false);
+        settle(it);
+        assertActive(it, "B", expected);
+        assertEquals(1, it.getValue("eventQ_dropped"));
+        assertEquals(latched, it.getBool("eventQ_overflow"));
+
+        // The discarded event must not be left flagged as pending.
+        event(it, "next");
+        assertActive(it, "B", "B2");
+        event(it, "back");
+        assertActive(it, "A");
+    }
+
+    /**
+     * Confirm the diagnostic outputs count queued, evaluated, and unmatched events,
+     * triggered transitions, and the longest wait.
+     */
+    @ParameterizedTest
+    @EnumSource(TransitionScanMode.class)
+    void diagnostics(final TransitionScanMode mode) throws Exception {
+        final Map<String, String> props = properties(mode);
+        props.put("eventQueueSize", "2");
+        props.put("diagnostics", "true");
+        final AoiInterpreter it = interpreter(props);
+        it.prescan();
+        settle(it);
+
+        // Back is ignored in A and go is then evaluated in the same scan.
+        it.setBool("event_back", true);
+        it.setBool("event_go", true);
+        it.scan(true);
+        it.setBool("event_back", false);
+        it.setBool("event_go", false);
+        settle(it);
+        assertActive(it, "B", "B1");
+        assertDiagnostics(it, 2, 1, 1, 0);
+
+        // Reset must wait for the transition triggered by next to complete.
+        it.setBool("event_next", true);
+        it.setBool("event_reset", true);
+        it.scan(true);
+        it.setBool("event_next", false);
+        it.setBool("event_reset", false);
+        settle(it);
+        settle(it);
+        assertActive(it, "A");
+        assertDiagnostics(it, 4, 1, 3, (mode == TransitionScanMode.SINGLE) ? 1 : 2);
+    }
+
+    /**
+     * Confirms the values of the diagnostic outputs.
+     *
+     * @param it          The interpreter.
+     * @param events      Expected number of events queued and evaluated.
+     * @param unmatched   Expected number of events not triggering a transition.
+     * @param transitions Expected number of triggered transitions.
+     * @param maxWait     Expected longest wait, in scans.
+     */
+    private static void assertDiagnostics(final AoiInterpreter it, final int events, final int unmatched,
+            final int transitions, final int maxWait) {
+        assertEquals(events, it.getValue("eventQ_enqueued"));
+        assertEquals(events, it.getValue("eventQ_consumed"));
+        assertEquals(unmatched, it.getValue("eventQ_unmatched"));
+        assertEquals(transitions, it.getValue("transitionCount"));
+        assertEquals(maxWait, it.getValue("eventQ_maxWait"));
+    }
+
+    /**
+     * Confirm each transition is counted in the array element identified by the
+     * exported mapping file.
+     *
+     * @param dir Directory receiving the exported files.
+     */
+    @Test
+    void transitionCounters(@TempDir final Path dir) throws Exception {
+        final Map<String, String> props = properties(TransitionScanMode.SINGLE);
+        props.put("transitionCounters", "true");
+        final StateMachineAoi aoi = new StateMachineAoi(model(props));
+        aoi.export(dir.toString());
+        final String map = new String(Files.readAllBytes(dir.resolve(aoi.getName() + ".transitions.json")),
+                StandardCharsets.UTF_8);
+
+        final AoiInterpreter it = new AoiInterpreter(aoi.getAddOnInstruction());
+        it.prescan();
+        settle(it);
+        for (int i = 0; i < 3; i++) {
+            event(it, "go");
+            event(it, "back");
+        }
+        event(it, "go");
+        event(it, "next");
+
+        assertEquals(4, it.getValue("txc", counterIndex(map, "A", "go", "B1")));
+        assertEquals(3, it.getValue("txc", counterIndex(map, "B1", "back", "A")));
+        assertEquals(1, it.getValue("txc", counterIndex(map, "B1", "next", "B2")));
+        assertEquals(0, it.getValue("txc", counterIndex(map, "B2", "reset", "A")));
+    }
+
+    /**
+     * Finds the counter array index of a transition in an exported mapping file.
+     *
+     * @param map    Mapping file content.
+     * @param source Source state name.
+     * @param event  Event name.
+     * @param target Target state name.
+     * @return The array index.
+     */
+    private static int counterIndex(final String map, final String source, final String event, final String target) {
+        final Matcher m = Pattern.compile("\"index\": (\\d+), \"source\": \"" + source + "\", \"event\": \"" + event
+                + "\", \"target\": \"" + target + "\"").matcher(map);
+        assertTrue(m.find(), source + " " + event + " " + target);
+        return Integer.parseInt(m.group(1));
+    }
+
+    /**
+     * Generates the AOI and creates an interpreter executing it.
+     *
+     * @param mode  Transition scan mode.
+     * @param merge Condition merging property value.
+     * @param delta Delta outputs property value.
+     * @return The interpreter.
+     */
+    private static AoiInterpreter interpreter(final TransitionScanMode mode, final String merge, final String delta)
+            throws Exception {
+        return new AoiInterpreter(generate(mode, merge, delta));
+    }
+
+    /**
+     * Generates the AOI and creates an interpreter executing it.
+     *
+     * @param properties Stereotype property values.
+     * @return The interpreter.
+     */
+    private static AoiInterpreter interpreter(final Map<String, String> properties) throws Exception {
+        return new AoiInterpreter(new StateMachineAoi(model(properties)).getAddOnInstruction());
+    }
+
+    /**
+     * Generates the AOI.
+     *
+     * @param mode  Transition scan mode.
+     * @param merge Condition merging property value.
+     * @param delta Delta outputs property value.
+     * @return The generated AOI.
+     */
+    private static AddOnInstruction generate(final TransitionScanMode mode, final String merge, final String delta)
+            throws Exception {
+        final Map<String, String> props = properties(mode);
+        props.put("mergeConditions", merge);
+        props.put("deltaOutputs", delta);
+        return new StateMachineAoi(model(props)).getAddOnInstruction();
+    }
+
+    /**
+     * Creates the stereotype property values common to every test.
+     *
+     * @param mode Transition scan mode.
+     * @return Mutable property values keyed by property name.
+     */
+    private static Map<String, String> properties(final TransitionScanMode mode) {
+        final Map<String, String> props = new HashMap<>();
+        props.put("eventQueueSize", "1");
+        props.put("transitionScanMode", mode.toString());
+        return props;
+    }
+
+    /**
+     * Creates the state machine model.
+     *
+     * @param properties Stereotype property values.
+     * @return The state machine snapshot.
+     */
+    private static ModelSnapshot model(final Map<String, String> properties) {
+        final ModelSnapshot.Builder builder = new ModelSnapshot.Builder("sm", "sm", properties);
+        final int a = builder.addState("A", "A", ModelSnapshot.STATE_MACHINE);
+        final int b = builder.addState("B", "B", ModelSnapshot.STATE_MACHINE);
+        final int b1 = builder.addState("B1", "B1", b);
+        final int b2 = builder.addState("B2", "B2", b);
+
+        builder.setRegions(ModelSnapshot.STATE_MACHINE, 1, "top");
+        final int top = builder.addInitial(ModelSnapshot.STATE_MACHINE, "topInitial");
+        builder.addInitialTransition(ModelSnapshot.STATE_MACHINE, top, "topInitialTransition", "A", STATE_TYPE, "");
+        builder.setRegions(b, 1, "sub");
+        final int sub = builder.addInitial(b, "subInitial");
+        builder.addInitialTransition(b, sub, "subInitialTransition", "B1", STATE_TYPE, "");
+
+        builder.addTransition("go", a, "B", STATE_TYPE, "go");
+        builder.addTransition("back", b, "A", STATE_TYPE, "back");
+        builder.addTransition("next", b1, "B2", STATE_TYPE, "next");
+        builder.addTransition("reset", b2, "A", STATE_TYPE, "reset");
+
+        return builder.build();
+    }
+
+    /**
+     * Creates a flat state machine model with many states. Each state has one
+     * transition per event, targeting the states following it.
+     *
+     * @param properties Stereotype property values.
+     * @return The state machine snapshot.
+     */
+    private static ModelSnapshot largeModel(final Map<String, String> properties) {
+        final ModelSnapshot.Builder builder = new ModelSnapshot.Builder("sm", "sm", properties);
+        for (int i = 0; i < LARGE_STATES; i++) {
+            builder.addState("s" + i, "s" + i, ModelSnapshot.STATE_MACHINE);
+        }
+
+        builder.setRegions(ModelSnapshot.STATE_MACHINE, 1, "top");
+        final int top = builder.addInitial(ModelSnapshot.STATE_MACHINE, "topInitial");
+        builder.addInitialTransition(ModelSnapshot.STATE_MACHINE, top, "topInitialTransition", "s0", STATE_TYPE, "");
+
+        for (int i = 0; i < LARGE_STATES; i++) {
+            for (int e = 0; e < LARGE_EVENTS; e++) {
+                builder.addTransition("t" + i + "_" + e, i, "s" + ((i + e + 1) % LARGE_STATES), STATE_TYPE, "e" + e);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Executes scans with no events.
+     *
+     * @param it The interpreter.
+     */
+    private static void settle(final AoiInterpreter it) throws Exception {
+        for (int i = 0; i < SETTLE_SCANS; i++) {
+            it.scan(true);
+        }
+    }
+
+    /**
+     * Delivers an event for a single scan, then executes scans until the
+     * transition completes.
+     *
+     * @param it    The interpreter.
+     * @param event Event name.
+     */
+    private static void event(final AoiInterpreter it, final String event) throws Exception {
+        it.setBool("event_" + event, true);
+        it.scan(true);
+        it.setBool("event_" + event, false);
+        settle(it);
+    }
+
+    /**
+     * Confirms exactly the given states are active, each with only its do action.
+     *
+     * @param it     The interpreter.
+     * @param active Names of the states expected to be active.
+     */
+    private static void assertActive(final AoiInterpreter it, final String... active) {
+        final List<String> expected = new ArrayList<>();
+        final List<String> actual = new ArrayList<>();
+        for (final String s : active) {
+            expected.add(s);
+        }
+        for (final String s : STATES) {
+            if (it.getBool("stateActive_" + s)) {
+                actual.add(s);
+                assertTrue(it.getBool("stateDo_" + s), s);
+            }
+        }
+        assertEquals(expected, actual);
+        assertTrue(it.getBool("active"));
+    }
+
+    /**
+     * Records the state outputs of every scan while delivering each event in turn.
+     *
+     * @param it The interpreter.
+     * @return One entry per scan describing every state output.
+     */
+    private static List<String> trace(final AoiInterpreter it) throws Exception {
+        final List<String> trace = new ArrayList<>();
+        it.prescan();
+        for (final String e : new String[] { "", "go", "next", "reset", "go", "back" }) {
+            for (final String name : EVENTS) {
+                it.setBool("event_" + name, name.equals(e));
+            }
+            for (int i = 0; i <= SETTLE_SCANS; i++) {
+                it.scan(true);
+                final StringBuilder sb = new StringBuilder();
+                for (final String s : STATES) {
+                    sb.append(s).append(it.getValue("stateEntry_" + s)).append(it.getValue("stateDo_" + s))
+                            .append(it.getValue("stateExit_" + s)).append(it.getValue("stateActive_" + s));
+                }
+                trace.add(sb.toString());
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Unit tests for values supplied in the stereotype property table for the
+ * boolean settings. Every case is repeated for each boolean property.
+ */
+class StereotypePropertiesBooleanTests {
+    /**
+     * Method reference acquiring a boolean setting.
+     */
+    @FunctionalInterface
+    private interface Getter {
+        /**
+         * Acquires the setting.
+         *
+         * @param prop Properties containing the setting.
+         * @return The setting.
+         * @throws ExportException If the property value is invalid.
+         */
+        boolean get(StereotypeProperties prop) throws ExportException;
+    }
+
+    /**
+     * Confirm blank and null values disable the setting.
+     */
+    @ParameterizedTest
+    @MethodSource("blankValues")
+    void empty(final String key, final Getter getter, final String value) {
+        assertValue(key, getter, value, false);
+    }
+
+    /**
+     * Confirm values are not case-sensitive and surrounding whitespace is ignored.
+     */
+    @ParameterizedTest
+    @MethodSource("trueValues")
+    void enabled(final String key, final Getter getter, final String value) {
+        assertValue(key, getter, value, true);
+    }
+
+    /**
+     * Confirm an explicit false value disables the setting.
+     */
+    @ParameterizedTest
+    @MethodSource("falseValues")
+    void disabled(final String key, final Getter getter, final String value) {
+        assertValue(key, getter, value, false);
+    }
+
+    /**
+     * Confirm values other than true or false are rejected.
+     */
+    @ParameterizedTest
+    @MethodSource("invalidValues")
+    void undefinedValue(final String key, final Getter getter, final String value) {
+        final StereotypeProperties prop = properties(key, value);
+        assertThrows(ExportException.class, () -> getter.get(prop),
+                "Failure key: " + key + ", value: \"" + value + "\"");
+    }
+
+    /**
+     * Argument source for blank and null values.
+     *
+     * @return Arguments for every boolean property.
+     */
+    private static Stream<Arguments> blankValues() {
+        return withValues("", " \r\t\n", null);
+    }
+
+    /**
+     * Argument source for values enabling the setting.
+     *
+     * @return Arguments for every boolean property.
+     */
+    private static Stream<Arguments> trueValues() {
+        return withValues("true", "TRUE", "tRuE", " true\t");
+    }
+
+    /**
+     * Argument source for values disabling the setting.
+     *
+     * @return Arguments for every boolean property.
+     */
+    private static Stream<Arguments> falseValues() {
+        return withValues("false", "FALSE", " False\r\n");
+    }
+
+    /**
+     * Argument source for invalid values.
+     *
+     * @return Arguments for every boolean property.
+     */
+    private static Stream<Arguments> invalidValues() {
+        return withValues("yes", "1", "foo");
+    }
+
+    /**
+     * Combines each boolean property with a set of values.
+     *
+     * @param values Property values.
+     * @return Arguments of property name, getter, and value.
+     */
+    private static Stream<Arguments> withValues(final String... values) {
+        final Stream<Arguments> properties = Stream.of(
+                Arguments.of("mergeConditions", (Getter) StereotypeProperties::getMergeConditions),
+                Arguments.of("deltaOutputs", (Getter) StereotypeProperties::getDeltaOutputs),
+                Arguments.of("coalesceEvents", (Getter) StereotypeProperties::getCoalesceEvents),
+                Arguments.of("diagnostics", (Getter) StereotypeProperties::getDiagnostics),
+                Arguments.of("transitionCounters", (Getter) StereotypeProperties::getTransitionCounters));
+        return properties.flatMap(p -> Stream.of(values).map(v -> Arguments.of(p.get()[0], p.get()[1], v)));
+    }
+
+    /**
+     * Confirms a property value is accepted and yields the expected setting.
+     *
+     * @param key      Property name.
+     * @param getter   Acquires the setting.
+     * @param value    Property value.
+     * @param expected Expected setting.
+     */
+    private void assertValue(final String key, final Getter getter, final String value, final boolean expected) {
+        final StereotypeProperties prop = properties(key, value);
+        try {
+            assertEquals(expected, getter.get(prop), "Failure key: " + key);
+        } catch (ExportException e) {
+            fail("Failure key: " + key + ", value: " + value);
+        }
+    }
+
+    /**
+     * Creates a stereotype property object with a single value.
+     *
+     * @param key   Property name.
+     * @param value Property value.
+     * @return Properties containing the given value.
+     */
+    private StereotypeProperties properties(final String key, final String value) {
+        return new StereotypeProperties(Collections.singletonMap(key, value));
+    }
+}
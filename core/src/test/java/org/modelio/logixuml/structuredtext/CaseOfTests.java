@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.structuredtext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for CASE_OF block generation.
+ */
+class CaseOfTests {
+    /**
+     * Confirm cases are emitted in ascending selector order regardless of the
+     * order they were added.
+     */
+    @Test
+    void ascendingOrder() {
+        final CaseOf c = new CaseOf("x");
+        c.addCase(30, "a;");
+        c.addCase(2, "b;");
+        c.addCase(17, "c;");
+
+        final List<String> expected = Arrays.asList("CASE x OF", "2:", "b;", "17:", "c;", "30:", "a;", "END_CASE;");
+        assertEquals(expected, c.getLines());
+    }
+
+    /**
+     * Confirm selectors with identical statements are combined into a single case.
+     */
+    @Test
+    void mergeIdentical() {
+        final CaseOf c = new CaseOf("x");
+        c.addCase(1, "a;");
+        c.addCase(2, "b;");
+        c.addCase(3, "a;");
+
+        final List<String> expected = Arrays.asList("CASE x OF", "1,3:", "a;", "2:", "b;", "END_CASE;");
+        assertEquals(expected, c.getLines());
+    }
+
+    /**
+     * Confirm the ELSE clause follows all selectors.
+     */
+    @Test
+    void elseLast() {
+        final CaseOf c = new CaseOf("x");
+        c.addElse(Arrays.asList("e;"));
+        c.addCase(1, "a;");
+
+        final List<String> expected = Arrays.asList("CASE x OF", "1:", "a;", "ELSE", "e;", "END_CASE;");
+        assertEquals(expected, c.getLines());
+    }
+
+    /**
+     * Confirm frequency hints move cases to the front, leaving cases of equal
+     * frequency in ascending order.
+     */
+    @Test
+    void frequencyHint() {
+        final CaseOf c = new CaseOf("x");
+        c.addCase(1, "a;");
+        c.addCase(2, "b;");
+        c.addCase(3, "c;");
+        c.addCase(4, "d;");
+        c.setFrequencyHint(3, 10);
+        c.setFrequencyHint(4, 10);
+        c.setFrequencyHint(1, 0);
+
+        final List<String> expected = Arrays.asList("CASE x OF", "3:", "c;", "4:", "d;", "1:", "a;", "2:", "b;",
+                "END_CASE;");
+        assertEquals(expected, c.getLines());
+    }
+
+    /**
+     * Confirm a duplicate selector value is rejected.
+     */
+    @Test
+    void duplicateSelector() {
+        final CaseOf c = new CaseOf("x");
+        c.addCase(1, "a;");
+        assertThrows(AssertionError.class, () -> c.addCase(1, "b;"));
+    }
+
+    /**
+     * Confirm a second ELSE clause is rejected.
+     */
+    @Test
+    void duplicateElse() {
+        final CaseOf c = new CaseOf("x");
+        c.addElse(Arrays.asList("a;"));
+        assertThrows(AssertionError.class, () -> c.addElse(Arrays.asList("b;")));
+    }
+
+    /**
+     * Confirm selector formatting of single values, pairs, and ranges.
+     */
+    @Test
+    void selectorFormat() {
+        assertEquals("5", CaseOf.formatSelectors(Arrays.asList(5)));
+        assertEquals("5,6", CaseOf.formatSelectors(Arrays.asList(5, 6)));
+        assertEquals("1..12", CaseOf.formatSelectors(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12)));
+        assertEquals("1..3,7,9,10,20..22", CaseOf.formatSelectors(Arrays.asList(1, 2, 3, 7, 9, 10, 20, 21, 22)));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.structuredtext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the structured text line pool.
+ */
+class LinePoolTests {
+    /**
+     * Confirm equal lines built separately resolve to the same instance.
+     */
+    @Test
+    void sameInstance() {
+        final String first = LinePool.intern(new StringBuilder("x := ").append(1).append(';').toString());
+        final String second = LinePool.intern(new StringBuilder("x := ").append(1).append(';').toString());
+        assertSame(first, second);
+    }
+
+    /**
+     * Confirm interning does not alter the line content.
+     */
+    @Test
+    void content() {
+        assertEquals("y := 0;", LinePool.intern(new String("y := 0;")));
+    }
+
+    /**
+     * Confirm generated blocks share keyword and selector lines.
+     */
+    @Test
+    void generatorsShareLines() {
+        final CaseOf a = new CaseOf("cv");
+        a.addCase(3, "x := 1;");
+        final CaseOf b = new CaseOf("cv");
+        b.addCase(3, "x := 2;");
+        assertSame(a.getLines().get(0), b.getLines().get(0));
+        assertSame(a.getLines().get(1), b.getLines().get(1));
+    }
+
+    /**
+     * Confirm the halt statements are a shared constant.
+     */
+    @Test
+    void haltShared() {
+        assertSame(Halt.getLines(), Halt.getLines());
+    }
+
+    /**
+     * Confirm threads interning the same lines at once all receive the same
+     * instances.
+     */
+    @Test
+    void concurrent() throws Exception {
+        final int threads = 8;
+        final int lines = 1000;
+        LinePool.clear(); // Keep the pool from filling up during the test.
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<String[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    final String[] interned = new String[lines];
+                    for (int i = 0; i < lines; i++) {
+                        interned[i] = LinePool.intern(new StringBuilder("concurrent := ").append(i).append(';').toString());
+                    }
+                    return interned;
+                }));
+            }
+            start.countDown();
+
+            final String[] first = results.get(0).get();
+            for (final Future<String[]> result : results) {
+                final String[] interned = result.get();
+                for (int i = 0; i < lines; i++) {
+                    assertEquals("concurrent := " + i + ";", interned[i]);
+                    assertSame(first[i], interned[i]);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Confirm the pool keeps returning equal lines after it is emptied to
+     * bound its size.
+     */
+    @Test
+    void bounded() {
+        for (int i = 0; i <= LinePool.MAX_SIZE; i++) {
+            assertEquals("bounded := " + i + ";", LinePool.intern("bounded := " + i + ";"));
+        }
+        final String line = LinePool.intern(new String("z := 0;"));
+        assertSame(line, LinePool.intern(new String("z := 0;")));
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.command;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.swt.widgets.Display;
+import org.modelio.api.modelio.model.IModelingSession;
+import org.modelio.api.modelio.model.event.IElementDeletedEvent;
+import org.modelio.api.modelio.model.event.IElementMovedEvent;
+import org.modelio.api.modelio.model.event.IModelChangeEvent;
+import org.modelio.api.modelio.model.event.IModelChangeHandler;
+import org.modelio.api.module.IModule;
+import org.modelio.api.module.context.IModuleContext;
+import org.modelio.logixuml.statemachineaoi.ExportCache;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+import org.modelio.logixuml.statemachineaoi.ModelSnapshot;
+import org.modelio.logixuml.statemachineaoi.ModelioModelReader;
+import org.modelio.vcore.smkernel.mapi.MObject;
+
+/**
+ * This model change handler automatically exports state machines whenever they
+ * are edited, to the directory given by the autoExportDirectory module
+ * parameter; automatic export is disabled if the parameter is blank.
+ * <p>
+ * Only state machines containing a changed element are exported. Changes are
+ * accumulated until the model has been idle for a short delay, so a series of
+ * edits results in a single export, and the export cache, if enabled, skips
+ * changes that do not affect the AOI, such as diagram layout.
+ */
+public class AutoExport implements IModelChangeHandler {
+    /**
+     * Name of the module parameter defining the automatic export directory.
+     */
+    private static final String DIRECTORY_PARAMETER = "autoExportDirectory";
+
+    /**
+     * Time, in milliseconds, the model must remain unchanged before an export
+     * begins.
+     */
+    private static final int DELAY = 2000;
+
+    /**
+     * The LogixUML module.
+     */
+    private final IModule module;
+
+    /**
+     * State machines changed since the last export.
+     */
+    private final Set<MObject> pending = new LinkedHashSet<>();
+
+    /**
+     * Timer task starting the export; a single instance is used so each change
+     * restarts the same timer.
+     */
+    private final Runnable timer = this::export;
+
+    /**
+     * Constructor.
+     *
+     * @param module The LogixUML module.
+     */
+    public AutoExport(final IModule module) {
+        this.module = module;
+    }
+
+    @Override
+    public void handleModelChange(final IModelingSession session, final IModelChangeEvent event) {
+        if (getDirectory() == null) {
+            return;
+        }
+
+        final Set<MObject> changed = new LinkedHashSet<>();
+        for (final MObject element : event.getCreationEvents()) {
+            addStateMachine(element, changed);
+        }
+        for (final MObject element : event.getUpdateEvents()) {
+            addStateMachine(element, changed);
+        }
+        for (final IElementDeletedEvent e : event.getDeleteEvents()) {
+            addStateMachine(e.getOldParent(), changed);
+        }
+        for (final IElementMovedEvent e : event.getMoveEvents()) {
+            addStateMachine(e.getOldParent(), changed);
+            addStateMachine(e.getMovedElement(), changed);
+        }
+
+        if (!changed.isEmpty()) {
+            synchronized (pending) {
+                pending.addAll(changed);
+            }
+
+            // The timer may only be set from the GUI thread; setting it again
+            // before it expires restarts the delay.
+            final Display display = Display.getDefault();
+            display.asyncExec(() -> display.timerExec(DELAY, timer));
+        }
+    }
+
+    /**
+     * Discards pending changes and stops the timer. May be called from any
+     * thread; the timer is canceled in the GUI thread, which this waits for.
+     */
+    public void dispose() {
+        final Display display = Display.getDefault();
+        if (!display.isDisposed()) {
+            display.syncExec(() -> display.timerExec(-1, timer));
+        }
+        synchronized (pending) {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Finds the exported state machine containing a model element.
+     *
+     * @param element The changed model element; may be null.
+     * @param changed Target for the containing state machine, if any.
+     */
+    private static void addStateMachine(final MObject element, final Set<MObject> changed) {
+        for (MObject e = element; e != null; e = e.getCompositionOwner()) {
+            if (ModelioModelReader.isStateMachineAoi(e)) {
+                changed.add(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the changed state machines and starts a background export. Called by
+     * the timer in the GUI thread.
+     */
+    private void export() {
+        final List<MObject> stateMachines;
+        synchronized (pending) {
+            stateMachines = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        final String path = getDirectory();
+        if (path == null) {
+            return;
+        }
+
+        final IModuleContext context = module.getModuleContext();
+        final Map<String, ModelSnapshot> snapshots = new LinkedHashMap<>();
+        final Map<String, ExportException> errors = new LinkedHashMap<>();
+        try {
+            for (final MObject sm : stateMachines) {
+                // Skip state machines deleted, or no longer stereotyped, since the change.
+                if (sm.isValid() && ModelioModelReader.isStateMachineAoi(sm)) {
+                    try {
+                        snapshots.put(sm.getName(), ModelioModelReader.read(sm));
+                    } catch (ExportException e) {
+                        errors.put(sm.getName(), e);
+                    }
+                }
+            }
+        } catch (AssertionError e) {
+            context.getLogService().error("AOI export failed: " + e);
+            return;
+        }
+
+        if (!snapshots.isEmpty() || !errors.isEmpty()) {
+            final ExportCache cache = ExportAoiCommand.isCacheEnabled(context)
+                    ? new ExportCache(path, module.getVersion().toString())
+                    : null;
+            new ExportAoiJob(snapshots, errors, path, cache, ExportAoiCommand.getExportThreads(context), context,
+                    false).schedule();
+        }
+    }
+
+    /**
+     * Reads the automatic export directory from the module parameters.
+     *
+     * @return The directory, or null if automatic export is disabled.
+     */
+    private String getDirectory() {
+        final String value = module.getModuleContext().getConfiguration().getParameterValue(DIRECTORY_PARAMETER);
+        return ((value == null) || value.trim().isEmpty()) ? null : value.trim();
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.command;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.dialogs.ErrorDialog;
+import org.eclipse.swt.widgets.DirectoryDialog;
+import org.eclipse.swt.widgets.Shell;
+import org.modelio.api.modelio.navigation.INavigationService;
+import org.modelio.api.module.IModule;
+import org.modelio.api.module.command.DefaultModuleCommandHandler;
+import org.modelio.api.module.context.IModuleContext;
+import org.modelio.logixuml.statemachineaoi.ExportCache;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+import org.modelio.logixuml.statemachineaoi.ModelSnapshot;
+import org.modelio.logixuml.statemachineaoi.ModelioModelReader;
+import org.modelio.ui.swt.DefaultShellProvider;
+import org.modelio.vcore.smkernel.mapi.MObject;
+
+public class ExportAoiCommand extends DefaultModuleCommandHandler {
+    /**
+     * Name of the module parameter defining the maximum number of AOIs written
+     * simultaneously.
+     */
+    private static final String EXPORT_THREADS_PARAMETER = "exportThreads";
+
+    /**
+     * Name of the module parameter enabling reuse of previously exported files for
+     * unchanged state machines.
+     */
+    private static final String EXPORT_CACHE_PARAMETER = "exportCache";
+
+    public ExportAoiCommand() {
+        super();
+    }
+
+    @Override
+    public void actionPerformed(List<MObject> selectedElements, IModule module) {
+        final IModuleContext context = module.getModuleContext();
+
+        // Errors from every state machine are collected, keyed by state machine name,
+        // so a single invalid state machine does not prevent the others from being
+        // exported.
+        final Map<String, ExportException> errors = new LinkedHashMap<>();
+
+        try {
+            // Read the selected state machine model objects. This accesses the UML
+            // model, so it is done serially in this thread.
+            final Map<String, ModelSnapshot> snapshots = new LinkedHashMap<>();
+            for (final MObject element: selectedElements) {
+                try {
+                    snapshots.put(element.getName(), ModelioModelReader.read(element));
+                } catch (ExportException e) {
+                    errors.put(element.getName(), e);
+                }
+            }
+
+            // Select an output directory, then generate and write the AOIs in a
+            // background job, which reports any errors when it finishes.
+            if (!snapshots.isEmpty()) {
+                final String path = getTargetPath(context);
+                if (path != null) {
+                    final ExportCache cache = isCacheEnabled(context)
+                            ? new ExportCache(path, module.getVersion().toString())
+                            : null;
+                    new ExportAoiJob(snapshots, errors, path, cache, getExportThreads(context), context, true)
+                            .schedule();
+                    return;
+                }
+            }
+        } catch (AssertionError e) {
+            showAssertionDialog(e);
+            return;
+        }
+
+        if (!errors.isEmpty()) {
+            reportErrors(errors, context);
+        }
+    }
+
+    /**
+     * Reads the maximum number of AOIs to write simultaneously from the module
+     * parameters.
+     *
+     * @param context LogixUML module context.
+     * @return Number of export threads; one if the parameter is blank or invalid.
+     */
+    static int getExportThreads(final IModuleContext context) {
+        final String value = context.getConfiguration().getParameterValue(EXPORT_THREADS_PARAMETER);
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NullPointerException | NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Reads the export cache setting from the module parameters.
+     *
+     * @param context LogixUML module context.
+     * @return False only if the parameter is explicitly false.
+     */
+    static boolean isCacheEnabled(final IModuleContext context) {
+        final String value = context.getConfiguration().getParameterValue(EXPORT_CACHE_PARAMETER);
+        return (value == null) || !value.trim().equalsIgnoreCase("false");
+    }
+
+    /**
+     * Reports errors from one or more state machines, selecting the source of the
+     * first error in the Modelio GUI. Must be called from the GUI thread.
+     *
+     * @param errors  Exceptions raised during the export, keyed by state machine
+     *                or AOI name.
+     * @param context LogixUML module context.
+     */
+    static void reportErrors(final Map<String, ExportException> errors, final IModuleContext context) {
+        selectExceptionObject(errors.values().iterator().next(), context);
+        showErrorDialog(errors);
+    }
+
+    /**
+     * Changes the Modelio GUI selection to the model object that was the source of
+     * an export problem.
+     *
+     * @param e       Exception raised during the export.
+     * @param context LogixUML module context.
+     */
+    private static void selectExceptionObject(final ExportException e, final IModuleContext context) {
+        final Object sourceObject = e.getModelObject();
+        if (sourceObject instanceof MObject) {
+            final INavigationService nav = context.getModelioServices().getNavigationService();
+            nav.fireNavigate((MObject) sourceObject);
+        }
+    }
+
+    /**
+     * Displays a GUI dialog reporting an error during AOI export.
+     *
+     * @param e Exception raised during the export.
+     */
+    private static void showErrorDialog(final Throwable e) {
+        final Status status = new Status(IStatus.ERROR, "org.modelio.logixuml", e.getMessage(), e.getCause());
+        ErrorDialog.openError(null, "AOI Export Error", null, status);
+    }
+
+    /**
+     * Displays a GUI dialog reporting errors from one or more state machines.
+     *
+     * @param errors Exceptions raised during the export, keyed by state machine or
+     *               AOI name.
+     */
+    private static void showErrorDialog(final Map<String, ExportException> errors) {
+        if (errors.size() == 1) {
+            showErrorDialog(errors.values().iterator().next());
+            return;
+        }
+
+        // Build a MultiStatus object with an entry for each failed state machine.
+        final List<Status> childStatus = new ArrayList<>();
+        for (final Map.Entry<String, ExportException> e : errors.entrySet()) {
+            childStatus.add(new Status(IStatus.ERROR, "org.modelio.logixuml",
+                    e.getKey() + ": " + e.getValue().getMessage(), e.getValue().getCause()));
+        }
+        final MultiStatus ms = new MultiStatus("org.modelio.logixuml", IStatus.ERROR,
+                childStatus.toArray(new Status[] {}), errors.size() + " state machines could not be exported.",
+                null);
+
+        ErrorDialog.openError(null, "AOI Export Error", null, ms);
+    }
+
+    /**
+     * Displays a GUI dialog reporting an assertion failure. Must be called from
+     * the GUI thread.
+     *
+     * @param e The assertion error.
+     */
+    static void showAssertionDialog(final Throwable e) {
+        // Build a MultiStatus object containing the stack trace.
+        final List<Status> childStatus = new ArrayList<>();
+        for (final StackTraceElement stackTraceElement : e.getStackTrace()) {
+            childStatus.add(new Status(IStatus.ERROR, "org.modelio.logixuml", stackTraceElement.toString()));
+        }
+        final MultiStatus ms = new MultiStatus("org.modelio.logixuml", IStatus.ERROR,
+                childStatus.toArray(new Status[] {}), e.toString(), e);
+
+        ErrorDialog.openError(null, "Assertion Error",
+                "Oops, something didn't work as planned. Please report this as a bug.", ms);
+    }
+
+    /**
+     * Opens a dialog to select the output directory.
+     *
+     * @param context LogixUML module context.
+     * @return Absolute path to the target directory, or null if the Cancel button
+     *         was pressed.
+     */
+    private String getTargetPath(final IModuleContext context) {
+        final Shell parent = DefaultShellProvider.getBestParentShell();
+        final DirectoryDialog dialog = new DirectoryDialog(parent);
+        dialog.setText("Select AOI Export Directory");
+
+        // Set the starting path to the same as the model project.
+        final Path path = context.getProjectStructure().getPath();
+        dialog.setFilterPath(path.toString());
+
+        return dialog.open();
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.command;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.widgets.Display;
+import org.modelio.api.module.context.IModuleContext;
+import org.modelio.api.module.context.log.ILogService;
+import org.modelio.logixuml.statemachineaoi.BatchExport;
+import org.modelio.logixuml.statemachineaoi.ExportCache;
+import org.modelio.logixuml.statemachineaoi.ExportException;
+import org.modelio.logixuml.statemachineaoi.ModelSnapshot;
+import org.modelio.logixuml.statemachineaoi.StateMachineAoi;
+
+/**
+ * This background job generates and writes the AOIs for a set of state machine
+ * snapshots so the Modelio GUI remains responsive during large exports.
+ * Progress is reported for each state machine in each phase, and a canceled
+ * export stops before the next state machine; AOIs already written are kept.
+ * <p>
+ * The job never accesses the UML model. All model reading is completed in the
+ * GUI thread when the snapshots are taken, and all dialogs are displayed in the
+ * GUI thread after the job finishes. Jobs not started by the user report errors
+ * only to the Modelio log.
+ */
+class ExportAoiJob extends Job {
+    /**
+     * Scheduling rule allowing only one export at a time, as simultaneous
+     * exports may write the same files and export cache entries.
+     */
+    private static final ISchedulingRule EXPORT_RULE = new ISchedulingRule() {
+        @Override
+        public boolean contains(final ISchedulingRule rule) {
+            return rule == this;
+        }
+
+        @Override
+        public boolean isConflicting(final ISchedulingRule rule) {
+            return rule == this;
+        }
+    };
+
+    /**
+     * Progress units allocated to each state machine, one for checking the
+     * export cache and one for generating and writing the AOI.
+     */
+    private static final int WORK_PER_STATE_MACHINE = 2;
+
+    /**
+     * State machine snapshots to export, keyed by state machine name.
+     */
+    private final Map<String, ModelSnapshot> snapshots;
+
+    /**
+     * Exceptions raised by state machines that could not be exported, keyed by
+     * state machine or AOI name.
+     */
+    private final Map<String, ExportException> errors;
+
+    /**
+     * Target directory for the L5X files.
+     */
+    private final String path;
+
+    /**
+     * Export cache, or null if disabled.
+     */
+    private final ExportCache cache;
+
+    /**
+     * Maximum number of AOIs to generate and write simultaneously.
+     */
+    private final int threads;
+
+    /**
+     * LogixUML module context.
+     */
+    private final IModuleContext context;
+
+    /**
+     * Enables reporting errors with dialogs instead of only logging them.
+     */
+    private final boolean interactive;
+
+    /**
+     * Constructor.
+     *
+     * @param snapshots   State machine snapshots keyed by state machine name.
+     * @param errors      Exceptions already raised while reading the model, keyed
+     *                    by state machine name, which are reported along with
+     *                    any raised during the export.
+     * @param path        Target directory for the L5X files.
+     * @param cache       Export cache, or null if disabled.
+     * @param threads     Maximum number of AOIs to generate and write
+     *                    simultaneously.
+     * @param context     LogixUML module context.
+     * @param interactive True if the export was requested by the user, who is
+     *                    shown the progress and any errors in dialogs.
+     */
+    ExportAoiJob(final Map<String, ModelSnapshot> snapshots, final Map<String, ExportException> errors,
+            final String path, final ExportCache cache, final int threads, final IModuleContext context,
+            final boolean interactive) {
+        super("Export AOIs");
+        this.snapshots = new LinkedHashMap<>(snapshots);
+        this.errors = new LinkedHashMap<>(errors);
+        this.path = path;
+        this.cache = cache;
+        this.threads = threads;
+        this.context = context;
+        this.interactive = interactive;
+
+        setUser(interactive);
+        setRule(EXPORT_RULE);
+    }
+
+    @Override
+    protected IStatus run(final IProgressMonitor monitor) {
+        monitor.beginTask("Exporting AOIs", snapshots.size() * WORK_PER_STATE_MACHINE);
+
+        try {
+            final Map<String, StateMachineAoi> aois = export(restore(monitor), monitor);
+            if (cache != null) {
+                storeInCache(aois);
+            }
+            logScanCost(aois);
+        } catch (AssertionError e) {
+            if (interactive) {
+                Display.getDefault().asyncExec(() -> ExportAoiCommand.showAssertionDialog(e));
+            } else {
+                context.getLogService().error("AOI export failed: " + e);
+            }
+            return Status.OK_STATUS;
+        } finally {
+            monitor.done();
+        }
+
+        if (monitor.isCanceled()) {
+            context.getLogService().info("AOI export canceled.");
+        }
+
+        if (!errors.isEmpty()) {
+            if (interactive) {
+                final Map<String, ExportException> report = Collections.unmodifiableMap(errors);
+                Display.getDefault().asyncExec(() -> ExportAoiCommand.reportErrors(report, context));
+            } else {
+                for (final Map.Entry<String, ExportException> e : errors.entrySet()) {
+                    context.getLogService().error(e.getKey() + ": " + e.getValue().getMessage());
+                }
+            }
+        }
+
+        return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+    }
+
+    /**
+     * Restores unchanged state machines from the export cache.
+     *
+     * @param monitor Progress monitor.
+     * @return Snapshots of the state machines that could not be restored, keyed
+     *         by state machine name.
+     */
+    private Map<String, ModelSnapshot> restore(final IProgressMonitor monitor) {
+        final Map<String, ModelSnapshot> changed = new LinkedHashMap<>();
+        for (final Map.Entry<String, ModelSnapshot> e : snapshots.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            monitor.subTask("Checking " + e.getKey());
+
+            // State machines that will not be exported are given their full share of
+            // the progress now.
+            int work = WORK_PER_STATE_MACHINE;
+            try {
+                if ((cache != null) && cache.restore(e.getValue())) {
+                    context.getLogService().info(e.getKey() + " is unchanged; restored from the export cache.");
+                } else {
+                    changed.put(e.getKey(), e.getValue());
+                    work = 1;
+                }
+            } catch (ExportException ex) {
+                errors.put(e.getKey(), ex);
+            }
+            monitor.worked(work);
+        }
+        return changed;
+    }
+
+    /**
+     * Generates and writes the AOIs.
+     *
+     * @param changed Snapshots of the state machines to export, keyed by state
+     *                machine name.
+     * @param monitor Progress monitor.
+     * @return The AOIs that were written successfully, keyed by state machine
+     *         name in the same order as the given snapshots.
+     */
+    private Map<String, StateMachineAoi> export(final Map<String, ModelSnapshot> changed,
+            final IProgressMonitor monitor) {
+        final Map<String, StateMachineAoi> generated = Collections.synchronizedMap(new HashMap<>());
+
+        errors.putAll(new BatchExport(threads).export(changed, path, new BatchExport.Monitor() {
+            @Override
+            public boolean isCanceled() {
+                return monitor.isCanceled();
+            }
+
+            @Override
+            public void exported(final String name, final StateMachineAoi aoi) {
+                if (aoi != null) {
+                    generated.put(name, aoi);
+                }
+                synchronized (monitor) {
+                    monitor.subTask("Exported " + name);
+                    monitor.worked(1);
+                }
+            }
+        }));
+
+        final Map<String, StateMachineAoi> written = new LinkedHashMap<>();
+        for (final String name : changed.keySet()) {
+            if (generated.containsKey(name) && !errors.containsKey(name)) {
+                written.put(name, generated.get(name));
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Adds every written AOI to the export cache. Failures are only logged because
+     * the export itself is complete.
+     *
+     * @param aois Add-on instructions that were written successfully.
+     */
+    private void storeInCache(final Map<String, StateMachineAoi> aois) {
+        for (final StateMachineAoi aoi : aois.values()) {
+            try {
+                cache.store(aoi);
+            } catch (ExportException e) {
+                context.getLogService().warning(aoi.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the estimated scan cost of every written AOI to the Modelio log.
+     *
+     * @param aois Add-on instructions that were written successfully.
+     */
+    private void logScanCost(final Map<String, StateMachineAoi> aois) {
+        final ILogService log = context.getLogService();
+        for (final StateMachineAoi aoi : aois.values()) {
+            log.info(aoi.getScanCostReport());
+        }
+    }
+}
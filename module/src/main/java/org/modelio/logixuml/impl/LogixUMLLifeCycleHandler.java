@@ -24,6 +24,7 @@ import java.util.Map;
 import org.modelio.api.module.context.log.ILogService;
 import org.modelio.api.module.lifecycle.DefaultModuleLifeCycleHandler;
 import org.modelio.api.module.lifecycle.ModuleException;
+import org.modelio.logixuml.command.AutoExport;
 import org.modelio.vbasic.version.Version;
 
 /**
@@ -32,6 +33,11 @@ import org.modelio.vbasic.version.Version;
  */
 public class LogixUMLLifeCycleHandler extends DefaultModuleLifeCycleHandler {
 
+	/**
+	 * Model change handler exporting edited state machines; null while the module is stopped.
+	 */
+	private AutoExport autoExport = null;
+
 	/**
 	 * Constructor.
 	 * @param module the Module this life cycle handler is instanciated for.
@@ -53,6 +59,11 @@ public class LogixUMLLifeCycleHandler extends DefaultModuleLifeCycleHandler {
 
 		String message = "Start of " + this.module.getName() + " " + moduleVersion;
 		logService.info(message);
+
+		// Export state machines as they are edited.
+		this.autoExport = new AutoExport(this.module);
+		this.module.getModuleContext().getModelingSession().addModelHandler(this.autoExport);
+
 		return super.start();
 	}
 
@@ -61,6 +72,11 @@ public class LogixUMLLifeCycleHandler extends DefaultModuleLifeCycleHandler {
 	 */
 	@Override
 	public void stop() throws ModuleException {
+		if (this.autoExport != null) {
+			this.module.getModuleContext().getModelingSession().removeModelHandler(this.autoExport);
+			this.autoExport.dispose();
+			this.autoExport = null;
+		}
 		super.stop();
 	}
 
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.statemachineaoi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.modelio.metamodel.diagrams.StateMachineDiagram;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.InitialPseudoState;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.Region;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateVertex;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
+import org.modelio.metamodel.uml.infrastructure.Note;
+import org.modelio.metamodel.uml.infrastructure.properties.TypedPropertyTable;
+import org.modelio.vcore.smkernel.mapi.MObject;
+import org.modelio.vcore.smkernel.mapi.MRef;
+
+/**
+ * Reads a state machine from a Modelio modeling session into a
+ * {@link ModelSnapshot}. This is the only part of the generator accessing the
+ * Modelio metamodel; model objects are compared in the snapshot by their
+ * {@link MRef}.
+ */
+public final class ModelioModelReader {
+    /**
+     * Name of the module defining the stereotype.
+     */
+    private static final String MODULE_NAME = "LogixUML";
+
+    /**
+     * Name of the stereotype holding the AOI configuration properties.
+     */
+    private static final String STEREOTYPE_NAME = "StateMachineAoi";
+
+    /**
+     * Snapshot being assembled.
+     */
+    private final ModelSnapshot.Builder builder;
+
+    /**
+     * State model objects in identifier order.
+     */
+    private final List<State> states = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param sm Source state machine.
+     */
+    private ModelioModelReader(final StateMachine sm) {
+        builder = new ModelSnapshot.Builder(sm, sm.getName(), readProperties(sm), e -> new MRef((MObject) e));
+    }
+
+    /**
+     * Reads a state machine model into a new snapshot.
+     *
+     * @param stateMachine Source state machine model object.
+     * @return The snapshot.
+     * @throws ExportException If the state machine contains an unsupported UML
+     *                         element type.
+     */
+    public static ModelSnapshot read(final MObject stateMachine) throws ExportException {
+        final StateMachine sm = (StateMachine) stateMachine;
+        final ModelioModelReader reader = new ModelioModelReader(sm);
+
+        // States are numbered first so transitions can refer to their targets by
+        // identifier.
+        reader.collectStates(sm, ModelSnapshot.STATE_MACHINE);
+
+        final Region top = sm.getTop();
+        final List<Region> topRegions = new ArrayList<>();
+        if (top != null) {
+            topRegions.add(top);
+        }
+        reader.readRegions(ModelSnapshot.STATE_MACHINE, topRegions);
+
+        for (int id = 0; id < reader.states.size(); id++) {
+            final State state = reader.states.get(id);
+            reader.readRegions(id, state.getOwnedRegion());
+            reader.readTransitions(state, id);
+        }
+
+        return reader.builder.build();
+    }
+
+    /**
+     * Determines if a model object is a state machine to be exported as an AOI.
+     *
+     * @param element The model object.
+     * @return True if the object is a state machine with the module's stereotype
+     *         applied.
+     */
+    public static boolean isStateMachineAoi(final MObject element) {
+        return (element instanceof StateMachine)
+                && ((StateMachine) element).isStereotyped(MODULE_NAME, STEREOTYPE_NAME);
+    }
+
+    /**
+     * Reads the module's stereotype property table.
+     *
+     * @param stateMachine Source state machine model element.
+     * @return Raw property values keyed by property name; values are null if not
+     *         entered since the stereotype was applied.
+     */
+    static Map<String, String> readProperties(final StateMachine stateMachine) {
+        final Map<String, String> values = new HashMap<>();
+        for (final String key : ModelSnapshot.getPropertyNames()) {
+            values.put(key, stateMachine.getProperty(MODULE_NAME, STEREOTYPE_NAME, key));
+        }
+        return values;
+    }
+
+    /**
+     * Recursively visits the composition graph, numbering states in depth-first
+     * order and verifying every element type is supported.
+     *
+     * @param owner  Model object whose children will be visited.
+     * @param parent Identifier of the state enclosing the owner's children.
+     * @throws ExportException If an unsupported UML element type was found.
+     */
+    private void collectStates(final MObject owner, final int parent) throws ExportException {
+        for (final MObject e : owner.getCompositionChildren()) {
+            int childParent = parent;
+
+            switch (e.getMClass().getQualifiedName()) {
+            case State.MQNAME:
+                childParent = builder.addState(e, e.getName(), parent);
+                states.add((State) e);
+                break;
+
+            // List of other supported model element types.
+            case InitialPseudoState.MQNAME:
+            case Note.MQNAME:
+            case StateMachineDiagram.MQNAME:
+            case Region.MQNAME:
+            case Transition.MQNAME:
+            case TypedPropertyTable.MQNAME:
+                break;
+
+            default:
+                final String shortName = e.getMClass().getName();
+                throw new ExportException(String.format("Unsupported UML element type: %s", shortName), e);
+            }
+
+            collectStates(e, childParent);
+        }
+    }
+
+    /**
+     * Reads the regions owned by a state or the state machine, and the initial
+     * pseudo states within the first region. Only the first region is relevant
+     * because containers with multiple regions are rejected.
+     *
+     * @param container State identifier, or STATE_MACHINE.
+     * @param regions   Regions owned by the container.
+     */
+    private void readRegions(final int container, final List<Region> regions) {
+        if (regions.isEmpty()) {
+            return;
+        }
+
+        builder.setRegions(container, regions.size(), regions.get(0));
+        for (final InitialPseudoState i : regions.get(0).getSub(InitialPseudoState.class)) {
+            final int initial = builder.addInitial(container, i);
+            for (final Transition t : i.getOutGoing()) {
+                final StateVertex target = t.getTarget();
+                builder.addInitialTransition(container, initial, t, target, target.getMClass().getQualifiedName(),
+                        t.getReceivedEvents());
+            }
+        }
+    }
+
+    /**
+     * Reads the transitions leaving a state.
+     *
+     * @param state  Source state.
+     * @param source Identifier of the source state.
+     */
+    private void readTransitions(final State state, final int source) {
+        for (final Transition t : state.getOutGoing()) {
+            final StateVertex target = t.getTarget();
+            builder.addTransition(t, source, target, target.getMClass().getQualifiedName(), t.getReceivedEvents());
+        }
+    }
+}
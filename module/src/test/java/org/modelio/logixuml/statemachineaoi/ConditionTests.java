@@ -0,0 +1,234 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.Region;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
+
+/**
+ * Unit tests for Condition objects.
+ */
+public class ConditionTests {
+    /**
+     * Dummy state identifiers. The snapshot contains exactly two states, so -1 and
+     * 2 are used as identifiers that do not refer to a state.
+     */
+    private final Set<Integer> ids = new HashSet<>();
+
+    private Condition condition;
+
+    private ModelSnapshot model;
+
+    /**
+     * Identifiers of the two states.
+     */
+    private int first, second;
+
+    @BeforeEach
+    public void setUp() throws ExportException {
+        final StateMachine sm = MockModel.stateMachine("sm", null);
+        final Region top = MockModel.region(sm);
+        final State state1 = MockModel.state("state1", top);
+        final State state2 = MockModel.state("state2", top);
+
+        model = ModelioModelReader.read(sm);
+        condition = new Condition(model);
+        first = model.getStateId(state1);
+        second = model.getStateId(state2);
+        ids.add(first);
+        ids.add(second);
+    }
+
+    /**
+     * Confirm valid state identifiers are added to the entry action set.
+     */
+    @Test
+    void validEntryActions() {
+        for (final int id : ids) {
+            condition.addEntryAction(id);
+        }
+
+        assertEquals(ids, condition.getEntryActions());
+        assertEquals(Collections.EMPTY_SET, condition.getDoActions());
+        assertEquals(Collections.EMPTY_SET, condition.getExitActions());
+    }
+
+    /**
+     * Confirm adding an entry action for an identifier that is not a state
+     * generates an assertion.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { -1, 2 })
+    void invalidEntryAction(final int nonState) {
+        assertThrows(AssertionError.class, () -> condition.addEntryAction(nonState));
+    }
+
+    /**
+     * Confirm valid state identifiers are added to the do action set.
+     */
+    @Test
+    void validDoActions() {
+        for (final int id : ids) {
+            condition.addDoAction(id);
+        }
+
+        assertEquals(ids, condition.getDoActions());
+        assertEquals(Collections.EMPTY_SET, condition.getEntryActions());
+        assertEquals(Collections.EMPTY_SET, condition.getExitActions());
+    }
+
+    /**
+     * Confirm adding a do action for an identifier that is not a state generates
+     * an assertion.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { -1, 2 })
+    void invalidDoAction(final int nonState) {
+        assertThrows(AssertionError.class, () -> condition.addDoAction(nonState));
+    }
+
+    /**
+     * Confirm valid state identifiers are added to the exit action set.
+     */
+    @Test
+    void validExitActions() {
+        for (final int id : ids) {
+            condition.addExitAction(id);
+        }
+
+        assertEquals(ids, condition.getExitActions());
+        assertEquals(Collections.EMPTY_SET, condition.getEntryActions());
+        assertEquals(Collections.EMPTY_SET, condition.getDoActions());
+    }
+
+    /**
+     * Confirm adding a exit action for an identifier that is not a state generates
+     * an assertion.
+     */
+    @ParameterizedTest
+    @ValueSource(ints = { -1, 2 })
+    void invalidExitAction(final int nonState) {
+        assertThrows(AssertionError.class, () -> condition.addExitAction(nonState));
+    }
+
+    /**
+     * Confirm conditions with the same actions are equal, regardless of the order
+     * the actions were added.
+     */
+    @Test
+    void equal() {
+        final Condition other = new Condition(model);
+        for (final int id : ids) {
+            condition.addEntryAction(id);
+            condition.addDoAction(id);
+        }
+        for (final int id : ids) {
+            other.addDoAction(id);
+        }
+        for (final int id : ids) {
+            other.addEntryAction(id);
+        }
+
+        assertEquals(condition, other);
+        assertEquals(condition.hashCode(), other.hashCode());
+    }
+
+    /**
+     * Confirm conditions energizing the same state with different actions are not
+     * equal.
+     */
+    @Test
+    void notEqual() {
+        final Condition other = new Condition(model);
+        for (final int id : ids) {
+            condition.addEntryAction(id);
+            other.addExitAction(id);
+        }
+
+        assertNotEquals(condition, other);
+    }
+
+    /**
+     * Confirm changing outputs between conditions only writes outputs with
+     * different values, and only updates the active outputs of states with a
+     * changed output.
+     */
+    @Test
+    void changeOnlyDifferentOutputs() throws ExportException {
+        final Map<Integer, AoiState> states = StateMap.build(model);
+        final Condition previous = new Condition(model);
+        previous.addExitAction(first);
+        previous.addEntryAction(second);
+        condition.addEntryAction(second);
+        condition.addDoAction(second);
+
+        assertEquals(Arrays.asList( //
+                states.get(first).setExitOutput(false), //
+                states.get(second).setDoOutput(true), //
+                states.get(first).setActiveOutput(), //
+                states.get(second).setActiveOutput()), //
+                condition.changeOutputs(previous, states));
+    }
+
+    /**
+     * Confirm nothing is written when changing between identical conditions.
+     */
+    @Test
+    void changeIdenticalOutputs() throws ExportException {
+        final Condition previous = new Condition(model);
+        previous.addDoAction(first);
+        condition.addDoAction(first);
+
+        assertEquals(Collections.emptyList(), condition.changeOutputs(previous, StateMap.build(model)));
+    }
+
+    /**
+     * Confirm every active output is energized when changing from the reset
+     * condition.
+     */
+    @Test
+    void changeFromReset() throws ExportException {
+        final Map<Integer, AoiState> states = StateMap.build(model);
+        condition.addExitAction(first);
+        condition.addEntryAction(second);
+
+        assertEquals(Arrays.asList( //
+                states.get(second).setEntryOutput(true), //
+                states.get(first).setExitOutput(true), //
+                states.get(first).setActiveOutput(), //
+                states.get(second).setActiveOutput()), //
+                condition.changeOutputs(null, states));
+    }
+}
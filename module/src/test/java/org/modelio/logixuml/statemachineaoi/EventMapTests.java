@@ -23,7 +23,6 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -35,42 +34,54 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.Region;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
-import org.modelio.vcore.smkernel.mapi.MObject;
 
 /**
- * Unit tests for building a map of AoiEvent objects from a set of state machine
- * model elements.
+ * Unit tests for building a map of AoiEvent objects from the transitions of a
+ * state machine snapshot.
  */
 class EventMapTests {
     /**
-     * Set of mock source model elements supplied to EventMap.
+     * Mock source state machine.
      */
-    private Set<MObject> modelElements;
+    private StateMachine stateMachine;
 
     /**
-     * Populates the model element set with some boiler-plate elements.
+     * Top-level region of the mock state machine.
+     */
+    private Region region;
+
+    /**
+     * Populates the state machine with some boiler-plate elements.
      */
     @BeforeEach
     void initModel() {
-        modelElements = new HashSet<>();
-        final StateMachine stateMachine = MockModel.stateMachine("sm", null);
-        modelElements.add(stateMachine);
-        final Region region = MockModel.region(stateMachine);
-        modelElements.add(region);
-        modelElements.add(MockModel.state("state", region));
+        stateMachine = MockModel.stateMachine("sm", null);
+        region = MockModel.region(stateMachine);
+        MockModel.state("state", region);
     }
 
     /**
-     * Adds a transition to the source model element set.
+     * Adds a transition to the mock state machine.
      *
      * @param eventName Name of the triggering event.
      */
     private void addTransition(final String eventName) {
-        final State source = MockModel.state("source", null);
-        modelElements.add(source);
-        final State target = MockModel.state("target", null);
-        modelElements.add(target);
-        modelElements.add(MockModel.transition(source, target, eventName));
+        final State source = MockModel.state("source", region);
+        final State target = MockModel.state("target", region);
+        MockModel.transition(source, target, eventName);
+    }
+
+    /**
+     * Builds the event map from a snapshot of the mock state machine.
+     *
+     * @return The event map.
+     */
+    private Map<String, AoiEvent> buildMap() {
+        try {
+            return EventMap.build(ModelioModelReader.read(stateMachine));
+        } catch (ExportException e) {
+            throw new AssertionError(e);
+        }
     }
 
     /**
@@ -80,7 +91,7 @@ class EventMapTests {
     @ValueSource(strings = { "", "   " })
     void ignoreEmptyEvents(final String eventName) {
         addTransition(eventName);
-        final Map<String, AoiEvent> map = EventMap.build(modelElements);
+        final Map<String, AoiEvent> map = buildMap();
         assertEquals(0, map.size());
     }
 
@@ -90,7 +101,7 @@ class EventMapTests {
     @Test
     void ignoreNullEvents() {
         addTransition(null);
-        final Map<String, AoiEvent> map = EventMap.build(modelElements);
+        final Map<String, AoiEvent> map = buildMap();
         assertEquals(0, map.size());
     }
 
@@ -100,7 +111,7 @@ class EventMapTests {
     @Test
     void trimWhitespace() {
         addTransition("  event  ");
-        final Map<String, AoiEvent> map = EventMap.build(modelElements);
+        final Map<String, AoiEvent> map = buildMap();
         assertTrue(map.containsKey("event"));
     }
 
@@ -111,7 +122,7 @@ class EventMapTests {
     void duplicateName() {
         addTransition("event");
         addTransition("event");
-        final Map<String, AoiEvent> map = EventMap.build(modelElements);
+        final Map<String, AoiEvent> map = buildMap();
         assertEquals(1, map.size());
     }
 
@@ -122,7 +133,7 @@ class EventMapTests {
     void caseDifference() {
         addTransition("EVENT");
         addTransition("event");
-        final Map<String, AoiEvent> map = EventMap.build(modelElements);
+        final Map<String, AoiEvent> map = buildMap();
         assertEquals(1, map.size());
     }
 
@@ -133,7 +144,7 @@ class EventMapTests {
     void positiveId() {
         addTransition("e1");
         addTransition("e2");
-        final Map<String, AoiEvent> map = EventMap.build(modelElements);
+        final Map<String, AoiEvent> map = buildMap();
         for (final AoiEvent e : map.values()) {
             assertTrue(e.getId() > 0);
         }
@@ -146,7 +157,7 @@ class EventMapTests {
     void uniqueId() {
         addTransition("e1");
         addTransition("e2");
-        final Map<String, AoiEvent> map = EventMap.build(modelElements);
+        final Map<String, AoiEvent> map = buildMap();
 
         // Construct a set of assigned IDs to determine the number of unique values.
         final Set<Integer> ids = map.values().stream().map(e -> e.getId()).collect(Collectors.toSet());
@@ -158,7 +169,7 @@ class EventMapTests {
      */
     @Test
     void immutable() {
-        final Map<String, AoiEvent> map = EventMap.build(modelElements);
+        final Map<String, AoiEvent> map = buildMap();
         assertThrows(UnsupportedOperationException.class, () -> map.put("event", new AoiEvent("event", 1)));
     }
 }
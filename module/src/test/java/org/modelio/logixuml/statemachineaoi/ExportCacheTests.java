@@ -0,0 +1,162 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.InitialPseudoState;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.Region;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
+
+/**
+ * Unit tests for reusing exports of unchanged state machines.
+ */
+class ExportCacheTests {
+    /**
+     * Directory receiving the exported files.
+     */
+    @TempDir
+    Path dir;
+
+    /**
+     * State machine being exported.
+     */
+    private StateMachine sm;
+
+    /**
+     * Initial state.
+     */
+    private State s1;
+
+    /**
+     * Target of the sole event transition.
+     */
+    private State s2;
+
+    @BeforeEach
+    void setUp() {
+        sm = MockModel.stateMachine("sm", null);
+        final Region top = MockModel.region(sm);
+        s1 = MockModel.state("s1", top);
+        s2 = MockModel.state("s2", top);
+        final InitialPseudoState initial = MockModel.initialPseudoState(top);
+        MockModel.transition(initial, s1, "");
+        MockModel.transition(s1, s2, "go");
+    }
+
+    /**
+     * Confirm nothing is restored before the first export.
+     */
+    @Test
+    void emptyMiss() throws ExportException {
+        assertFalse(cache("1").restore(ModelioModelReader.read(sm)));
+    }
+
+    /**
+     * Confirm a stored export is restored, rewriting a deleted file with the
+     * original content.
+     */
+    @Test
+    void restore() throws ExportException, IOException {
+        final Path l5x = dir.resolve(export("1").getName() + ".L5X");
+        final byte[] original = Files.readAllBytes(l5x);
+        Files.delete(l5x);
+
+        assertTrue(cache("1").restore(ModelioModelReader.read(sm)));
+        assertArrayEquals(original, Files.readAllBytes(l5x));
+    }
+
+    /**
+     * Confirm a change to a stereotype property invalidates the stored export.
+     */
+    @Test
+    void propertyChanged() throws ExportException {
+        export("1");
+        MockModel.addProperty(sm, "eventQueueSize", "4");
+        assertFalse(cache("1").restore(ModelioModelReader.read(sm)));
+    }
+
+    /**
+     * Confirm a change to a transition invalidates the stored export.
+     */
+    @Test
+    void transitionAdded() throws ExportException {
+        final String before = ModelioModelReader.read(sm).getContentHash();
+        export("1");
+        MockModel.transition(s2, s1, "back");
+
+        final ModelSnapshot changed = ModelioModelReader.read(sm);
+        assertNotEquals(before, changed.getContentHash());
+        assertFalse(cache("1").restore(changed));
+    }
+
+    /**
+     * Confirm an export stored by a different generator version is not used.
+     */
+    @Test
+    void versionChanged() throws ExportException {
+        export("1");
+        assertFalse(cache("2").restore(ModelioModelReader.read(sm)));
+    }
+
+    /**
+     * Confirm the content hash is independent of the snapshot instance.
+     */
+    @Test
+    void stableHash() throws ExportException {
+        assertEquals(ModelioModelReader.read(sm).getContentHash(), ModelioModelReader.read(sm).getContentHash());
+    }
+
+    /**
+     * Exports the state machine and stores the result in the cache.
+     *
+     * @param version Generator version.
+     * @return The exported AOI.
+     */
+    private StateMachineAoi export(final String version) throws ExportException {
+        final StateMachineAoi aoi = new StateMachineAoi(ModelioModelReader.read(sm));
+        aoi.export(dir.toString());
+        cache(version).store(aoi);
+        return aoi;
+    }
+
+    /**
+     * Creates a cache for the temporary export directory.
+     *
+     * @param version Generator version.
+     * @return The export cache.
+     */
+    private ExportCache cache(final String version) {
+        return new ExportCache(dir.toString(), version);
+    }
+}
@@ -20,7 +20,6 @@
 package org.modelio.logixuml.statemachineaoi;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -29,7 +28,7 @@ import org.modelio.metamodel.uml.behavior.stateMachineModel.InitialPseudoState;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.Region;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
+import org.modelio.vcore.smkernel.mapi.MObject;
 
 /**
  * Unit tests for the static InitialTransition class.
@@ -39,6 +38,23 @@ class InitialTransitionTests {
     private StateMachine stateMachine;
     private Region top;
 
+    // Snapshot of the mock model, taken by getInitialTransition().
+    private ModelSnapshot model;
+
+    /**
+     * Takes a snapshot of the completed mock model and acquires the initial
+     * transition of the state machine or a state.
+     *
+     * @param parent State machine or state to query.
+     * @return Identifier of the initial transition, or NONE.
+     * @throws ExportException
+     */
+    private int getInitialTransition(final MObject parent) throws ExportException {
+        model = ModelioModelReader.read(stateMachine);
+        final int id = (parent == stateMachine) ? ModelSnapshot.STATE_MACHINE : model.getStateId(parent);
+        return InitialTransition.getInitialTransition(model, id);
+    }
+
     /**
      * Builds the root model objects required for each test.
      */
@@ -58,18 +74,18 @@ class InitialTransitionTests {
         final InitialPseudoState initial = MockModel.initialPseudoState(top);
         MockModel.transition(initial, state, "");
 
-        final Transition result = InitialTransition.getInitialTransition(stateMachine);
-        assertEquals(state, result.getTarget());
+        final int result = getInitialTransition(stateMachine);
+        assertEquals(model.getStateId(state), model.getTransitionTarget(result));
     }
 
     /**
-     * Confirm null is returned for a state machine with no initial transition.
+     * Confirm NONE is returned for a state machine with no initial transition.
      *
      * @see StateMachineInitialTransitionTests#noInitial()
      */
     @Test
     void stateMachineNone() throws ExportException {
-        assertNull(InitialTransition.getInitialTransition(stateMachine));
+        assertEquals(ModelSnapshot.NONE, getInitialTransition(stateMachine));
     }
 
     /**
@@ -81,7 +97,7 @@ class InitialTransitionTests {
         MockModel.initialPseudoState(top);
         MockModel.initialPseudoState(top);
 
-        assertThrows(ExportException.class, () -> InitialTransition.getInitialTransition(stateMachine));
+        assertThrows(ExportException.class, () -> getInitialTransition(stateMachine));
     }
 
     /**
@@ -96,29 +112,29 @@ class InitialTransitionTests {
         final InitialPseudoState initial = MockModel.initialPseudoState(region);
         MockModel.transition(initial, substate, "");
 
-        final Transition result = InitialTransition.getInitialTransition(state);
-        assertEquals(substate, result.getTarget());
+        final int result = getInitialTransition(state);
+        assertEquals(model.getStateId(substate), model.getTransitionTarget(result));
     }
 
     /**
-     * Confirm a state with no child region returns null.
+     * Confirm a state with no child region returns NONE.
      */
     @Test
     void stateNoRegion() throws ExportException {
         final State state = MockModel.state("", top);
 
-        assertNull(InitialTransition.getInitialTransition(state));
+        assertEquals(ModelSnapshot.NONE, getInitialTransition(state));
     }
 
     /**
-     * Confirm a state with a child region but no initial transition returns null.
+     * Confirm a state with a child region but no initial transition returns NONE.
      */
     @Test
     void stateRegionNoInitial() throws ExportException {
         final State state = MockModel.state("", top);
         MockModel.region(state);
 
-        assertNull(InitialTransition.getInitialTransition(state));
+        assertEquals(ModelSnapshot.NONE, getInitialTransition(state));
     }
 
     /**
@@ -130,7 +146,7 @@ class InitialTransitionTests {
         MockModel.region(state);
         MockModel.region(state);
 
-        assertThrows(ExportException.class, () -> InitialTransition.getInitialTransition(state));
+        assertThrows(ExportException.class, () -> getInitialTransition(state));
     }
 
     /**
@@ -147,7 +163,7 @@ class InitialTransitionTests {
         final InitialPseudoState initial = MockModel.initialPseudoState(region);
         MockModel.transition(initial, superState, "");
 
-        assertThrows(ExportException.class, () -> InitialTransition.getInitialTransition(state));
+        assertThrows(ExportException.class, () -> getInitialTransition(state));
     }
 
     /**
@@ -161,7 +177,7 @@ class InitialTransitionTests {
         final InitialPseudoState initial = MockModel.initialPseudoState(region);
         MockModel.transition(initial, state, "");
 
-        assertThrows(ExportException.class, () -> InitialTransition.getInitialTransition(state));
+        assertThrows(ExportException.class, () -> getInitialTransition(state));
     }
 
     /**
@@ -177,7 +193,7 @@ class InitialTransitionTests {
         final InitialPseudoState initial = MockModel.initialPseudoState(region);
         MockModel.transition(initial, target, "");
 
-        assertThrows(ExportException.class, () -> InitialTransition.getInitialTransition(source));
+        assertThrows(ExportException.class, () -> getInitialTransition(source));
     }
 
     /**
@@ -191,7 +207,7 @@ class InitialTransitionTests {
         final InitialPseudoState initial = MockModel.initialPseudoState(top);
         MockModel.transition(initial, state, "  ");
 
-        InitialTransition.getInitialTransition(stateMachine);
+        getInitialTransition(stateMachine);
     }
 
     /**
@@ -205,6 +221,6 @@ class InitialTransitionTests {
         final InitialPseudoState initial = MockModel.initialPseudoState(top);
         MockModel.transition(initial, state, "event");
 
-        assertThrows(ExportException.class, () -> InitialTransition.getInitialTransition(stateMachine));
+        assertThrows(ExportException.class, () -> getInitialTransition(stateMachine));
     }
 }
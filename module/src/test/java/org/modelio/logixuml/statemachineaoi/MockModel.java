@@ -54,7 +54,6 @@ import org.modelio.metamodel.uml.infrastructure.ModelElement;
 import org.modelio.metamodel.uml.statik.Package;
 import org.modelio.vcore.smkernel.mapi.MClass;
 import org.modelio.vcore.smkernel.mapi.MObject;
-import org.modelio.vcore.smkernel.mapi.MRef;
 
 /**
  * Static methods to generate mock model objects.
@@ -352,14 +351,12 @@ class MockModel {
         final String simpleName = MClassName.split(String.format("\\Q%c\\E", MClass.QUALIFIER_SEP))[1];
         when(obj.getMClass().getName()).thenReturn(simpleName);
 
-        // A UUID is needed to generate an MRef object pointing to the mock object.
+        // A UUID is needed to generate an MRef object pointing to the mock object,
+        // which is how model snapshots index model elements.
         lenient().when(obj.getUuid()).thenReturn(UUID.randomUUID().toString());
 
         when(obj.getName()).thenReturn(new String(name));
 
-        // Register references to mock objects in the mock modeling session.
-        MockModule.setSessionMRef(new MRef(obj), obj);
-
         return obj;
     }
 }
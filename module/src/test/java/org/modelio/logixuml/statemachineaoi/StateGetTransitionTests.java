@@ -35,12 +35,17 @@ import org.modelio.metamodel.uml.behavior.stateMachineModel.Region;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
-import org.modelio.vcore.smkernel.mapi.MRef;
 
 /**
  * Unit tests for transitions generated from a single state.
  */
 class StateGetTransitionTests {
+    // Mock state machine containing all states.
+    private StateMachine sm;
+
+    // Snapshot of the mock state machine, built by buildSource().
+    private ModelSnapshot model;
+
     // Mock transition source states.
     private State topSuperstate;
     private State midSuperstate;
@@ -56,8 +61,7 @@ class StateGetTransitionTests {
 
     @BeforeEach
     void setUp() {
-        MockModule.init();
-        final StateMachine sm = MockModel.stateMachine("sm", null);
+        sm = MockModel.stateMachine("sm", null);
         final Region top = MockModel.region(sm);
         topSuperstate = MockModel.state("superstate1", top);
         midSuperstate = MockModel.state("superstate2", topSuperstate);
@@ -76,7 +80,7 @@ class StateGetTransitionTests {
     void emptyEvent(final String event) {
         final Transition tx = MockModel.transition(source, expectedTarget, event);
         try {
-            final AoiState aoiState = new AoiState(source);
+            final AoiState aoiState = buildSource();
             ExportException e = assertThrows(ExportException.class, () -> aoiState.getTransitions(txFactory));
             assertSame(tx, e.getModelObject());
         } catch (ExportException e) {
@@ -91,7 +95,7 @@ class StateGetTransitionTests {
     void nullEvent() {
         final Transition tx = MockModel.transition(source, expectedTarget, null);
         try {
-            final AoiState aoiState = new AoiState(source);
+            final AoiState aoiState = buildSource();
             ExportException e = assertThrows(ExportException.class, () -> aoiState.getTransitions(txFactory));
             assertSame(tx, e.getModelObject());
         } catch (ExportException e) {
@@ -109,7 +113,7 @@ class StateGetTransitionTests {
         MockModel.transition(source, expectedTarget, "event");
         MockModel.transition(source, expectedTarget, dupEvent);
         try {
-            final AoiState aoiState = new AoiState(source);
+            final AoiState aoiState = buildSource();
             ExportException e = assertThrows(ExportException.class, () -> aoiState.getTransitions(txFactory));
             assertSame(source, e.getModelObject());
         } catch (ExportException e) {
@@ -125,7 +129,7 @@ class StateGetTransitionTests {
         MockModel.transition(source, expectedTarget, "event");
         Map<String, TransitionConditions> map = null;
         try {
-            final AoiState aoiState = new AoiState(source);
+            final AoiState aoiState = buildSource();
             map = aoiState.getTransitions(txFactory);
         } catch (ExportException e) {
             fail();
@@ -141,7 +145,7 @@ class StateGetTransitionTests {
         MockModel.transition(source, expectedTarget, "  event \n\t\r");
         Map<String, TransitionConditions> map = null;
         try {
-            final AoiState aoiState = new AoiState(source);
+            final AoiState aoiState = buildSource();
             map = aoiState.getTransitions(txFactory);
         } catch (ExportException e) {
             fail();
@@ -159,7 +163,7 @@ class StateGetTransitionTests {
         MockModel.transition(source, expectedTarget, "event");
         Map<String, TransitionConditions> map = null;
         try {
-            final AoiState aoiState = new AoiState(source);
+            final AoiState aoiState = buildSource();
             map = aoiState.getTransitions(txFactory);
         } catch (ExportException e) {
             fail();
@@ -183,12 +187,12 @@ class StateGetTransitionTests {
 
         Map<String, TransitionConditions> map = null;
         try {
-            final AoiState aoiState = new AoiState(source);
+            final AoiState aoiState = buildSource();
             map = aoiState.getTransitions(txFactory);
         } catch (ExportException e) {
             fail();
         }
-        assertEquals(new MRef(expectedTarget), map.get("event").getTarget());
+        assertEquals(model.getStateId(expectedTarget), map.get("event").getTarget());
     }
 
     /**
@@ -198,11 +202,23 @@ class StateGetTransitionTests {
     void transitionToSelf() {
         final Transition tx = MockModel.transition(source, source, "event");
         try {
-            final AoiState aoiState = new AoiState(source);
+            final AoiState aoiState = buildSource();
             ExportException e = assertThrows(ExportException.class, () -> aoiState.getTransitions(txFactory));
             assertSame(tx, e.getModelObject());
         } catch (ExportException e) {
             fail();
         }
     }
+
+    /**
+     * Takes a snapshot of the completed mock model, and creates the AoiState for
+     * the source state.
+     *
+     * @return The source AoiState.
+     * @throws ExportException
+     */
+    private AoiState buildSource() throws ExportException {
+        model = ModelioModelReader.read(sm);
+        return new AoiState(model, model.getStateId(source));
+    }
 }
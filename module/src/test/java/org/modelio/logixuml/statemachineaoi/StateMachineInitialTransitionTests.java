@@ -37,15 +37,14 @@ class StateMachineInitialTransitionTests {
      * Confirm a state machine with no initial transition is rejected.
      * <p>
      * Similar to {@link InitialTransitionTests#stateMachineNone()}, but this
-     * verifies the ultimate exception is thrown as opposed to the null return
+     * verifies the ultimate exception is thrown as opposed to the NONE return
      * value.
      */
     @Test
     void noInitial() {
-        MockModule.init();
         final StateMachine sm = MockModel.stateMachine("sm", null);
         final Region top = MockModel.region(sm);
         MockModel.state("state", top);
-        assertThrows(ExportException.class, () -> new StateMachineAoi(sm));
+        assertThrows(ExportException.class, () -> new StateMachineAoi(ModelioModelReader.read(sm)));
     }
 }
@@ -47,7 +47,6 @@ class StateMachineNameTests {
      * @return The mock state machine model.
      */
     private MObject mockStateMachine(final String name) {
-        MockModule.init();
         final StateMachine sm = MockModel.stateMachine(name, null);
         final Region top = MockModel.region(sm);
         final State state = MockModel.state("state", top);
@@ -63,7 +62,7 @@ class StateMachineNameTests {
     @ValueSource(strings = { "", "  " }) // Null is not included because getName() never returns null.
     void emptyName(final String name) {
         final MObject sm = mockStateMachine(name);
-        assertThrows(ExportException.class, () -> new StateMachineAoi(sm));
+        assertThrows(ExportException.class, () -> new StateMachineAoi(ModelioModelReader.read(sm)));
     }
 
     /**
@@ -78,7 +77,7 @@ class StateMachineNameTests {
         // rejects all whitespace, and would throw an exception if surrounding
         // whitespace was not removed.
         try {
-            new StateMachineAoi(sm);
+            new StateMachineAoi(ModelioModelReader.read(sm));
         } catch (ExportException e) {
             fail(e);
         }
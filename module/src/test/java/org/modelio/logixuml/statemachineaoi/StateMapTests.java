@@ -24,7 +24,6 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
-import java.util.Arrays;
 import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -34,8 +33,6 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.Region;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
-import org.modelio.vcore.model.CompositionGetter;
-import org.modelio.vcore.smkernel.mapi.MRef;
 
 /**
  * Unit tests for the StateMap.build() method.
@@ -47,7 +44,6 @@ class StateMapTests {
 
     @BeforeEach
     void setUp() {
-        MockModule.init();
         stateMachine = MockModel.stateMachine("sm", null);
         top = MockModel.region(stateMachine);
     }
@@ -61,10 +57,11 @@ class StateMapTests {
         final Region region = MockModel.region(superstate);
         final State state = MockModel.state("state", region);
         try {
-            final Map<MRef, AoiState> map = buildMap();
+            final ModelSnapshot model = ModelioModelReader.read(stateMachine);
+            final Map<Integer, AoiState> map = StateMap.build(model);
             assertEquals(2, map.size());
-            assertTrue(map.containsKey(new MRef(superstate)));
-            assertTrue(map.containsKey(new MRef(state)));
+            assertTrue(map.containsKey(model.getStateId(superstate)));
+            assertTrue(map.containsKey(model.getStateId(state)));
         } catch (ExportException e) {
             fail();
         }
@@ -88,10 +85,10 @@ class StateMapTests {
     @Test
     void readOnly() {
         try {
-            Map<MRef, AoiState> map = buildMap();
-            final State state = MockModel.state("state", top);
-            final MRef ref = new MRef(state);
-            assertThrows(UnsupportedOperationException.class, () -> map.put(ref, new AoiState(state)));
+            MockModel.state("state", top);
+            final ModelSnapshot model = ModelioModelReader.read(stateMachine);
+            final Map<Integer, AoiState> map = StateMap.build(model);
+            assertThrows(UnsupportedOperationException.class, () -> map.put(0, new AoiState(model, 0)));
         } catch (ExportException e) {
             fail();
         }
@@ -103,7 +100,7 @@ class StateMapTests {
      * @return The built state map.
      * @throws ExportException
      */
-    private Map<MRef, AoiState> buildMap() throws ExportException {
-        return StateMap.build(CompositionGetter.getAllChildren(Arrays.asList(stateMachine)));
+    private Map<Integer, AoiState> buildMap() throws ExportException {
+        return StateMap.build(ModelioModelReader.read(stateMachine));
     }
 }
@@ -23,29 +23,23 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
 
 /**
  * Unit tests for the name assigned to a state.
  */
 class StateNameTests {
-    @BeforeEach
-    void setUp() {
-        MockModule.init();
-    }
-
     /**
      * Confirm empty names are rejected.
      */
     @ParameterizedTest
     @ValueSource(strings = { "", " \t\r\n" })
     void emptyName(final String name) {
-        final State state = MockModel.state(name, null);
-        assertThrows(ExportException.class, () -> new AoiState(state));
+        final ModelSnapshot model = mockState(name);
+        assertThrows(ExportException.class, () -> new AoiState(model, 0));
     }
 
     /**
@@ -53,13 +47,29 @@ class StateNameTests {
      */
     @Test
     void nameWhitespace() {
-        final State state = MockModel.state("  foo  ", null);
         AoiState aoiState = null;
         try {
-            aoiState = new AoiState(state);
+            aoiState = new AoiState(mockState("  foo  "), 0);
         } catch (ExportException e) {
             fail();
         }
         assertEquals("foo", aoiState.getName());
     }
+
+    /**
+     * Creates a mock state machine containing a single state.
+     *
+     * @param name State name.
+     * @return Snapshot of the mock state machine; the state's identifier is zero.
+     */
+    private ModelSnapshot mockState(final String name) {
+        final StateMachine sm = MockModel.stateMachine("sm", null);
+        MockModel.state(name, MockModel.region(sm));
+
+        try {
+            return ModelioModelReader.read(sm);
+        } catch (ExportException e) {
+            throw new AssertionError(e);
+        }
+    }
 }
@@ -24,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
 
 /**
  * Unit tests verifying response to the number of regions within a state.
@@ -35,8 +36,8 @@ class StateRegionsTests {
     @ParameterizedTest
     @ValueSource(ints = { 0, 1 })
     void validRegions(final int qty) throws ExportException {
-        final State state = mockState(qty);
-        new AoiState(state);
+        final ModelSnapshot model = mockState(qty);
+        new AoiState(model, 0);
     }
 
     /**
@@ -45,23 +46,28 @@ class StateRegionsTests {
     @ParameterizedTest
     @ValueSource(ints = { 2, 4 })
     void invalidRegions(final int qty) {
-        final State state = mockState(qty);
-        assertThrows(ExportException.class, () -> new AoiState(state));
+        final ModelSnapshot model = mockState(qty);
+        assertThrows(ExportException.class, () -> new AoiState(model, 0));
     }
 
     /**
-     * Creates a mock state containing a given number of regions.
+     * Creates a mock state machine with a single state containing a given number
+     * of regions.
      *
      * @param numRegion Number of child regions.
-     * @return The mock state.
+     * @return Snapshot of the mock state machine; the state's identifier is zero.
      */
-    private State mockState(final int numRegion) {
-        MockModule.init();
-
-        final State state = MockModel.state("state", null);
+    private ModelSnapshot mockState(final int numRegion) {
+        final StateMachine sm = MockModel.stateMachine("sm", null);
+        final State state = MockModel.state("state", MockModel.region(sm));
         for (int i = 0; i < numRegion; i++) {
             MockModel.region(state);
         }
-        return state;
+
+        try {
+            return ModelioModelReader.read(sm);
+        } catch (ExportException e) {
+            throw new AssertionError(e);
+        }
     }
 }
@@ -29,7 +29,6 @@ import org.junit.jupiter.api.Test;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.Region;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
-import org.modelio.vcore.smkernel.mapi.MRef;
 
 /**
  * Unit tests for the content of the stable condition computed for a given
@@ -37,19 +36,19 @@ import org.modelio.vcore.smkernel.mapi.MRef;
  */
 class StateStableConditionTests {
     /**
-     * Reference to the mock super-state containing the source state.
+     * Identifier of the mock super-state containing the source state.
      */
-    private MRef superstateRef;
+    private int superstateRef;
 
     /**
-     * Reference to the mock source state.
+     * Identifier of the mock source state.
      */
-    private MRef stateRef;
+    private int stateRef;
 
     /**
-     * Reference to a mock sub-state of the source state.
+     * Identifier of a mock sub-state of the source state.
      */
-    private MRef substateRef;
+    private int substateRef;
 
     /**
      * Result condition.
@@ -61,8 +60,6 @@ class StateStableConditionTests {
      */
     @BeforeEach
     private void setUp() {
-        MockModule.init();
-
         // Build mock model elements.
         final StateMachine stateMachine = MockModel.stateMachine("sm", null);
         final Region top = MockModel.region(stateMachine);
@@ -70,14 +67,15 @@ class StateStableConditionTests {
         final State state = MockModel.state("state", superstate);
         final State substate = MockModel.state("sub", state);
 
-        // Create references to mock model elements.
-        superstateRef = new MRef(superstate);
-        stateRef = new MRef(state);
-        substateRef = new MRef(substate);
-
         AoiState aoiState = null;
         try {
-            aoiState = new AoiState(state);
+            // Look up identifiers of mock model elements.
+            final ModelSnapshot model = ModelioModelReader.read(stateMachine);
+            superstateRef = model.getStateId(superstate);
+            stateRef = model.getStateId(state);
+            substateRef = model.getStateId(substate);
+
+            aoiState = new AoiState(model, stateRef);
         } catch (ExportException e) {
             fail();
         }
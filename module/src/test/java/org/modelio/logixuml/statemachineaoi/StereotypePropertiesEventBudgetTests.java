@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
+
+/**
+ * Unit tests for values supplied in the stereotype property table for the
+ * number of events evaluated per scan.
+ */
+class StereotypePropertiesEventBudgetTests {
+    /**
+     * Confirm blank values leave the number unlimited.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "", " \r\t\n" })
+    void empty(final String value) {
+        assertValue(value, 0);
+    }
+
+    /**
+     * Confirm a null value leaves the number unlimited.
+     */
+    @Test
+    void nullValue() {
+        assertValue(null, 0);
+    }
+
+    /**
+     * Confirm non-negative integers are accepted, ignoring surrounding whitespace.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "1", " 3\t", "1000" })
+    void valid(final String value) {
+        assertValue(value, Integer.parseInt(value.trim()));
+    }
+
+    /**
+     * Confirm negative and non-integer values are rejected.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "-1", "1.5", "foo" })
+    void invalid(final String value) {
+        final StereotypeProperties prop = mockProperties(value);
+        assertThrows(ExportException.class, prop::getEventBudget, "Failure value: \"" + value + "\"");
+    }
+
+    /**
+     * Confirms a property value is accepted and yields the expected budget.
+     *
+     * @param value    Property value.
+     * @param expected Expected budget.
+     */
+    private void assertValue(final String value, final int expected) {
+        final StereotypeProperties prop = mockProperties(value);
+        try {
+            assertEquals(expected, prop.getEventBudget());
+        } catch (ExportException e) {
+            fail("Failure value: " + value);
+        }
+    }
+
+    /**
+     * Creates a mock stereotype property object.
+     *
+     * @param value Event budget property value.
+     * @return Mock object containing the given event budget value.
+     */
+    private StereotypeProperties mockProperties(final String value) {
+        final StateMachine sm = MockModel.stateMachine("sm", null);
+        MockModel.addProperty(sm, "eventBudget", value);
+        return new StereotypeProperties(ModelioModelReader.readProperties(sm));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
+
+/**
+ * Unit tests for values supplied in the stereotype property table for event
+ * priorities.
+ */
+class StereotypePropertiesEventPrioritiesTests {
+    /**
+     * Confirm blank values assign no priorities.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "", " \r\t\n" })
+    void empty(final String value) {
+        assertValue(value, Collections.emptyList());
+    }
+
+    /**
+     * Confirm a null value assigns no priorities.
+     */
+    @Test
+    void nullValue() {
+        assertValue(null, Collections.emptyList());
+    }
+
+    /**
+     * Confirm a single event forms a single group.
+     */
+    @Test
+    void single() {
+        assertValue("estop", Arrays.asList(Arrays.asList("estop")));
+    }
+
+    /**
+     * Confirm groups are returned in the listed order, ignoring whitespace around
+     * names.
+     */
+    @Test
+    void groups() {
+        assertValue(" estop ; fault,\talarm ", Arrays.asList( //
+                Arrays.asList("estop"), //
+                Arrays.asList("fault", "alarm")));
+    }
+
+    /**
+     * Confirm blank names and groups are rejected.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { ";", ",", "a;", ";a", "a,", "a,,b", "a;;b", "a; ;b" })
+    void blank(final String value) {
+        final StereotypeProperties prop = mockProperties(value);
+        assertThrows(ExportException.class, prop::getEventPriorities, "Failure value: \"" + value + "\"");
+    }
+
+    /**
+     * Confirm events listed more than once, ignoring case, are rejected.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "a,a", "a;a", "a;b,A" })
+    void duplicate(final String value) {
+        final StereotypeProperties prop = mockProperties(value);
+        assertThrows(ExportException.class, prop::getEventPriorities, "Failure value: \"" + value + "\"");
+    }
+
+    /**
+     * Confirms a property value is accepted and yields the expected groups.
+     *
+     * @param value    Property value.
+     * @param expected Expected event name groups.
+     */
+    private void assertValue(final String value, final List<List<String>> expected) {
+        final StereotypeProperties prop = mockProperties(value);
+        try {
+            assertEquals(expected, prop.getEventPriorities());
+        } catch (ExportException e) {
+            fail("Failure value: " + value);
+        }
+    }
+
+    /**
+     * Creates a mock stereotype property object.
+     *
+     * @param value Event priorities property value.
+     * @return Mock object containing the given event priorities value.
+     */
+    private StereotypeProperties mockProperties(final String value) {
+        final StateMachine sm = MockModel.stateMachine("sm", null);
+        MockModel.addProperty(sm, "eventPriorities", value);
+        return new StereotypeProperties(ModelioModelReader.readProperties(sm));
+    }
+}
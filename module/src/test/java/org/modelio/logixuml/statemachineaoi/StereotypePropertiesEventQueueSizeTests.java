@@ -79,7 +79,7 @@ class StereotypePropertiesEventQueueSizeTests {
      * Confirm values at the limits of the allowable range are accepted.
      */
     @ParameterizedTest
-    @ValueSource(strings = { "1", "8" })
+    @ValueSource(strings = { "1", "256" })
     void minMax(final String value) {
         final StereotypeProperties prop = mockProperties(value);
         try {
@@ -93,7 +93,7 @@ class StereotypePropertiesEventQueueSizeTests {
      * Confirm values outside the allowable range are rejected.
      */
     @ParameterizedTest
-    @ValueSource(strings = { "0", "9" })
+    @ValueSource(strings = { "0", "257" })
     void outsideLimit(final String value) {
         final StereotypeProperties prop = mockProperties(value);
         assertThrows(ExportException.class, prop::getEventQueueSize, "Failure value: " + value);
@@ -106,9 +106,8 @@ class StereotypePropertiesEventQueueSizeTests {
      * @return Mock object containing the given event queue size value.
      */
     private StereotypeProperties mockProperties(final String value) {
-        MockModule.init();
         final StateMachine sm = MockModel.stateMachine("sm", null);
         MockModel.addProperty(sm, "eventQueueSize", value);
-        return new StereotypeProperties(sm);
+        return new StereotypeProperties(ModelioModelReader.readProperties(sm));
     }
 }
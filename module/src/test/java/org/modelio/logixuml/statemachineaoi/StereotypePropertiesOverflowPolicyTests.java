@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
+
+/**
+ * Unit tests for values supplied in the stereotype property table for the
+ * event queue overflow policy.
+ */
+class StereotypePropertiesOverflowPolicyTests {
+    /**
+     * Confirm blank values select halting.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "", " \r\t\n" })
+    void empty(final String value) {
+        assertValue(value, OverflowPolicy.HALT);
+    }
+
+    /**
+     * Confirm a null value selects halting.
+     */
+    @Test
+    void nullValue() {
+        assertValue(null, OverflowPolicy.HALT);
+    }
+
+    /**
+     * Confirm leading and trailing whitespace are ignored.
+     */
+    @Test
+    void surroundingWhitespace() {
+        assertValue("  DROP_OLDEST \t\r\n", OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Confirm values are not case-sensitive.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = { "drop_newest", "DROP_NEWEST", "Drop_Newest" })
+    void caseInsensitive(final String value) {
+        assertValue(value, OverflowPolicy.DROP_NEWEST);
+    }
+
+    /**
+     * Confirm strings that are not enumeration members are rejected.
+     */
+    @Test
+    void undefinedValue() {
+        final StereotypeProperties prop = mockProperties("foo");
+        assertThrows(ExportException.class, prop::getOverflowPolicy);
+    }
+
+    /**
+     * Confirm valid enumeration names are accepted.
+     */
+    @ParameterizedTest
+    @EnumSource(OverflowPolicy.class)
+    void validValue(final OverflowPolicy value) {
+        assertValue(value.toString(), value);
+    }
+
+    /**
+     * Confirms a property value is accepted and yields the expected policy.
+     *
+     * @param value    Property value.
+     * @param expected Expected policy.
+     */
+    private void assertValue(final String value, final OverflowPolicy expected) {
+        final StereotypeProperties prop = mockProperties(value);
+        try {
+            assertEquals(expected, prop.getOverflowPolicy());
+        } catch (ExportException e) {
+            fail("Failure value: " + value);
+        }
+    }
+
+    /**
+     * Creates a mock stereotype property object.
+     *
+     * @param value Overflow policy property value.
+     * @return Mock object containing the given overflow policy value.
+     */
+    private StereotypeProperties mockProperties(final String value) {
+        final StateMachine sm = MockModel.stateMachine("sm", null);
+        MockModel.addProperty(sm, "overflowPolicy", value);
+        return new StereotypeProperties(ModelioModelReader.readProperties(sm));
+    }
+}
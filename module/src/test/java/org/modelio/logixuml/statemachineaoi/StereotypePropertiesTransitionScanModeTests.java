@@ -110,9 +110,8 @@ class StereotypePropertiesTransitionScanModeTests {
      * @return Mock object containing the given transition scan mode value.
      */
     private StereotypeProperties mockProperties(final String value) {
-        MockModule.init();
         final StateMachine sm = MockModel.stateMachine("sm", null);
         MockModel.addProperty(sm, "transitionScanMode", value);
-        return new StereotypeProperties(sm);
+        return new StereotypeProperties(ModelioModelReader.readProperties(sm));
     }
 }
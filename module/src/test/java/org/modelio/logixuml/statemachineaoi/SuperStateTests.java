@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.Region;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
+import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
+import org.modelio.metamodel.uml.statik.Package;
+
+/**
+ * Unit tests for super-state chains recorded in a model snapshot.
+ */
+class SuperStateTests {
+
+    /*
+     * Mock model objects.
+     */
+    private Package pkg; // Top level package.
+    private StateMachine stateMachine; // Enclosing state machine.
+    private Region top; // State machine's top-level region.
+    private State superState; // Top-level super-state.
+    private Region region; // Intermediate region.
+    private State subState; // Mid-level super-state.
+    private Region subRegion; // Intermediate region.
+    private State target; // Bottom-level state to query.
+    private State sibling; // Bottom-level state beside the target.
+    private State other; // Top-level state unrelated to the target.
+
+    private ModelSnapshot model;
+
+    @BeforeEach
+    private void createMockModel() throws ExportException {
+        pkg = MockModel.pkg();
+        stateMachine = MockModel.stateMachine("sm", pkg);
+        top = MockModel.region(stateMachine);
+        superState = MockModel.state("", top);
+        region = MockModel.region(superState);
+        subState = MockModel.state("", region);
+        subRegion = MockModel.region(subState);
+        target = MockModel.state("", subRegion);
+        sibling = MockModel.state("", subRegion);
+        other = MockModel.state("", top);
+        model = ModelioModelReader.read(stateMachine);
+    }
+
+    /**
+     * Confirms the correct list of super-state identifiers.
+     */
+    @Test
+    void stateList() {
+        final List<Integer> result = model.getSuperStates(model.getStateId(target));
+        final List<Integer> expected = new ArrayList<Integer>();
+        expected.add(model.getStateId(subState));
+        expected.add(model.getStateId(superState));
+        assertEquals(expected, result);
+    }
+
+    /**
+     * Confirms the directly enclosing state is recorded as each state's parent,
+     * and top-level states are parented by the state machine.
+     */
+    @Test
+    void parents() {
+        assertEquals(model.getStateId(subState), model.getParent(model.getStateId(target)));
+        assertEquals(model.getStateId(superState), model.getParent(model.getStateId(subState)));
+        assertEquals(ModelSnapshot.STATE_MACHINE, model.getParent(model.getStateId(superState)));
+    }
+
+    /**
+     * Confirms the nesting depth of each state.
+     */
+    @Test
+    void depth() {
+        final SuperStateIndex index = model.getSuperStateIndex();
+        assertEquals(0, index.getDepth(model.getStateId(superState)));
+        assertEquals(1, index.getDepth(model.getStateId(subState)));
+        assertEquals(2, index.getDepth(model.getStateId(target)));
+        assertEquals(0, index.getDepth(model.getStateId(other)));
+    }
+
+    /**
+     * Confirms ancestry queries only match proper super-states.
+     */
+    @Test
+    void isSuperState() {
+        final SuperStateIndex index = model.getSuperStateIndex();
+        assertTrue(index.isSuperState(model.getStateId(superState), model.getStateId(target)));
+        assertTrue(index.isSuperState(model.getStateId(subState), model.getStateId(target)));
+        assertFalse(index.isSuperState(model.getStateId(target), model.getStateId(target)));
+        assertFalse(index.isSuperState(model.getStateId(target), model.getStateId(subState)));
+        assertFalse(index.isSuperState(model.getStateId(other), model.getStateId(target)));
+        assertFalse(index.isSuperState(model.getStateId(sibling), model.getStateId(target)));
+    }
+
+    /**
+     * Confirms the lowest common ancestor of sibling states is their parent.
+     */
+    @Test
+    void lcaSiblings() {
+        assertEquals(model.getStateId(subState), model.getSuperStateIndex()
+                .getLowestCommonAncestor(model.getStateId(target), model.getStateId(sibling)));
+    }
+
+    /**
+     * Confirms the lowest common ancestor of a state and one of its super-states
+     * is the super-state.
+     */
+    @Test
+    void lcaAncestor() {
+        assertEquals(model.getStateId(superState), model.getSuperStateIndex()
+                .getLowestCommonAncestor(model.getStateId(target), model.getStateId(superState)));
+    }
+
+    /**
+     * Confirms states without any common super-state are joined at the state
+     * machine.
+     */
+    @Test
+    void lcaNone() {
+        assertEquals(ModelSnapshot.STATE_MACHINE, model.getSuperStateIndex()
+                .getLowestCommonAncestor(model.getStateId(target), model.getStateId(other)));
+    }
+
+    /**
+     * Confirms the lowest common ancestor of a group of states.
+     */
+    @Test
+    void lcaGroup() {
+        final List<Integer> group = Arrays.asList(model.getStateId(target), model.getStateId(sibling),
+                model.getStateId(subState));
+        assertEquals(model.getStateId(subState), model.getSuperStateIndex().getLowestCommonAncestor(group));
+    }
+
+    /**
+     * Confirms an empty group has no common ancestor.
+     */
+    @Test
+    void lcaEmptyGroup() {
+        assertThrows(AssertionError.class,
+                () -> model.getSuperStateIndex().getLowestCommonAncestor(new ArrayList<Integer>()));
+    }
+
+    /**
+     * Confirms the path from a state up to an ancestor excludes the ancestor.
+     */
+    @Test
+    void pathBelow() {
+        final List<Integer> expected = new ArrayList<Integer>();
+        expected.add(model.getStateId(target));
+        expected.add(model.getStateId(subState));
+        assertEquals(expected, model.getSuperStateIndex().getPathBelow(model.getStateId(target),
+                model.getStateId(superState)));
+    }
+
+    /**
+     * Confirms the path up to the state machine includes every super-state.
+     */
+    @Test
+    void pathBelowStateMachine() {
+        final List<Integer> expected = new ArrayList<Integer>();
+        expected.add(model.getStateId(target));
+        expected.add(model.getStateId(subState));
+        expected.add(model.getStateId(superState));
+        assertEquals(expected,
+                model.getSuperStateIndex().getPathBelow(model.getStateId(target), ModelSnapshot.STATE_MACHINE));
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2021 Jason Valenzuela
+ *
+ * This file is part of LogixUML.
+ *
+ * LogixUML is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * LogixUML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with LogixUML.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.modelio.logixuml.statemachineaoi;
+
+import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
+
+/**
+ * This object generates transition condition unit test results for dual scan
+ * mode transitions.
+ */
+class TransitionConditionDualTests extends TransitionConditionTests {
+    @Override
+    protected void generateResult() throws ExportException, IgnoreTransitionException {
+        buildSnapshot();
+        result = new TransitionDual(snapshot, snapshot.getTransitionId(transition), getActiveSource());
+    }
+
+    @Override
+    protected void generateExpectedStateMachineInitialTop() {
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(target));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedStateMachineInitialSubstate(final State superstate) {
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(target));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedStateMachineInitialSubstateNested(final State superstate, final State mid) {
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(mid));
+        c.addEntryAction(id(target));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedStateMachineInitialSuperstateInitial(final State superstate) {
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(target));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedStateMachineInitialSuperstateInitialNested(final State superstate, final State mid) {
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(mid));
+        c.addEntryAction(id(target));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedTopSibling() {
+        final Condition c1 = new Condition(snapshot);
+        c1.addExitAction(id(source));
+        expectedConditions.add(c1);
+
+        final Condition c2 = new Condition(snapshot);
+        c2.addEntryAction(id(target));
+        expectedConditions.add(c2);
+    }
+
+    @Override
+    protected void generateExpectedSubstateSibling(final State superstate) {
+        final Condition c1 = new Condition(snapshot);
+        c1.addDoAction(id(superstate));
+        c1.addExitAction(id(source));
+        expectedConditions.add(c1);
+
+        final Condition c2 = new Condition(snapshot);
+        c2.addDoAction(id(superstate));
+        c2.addEntryAction(id(target));
+        expectedConditions.add(c2);
+    }
+
+    @Override
+    protected void generateExpectedToSuperstate() {
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedToSuperstateNested(final State mid) {
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedToSubstate() {
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(source));
+        c.addEntryAction(id(target));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedToSubstateNested(final State mid) {
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(source));
+        c.addEntryAction(id(mid));
+        c.addEntryAction(id(target));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedSuperstateExit(final State superstate) {
+        final Condition c1 = new Condition(snapshot);
+        c1.addExitAction(id(source));
+        c1.addExitAction(id(superstate));
+        expectedConditions.add(c1);
+
+        final Condition c2 = new Condition(snapshot);
+        c2.addEntryAction(id(target));
+        expectedConditions.add(c2);
+    }
+
+    @Override
+    protected void generateExpectedSuperstateExitNested(final State superstate, final State mid) {
+        final Condition c1 = new Condition(snapshot);
+        c1.addExitAction(id(source));
+        c1.addExitAction(id(mid));
+        c1.addExitAction(id(superstate));
+        expectedConditions.add(c1);
+
+        final Condition c2 = new Condition(snapshot);
+        c2.addEntryAction(id(target));
+        expectedConditions.add(c2);
+    }
+
+    @Override
+    protected void generateExpectedSuperstateEntry(final State superstate) {
+        final Condition c1 = new Condition(snapshot);
+        c1.addExitAction(id(source));
+        expectedConditions.add(c1);
+
+        final Condition c2 = new Condition(snapshot);
+        c2.addEntryAction(id(superstate));
+        c2.addEntryAction(id(target));
+        expectedConditions.add(c2);
+    }
+
+    @Override
+    protected void generateExpectedSuperstateEntryNested(final State superstate, final State mid) {
+        final Condition c1 = new Condition(snapshot);
+        c1.addExitAction(id(source));
+        expectedConditions.add(c1);
+
+        final Condition c2 = new Condition(snapshot);
+        c2.addEntryAction(id(superstate));
+        c2.addEntryAction(id(mid));
+        c2.addEntryAction(id(target));
+        expectedConditions.add(c2);
+    }
+
+    @Override
+    protected void generateExpectedSuperstateInitial(final State superstate) {
+        final Condition c1 = new Condition(snapshot);
+        c1.addExitAction(id(source));
+        expectedConditions.add(c1);
+
+        final Condition c2 = new Condition(snapshot);
+        c2.addEntryAction(id(superstate));
+        c2.addEntryAction(id(target));
+        expectedConditions.add(c2);
+    }
+
+    @Override
+    protected void generateExpectedSuperstateInitialNested(final State superstate, final State mid) {
+        final Condition c1 = new Condition(snapshot);
+        c1.addExitAction(id(source));
+        expectedConditions.add(c1);
+
+        final Condition c2 = new Condition(snapshot);
+        c2.addEntryAction(id(superstate));
+        c2.addEntryAction(id(mid));
+        c2.addEntryAction(id(target));
+        expectedConditions.add(c2);
+    }
+
+    @Override
+    protected void generateExpectedFromSubstateInitial() {
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedFromSubstateInitialNested(final State mid) {
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedGroupTransitionExternal(final State superstate) {
+        {
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addExitAction(id(superstate));
+            expectedConditions.add(c);
+        }
+
+        {
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(target));
+            expectedConditions.add(c);
+        }
+    }
+
+    @Override
+    protected void generateExpectedGroupTransitionExternalNested(final State superstate, final State mid) {
+        {
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addExitAction(id(mid));
+            c.addExitAction(id(superstate));
+            expectedConditions.add(c);
+        }
+
+        {
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(target));
+            expectedConditions.add(c);
+        }
+    }
+
+    @Override
+    protected void generateExpectedGroupTransitionLocal(final State superstate) {
+        {
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addDoAction(id(superstate));
+            expectedConditions.add(c);
+        }
+
+        {
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(target));
+            c.addDoAction(id(superstate));
+            expectedConditions.add(c);
+        }
+    }
+
+    @Override
+    protected void generateExpectedGroupTransitionLocalNested(final State superstate, final State mid) {
+        {
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addExitAction(id(mid));
+            c.addDoAction(id(superstate));
+            expectedConditions.add(c);
+        }
+
+        {
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(target));
+            c.addDoAction(id(superstate));
+            expectedConditions.add(c);
+        }
+    }
+
+    @Override
+    protected void generateExpectedGroupTransitionToSuper(final State mid) {
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
+        c.addDoAction(id(target));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedGroupTransitionToSuperInitial(State mid) {
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
+        c.addDoAction(id(target));
+        expectedConditions.add(c);
+    }
+
+    @Override
+    protected void generateExpectedGroupTransitionToSubInitial(State superstate, State substate) {
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(superstate));
+        c.addDoAction(id(source));
+        c.addEntryAction(id(target));
+        c.addEntryAction(id(substate));
+        expectedConditions.add(c);
+    }
+}
@@ -20,7 +20,6 @@
 package org.modelio.logixuml.statemachineaoi;
 
 import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
-import org.modelio.vcore.smkernel.mapi.MRef;
 
 /**
  * This object generates transition condition unit test results for sequential
@@ -29,133 +28,134 @@ import org.modelio.vcore.smkernel.mapi.MRef;
 class TransitionConditionSequentialTests extends TransitionConditionTests {
     @Override
     protected void generateResult() throws ExportException, IgnoreTransitionException {
-        result = new TransitionSequential(transition, getActiveSource());
+        buildSnapshot();
+        result = new TransitionSequential(snapshot, snapshot.getTransitionId(transition), getActiveSource());
     }
 
     @Override
     protected void generateExpectedStateMachineInitialTop() {
-        final Condition c = new Condition();
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedStateMachineInitialSubstate(final State superstate) {
-        final MRef superstateRef = new MRef(superstate);
+        final int superstateRef = id(superstate);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addEntryAction(superstateRef);
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addDoAction(superstateRef);
-        c1.addEntryAction(new MRef(target));
+        c1.addEntryAction(id(target));
         expectedConditions.add(c1);
     }
 
     @Override
     protected void generateExpectedStateMachineInitialSubstateNested(final State superstate, final State mid) {
-        final MRef superstateRef = new MRef(superstate);
-        final MRef midRef = new MRef(mid);
+        final int superstateRef = id(superstate);
+        final int midRef = id(mid);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addEntryAction(superstateRef);
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addDoAction(superstateRef);
         c1.addEntryAction(midRef);
         expectedConditions.add(c1);
 
-        final Condition c2 = new Condition();
+        final Condition c2 = new Condition(snapshot);
         c2.addDoAction(superstateRef);
         c2.addDoAction(midRef);
-        c2.addEntryAction(new MRef(target));
+        c2.addEntryAction(id(target));
         expectedConditions.add(c2);
     }
 
     @Override
     protected void generateExpectedStateMachineInitialSuperstateInitial(final State superstate) {
-        final MRef superstateRef = new MRef(superstate);
+        final int superstateRef = id(superstate);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addEntryAction(superstateRef);
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addDoAction(superstateRef);
-        c1.addEntryAction(new MRef(target));
+        c1.addEntryAction(id(target));
         expectedConditions.add(c1);
     }
 
     @Override
     protected void generateExpectedStateMachineInitialSuperstateInitialNested(final State superstate, final State mid) {
-        final MRef superstateRef = new MRef(superstate);
-        final MRef midRef = new MRef(mid);
+        final int superstateRef = id(superstate);
+        final int midRef = id(mid);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addEntryAction(superstateRef);
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addDoAction(superstateRef);
         c1.addEntryAction(midRef);
         expectedConditions.add(c1);
 
-        final Condition c2 = new Condition();
+        final Condition c2 = new Condition(snapshot);
         c2.addDoAction(superstateRef);
         c2.addDoAction(midRef);
-        c2.addEntryAction(new MRef(target));
+        c2.addEntryAction(id(target));
         expectedConditions.add(c2);
 
     }
 
     @Override
     protected void generateExpectedTopSibling() {
-        final Condition c0 = new Condition();
-        c0.addExitAction(new MRef(source));
+        final Condition c0 = new Condition(snapshot);
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
-        c1.addEntryAction(new MRef(target));
+        final Condition c1 = new Condition(snapshot);
+        c1.addEntryAction(id(target));
         expectedConditions.add(c1);
     }
 
     @Override
     protected void generateExpectedSubstateSibling(final State superstate) {
-        final MRef superstateRef = new MRef(superstate);
+        final int superstateRef = id(superstate);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addDoAction(superstateRef);
-        c0.addExitAction(new MRef(source));
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addDoAction(superstateRef);
-        c1.addEntryAction(new MRef(target));
+        c1.addEntryAction(id(target));
         expectedConditions.add(c1);
     }
 
     @Override
     protected void generateExpectedToSuperstate() {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(target));
-        c.addExitAction(new MRef(source));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedToSuperstateNested(final State mid) {
-        final MRef targetRef = new MRef(target);
-        final MRef midRef = new MRef(mid);
+        final int targetRef = id(target);
+        final int midRef = id(mid);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addDoAction(targetRef);
         c0.addDoAction(midRef);
-        c0.addExitAction(new MRef(source));
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addDoAction(targetRef);
         c1.addExitAction(midRef);
         expectedConditions.add(c1);
@@ -163,178 +163,178 @@ class TransitionConditionSequentialTests extends TransitionConditionTests {
 
     @Override
     protected void generateExpectedToSubstate() {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(source));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(source));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedToSubstateNested(final State mid) {
-        final MRef sourceRef = new MRef(source);
-        final MRef midRef = new MRef(mid);
+        final int sourceRef = id(source);
+        final int midRef = id(mid);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addDoAction(sourceRef);
         c0.addEntryAction(midRef);
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addDoAction(sourceRef);
         c1.addDoAction(midRef);
-        c1.addEntryAction(new MRef(target));
+        c1.addEntryAction(id(target));
         expectedConditions.add(c1);
     }
 
     @Override
     protected void generateExpectedSuperstateExit(final State superstate) {
-        final MRef superstateRef = new MRef(superstate);
+        final int superstateRef = id(superstate);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addDoAction(superstateRef);
-        c0.addExitAction(new MRef(source));
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addExitAction(superstateRef);
         expectedConditions.add(c1);
 
-        final Condition c2 = new Condition();
-        c2.addEntryAction(new MRef(target));
+        final Condition c2 = new Condition(snapshot);
+        c2.addEntryAction(id(target));
         expectedConditions.add(c2);
     }
 
     @Override
     protected void generateExpectedSuperstateExitNested(final State superstate, final State mid) {
-        final MRef superstateRef = new MRef(superstate);
-        final MRef midRef = new MRef(mid);
+        final int superstateRef = id(superstate);
+        final int midRef = id(mid);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addDoAction(superstateRef);
         c0.addDoAction(midRef);
-        c0.addExitAction(new MRef(source));
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addDoAction(superstateRef);
         c1.addExitAction(midRef);
         expectedConditions.add(c1);
 
-        final Condition c2 = new Condition();
+        final Condition c2 = new Condition(snapshot);
         c2.addExitAction(superstateRef);
         expectedConditions.add(c2);
 
-        final Condition c3 = new Condition();
-        c3.addEntryAction(new MRef(target));
+        final Condition c3 = new Condition(snapshot);
+        c3.addEntryAction(id(target));
         expectedConditions.add(c3);
     }
 
     @Override
     protected void generateExpectedSuperstateEntry(final State superstate) {
-        final MRef superstateRef = new MRef(superstate);
+        final int superstateRef = id(superstate);
 
-        final Condition c0 = new Condition();
-        c0.addExitAction(new MRef(source));
+        final Condition c0 = new Condition(snapshot);
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addEntryAction(superstateRef);
         expectedConditions.add(c1);
 
-        final Condition c2 = new Condition();
+        final Condition c2 = new Condition(snapshot);
         c2.addDoAction(superstateRef);
-        c2.addEntryAction(new MRef(target));
+        c2.addEntryAction(id(target));
         expectedConditions.add(c2);
     }
 
     @Override
     protected void generateExpectedSuperstateEntryNested(final State superstate, final State mid) {
-        final MRef superstateRef = new MRef(superstate);
-        final MRef midRef = new MRef(mid);
+        final int superstateRef = id(superstate);
+        final int midRef = id(mid);
 
-        final Condition c0 = new Condition();
-        c0.addExitAction(new MRef(source));
+        final Condition c0 = new Condition(snapshot);
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addEntryAction(superstateRef);
         expectedConditions.add(c1);
 
-        final Condition c2 = new Condition();
+        final Condition c2 = new Condition(snapshot);
         c2.addDoAction(superstateRef);
         c2.addEntryAction(midRef);
         expectedConditions.add(c2);
 
-        final Condition c3 = new Condition();
+        final Condition c3 = new Condition(snapshot);
         c3.addDoAction(superstateRef);
         c3.addDoAction(midRef);
-        c3.addEntryAction(new MRef(target));
+        c3.addEntryAction(id(target));
         expectedConditions.add(c3);
     }
 
     @Override
     protected void generateExpectedSuperstateInitial(final State superstate) {
-        final MRef superstateRef = new MRef(superstate);
+        final int superstateRef = id(superstate);
 
-        final Condition c0 = new Condition();
-        c0.addExitAction(new MRef(source));
+        final Condition c0 = new Condition(snapshot);
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addEntryAction(superstateRef);
         expectedConditions.add(c1);
 
-        final Condition c2 = new Condition();
+        final Condition c2 = new Condition(snapshot);
         c2.addDoAction(superstateRef);
-        c2.addEntryAction(new MRef(target));
+        c2.addEntryAction(id(target));
         expectedConditions.add(c2);
     }
 
     @Override
     protected void generateExpectedSuperstateInitialNested(final State superstate, final State mid) {
-        final MRef superstateRef = new MRef(superstate);
-        final MRef midRef = new MRef(mid);
+        final int superstateRef = id(superstate);
+        final int midRef = id(mid);
 
-        final Condition c0 = new Condition();
-        c0.addExitAction(new MRef(source));
+        final Condition c0 = new Condition(snapshot);
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addEntryAction(superstateRef);
         expectedConditions.add(c1);
 
-        final Condition c2 = new Condition();
+        final Condition c2 = new Condition(snapshot);
         c2.addDoAction(superstateRef);
         c2.addEntryAction(midRef);
         expectedConditions.add(c2);
 
-        final Condition c3 = new Condition();
+        final Condition c3 = new Condition(snapshot);
         c3.addDoAction(superstateRef);
         c3.addDoAction(midRef);
-        c3.addEntryAction(new MRef(target));
+        c3.addEntryAction(id(target));
         expectedConditions.add(c3);
     }
 
     @Override
     protected void generateExpectedFromSubstateInitial() {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(target));
-        c.addExitAction(new MRef(source));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedFromSubstateInitialNested(final State mid) {
-        final MRef targetRef = new MRef(target);
-        final MRef midRef = new MRef(mid);
+        final int targetRef = id(target);
+        final int midRef = id(mid);
 
-        final Condition c0 = new Condition();
+        final Condition c0 = new Condition(snapshot);
         c0.addDoAction(targetRef);
         c0.addDoAction(midRef);
-        c0.addExitAction(new MRef(source));
+        c0.addExitAction(id(source));
         expectedConditions.add(c0);
 
-        final Condition c1 = new Condition();
+        final Condition c1 = new Condition(snapshot);
         c1.addDoAction(targetRef);
         c1.addExitAction(midRef);
         expectedConditions.add(c1);
@@ -343,21 +343,21 @@ class TransitionConditionSequentialTests extends TransitionConditionTests {
     @Override
     protected void generateExpectedGroupTransitionExternal(final State superstate) {
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(source));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(superstate));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addEntryAction(new MRef(target));
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(target));
             expectedConditions.add(c);
         }
     }
@@ -365,29 +365,29 @@ class TransitionConditionSequentialTests extends TransitionConditionTests {
     @Override
     protected void generateExpectedGroupTransitionExternalNested(final State superstate, final State mid) {
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(source));
-            c.addDoAction(new MRef(mid));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addDoAction(id(mid));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(mid));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(mid));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(superstate));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addEntryAction(new MRef(target));
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(target));
             expectedConditions.add(c);
         }
     }
@@ -395,16 +395,16 @@ class TransitionConditionSequentialTests extends TransitionConditionTests {
     @Override
     protected void generateExpectedGroupTransitionLocal(final State superstate) {
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(source));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addEntryAction(new MRef(target));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(target));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
     }
@@ -412,24 +412,24 @@ class TransitionConditionSequentialTests extends TransitionConditionTests {
     @Override
     protected void generateExpectedGroupTransitionLocalNested(final State superstate, final State mid) {
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(source));
-            c.addDoAction(new MRef(mid));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addDoAction(id(mid));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(mid));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(mid));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addEntryAction(new MRef(target));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(target));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
     }
@@ -437,17 +437,17 @@ class TransitionConditionSequentialTests extends TransitionConditionTests {
     @Override
     protected void generateExpectedGroupTransitionToSuper(final State mid) {
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(source));
-            c.addDoAction(new MRef(mid));
-            c.addDoAction(new MRef(target));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addDoAction(id(mid));
+            c.addDoAction(id(target));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(mid));
-            c.addDoAction(new MRef(target));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(mid));
+            c.addDoAction(id(target));
             expectedConditions.add(c);
         }
     }
@@ -455,17 +455,17 @@ class TransitionConditionSequentialTests extends TransitionConditionTests {
     @Override
     protected void generateExpectedGroupTransitionToSuperInitial(State mid) {
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(source));
-            c.addDoAction(new MRef(mid));
-            c.addDoAction(new MRef(target));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(source));
+            c.addDoAction(id(mid));
+            c.addDoAction(id(target));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addExitAction(new MRef(mid));
-            c.addDoAction(new MRef(target));
+            final Condition c = new Condition(snapshot);
+            c.addExitAction(id(mid));
+            c.addDoAction(id(target));
             expectedConditions.add(c);
         }
     }
@@ -473,19 +473,19 @@ class TransitionConditionSequentialTests extends TransitionConditionTests {
     @Override
     protected void generateExpectedGroupTransitionToSubInitial(State superstate, State substate) {
         {
-            final Condition c = new Condition();
-            c.addEntryAction(new MRef(substate));
-            c.addDoAction(new MRef(source));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(substate));
+            c.addDoAction(id(source));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
 
         {
-            final Condition c = new Condition();
-            c.addEntryAction(new MRef(target));
-            c.addDoAction(new MRef(substate));
-            c.addDoAction(new MRef(source));
-            c.addDoAction(new MRef(superstate));
+            final Condition c = new Condition(snapshot);
+            c.addEntryAction(id(target));
+            c.addDoAction(id(substate));
+            c.addDoAction(id(source));
+            c.addDoAction(id(superstate));
             expectedConditions.add(c);
         }
     }
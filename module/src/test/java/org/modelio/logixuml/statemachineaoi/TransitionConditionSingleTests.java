@@ -20,7 +20,6 @@
 package org.modelio.logixuml.statemachineaoi;
 
 import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
-import org.modelio.vcore.smkernel.mapi.MRef;
 
 /**
  * This object generates transition condition unit test results for single scan
@@ -29,238 +28,239 @@ import org.modelio.vcore.smkernel.mapi.MRef;
 class TransitionConditionSingleTests extends TransitionConditionTests {
     @Override
     protected void generateResult() throws ExportException, IgnoreTransitionException {
-        result = new TransitionSingle(transition, getActiveSource());
+        buildSnapshot();
+        result = new TransitionSingle(snapshot, snapshot.getTransitionId(transition), getActiveSource());
     }
 
     @Override
     protected void generateExpectedStateMachineInitialTop() {
-        final Condition c = new Condition();
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedStateMachineInitialSubstate(final State superstate) {
-        final Condition c = new Condition();
-        c.addEntryAction(new MRef(superstate));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedStateMachineInitialSubstateNested(final State superstate, final State mid) {
-        final Condition c = new Condition();
-        c.addEntryAction(new MRef(superstate));
-        c.addEntryAction(new MRef(mid));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(mid));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedStateMachineInitialSuperstateInitial(final State superstate) {
-        final Condition c = new Condition();
-        c.addEntryAction(new MRef(superstate));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedStateMachineInitialSuperstateInitialNested(final State superstate, final State mid) {
-        final Condition c = new Condition();
-        c.addEntryAction(new MRef(superstate));
-        c.addEntryAction(new MRef(mid));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(mid));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedTopSibling() {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedSubstateSibling(final State superstate) {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(superstate));
-        c.addExitAction(new MRef(source));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(superstate));
+        c.addExitAction(id(source));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedToSuperstate() {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(target));
-        c.addExitAction(new MRef(source));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedToSuperstateNested(final State mid) {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(target));
-        c.addExitAction(new MRef(source));
-        c.addExitAction(new MRef(mid));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedToSubstate() {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(source));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(source));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedToSubstateNested(final State mid) {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(source));
-        c.addEntryAction(new MRef(mid));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(source));
+        c.addEntryAction(id(mid));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedSuperstateExit(final State superstate) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addExitAction(new MRef(superstate));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addExitAction(id(superstate));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedSuperstateExitNested(final State superstate, final State mid) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addExitAction(new MRef(mid));
-        c.addExitAction(new MRef(superstate));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
+        c.addExitAction(id(superstate));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedSuperstateEntry(final State superstate) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addEntryAction(new MRef(superstate));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedSuperstateEntryNested(final State superstate, final State mid) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addEntryAction(new MRef(superstate));
-        c.addEntryAction(new MRef(mid));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(mid));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedSuperstateInitial(final State superstate) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addEntryAction(new MRef(superstate));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedSuperstateInitialNested(final State superstate, final State mid) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addEntryAction(new MRef(superstate));
-        c.addEntryAction(new MRef(mid));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addEntryAction(id(superstate));
+        c.addEntryAction(id(mid));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedFromSubstateInitial() {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(target));
-        c.addExitAction(new MRef(source));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedFromSubstateInitialNested(final State mid) {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(target));
-        c.addExitAction(new MRef(source));
-        c.addExitAction(new MRef(mid));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(target));
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedGroupTransitionExternal(final State superstate) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addExitAction(new MRef(superstate));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addExitAction(id(superstate));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedGroupTransitionExternalNested(final State superstate, final State mid) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addExitAction(new MRef(mid));
-        c.addExitAction(new MRef(superstate));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
+        c.addExitAction(id(superstate));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedGroupTransitionLocal(final State superstate) {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(superstate));
-        c.addExitAction(new MRef(source));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(superstate));
+        c.addExitAction(id(source));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedGroupTransitionLocalNested(final State superstate, final State mid) {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(superstate));
-        c.addExitAction(new MRef(source));
-        c.addExitAction(new MRef(mid));
-        c.addEntryAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(superstate));
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
+        c.addEntryAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedGroupTransitionToSuper(final State mid) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addExitAction(new MRef(mid));
-        c.addDoAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
+        c.addDoAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedGroupTransitionToSuperInitial(State mid) {
-        final Condition c = new Condition();
-        c.addExitAction(new MRef(source));
-        c.addExitAction(new MRef(mid));
-        c.addDoAction(new MRef(target));
+        final Condition c = new Condition(snapshot);
+        c.addExitAction(id(source));
+        c.addExitAction(id(mid));
+        c.addDoAction(id(target));
         expectedConditions.add(c);
     }
 
     @Override
     protected void generateExpectedGroupTransitionToSubInitial(State superstate, State substate) {
-        final Condition c = new Condition();
-        c.addDoAction(new MRef(superstate));
-        c.addDoAction(new MRef(source));
-        c.addEntryAction(new MRef(target));
-        c.addEntryAction(new MRef(substate));
+        final Condition c = new Condition(snapshot);
+        c.addDoAction(id(superstate));
+        c.addDoAction(id(source));
+        c.addEntryAction(id(target));
+        c.addEntryAction(id(substate));
         expectedConditions.add(c);
     }
 }
\ No newline at end of file
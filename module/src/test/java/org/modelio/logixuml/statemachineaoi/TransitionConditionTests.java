@@ -34,7 +34,7 @@ import org.modelio.metamodel.uml.behavior.stateMachineModel.State;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.StateMachine;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.StateVertex;
 import org.modelio.metamodel.uml.behavior.stateMachineModel.Transition;
-import org.modelio.vcore.smkernel.mapi.MRef;
+import org.modelio.vcore.smkernel.mapi.MObject;
 
 /**
  * This object defines transition condition unit tests that are run in each scan
@@ -80,10 +80,13 @@ abstract class TransitionConditionTests {
      */
     protected Transition transition;
 
+    /**
+     * Snapshot of the completed mock model, taken by generateResult().
+     */
+    protected ModelSnapshot snapshot;
+
     @BeforeEach
     void setup() {
-        MockModule.init();
-
         // Initialize root model objects.
         stateMachine = MockModel.stateMachine("sm", null);
         top = MockModel.region(stateMachine);
@@ -92,15 +95,33 @@ abstract class TransitionConditionTests {
     }
 
     /**
-     * Determines the model object representing the lowest-level state active at the
-     * start of the test transition. This will be the source vertex except for
-     * transitions originating from a state machine's initial transition.
+     * Takes a snapshot of the completed mock model. Called by subclasses before
+     * generating the result.
+     */
+    protected void buildSnapshot() throws ExportException {
+        snapshot = ModelioModelReader.read(stateMachine);
+    }
+
+    /**
+     * Looks up the snapshot identifier of a mock state.
+     *
+     * @param state Mock state model object.
+     * @return The state identifier.
+     */
+    protected int id(final MObject state) {
+        return snapshot.getStateId(state);
+    }
+
+    /**
+     * Determines the identifier of the lowest-level state active at the start of
+     * the test transition. This will be the source vertex except for transitions
+     * originating from a state machine's initial transition.
      *
-     * @return Starting source state.
+     * @return Starting source state identifier, or NONE.
      */
-    protected State getActiveSource() {
+    protected int getActiveSource() {
         final Boolean sourceIsState = source.getMClass().getQualifiedName().equals(State.MQNAME);
-        return sourceIsState ? (State) source : null;
+        return sourceIsState ? id(source) : ModelSnapshot.NONE;
     }
 
     /**
@@ -854,10 +875,10 @@ abstract class TransitionConditionTests {
      * all scan modes will yield the same result.
      */
     private void generateExpectedGroupTransitionToSub(final State superstate) {
-        final Condition c = new Condition();
-        c.addEntryAction(new MRef(target));
-        c.addDoAction(new MRef(source));
-        c.addDoAction(new MRef(superstate));
+        final Condition c = new Condition(snapshot);
+        c.addEntryAction(id(target));
+        c.addDoAction(id(source));
+        c.addDoAction(id(superstate));
         expectedConditions.add(c);
     }
 
@@ -899,7 +920,7 @@ abstract class TransitionConditionTests {
     protected void assertCorrectResult() {
         // Confirm the target state is the same.
         if (target != null) {
-            assertEquals(new MRef(target), result.getTarget(), "Target state differs.");
+            assertEquals(id(target), result.getTarget(), "Target state differs.");
         } else {
             // An undefined target must be accompanied by an empty list of expected
             // conditions. This assertion is a sanity check for the target and
@@ -173,7 +173,8 @@ class UnsupportedElementTests {
      * @param obj The target unsupported model object.
      */
     private void assertException(final MObject obj) {
-        ExportException e = assertThrows(ExportException.class, () -> new StateMachineAoi(stateMachine));
+        ExportException e = assertThrows(ExportException.class,
+                () -> new StateMachineAoi(ModelioModelReader.read(stateMachine)));
 
         // Confirm the exception message includes the name of the model object.
         assertTrue(e.getMessage().contains(obj.getMClass().getName()));